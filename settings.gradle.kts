@@ -51,6 +51,7 @@ include(":wire-grpc-tests")
 include(":wire-gson-support")
 include(":wire-gson-support-test")
 include(":wire-java-generator")
+include(":wire-json")
 include(":wire-kotlin-generator")
 include(":wire-moshi-adapter")
 include(":wire-moshi-adapter-test")
@@ -69,7 +70,9 @@ include(":wire-test-utils")
 include(":wire-tests:jvm-annotations-interop")
 include(":wire-tests:jvm-java-kotlin")
 include(":wire-tests:jvm-json-java")
+include(":wire-tests:jvm-json-java-codecs")
 include(":wire-tests:jvm-json-kotlin")
+include(":wire-tests:jvm-json-kotlin-codecs")
 include(":wire-tests:jvm-kotlin-interop")
 include(":wire-tests:jvm-kotlin-proto-reader-32")
 include(":wire-tests:multiplatform")
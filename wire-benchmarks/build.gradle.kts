@@ -26,6 +26,11 @@ protobuf {
 }
 
 wire {
+  kotlin {
+    includes = listOf("squareup.wire.benchmarks.codecs.*")
+    emitJsonCodecs = true
+  }
+
   kotlin {
   }
 }
@@ -43,8 +48,11 @@ dependencies {
   jmh(libs.jmh.generator)
 
   protobuf(projects.wireSchema)
+  implementation(projects.wireGsonSupport)
+  implementation(projects.wireJson)
   implementation(projects.wireMoshiAdapter)
   implementation(projects.wireRuntime)
+  implementation(libs.gson)
   implementation(libs.okio.core)
   implementation(libs.protobuf.java)
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks
+
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.Moshi
+import com.squareup.wire.WireJsonAdapterFactory
+import com.squareup.wire.WireTypeAdapterFactory
+import com.squareup.wire.durationOfSeconds
+import com.squareup.wire.ofEpochSecond
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import squareup.wire.benchmarks.Event
+import squareup.wire.benchmarks.EventLog
+import squareup.wire.benchmarks.codecs.EventLog as CodecEventLog
+
+/**
+ * Encodes and decodes the same JSON with Moshi and Gson twice: once with messages that read their
+ * fields by reflection, and once with messages generated with `emitJsonCodecs`.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class JsonCodecBenchmark {
+  private lateinit var moshiAdapter: JsonAdapter<EventLog>
+  private lateinit var moshiCodecAdapter: JsonAdapter<CodecEventLog>
+  private lateinit var gson: Gson
+  private lateinit var eventLog: EventLog
+  private lateinit var codecEventLog: CodecEventLog
+  private lateinit var json: String
+
+  @Setup fun setup() {
+    val moshi = Moshi.Builder()
+      .add(WireJsonAdapterFactory())
+      .build()
+    moshiAdapter = moshi.adapter(EventLog::class.java)
+    moshiCodecAdapter = moshi.adapter(CodecEventLog::class.java)
+    gson = GsonBuilder()
+      .registerTypeAdapterFactory(WireTypeAdapterFactory())
+      .disableHtmlEscaping()
+      .create()
+
+    val random = Random(0)
+    eventLog = EventLog(
+      events = List(1_000) {
+        val createdAt = random.nextLong(1_500_000_000L, 1_800_000_000L)
+        Event(
+          created_at = ofEpochSecond(createdAt, random.nextLong(1_000L) * 1_000_000L),
+          updated_at = ofEpochSecond(createdAt + random.nextLong(86_400L), random.nextLong(1_000_000_000L)),
+          elapsed = durationOfSeconds(random.nextLong(3_600L), random.nextLong(1_000L) * 1_000L),
+          id = random.nextLong(),
+          account_id = random.nextLong(),
+          sequence = random.nextLong(),
+          tag_ids = List(8) { random.nextLong(1L shl 53) },
+        )
+      },
+    )
+    codecEventLog = CodecEventLog.ADAPTER.decode(eventLog.encode())
+    json = moshiAdapter.toJson(eventLog)
+  }
+
+  @Benchmark fun encodeMoshiReflection(): String = moshiAdapter.toJson(eventLog)
+
+  @Benchmark fun encodeMoshiCodec(): String = moshiCodecAdapter.toJson(codecEventLog)
+
+  @Benchmark fun decodeMoshiReflection(): EventLog = moshiAdapter.fromJson(json)!!
+
+  @Benchmark fun decodeMoshiCodec(): CodecEventLog = moshiCodecAdapter.fromJson(json)!!
+
+  @Benchmark fun encodeGsonReflection(): String = gson.toJson(eventLog)
+
+  @Benchmark fun encodeGsonCodec(): String = gson.toJson(codecEventLog)
+
+  @Benchmark fun decodeGsonReflection(): EventLog = gson.fromJson(json, EventLog::class.java)
+
+  @Benchmark fun decodeGsonCodec(): CodecEventLog = gson.fromJson(json, CodecEventLog::class.java)
+}
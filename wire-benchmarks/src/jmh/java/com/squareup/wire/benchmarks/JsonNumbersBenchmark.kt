@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks
+
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.Moshi
+import com.squareup.wire.ProtoJson
+import com.squareup.wire.ProtoJsonAdapter
+import com.squareup.wire.WireJsonAdapterFactory
+import com.squareup.wire.WireTypeAdapterFactory
+import com.squareup.wire.durationOfSeconds
+import com.squareup.wire.ofEpochSecond
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import squareup.wire.benchmarks.Event
+import squareup.wire.benchmarks.EventLog
+
+/**
+ * Encodes and decodes JSON that is mostly timestamps, durations, and 64-bit integers. ProtoJSON
+ * writes each of these as a string. Run with JMH's `-prof gc` profiler to compare how much each
+ * JSON library allocates per value.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class JsonNumbersBenchmark {
+  private lateinit var moshiAdapter: JsonAdapter<EventLog>
+  private lateinit var gson: Gson
+  private lateinit var protoJsonAdapter: ProtoJsonAdapter<EventLog>
+  private lateinit var eventLog: EventLog
+  private lateinit var json: String
+
+  @Setup fun setup() {
+    moshiAdapter = Moshi.Builder()
+      .add(WireJsonAdapterFactory())
+      .build()
+      .adapter(EventLog::class.java)
+    gson = GsonBuilder()
+      .registerTypeAdapterFactory(WireTypeAdapterFactory())
+      .disableHtmlEscaping()
+      .create()
+    protoJsonAdapter = ProtoJson().adapter(EventLog::class.java)
+
+    val random = Random(0)
+    eventLog = EventLog(
+      events = List(1_000) {
+        val createdAt = random.nextLong(1_500_000_000L, 1_800_000_000L)
+        Event(
+          created_at = ofEpochSecond(createdAt, random.nextLong(1_000L) * 1_000_000L),
+          updated_at = ofEpochSecond(createdAt + random.nextLong(86_400L), random.nextLong(1_000_000_000L)),
+          elapsed = durationOfSeconds(random.nextLong(3_600L), random.nextLong(1_000L) * 1_000L),
+          id = random.nextLong(),
+          account_id = random.nextLong(),
+          sequence = random.nextLong(),
+          tag_ids = List(8) { random.nextLong(1L shl 53) },
+        )
+      },
+    )
+    json = protoJsonAdapter.encode(eventLog)
+  }
+
+  @Benchmark fun encodeMoshi(): String = moshiAdapter.toJson(eventLog)
+
+  @Benchmark fun decodeMoshi(): EventLog = moshiAdapter.fromJson(json)!!
+
+  @Benchmark fun encodeGson(): String = gson.toJson(eventLog)
+
+  @Benchmark fun decodeGson(): EventLog = gson.fromJson(json, EventLog::class.java)
+
+  @Benchmark fun encodeProtoJson(): String = protoJsonAdapter.encode(eventLog)
+
+  @Benchmark fun decodeProtoJson(): EventLog = protoJsonAdapter.decode(json)
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks
+
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import squareup.wire.benchmarks.EmailMessage as EmailMessageWire
+import squareup.wire.benchmarks.EmailMessageProto.EmailMessage as EmailMessageProtobuf
+
+/**
+ * Decodes, copies, and encodes a message with a 100k-element repeated field. Run with JMH's `-prof gc`
+ * profiler and compare `gc.alloc.rate.norm` to see how many bytes each operation allocates.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class LargeRepeatedFieldBenchmark {
+  private val parallelAdapter = EmailMessageWire.ADAPTER.parallelEncoding()
+  private lateinit var message: EmailMessageWire
+  private lateinit var bytes: ByteArray
+
+  @Setup fun setup() {
+    message = EmailMessageWire(
+      subject = "Newsletter",
+      recipients = List(100_000) { SampleData.newRecipientWire() },
+    )
+    bytes = message.encode()
+  }
+
+  @Benchmark fun decodeWire(): EmailMessageWire = EmailMessageWire.ADAPTER.decode(bytes)
+
+  /** Updating one field shares the untouched repeated field with the original message. */
+  @Benchmark fun copyWire(): EmailMessageWire = message.copy(subject = "Re: Newsletter")
+
+  @Benchmark fun encodeWire(): ByteArray = EmailMessageWire.ADAPTER.encode(message)
+
+  /** Encodes the repeated field in chunks on the common fork/join pool. */
+  @Benchmark fun encodeWireParallel(): ByteArray = parallelAdapter.encode(message)
+
+  @Benchmark fun decodeProtobuf(): EmailMessageProtobuf = EmailMessageProtobuf.parseFrom(bytes)
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks
+
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import squareup.wire.benchmarks.EmailMessage as EmailMessageWire
+
+/**
+ * Uses large messages as [HashMap] keys, like a dedup map does. Each key has 100 recipients and
+ * lookups use equal but separately-decoded keys, so every hit walks both messages in `equals()`.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class MessageEqualityBenchmark {
+  private lateinit var map: HashMap<EmailMessageWire, Int>
+  private lateinit var lookupKeys: List<EmailMessageWire>
+  private lateinit var missingKeys: List<EmailMessageWire>
+
+  @Setup fun setup() {
+    val keys = List(1_000) { newMessage(subject = "Newsletter $it") }
+    map = HashMap()
+    for ((index, key) in keys.withIndex()) {
+      map[key] = index
+    }
+    lookupKeys = keys.map { EmailMessageWire.ADAPTER.decode(it.encode()) }
+    // These differ from the keys only in their last recipient.
+    missingKeys = keys.map { key ->
+      key.copy(recipients = key.recipients.dropLast(1) + SampleData.newSenderWire())
+    }
+    for (key in lookupKeys + missingKeys) {
+      key.hashCode()
+    }
+  }
+
+  private fun newMessage(subject: String) = EmailMessageWire(
+    subject = subject,
+    sender = SampleData.newSenderWire(),
+    recipients = List(100) { SampleData.newRecipientWire() },
+  )
+
+  @Benchmark fun hashMapHits(): Int {
+    var sum = 0
+    for (key in lookupKeys) {
+      sum += map[key]!!
+    }
+    return sum
+  }
+
+  @Benchmark fun hashMapMisses(): Int {
+    var count = 0
+    for (key in missingKeys) {
+      if (map.containsKey(key)) count++
+    }
+    return count
+  }
+
+  /** Compares messages that differ deep inside; their cached hash codes differ too. */
+  @Benchmark fun equalsWithCachedHashCodes(): Int {
+    var count = 0
+    for (i in missingKeys.indices) {
+      if (missingKeys[i] == lookupKeys[i]) count++
+    }
+    return count
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+import java.util.stream.Collectors
+import java.util.stream.StreamSupport
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import squareup.wire.benchmarks.EmailSearchResponse as EmailSearchResponseWire
+
+/**
+ * Decodes a batch of 10k independent messages, sequentially and with [ForkJoinPool]s of
+ * increasing parallelism. Plot the scores against [parallelism] to see how decoding scales with
+ * core count on the host.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class ParallelDecodeBenchmark {
+  @Param("1", "2", "4", "8", "16")
+  var parallelism: Int = 0
+
+  private lateinit var pool: ForkJoinPool
+  private lateinit var batch: List<ByteArray>
+
+  @Setup fun setup() {
+    pool = ForkJoinPool(parallelism)
+    val encoded = SampleData.newMediumValueWire().encode()
+    batch = List(10_000) { encoded.copyOf() }
+  }
+
+  @TearDown fun tearDown() {
+    pool.shutdown()
+  }
+
+  @Benchmark fun decodeSequential(): List<EmailSearchResponseWire> =
+    batch.map { EmailSearchResponseWire.ADAPTER.decode(it) }
+
+  @Benchmark fun decodeAll(): List<EmailSearchResponseWire> =
+    EmailSearchResponseWire.ADAPTER.decodeAll(batch, pool)
+
+  /** Parallel streams run on the pool that starts them, so submit the stream to [pool]. */
+  @Benchmark fun decodeParallelStream(): List<EmailSearchResponseWire> = pool.submit(
+    Callable {
+      StreamSupport.stream(EmailSearchResponseWire.ADAPTER.decodeSpliterator(batch), true)
+        .collect(Collectors.toList())
+    },
+  ).get()
+}
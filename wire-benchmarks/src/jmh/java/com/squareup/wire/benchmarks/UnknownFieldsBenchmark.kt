@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks
+
+import com.squareup.wire.ProtoAdapter
+import com.squareup.wire.ProtoReader32
+import com.squareup.wire.ProtoWriter
+import java.util.concurrent.TimeUnit
+import okio.Buffer
+import okio.ByteString
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import squareup.wire.benchmarks.EmailMessage as EmailMessageWire
+
+/**
+ * Decodes a message written by a newer producer: each of its 1,000 recipients carries fields that
+ * this schema doesn't know. Run with JMH's `-prof gc` profiler. The difference in
+ * `gc.alloc.rate.norm` between the retaining and discarding benchmarks is the heap that retained
+ * unknown fields cost: each message's unknown fields are adjacent, so they're copied once from the
+ * source into the byte string that the message keeps, and nothing else is allocated for them.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class UnknownFieldsBenchmark {
+  private val discardingAdapter = EmailMessageWire.ADAPTER.discardingUnknownFields()
+  private lateinit var bytes: ByteArray
+
+  @Setup fun setup() {
+    val unknownFields = newUnknownFields()
+    val message = EmailMessageWire(
+      subject = "Newsletter",
+      recipients = List(1_000) { SampleData.newRecipientWire().copy(unknownFields = unknownFields) },
+      unknownFields = unknownFields,
+    )
+    bytes = message.encode()
+  }
+
+  /** Returns fields 100 through 109, which are not in the benchmark schema. */
+  private fun newUnknownFields(): ByteString {
+    val buffer = Buffer()
+    val writer = ProtoWriter(buffer)
+    for (tag in 100 until 110) {
+      ProtoAdapter.STRING.encodeWithTag(writer, tag, "field added in a later schema version")
+    }
+    return buffer.readByteString()
+  }
+
+  @Benchmark fun decodeRetainingUnknownFields(): EmailMessageWire = EmailMessageWire.ADAPTER.decode(bytes)
+
+  @Benchmark fun decodeDiscardingUnknownFields(): EmailMessageWire = discardingAdapter.decode(bytes)
+
+  @Benchmark fun decodeWithDiscardingReader(): EmailMessageWire =
+    EmailMessageWire.ADAPTER.decode(ProtoReader32(bytes, discardUnknownFields = true))
+}
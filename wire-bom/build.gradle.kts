@@ -13,6 +13,7 @@ dependencies {
     api(projects.wireGrpcMockwebserver)
     api(projects.wireGsonSupport)
     api(projects.wireJavaGenerator)
+    api(projects.wireJson)
     api(projects.wireKotlinGenerator)
     api(projects.wireMoshiAdapter)
     api(projects.wireReflector)
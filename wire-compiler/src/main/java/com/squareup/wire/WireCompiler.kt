@@ -61,6 +61,7 @@ import okio.openZip
  *   [--android]
  *   [--android-annotations]
  *   [--compact]
+ *   [--emit_json_codecs]
  *   [--custom_option=<key>,<value>]
  *   [file [file...]]
  * ```
@@ -77,6 +78,9 @@ import okio.openZip
  * (default) to generate each oneof field as a separate nullable property, `boxed` to generate
  * boxed oneofs, or `sealed_class` to generate a nested sealed class with a data class per field.
  *
+ * `--emit_json_codecs` generates a `JSON_CODEC` for each message so that Wire's Moshi and Gson
+ * adapters can read and write its fields without reflection.
+ *
  * `--swift_out` should provide the folder where the files generated by the Swift code generator
  * should be placed.
  *
@@ -161,6 +165,7 @@ class WireCompiler internal constructor(
   val eventListenerFactoryClasses: List<String>,
   val customOptions: Map<String, String>,
   val opaqueTypes: List<String> = listOf(),
+  val emitJsonCodecs: Boolean = false,
 ) {
 
   @Throws(IOException::class)
@@ -181,6 +186,7 @@ class WireCompiler internal constructor(
         emitDeclaredOptions = emitDeclaredOptions,
         emitAppliedOptions = emitAppliedOptions,
         exclusive = javaExclusive,
+        emitJsonCodecs = emitJsonCodecs,
       )
     }
     if (kotlinOut != null) {
@@ -202,6 +208,7 @@ class WireCompiler internal constructor(
         explicitStreamingCalls = kotlinExplicitStreamingCalls,
         enumMode = kotlinEnumMode,
         oneofMode = kotlinOneofMode,
+        emitJsonCodecs = emitJsonCodecs,
       )
     }
     if (swiftOut != null) {
@@ -312,6 +319,7 @@ class WireCompiler internal constructor(
     private const val KOTLIN_BUILDERS_ONLY = "--kotlin_builders_only"
     private const val KOTLIN_ESCAPE_KEYWORDS = "--kotlin_escape_keywords"
     private const val EMIT_PROTO_READER_32 = "--emit_proto_reader_32"
+    private const val EMIT_JSON_CODECS = "--emit_json_codecs"
     private const val KOTLIN_ENUM_MODE = "--kotlin_enum_mode="
     private const val KOTLIN_ONEOF_MODE = "--kotlin_oneof_mode="
     private const val CUSTOM_OPTION_FLAG = "--custom_option="
@@ -379,6 +387,7 @@ class WireCompiler internal constructor(
       var kotlinBuildersOnly = false
       var kotlinEscapeKeywords = false
       var emitProtoReader32 = false
+      var emitJsonCodecs = false
       var kotlinEnumMode = EnumMode.ENUM_CLASS
       var kotlinOneofMode = OneofMode.FLAT
       var kotlinExplicitStreamingCalls = false
@@ -511,6 +520,7 @@ class WireCompiler internal constructor(
           arg == LOAD_EXHAUSTIVELY -> loadExhaustively = true
           arg == JAVA_INTEROP -> javaInterop = true
           arg == EMIT_PROTO_READER_32 -> emitProtoReader32 = true
+          arg == EMIT_JSON_CODECS -> emitJsonCodecs = true
           arg == KOTLIN_EXPLICIT_STREAMING_CALLS -> kotlinExplicitStreamingCalls = true
           arg == IGNORE_UNUSED_ROOTS_AND_PRUNES -> rejectUnusedRootsOrPrunes = false
           arg.startsWith("--") -> throw IllegalArgumentException("Unknown argument '$arg'.")
@@ -571,6 +581,7 @@ class WireCompiler internal constructor(
         opaqueTypes = opaqueTypes,
         rejectUnusedRootsOrPrunes = rejectUnusedRootsOrPrunes,
         kotlinExplicitStreamingCalls = kotlinExplicitStreamingCalls,
+        emitJsonCodecs = emitJsonCodecs,
       )
     }
   }
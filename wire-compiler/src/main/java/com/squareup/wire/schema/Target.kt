@@ -54,6 +54,12 @@ data class JavaTarget(
 
   /** If true, the constructor of all generated types will be non-public. */
   val buildersOnly: Boolean = false,
+
+  /**
+   * If true, each generated message gets a `JSON_CODEC` that reads and writes its fields without
+   * reflection. `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+   */
+  val emitJsonCodecs: Boolean = false,
 ) : Target() {
   override fun newHandler(): SchemaHandler = JavaSchemaHandler(
     android = android,
@@ -62,6 +68,7 @@ data class JavaTarget(
     emitDeclaredOptions = emitDeclaredOptions,
     emitAppliedOptions = emitAppliedOptions,
     buildersOnly = buildersOnly,
+    emitJsonCodecs = emitJsonCodecs,
   )
 
   override fun copyTarget(
@@ -163,6 +170,11 @@ data class KotlinTarget(
    * critical usages.
    */
   private val makeImmutableCopies: Boolean = true,
+  /**
+   * If true, each generated message gets a `JSON_CODEC` that reads and writes its fields without
+   * reflection. `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+   */
+  private val emitJsonCodecs: Boolean = false,
 ) : Target() {
   override fun newHandler(): SchemaHandler = KotlinSchemaHandler(
     outDirectory = outDirectory,
@@ -183,6 +195,7 @@ data class KotlinTarget(
     mutableTypes = mutableTypes,
     explicitStreamingCalls = explicitStreamingCalls,
     makeImmutableCopies = makeImmutableCopies,
+    emitJsonCodecs = emitJsonCodecs,
   )
 
   override fun copyTarget(
@@ -1080,6 +1080,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
     if (other == this) return true;
     if (!(other instanceof AllTypes)) return false;
     AllTypes o = (AllTypes) other;
+    if (super.hashCode != 0 && o.hashCode != 0 && super.hashCode != o.hashCode) return false;
     return unknownFields().equals(o.unknownFields())
         && Internal.equals(int32, o.int32)
         && Internal.equals(uint32, o.uint32)
@@ -2390,6 +2391,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
       if (other == this) return true;
       if (!(other instanceof NestedMessage)) return false;
       NestedMessage o = (NestedMessage) other;
+      if (super.hashCode != 0 && o.hashCode != 0 && super.hashCode != o.hashCode) return false;
       return unknownFields().equals(o.unknownFields())
           && Internal.equals(a, o.a);
     }
@@ -2475,9 +2477,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
 
       @Override
       public NestedMessage redact(NestedMessage value) {
-        Builder builder = value.newBuilder();
-        builder.clearUnknownFields();
-        return builder.build();
+        return value;
       }
     }
   }
@@ -2906,7 +2906,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
             try {
               builder.nested_enum(NestedEnum.ADAPTER.decode(reader));
             } catch (ProtoAdapter.EnumConstantNotFoundException e) {
-              builder.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
+              reader.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
             }
             break;
           }
@@ -2953,7 +2953,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
             try {
               builder.rep_nested_enum.add(NestedEnum.ADAPTER.decode(reader));
             } catch (ProtoAdapter.EnumConstantNotFoundException e) {
-              builder.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
+              reader.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
             }
             break;
           }
@@ -2983,7 +2983,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
             try {
               NestedEnum.ADAPTER.tryDecode(reader, builder.pack_nested_enum);
             } catch (ProtoAdapter.EnumConstantNotFoundException e) {
-              builder.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
+              reader.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
             }
             break;
           }
@@ -3020,38 +3020,16 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
 
     @Override
     public AllTypes redact(AllTypes value) {
+      AnyMessage any = value.any != null ? AnyMessage.ADAPTER.redact(value.any) : null;
+      List<AnyMessage> rep_any = Internal.redactedElements(value.rep_any, AnyMessage.ADAPTER);
+      Map<Integer, AnyMessage> map_int32_any = Internal.redactedElements(value.map_int32_any, AnyMessage.ADAPTER);
+      AnyMessage oneof_any = value.oneof_any != null ? AnyMessage.ADAPTER.redact(value.oneof_any) : null;
+      if (any == value.any && rep_any == value.rep_any && map_int32_any == value.map_int32_any && oneof_any == value.oneof_any && value.unknownFields().size() == 0) return value;
       Builder builder = value.newBuilder();
-      if (builder.nested_message != null) builder.nested_message = NestedMessage.ADAPTER.redact(builder.nested_message);
-      if (builder.any != null) builder.any = AnyMessage.ADAPTER.redact(builder.any);
-      if (builder.duration != null) builder.duration = ProtoAdapter.DURATION.redact(builder.duration);
-      if (builder.struct != null) builder.struct = ProtoAdapter.STRUCT_MAP.redact(builder.struct);
-      if (builder.list_value != null) builder.list_value = ProtoAdapter.STRUCT_LIST.redact(builder.list_value);
-      if (builder.value != null) builder.value = ProtoAdapter.STRUCT_VALUE.redact(builder.value);
-      if (builder.empty != null) builder.empty = ProtoAdapter.EMPTY.redact(builder.empty);
-      if (builder.timestamp != null) builder.timestamp = ProtoAdapter.INSTANT.redact(builder.timestamp);
-      Internal.redactElements(builder.rep_nested_message, NestedMessage.ADAPTER);
-      Internal.redactElements(builder.rep_any, AnyMessage.ADAPTER);
-      Internal.redactElements(builder.rep_duration, ProtoAdapter.DURATION);
-      Internal.redactElements(builder.rep_struct, ProtoAdapter.STRUCT_MAP);
-      Internal.redactElements(builder.rep_list_value, ProtoAdapter.STRUCT_LIST);
-      Internal.redactElements(builder.rep_value, ProtoAdapter.STRUCT_VALUE);
-      Internal.redactElements(builder.rep_empty, ProtoAdapter.EMPTY);
-      Internal.redactElements(builder.rep_timestamp, ProtoAdapter.INSTANT);
-      Internal.redactElements(builder.map_string_message, NestedMessage.ADAPTER);
-      Internal.redactElements(builder.map_int32_any, AnyMessage.ADAPTER);
-      Internal.redactElements(builder.map_int32_duration, ProtoAdapter.DURATION);
-      Internal.redactElements(builder.map_int32_struct, ProtoAdapter.STRUCT_MAP);
-      Internal.redactElements(builder.map_int32_list_value, ProtoAdapter.STRUCT_LIST);
-      Internal.redactElements(builder.map_int32_value, ProtoAdapter.STRUCT_VALUE);
-      Internal.redactElements(builder.map_int32_empty, ProtoAdapter.EMPTY);
-      Internal.redactElements(builder.map_int32_timestamp, ProtoAdapter.INSTANT);
-      if (builder.oneof_nested_message != null) builder.oneof_nested_message = NestedMessage.ADAPTER.redact(builder.oneof_nested_message);
-      if (builder.oneof_any != null) builder.oneof_any = AnyMessage.ADAPTER.redact(builder.oneof_any);
-      if (builder.oneof_duration != null) builder.oneof_duration = ProtoAdapter.DURATION.redact(builder.oneof_duration);
-      if (builder.oneof_struct != null) builder.oneof_struct = ProtoAdapter.STRUCT_MAP.redact(builder.oneof_struct);
-      if (builder.oneof_list_value != null) builder.oneof_list_value = ProtoAdapter.STRUCT_LIST.redact(builder.oneof_list_value);
-      if (builder.oneof_empty != null) builder.oneof_empty = ProtoAdapter.EMPTY.redact(builder.oneof_empty);
-      if (builder.oneof_timestamp != null) builder.oneof_timestamp = ProtoAdapter.INSTANT.redact(builder.oneof_timestamp);
+      builder.any = any;
+      builder.rep_any = rep_any;
+      builder.map_int32_any = map_int32_any;
+      builder.oneof_any = oneof_any;
       builder.clearUnknownFields();
       return builder.build();
     }
@@ -77,9 +77,7 @@ public class Field(
         )
       }
 
-      override fun redact(`value`: Field): Field = value.copy(
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: Field): Field = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -1453,6 +1453,7 @@ public class HundredsFields(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is HundredsFields) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (field1 != other.field1) return false
     if (field2 != other.field2) return false
@@ -4741,224 +4742,7 @@ public class HundredsFields(
         )
       }
 
-      override fun redact(`value`: HundredsFields): HundredsFields {
-        var result = redact0(`value`)
-        result = redact1(result)
-        result = redact2(result)
-        return result
-      }
-
-      private fun redact0(`value`: HundredsFields): HundredsFields = value.copy(
-        field1 = value.field1?.let(Field.ADAPTER::redact),
-        field2 = value.field2?.let(Field.ADAPTER::redact),
-        field3 = value.field3?.let(Field.ADAPTER::redact),
-        field4 = value.field4?.let(Field.ADAPTER::redact),
-        field5 = value.field5?.let(Field.ADAPTER::redact),
-        field6 = value.field6?.let(Field.ADAPTER::redact),
-        field7 = value.field7?.let(Field.ADAPTER::redact),
-        field8 = value.field8?.let(Field.ADAPTER::redact),
-        field9 = value.field9?.let(Field.ADAPTER::redact),
-        field10 = value.field10?.let(Field.ADAPTER::redact),
-        field11 = value.field11?.let(Field.ADAPTER::redact),
-        field12 = value.field12?.let(Field.ADAPTER::redact),
-        field13 = value.field13?.let(Field.ADAPTER::redact),
-        field14 = value.field14?.let(Field.ADAPTER::redact),
-        field15 = value.field15?.let(Field.ADAPTER::redact),
-        field16 = value.field16?.let(Field.ADAPTER::redact),
-        field17 = value.field17?.let(Field.ADAPTER::redact),
-        field18 = value.field18?.let(Field.ADAPTER::redact),
-        field19 = value.field19?.let(Field.ADAPTER::redact),
-        field20 = value.field20?.let(Field.ADAPTER::redact),
-        field21 = value.field21?.let(Field.ADAPTER::redact),
-        field22 = value.field22?.let(Field.ADAPTER::redact),
-        field23 = value.field23?.let(Field.ADAPTER::redact),
-        field24 = value.field24?.let(Field.ADAPTER::redact),
-        field25 = value.field25?.let(Field.ADAPTER::redact),
-        field26 = value.field26?.let(Field.ADAPTER::redact),
-        field27 = value.field27?.let(Field.ADAPTER::redact),
-        field28 = value.field28?.let(Field.ADAPTER::redact),
-        field29 = value.field29?.let(Field.ADAPTER::redact),
-        field30 = value.field30?.let(Field.ADAPTER::redact),
-        field31 = value.field31?.let(Field.ADAPTER::redact),
-        field32 = value.field32?.let(Field.ADAPTER::redact),
-        field33 = value.field33?.let(Field.ADAPTER::redact),
-        field34 = value.field34?.let(Field.ADAPTER::redact),
-        field35 = value.field35?.let(Field.ADAPTER::redact),
-        field36 = value.field36?.let(Field.ADAPTER::redact),
-        field37 = value.field37?.let(Field.ADAPTER::redact),
-        field38 = value.field38?.let(Field.ADAPTER::redact),
-        field39 = value.field39?.let(Field.ADAPTER::redact),
-        field40 = value.field40?.let(Field.ADAPTER::redact),
-        field41 = value.field41?.let(Field.ADAPTER::redact),
-        field42 = value.field42?.let(Field.ADAPTER::redact),
-        field43 = value.field43?.let(Field.ADAPTER::redact),
-        field44 = value.field44?.let(Field.ADAPTER::redact),
-        field45 = value.field45?.let(Field.ADAPTER::redact),
-        field46 = value.field46?.let(Field.ADAPTER::redact),
-        field47 = value.field47?.let(Field.ADAPTER::redact),
-        field48 = value.field48?.let(Field.ADAPTER::redact),
-        field49 = value.field49?.let(Field.ADAPTER::redact),
-        field50 = value.field50?.let(Field.ADAPTER::redact),
-        field51 = value.field51?.let(Field.ADAPTER::redact),
-        field52 = value.field52?.let(Field.ADAPTER::redact),
-        field53 = value.field53?.let(Field.ADAPTER::redact),
-        field54 = value.field54?.let(Field.ADAPTER::redact),
-        field55 = value.field55?.let(Field.ADAPTER::redact),
-        field56 = value.field56?.let(Field.ADAPTER::redact),
-        field57 = value.field57?.let(Field.ADAPTER::redact),
-        field58 = value.field58?.let(Field.ADAPTER::redact),
-        field59 = value.field59?.let(Field.ADAPTER::redact),
-        field60 = value.field60?.let(Field.ADAPTER::redact),
-        field61 = value.field61?.let(Field.ADAPTER::redact),
-        field62 = value.field62?.let(Field.ADAPTER::redact),
-        field63 = value.field63?.let(Field.ADAPTER::redact),
-        field64 = value.field64?.let(Field.ADAPTER::redact),
-        field65 = value.field65?.let(Field.ADAPTER::redact),
-        field66 = value.field66?.let(Field.ADAPTER::redact),
-        field67 = value.field67?.let(Field.ADAPTER::redact),
-        field68 = value.field68?.let(Field.ADAPTER::redact),
-        field69 = value.field69?.let(Field.ADAPTER::redact),
-        field70 = value.field70?.let(Field.ADAPTER::redact),
-        field71 = value.field71?.let(Field.ADAPTER::redact),
-        field72 = value.field72?.let(Field.ADAPTER::redact),
-        field73 = value.field73?.let(Field.ADAPTER::redact),
-        field74 = value.field74?.let(Field.ADAPTER::redact),
-        field75 = value.field75?.let(Field.ADAPTER::redact),
-        field76 = value.field76?.let(Field.ADAPTER::redact),
-        field77 = value.field77?.let(Field.ADAPTER::redact),
-        field78 = value.field78?.let(Field.ADAPTER::redact),
-        field79 = value.field79?.let(Field.ADAPTER::redact),
-        field80 = value.field80?.let(Field.ADAPTER::redact),
-        field81 = value.field81?.let(Field.ADAPTER::redact),
-        field82 = value.field82?.let(Field.ADAPTER::redact),
-        field83 = value.field83?.let(Field.ADAPTER::redact),
-        field84 = value.field84?.let(Field.ADAPTER::redact),
-        field85 = value.field85?.let(Field.ADAPTER::redact),
-        field86 = value.field86?.let(Field.ADAPTER::redact),
-        field87 = value.field87?.let(Field.ADAPTER::redact),
-        field88 = value.field88?.let(Field.ADAPTER::redact),
-        field89 = value.field89?.let(Field.ADAPTER::redact),
-        field90 = value.field90?.let(Field.ADAPTER::redact),
-        field91 = value.field91?.let(Field.ADAPTER::redact),
-        field92 = value.field92?.let(Field.ADAPTER::redact),
-        field93 = value.field93?.let(Field.ADAPTER::redact),
-        field94 = value.field94?.let(Field.ADAPTER::redact),
-        field95 = value.field95?.let(Field.ADAPTER::redact),
-        field96 = value.field96?.let(Field.ADAPTER::redact),
-        field97 = value.field97?.let(Field.ADAPTER::redact),
-        field98 = value.field98?.let(Field.ADAPTER::redact),
-        field99 = value.field99?.let(Field.ADAPTER::redact),
-        field100 = value.field100?.let(Field.ADAPTER::redact)
-      )
-
-      private fun redact1(`value`: HundredsFields): HundredsFields = value.copy(
-        field101 = value.field101?.let(Field.ADAPTER::redact),
-        field102 = value.field102?.let(Field.ADAPTER::redact),
-        field103 = value.field103?.let(Field.ADAPTER::redact),
-        field104 = value.field104?.let(Field.ADAPTER::redact),
-        field105 = value.field105?.let(Field.ADAPTER::redact),
-        field106 = value.field106?.let(Field.ADAPTER::redact),
-        field107 = value.field107?.let(Field.ADAPTER::redact),
-        field108 = value.field108?.let(Field.ADAPTER::redact),
-        field109 = value.field109?.let(Field.ADAPTER::redact),
-        field110 = value.field110?.let(Field.ADAPTER::redact),
-        field111 = value.field111?.let(Field.ADAPTER::redact),
-        field112 = value.field112?.let(Field.ADAPTER::redact),
-        field113 = value.field113?.let(Field.ADAPTER::redact),
-        field114 = value.field114?.let(Field.ADAPTER::redact),
-        field115 = value.field115?.let(Field.ADAPTER::redact),
-        field116 = value.field116?.let(Field.ADAPTER::redact),
-        field117 = value.field117?.let(Field.ADAPTER::redact),
-        field118 = value.field118?.let(Field.ADAPTER::redact),
-        field119 = value.field119?.let(Field.ADAPTER::redact),
-        field120 = value.field120?.let(Field.ADAPTER::redact),
-        field121 = value.field121?.let(Field.ADAPTER::redact),
-        field122 = value.field122?.let(Field.ADAPTER::redact),
-        field123 = value.field123?.let(Field.ADAPTER::redact),
-        field124 = value.field124?.let(Field.ADAPTER::redact),
-        field125 = value.field125?.let(Field.ADAPTER::redact),
-        field126 = value.field126?.let(Field.ADAPTER::redact),
-        field127 = value.field127?.let(Field.ADAPTER::redact),
-        field128 = value.field128?.let(Field.ADAPTER::redact),
-        field129 = value.field129?.let(Field.ADAPTER::redact),
-        field130 = value.field130?.let(Field.ADAPTER::redact),
-        field131 = value.field131?.let(Field.ADAPTER::redact),
-        field132 = value.field132?.let(Field.ADAPTER::redact),
-        field133 = value.field133?.let(Field.ADAPTER::redact),
-        field134 = value.field134?.let(Field.ADAPTER::redact),
-        field135 = value.field135?.let(Field.ADAPTER::redact),
-        field136 = value.field136?.let(Field.ADAPTER::redact),
-        field137 = value.field137?.let(Field.ADAPTER::redact),
-        field138 = value.field138?.let(Field.ADAPTER::redact),
-        field139 = value.field139?.let(Field.ADAPTER::redact),
-        field140 = value.field140?.let(Field.ADAPTER::redact),
-        field141 = value.field141?.let(Field.ADAPTER::redact),
-        field142 = value.field142?.let(Field.ADAPTER::redact),
-        field143 = value.field143?.let(Field.ADAPTER::redact),
-        field144 = value.field144?.let(Field.ADAPTER::redact),
-        field145 = value.field145?.let(Field.ADAPTER::redact),
-        field146 = value.field146?.let(Field.ADAPTER::redact),
-        field147 = value.field147?.let(Field.ADAPTER::redact),
-        field148 = value.field148?.let(Field.ADAPTER::redact),
-        field149 = value.field149?.let(Field.ADAPTER::redact),
-        field150 = value.field150?.let(Field.ADAPTER::redact),
-        field151 = value.field151?.let(Field.ADAPTER::redact),
-        field152 = value.field152?.let(Field.ADAPTER::redact),
-        field153 = value.field153?.let(Field.ADAPTER::redact),
-        field154 = value.field154?.let(Field.ADAPTER::redact),
-        field155 = value.field155?.let(Field.ADAPTER::redact),
-        field156 = value.field156?.let(Field.ADAPTER::redact),
-        field157 = value.field157?.let(Field.ADAPTER::redact),
-        field158 = value.field158?.let(Field.ADAPTER::redact),
-        field159 = value.field159?.let(Field.ADAPTER::redact),
-        field160 = value.field160?.let(Field.ADAPTER::redact),
-        field161 = value.field161?.let(Field.ADAPTER::redact),
-        field162 = value.field162?.let(Field.ADAPTER::redact),
-        field163 = value.field163?.let(Field.ADAPTER::redact),
-        field164 = value.field164?.let(Field.ADAPTER::redact),
-        field165 = value.field165?.let(Field.ADAPTER::redact),
-        field166 = value.field166?.let(Field.ADAPTER::redact),
-        field167 = value.field167?.let(Field.ADAPTER::redact),
-        field168 = value.field168?.let(Field.ADAPTER::redact),
-        field169 = value.field169?.let(Field.ADAPTER::redact),
-        field170 = value.field170?.let(Field.ADAPTER::redact),
-        field171 = value.field171?.let(Field.ADAPTER::redact),
-        field172 = value.field172?.let(Field.ADAPTER::redact),
-        field173 = value.field173?.let(Field.ADAPTER::redact),
-        field174 = value.field174?.let(Field.ADAPTER::redact),
-        field175 = value.field175?.let(Field.ADAPTER::redact),
-        field176 = value.field176?.let(Field.ADAPTER::redact),
-        field177 = value.field177?.let(Field.ADAPTER::redact),
-        field178 = value.field178?.let(Field.ADAPTER::redact),
-        field179 = value.field179?.let(Field.ADAPTER::redact),
-        field180 = value.field180?.let(Field.ADAPTER::redact),
-        field181 = value.field181?.let(Field.ADAPTER::redact),
-        field182 = value.field182?.let(Field.ADAPTER::redact),
-        field183 = value.field183?.let(Field.ADAPTER::redact),
-        field184 = value.field184?.let(Field.ADAPTER::redact),
-        field185 = value.field185?.let(Field.ADAPTER::redact),
-        field186 = value.field186?.let(Field.ADAPTER::redact),
-        field187 = value.field187?.let(Field.ADAPTER::redact),
-        field188 = value.field188?.let(Field.ADAPTER::redact),
-        field189 = value.field189?.let(Field.ADAPTER::redact),
-        field190 = value.field190?.let(Field.ADAPTER::redact),
-        field191 = value.field191?.let(Field.ADAPTER::redact),
-        field192 = value.field192?.let(Field.ADAPTER::redact),
-        field193 = value.field193?.let(Field.ADAPTER::redact),
-        field194 = value.field194?.let(Field.ADAPTER::redact),
-        field195 = value.field195?.let(Field.ADAPTER::redact),
-        field196 = value.field196?.let(Field.ADAPTER::redact),
-        field197 = value.field197?.let(Field.ADAPTER::redact),
-        field198 = value.field198?.let(Field.ADAPTER::redact),
-        field199 = value.field199?.let(Field.ADAPTER::redact),
-        field200 = value.field200?.let(Field.ADAPTER::redact)
-      )
-
-      private fun redact2(`value`: HundredsFields): HundredsFields = value.copy(
-        field201 = value.field201?.let(Field.ADAPTER::redact),
-        field202 = value.field202?.let(Field.ADAPTER::redact),
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: HundredsFields): HundredsFields = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -54,6 +54,7 @@ public class OuterOpaqueType(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is OuterOpaqueType) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (inner_opaque_type_1 != other.inner_opaque_type_1) return false
     if (inner_opaque_type_2 != other.inner_opaque_type_2) return false
@@ -130,10 +131,7 @@ public class OuterOpaqueType(
         )
       }
 
-      override fun redact(`value`: OuterOpaqueType): OuterOpaqueType = value.copy(
-        inner_opaque_type_2 = value.inner_opaque_type_2?.let(InnerOpaqueType2.ADAPTER::redact),
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: OuterOpaqueType): OuterOpaqueType = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -158,6 +156,7 @@ public class OuterOpaqueType(
     override fun equals(other: Any?): Boolean {
       if (other === this) return true
       if (other !is InnerOpaqueType1) return false
+      if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
       if (unknownFields != other.unknownFields) return false
       if (value_ != other.value_) return false
       return true
@@ -221,9 +220,7 @@ public class OuterOpaqueType(
           )
         }
 
-        override fun redact(`value`: InnerOpaqueType1): InnerOpaqueType1 = value.copy(
-          unknownFields = ByteString.EMPTY
-        )
+        override fun redact(`value`: InnerOpaqueType1): InnerOpaqueType1 = value
       }
 
       private const val serialVersionUID: Long = 0L
@@ -249,6 +246,7 @@ public class OuterOpaqueType(
     override fun equals(other: Any?): Boolean {
       if (other === this) return true
       if (other !is InnerOpaqueType2) return false
+      if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
       if (unknownFields != other.unknownFields) return false
       if (value_ != other.value_) return false
       return true
@@ -312,9 +310,7 @@ public class OuterOpaqueType(
           )
         }
 
-        override fun redact(`value`: InnerOpaqueType2): InnerOpaqueType2 = value.copy(
-          unknownFields = ByteString.EMPTY
-        )
+        override fun redact(`value`: InnerOpaqueType2): InnerOpaqueType2 = value
       }
 
       private const val serialVersionUID: Long = 0L
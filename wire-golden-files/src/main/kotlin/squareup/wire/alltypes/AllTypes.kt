@@ -51,6 +51,7 @@ import com.squareup.wire.`internal`.encodeArray_sint64
 import com.squareup.wire.`internal`.encodeArray_uint32
 import com.squareup.wire.`internal`.encodeArray_uint64
 import com.squareup.wire.`internal`.immutableCopyOf
+import com.squareup.wire.`internal`.newMutableList
 import com.squareup.wire.`internal`.redactElements
 import com.squareup.wire.`internal`.sanitize
 import kotlin.Any
@@ -1655,6 +1656,7 @@ public class AllTypes private constructor(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is AllTypes) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (opt_int32 != other.opt_int32) return false
     if (opt_uint32 != other.opt_uint32) return false
@@ -3846,23 +3848,23 @@ public class AllTypes private constructor(
 
       override fun decode(reader: ProtoReader): AllTypes {
         val builder = Builder()
-        val rep_int32 = mutableListOf<Int>()
-        val rep_uint32 = mutableListOf<Int>()
-        val rep_sint32 = mutableListOf<Int>()
-        val rep_fixed32 = mutableListOf<Int>()
-        val rep_sfixed32 = mutableListOf<Int>()
-        val rep_int64 = mutableListOf<Long>()
-        val rep_uint64 = mutableListOf<Long>()
-        val rep_sint64 = mutableListOf<Long>()
-        val rep_fixed64 = mutableListOf<Long>()
-        val rep_sfixed64 = mutableListOf<Long>()
-        val rep_bool = mutableListOf<Boolean>()
-        val rep_float = mutableListOf<Float>()
-        val rep_double = mutableListOf<Double>()
-        val rep_string = mutableListOf<String>()
-        val rep_bytes = mutableListOf<ByteString>()
-        val rep_nested_enum = mutableListOf<NestedEnum>()
-        val rep_nested_message = mutableListOf<NestedMessage>()
+        val rep_int32 = newMutableList<Int>()
+        val rep_uint32 = newMutableList<Int>()
+        val rep_sint32 = newMutableList<Int>()
+        val rep_fixed32 = newMutableList<Int>()
+        val rep_sfixed32 = newMutableList<Int>()
+        val rep_int64 = newMutableList<Long>()
+        val rep_uint64 = newMutableList<Long>()
+        val rep_sint64 = newMutableList<Long>()
+        val rep_fixed64 = newMutableList<Long>()
+        val rep_sfixed64 = newMutableList<Long>()
+        val rep_bool = newMutableList<Boolean>()
+        val rep_float = newMutableList<Float>()
+        val rep_double = newMutableList<Double>()
+        val rep_string = newMutableList<String>()
+        val rep_bytes = newMutableList<ByteString>()
+        val rep_nested_enum = newMutableList<NestedEnum>()
+        val rep_nested_message = newMutableList<NestedMessage>()
         var pack_int32: MutableList<Int>? = null
         var pack_uint32: MutableList<Int>? = null
         var pack_sint32: MutableList<Int>? = null
@@ -3876,7 +3878,7 @@ public class AllTypes private constructor(
         var pack_bool: MutableList<Boolean>? = null
         var pack_float: MutableList<Float>? = null
         var pack_double: MutableList<Double>? = null
-        val pack_nested_enum = mutableListOf<NestedEnum>()
+        val pack_nested_enum = newMutableList<NestedEnum>()
         val map_int32_int32 = mutableMapOf<Int, Int>()
         val map_string_string = mutableMapOf<String, String>()
         val map_string_message = mutableMapOf<String, NestedMessage>()
@@ -3893,23 +3895,23 @@ public class AllTypes private constructor(
         var array_sfixed64: LongArrayList? = null
         var array_float: FloatArrayList? = null
         var array_double: DoubleArrayList? = null
-        val ext_rep_int32 = mutableListOf<Int>()
-        val ext_rep_uint32 = mutableListOf<Int>()
-        val ext_rep_sint32 = mutableListOf<Int>()
-        val ext_rep_fixed32 = mutableListOf<Int>()
-        val ext_rep_sfixed32 = mutableListOf<Int>()
-        val ext_rep_int64 = mutableListOf<Long>()
-        val ext_rep_uint64 = mutableListOf<Long>()
-        val ext_rep_sint64 = mutableListOf<Long>()
-        val ext_rep_fixed64 = mutableListOf<Long>()
-        val ext_rep_sfixed64 = mutableListOf<Long>()
-        val ext_rep_bool = mutableListOf<Boolean>()
-        val ext_rep_float = mutableListOf<Float>()
-        val ext_rep_double = mutableListOf<Double>()
-        val ext_rep_string = mutableListOf<String>()
-        val ext_rep_bytes = mutableListOf<ByteString>()
-        val ext_rep_nested_enum = mutableListOf<NestedEnum>()
-        val ext_rep_nested_message = mutableListOf<NestedMessage>()
+        val ext_rep_int32 = newMutableList<Int>()
+        val ext_rep_uint32 = newMutableList<Int>()
+        val ext_rep_sint32 = newMutableList<Int>()
+        val ext_rep_fixed32 = newMutableList<Int>()
+        val ext_rep_sfixed32 = newMutableList<Int>()
+        val ext_rep_int64 = newMutableList<Long>()
+        val ext_rep_uint64 = newMutableList<Long>()
+        val ext_rep_sint64 = newMutableList<Long>()
+        val ext_rep_fixed64 = newMutableList<Long>()
+        val ext_rep_sfixed64 = newMutableList<Long>()
+        val ext_rep_bool = newMutableList<Boolean>()
+        val ext_rep_float = newMutableList<Float>()
+        val ext_rep_double = newMutableList<Double>()
+        val ext_rep_string = newMutableList<String>()
+        val ext_rep_bytes = newMutableList<ByteString>()
+        val ext_rep_nested_enum = newMutableList<NestedEnum>()
+        val ext_rep_nested_message = newMutableList<NestedMessage>()
         var ext_pack_int32: MutableList<Int>? = null
         var ext_pack_uint32: MutableList<Int>? = null
         var ext_pack_sint32: MutableList<Int>? = null
@@ -3923,7 +3925,7 @@ public class AllTypes private constructor(
         var ext_pack_bool: MutableList<Boolean>? = null
         var ext_pack_float: MutableList<Float>? = null
         var ext_pack_double: MutableList<Double>? = null
-        val ext_pack_nested_enum = mutableListOf<NestedEnum>()
+        val ext_pack_nested_enum = newMutableList<NestedEnum>()
         val unknownFields = reader.forEachTag { tag ->
           when (tag) {
             1 -> builder.opt_int32(ProtoAdapter.INT32.decode(reader))
@@ -4484,16 +4486,7 @@ public class AllTypes private constructor(
         )
       }
 
-      override fun redact(`value`: AllTypes): AllTypes = AllTypes(
-        builder = value.newBuilder()
-          .opt_nested_message(value.opt_nested_message?.let(NestedMessage.ADAPTER::redact))
-          .req_nested_message(NestedMessage.ADAPTER.redact(value.req_nested_message))
-          .rep_nested_message(value.rep_nested_message.redactElements(NestedMessage.ADAPTER))
-          .map_string_message(value.map_string_message.redactElements(NestedMessage.ADAPTER))
-          .ext_opt_nested_message(value.ext_opt_nested_message?.let(NestedMessage.ADAPTER::redact))
-          .ext_rep_nested_message(value.ext_rep_nested_message.redactElements(NestedMessage.ADAPTER)),
-        unknownFields = ByteString.EMPTY,
-      )
+      override fun redact(`value`: AllTypes): AllTypes = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -4550,6 +4543,7 @@ public class AllTypes private constructor(
     override fun equals(other: Any?): Boolean {
       if (other === this) return true
       if (other !is NestedMessage) return false
+      if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
       if (unknownFields != other.unknownFields) return false
       if (a != other.a) return false
       return true
@@ -4626,10 +4620,7 @@ public class AllTypes private constructor(
           )
         }
 
-        override fun redact(`value`: NestedMessage): NestedMessage = NestedMessage(
-          builder = value.newBuilder(),
-          unknownFields = ByteString.EMPTY,
-        )
+        override fun redact(`value`: NestedMessage): NestedMessage = value
       }
 
       private const val serialVersionUID: Long = 0L
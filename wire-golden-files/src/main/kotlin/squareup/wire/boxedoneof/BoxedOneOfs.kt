@@ -44,6 +44,7 @@ public class BoxedOneOfs(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is BoxedOneOfs) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (value_ != other.value_) return false
     return true
@@ -139,9 +140,7 @@ public class BoxedOneOfs(
         )
       }
 
-      override fun redact(`value`: BoxedOneOfs): BoxedOneOfs = value.copy(
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: BoxedOneOfs): BoxedOneOfs = value
     }
 
     public val VALUE_FIRST_VALUE: Value<String> =
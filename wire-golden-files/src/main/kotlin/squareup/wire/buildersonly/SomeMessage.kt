@@ -48,6 +48,7 @@ public class SomeMessage private constructor(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is SomeMessage) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (opt_int32 != other.opt_int32) return false
     return true
@@ -124,10 +125,7 @@ public class SomeMessage private constructor(
         )
       }
 
-      override fun redact(`value`: SomeMessage): SomeMessage = SomeMessage(
-        builder = value.newBuilder(),
-        unknownFields = ByteString.EMPTY,
-      )
+      override fun redact(`value`: SomeMessage): SomeMessage = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -158,6 +156,7 @@ public class SomeMessage private constructor(
     override fun equals(other: Any?): Boolean {
       if (other === this) return true
       if (other !is NestedMessage) return false
+      if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
       if (unknownFields != other.unknownFields) return false
       if (a != other.a) return false
       return true
@@ -234,10 +233,7 @@ public class SomeMessage private constructor(
           )
         }
 
-        override fun redact(`value`: NestedMessage): NestedMessage = NestedMessage(
-          builder = value.newBuilder(),
-          unknownFields = ByteString.EMPTY,
-        )
+        override fun redact(`value`: NestedMessage): NestedMessage = value
       }
 
       private const val serialVersionUID: Long = 0L
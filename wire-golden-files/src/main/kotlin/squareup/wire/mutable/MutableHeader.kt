@@ -16,6 +16,7 @@ import com.squareup.wire.ReverseProtoWriter
 import com.squareup.wire.Syntax.PROTO_2
 import com.squareup.wire.WireField
 import com.squareup.wire.`internal`.JvmField
+import com.squareup.wire.`internal`.MutableMessage
 import kotlin.Any
 import kotlin.Boolean
 import kotlin.Deprecated
@@ -36,7 +37,8 @@ public class MutableHeader(
   )
   public var id: Long? = null,
   override var unknownFields: ByteString = ByteString.EMPTY,
-) : Message<MutableHeader, Nothing>(ADAPTER, unknownFields) {
+) : Message<MutableHeader, Nothing>(ADAPTER, unknownFields),
+  MutableMessage {
   @Deprecated(
     message = "Shouldn't be used in Kotlin",
     level = DeprecationLevel.HIDDEN,
@@ -104,6 +106,19 @@ public class MutableHeader(
         )
       }
 
+      override fun decodeInto(reader: ProtoReader, existing: MutableHeader): MutableHeader {
+        var id: Long? = null
+        val unknownFields = reader.forEachTag { tag ->
+          when (tag) {
+            1 -> id = ProtoAdapter.UINT64.decode(reader)
+            else -> reader.readUnknownField(tag)
+          }
+        }
+        existing.id = id
+        existing.unknownFields = unknownFields
+        return existing
+      }
+
       override fun redact(`value`: MutableHeader): MutableHeader = throw UnsupportedOperationException("redact() is unsupported for mutable message types")
     }
 
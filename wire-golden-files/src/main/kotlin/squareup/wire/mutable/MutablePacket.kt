@@ -16,7 +16,12 @@ import com.squareup.wire.ReverseProtoWriter
 import com.squareup.wire.Syntax.PROTO_2
 import com.squareup.wire.WireField
 import com.squareup.wire.`internal`.JvmField
+import com.squareup.wire.`internal`.MutableMessage
+import com.squareup.wire.`internal`.decodeElementInto
+import com.squareup.wire.`internal`.decodeMessageInto
 import com.squareup.wire.`internal`.decodeMessageOrMerge
+import com.squareup.wire.`internal`.reusableListOf
+import com.squareup.wire.`internal`.truncateList
 import kotlin.Any
 import kotlin.Boolean
 import kotlin.Deprecated
@@ -46,7 +51,8 @@ public class MutablePacket(
   )
   public var payload: List<MutablePayload> = emptyList(),
   override var unknownFields: ByteString = ByteString.EMPTY,
-) : Message<MutablePacket, Nothing>(ADAPTER, unknownFields) {
+) : Message<MutablePacket, Nothing>(ADAPTER, unknownFields),
+  MutableMessage {
   @Deprecated(
     message = "Shouldn't be used in Kotlin",
     level = DeprecationLevel.HIDDEN,
@@ -123,6 +129,24 @@ public class MutablePacket(
         )
       }
 
+      override fun decodeInto(reader: ProtoReader, existing: MutablePacket): MutablePacket {
+        var header_: MutableHeader? = null
+        val payload = reusableListOf(existing.payload)
+        var payloadCount = 0
+        val unknownFields = reader.forEachTag { tag ->
+          when (tag) {
+            1 -> header_ = decodeMessageInto(MutableHeader.ADAPTER, reader, header_, existing.header_)
+            2 -> decodeElementInto(MutablePayload.ADAPTER, reader, payload, payloadCount++)
+            else -> reader.readUnknownField(tag)
+          }
+        }
+        existing.header_ = header_
+        truncateList(payload, payloadCount)
+        existing.payload = payload
+        existing.unknownFields = unknownFields
+        return existing
+      }
+
       override fun redact(`value`: MutablePacket): MutablePacket = throw UnsupportedOperationException("redact() is unsupported for mutable message types")
     }
 
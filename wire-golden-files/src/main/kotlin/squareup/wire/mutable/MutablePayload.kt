@@ -19,6 +19,8 @@ import com.squareup.wire.WireEnum
 import com.squareup.wire.WireField
 import com.squareup.wire.`internal`.JvmField
 import com.squareup.wire.`internal`.JvmStatic
+import com.squareup.wire.`internal`.MutableMessage
+import com.squareup.wire.`internal`.clearedListOf
 import com.squareup.wire.`internal`.sanitize
 import kotlin.Any
 import kotlin.Boolean
@@ -60,7 +62,8 @@ public class MutablePayload(
   )
   public var footers: List<String> = emptyList(),
   override var unknownFields: ByteString = ByteString.EMPTY,
-) : Message<MutablePayload, Nothing>(ADAPTER, unknownFields) {
+) : Message<MutablePayload, Nothing>(ADAPTER, unknownFields),
+  MutableMessage {
   @Deprecated(
     message = "Shouldn't be used in Kotlin",
     level = DeprecationLevel.HIDDEN,
@@ -159,6 +162,32 @@ public class MutablePayload(
         )
       }
 
+      override fun decodeInto(reader: ProtoReader, existing: MutablePayload): MutablePayload {
+        var preamble: String? = null
+        var content: ByteString? = null
+        var type: Type? = null
+        val footers = clearedListOf(existing.footers)
+        val unknownFields = reader.forEachTag { tag ->
+          when (tag) {
+            1 -> preamble = ProtoAdapter.STRING.decode(reader)
+            2 -> content = ProtoAdapter.BYTES.decode(reader)
+            3 -> try {
+              type = Type.ADAPTER.decode(reader)
+            } catch (e: ProtoAdapter.EnumConstantNotFoundException) {
+              reader.addUnknownField(tag, FieldEncoding.VARINT, e.value.toLong())
+            }
+            4 -> footers.add(ProtoAdapter.STRING.decode(reader))
+            else -> reader.readUnknownField(tag)
+          }
+        }
+        existing.preamble = preamble
+        existing.content = content
+        existing.type = type
+        existing.footers = footers
+        existing.unknownFields = unknownFields
+        return existing
+      }
+
       override fun redact(`value`: MutablePayload): MutablePayload = throw UnsupportedOperationException("redact() is unsupported for mutable message types")
     }
 
@@ -58,6 +58,7 @@ public class NoImmutableCopiesPayload(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is NoImmutableCopiesPayload) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (headers != other.headers) return false
     if (footers != other.footers) return false
@@ -138,9 +139,7 @@ public class NoImmutableCopiesPayload(
         )
       }
 
-      override fun redact(`value`: NoImmutableCopiesPayload): NoImmutableCopiesPayload = value.copy(
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: NoImmutableCopiesPayload): NoImmutableCopiesPayload = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -53,6 +53,7 @@ public class ParameterValue(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is ParameterValue) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (data_ != other.data_) return false
     return true
@@ -125,9 +126,7 @@ public class ParameterValue(
         )
       }
 
-      override fun redact(`value`: ParameterValue): ParameterValue = value.copy(
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: ParameterValue): ParameterValue = value
     }
 
     private const val serialVersionUID: Long = 0L
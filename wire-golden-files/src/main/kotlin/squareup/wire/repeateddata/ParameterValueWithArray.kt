@@ -52,6 +52,7 @@ public class ParameterValueWithArray(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is ParameterValueWithArray) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (!data_.contentEquals(other.data_)) return false
     return true
@@ -121,9 +122,7 @@ public class ParameterValueWithArray(
         )
       }
 
-      override fun redact(`value`: ParameterValueWithArray): ParameterValueWithArray = value.copy(
-        unknownFields = ByteString.EMPTY
-      )
+      override fun redact(`value`: ParameterValueWithArray): ParameterValueWithArray = value
     }
 
     private const val serialVersionUID: Long = 0L
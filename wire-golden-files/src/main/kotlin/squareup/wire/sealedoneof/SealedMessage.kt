@@ -49,6 +49,7 @@ public class SealedMessage private constructor(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is SealedMessage) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (content != other.content) return false
     return true
@@ -125,10 +126,7 @@ public class SealedMessage private constructor(
         )
       }
 
-      override fun redact(`value`: SealedMessage): SealedMessage = SealedMessage(
-        builder = value.newBuilder(),
-        unknownFields = ByteString.EMPTY,
-      )
+      override fun redact(`value`: SealedMessage): SealedMessage = value
     }
 
     private const val serialVersionUID: Long = 0L
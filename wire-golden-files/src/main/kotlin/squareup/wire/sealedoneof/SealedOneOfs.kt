@@ -49,6 +49,7 @@ public class SealedOneOfs private constructor(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is SealedOneOfs) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (value_ != other.value_) return false
     return true
@@ -183,10 +184,7 @@ public class SealedOneOfs private constructor(
         )
       }
 
-      override fun redact(`value`: SealedOneOfs): SealedOneOfs = SealedOneOfs(
-        builder = value.newBuilder(),
-        unknownFields = ByteString.EMPTY,
-      )
+      override fun redact(`value`: SealedOneOfs): SealedOneOfs = value
     }
 
     private const val serialVersionUID: Long = 0L
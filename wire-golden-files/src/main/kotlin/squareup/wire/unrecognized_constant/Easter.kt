@@ -19,6 +19,7 @@ import com.squareup.wire.`internal`.JvmField
 import com.squareup.wire.`internal`.JvmSynthetic
 import com.squareup.wire.`internal`.checkElementsNotNull
 import com.squareup.wire.`internal`.immutableCopyOf
+import com.squareup.wire.`internal`.newMutableList
 import kotlin.Any
 import kotlin.Boolean
 import kotlin.Int
@@ -78,6 +79,7 @@ public class Easter private constructor(
   override fun equals(other: Any?): Boolean {
     if (other === this) return true
     if (other !is Easter) return false
+    if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
     if (unknownFields != other.unknownFields) return false
     if (optional_easter_animal != other.optional_easter_animal) return false
     if (identity_easter_animal != other.identity_easter_animal) return false
@@ -177,7 +179,7 @@ public class Easter private constructor(
 
       override fun decode(reader: ProtoReader): Easter {
         val builder = Builder()
-        val easter_animals = mutableListOf<EasterAnimal>()
+        val easter_animals = newMutableList<EasterAnimal>()
         val unknownFields = reader.forEachTag { tag ->
           when (tag) {
             2 -> try {
@@ -205,10 +207,7 @@ public class Easter private constructor(
         )
       }
 
-      override fun redact(`value`: Easter): Easter = Easter(
-        builder = value.newBuilder(),
-        unknownFields = ByteString.EMPTY,
-      )
+      override fun redact(`value`: Easter): Easter = value
     }
 
     private const val serialVersionUID: Long = 0L
@@ -108,6 +108,12 @@ open class JavaOutput @Inject constructor() : WireOutput() {
   /** If true, the constructor of all generated types will be non-public. */
   var buildersOnly: Boolean = false
 
+  /**
+   * If true, each generated message gets a `JSON_CODEC` that reads and writes its fields without
+   * reflection. `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+   */
+  var emitJsonCodecs: Boolean = false
+
   override fun toTarget(outputDirectory: String): JavaTarget = JavaTarget(
     includes = includes ?: listOf("*"),
     excludes = excludes ?: listOf(),
@@ -119,6 +125,7 @@ open class JavaOutput @Inject constructor() : WireOutput() {
     emitDeclaredOptions = emitDeclaredOptions,
     emitAppliedOptions = emitAppliedOptions,
     buildersOnly = buildersOnly,
+    emitJsonCodecs = emitJsonCodecs,
   )
 }
 
@@ -210,6 +217,12 @@ open class KotlinOutput @Inject constructor() : WireOutput() {
    */
   var makeImmutableCopies: Boolean = true
 
+  /**
+   * If true, each generated message gets a `JSON_CODEC` that reads and writes its fields without
+   * reflection. `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+   */
+  var emitJsonCodecs: Boolean = false
+
   override fun toTarget(outputDirectory: String): KotlinTarget {
     if (grpcServerCompatible) {
       throw IllegalArgumentException(
@@ -263,6 +276,7 @@ open class KotlinOutput @Inject constructor() : WireOutput() {
       mutableTypes = mutableTypes,
       explicitStreamingCalls = explicitStreamingCalls,
       makeImmutableCopies = makeImmutableCopies,
+      emitJsonCodecs = emitJsonCodecs,
     )
   }
 }
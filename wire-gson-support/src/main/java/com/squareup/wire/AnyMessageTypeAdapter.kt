@@ -25,8 +25,13 @@ import java.io.IOException
 
 class AnyMessageTypeAdapter(
   private val gson: Gson,
-  private val typeUrlToAdapter: Map<String, ProtoAdapter<*>>,
+  private val typeRegistry: TypeRegistry,
 ) : TypeAdapter<AnyMessage>() {
+  constructor(
+    gson: Gson,
+    typeUrlToAdapter: Map<String, ProtoAdapter<*>>,
+  ) : this(gson, TypeRegistry.of(typeUrlToAdapter))
+
   private val elementAdapter: TypeAdapter<JsonElement> = gson.getAdapter(JsonElement::class.java)
 
   @Throws(IOException::class)
@@ -40,12 +45,12 @@ class AnyMessageTypeAdapter(
     writer.name("@type")
     writer.value(value.typeUrl)
 
-    val protoAdapter = typeUrlToAdapter[value.typeUrl]
+    val protoAdapter = typeRegistry[value.typeUrl]
       ?: throw IOException("Cannot find type for url: ${value.typeUrl}")
 
     if (protoAdapter == ProtoAdapter.FIELD_MASK) {
       writer.name("value")
-      gson.getAdapter(FieldMask::class.java).write(writer, value.unpack(ProtoAdapter.FIELD_MASK))
+      gson.getAdapter(FieldMask::class.java).write(writer, value.unpack(typeRegistry) as FieldMask)
       writer.endObject()
       return
     }
@@ -53,7 +58,7 @@ class AnyMessageTypeAdapter(
     @Suppress("UNCHECKED_CAST")
     val delegate = gson.getAdapter(protoAdapter.type!!.java) as TypeAdapter<Message<*, *>>
 
-    val jsonObject = delegate.toJsonTree(value.unpack(protoAdapter) as Message<*, *>).asJsonObject
+    val jsonObject = delegate.toJsonTree(value.unpack(typeRegistry) as Message<*, *>).asJsonObject
     for ((name: String, element: JsonElement) in jsonObject.entrySet()) {
       writer.name(name)
       elementAdapter.write(writer, element)
@@ -73,7 +78,7 @@ class AnyMessageTypeAdapter(
       ?: throw IOException("expected @type in ${reader.path}")
     val typeUrl = typeUrlEntry.asString
 
-    val protoAdapter = typeUrlToAdapter[typeUrl]
+    val protoAdapter = typeRegistry[typeUrl]
       ?: throw IOException("Cannot resolve type: $typeUrl in ${reader.path}")
 
     if (protoAdapter == ProtoAdapter.FIELD_MASK) {
@@ -18,26 +18,15 @@ package com.squareup.wire
 import com.google.gson.TypeAdapter
 import com.google.gson.stream.JsonReader
 import com.google.gson.stream.JsonWriter
-import com.squareup.wire.internal.FieldOrOneOfBinding
 import com.squareup.wire.internal.RuntimeMessageAdapter
 import java.io.IOException
 
 internal class MessageTypeAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
   private val messageAdapter: RuntimeMessageAdapter<M, B>,
+  private val jsonCodec: MessageJsonCodec<M>?,
   private val jsonAdapters: List<TypeAdapter<Any?>>,
 ) : TypeAdapter<M>() {
-  private val nameToField = mutableMapOf<String, JsonField<M, B>>()
-    .also { map ->
-      for (index in jsonAdapters.indices) {
-        val fieldBinding = messageAdapter.fieldBindingsArray[index]
-        val jsonField = JsonField(jsonAdapters[index], fieldBinding)
-        map[messageAdapter.jsonNames[index]] = jsonField
-        val alternateName = messageAdapter.jsonAlternateNames[index]
-        if (alternateName != null) {
-          map[alternateName] = jsonField
-        }
-      }
-    }
+  private val nameMatcher = messageAdapter.jsonNameMatcher
 
   @Throws(IOException::class)
   override fun write(out: JsonWriter, message: M?) {
@@ -46,6 +35,7 @@ internal class MessageTypeAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
       message = message,
       jsonAdapters = jsonAdapters,
       redactedFieldsAdapter = null,
+      jsonCodec = jsonCodec,
     ) { name, value, jsonAdapter ->
       out.name(name)
       jsonAdapter.write(out, value)
@@ -55,30 +45,52 @@ internal class MessageTypeAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
 
   @Throws(IOException::class)
   override fun read(input: JsonReader): M {
+    if (jsonCodec != null) return read(input, jsonCodec)
+
     val builder = messageAdapter.newBuilder()
     input.beginObject()
     while (input.hasNext()) {
-      val name = input.nextName()
-
-      val jsonField = nameToField[name]
-      if (jsonField == null) {
+      // Gson only reads names as strings, so match them with the perfect hash table.
+      val index = nameMatcher.fieldIndex(input.nextName())
+      if (index == -1) {
         input.skipValue()
         continue
       }
-      val value = jsonField.adapter.read(input)
+      val value = jsonAdapters[index].read(input)
 
       // "If a value is missing in the JSON-encoded data or if its value is null, it will be
       // interpreted as the appropriate default value when parsed into a protocol buffer."
       if (value == null) continue
 
-      jsonField.fieldBinding.set(builder, value)
+      messageAdapter.fieldBindingsArray[index].set(builder, value)
     }
     input.endObject()
     return builder.build()
   }
 
-  data class JsonField<M : Message<M, B>, B : Message.Builder<M, B>>(
-    val adapter: TypeAdapter<Any?>,
-    val fieldBinding: FieldOrOneOfBinding<M, B>,
-  )
+  private fun read(input: JsonReader, jsonCodec: MessageJsonCodec<M>): M {
+    input.beginObject()
+    val message = jsonCodec.decode(
+      object : MessageJsonCodec.FieldReader {
+        private var value: Any? = null
+
+        override fun nextTag(): Int {
+          while (input.hasNext()) {
+            val index = nameMatcher.fieldIndex(input.nextName())
+            if (index == -1) {
+              input.skipValue()
+              continue
+            }
+            value = jsonAdapters[index].read(input) ?: continue
+            return messageAdapter.fieldBindingsArray[index].tag
+          }
+          return -1
+        }
+
+        override fun value(): Any = value!!
+      },
+    )
+    input.endObject()
+    return message
+  }
 }
@@ -22,6 +22,10 @@ import com.google.gson.reflect.TypeToken
 import com.squareup.wire.internal.EnumJsonFormatter
 import com.squareup.wire.internal.FieldMaskJsonFormatter
 import com.squareup.wire.internal.createRuntimeMessageAdapter
+import com.squareup.wire.internal.jsonCodecOrNull
+import com.squareup.wire.internal.prewarmJsonAdapters
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ForkJoinPool
 
 /**
  * A [TypeAdapterFactory] that allows Wire messages to be serialized and deserialized
@@ -50,24 +54,36 @@ import com.squareup.wire.internal.createRuntimeMessageAdapter
  * definition in the protobuf schema on JSON serialisation. If false, Wire will follow the official
  * specification (i.e. camelCase). Note that [preservingProtoFieldNames], when true, takes
  * precedence over the `jsonName` option.
+ *
+ * Messages generated with the `emitJsonCodecs` option are read and written with their generated
+ * [MessageJsonCodec] instead of reflection, which is faster.
  */
 class WireTypeAdapterFactory @JvmOverloads constructor(
   typeUrlToAdapter: Map<String, ProtoAdapter<*>> = mapOf(),
   private val writeIdentityValues: Boolean = false,
   private val preservingProtoFieldNames: Boolean = false,
 ) : TypeAdapterFactory {
+  /**
+   * Uses the adapters in [typeRegistry] to encode and decode [AnyMessage] values. The same registry
+   * can unpack those values with [AnyMessage.unpack], which retains decoded messages unless they
+   * are mutable.
+   */
+  @JvmOverloads constructor(
+    typeRegistry: TypeRegistry,
+    writeIdentityValues: Boolean = false,
+    preservingProtoFieldNames: Boolean = false,
+  ) : this(typeRegistry.toMap(), writeIdentityValues, preservingProtoFieldNames)
+
   /** Built-in adapters are registered by default; entries in [typeUrlToAdapter] take precedence. */
-  private val typeUrlToAdapter: Map<String, ProtoAdapter<*>> = buildMap {
-    put(ProtoAdapter.FIELD_MASK.typeUrl!!, ProtoAdapter.FIELD_MASK)
-    putAll(typeUrlToAdapter)
-  }
+  private val typeRegistry: TypeRegistry =
+    TypeRegistry.of(ProtoAdapter.FIELD_MASK) + TypeRegistry.of(typeUrlToAdapter)
 
   /**
    * Returns a new WireJsonAdapterFactory that can encode the messages for [adapters] if they're
    * used with [AnyMessage].
    */
   fun plus(adapters: List<ProtoAdapter<*>>): WireTypeAdapterFactory {
-    val newMap = typeUrlToAdapter.toMutableMap()
+    val newMap = typeRegistry.toMap().toMutableMap()
     for (adapter in adapters) {
       val key = adapter.typeUrl ?: throw IllegalArgumentException(
         "recompile ${adapter.type} to use it with WireTypeAdapterFactory",
@@ -83,12 +99,31 @@ class WireTypeAdapterFactory @JvmOverloads constructor(
    */
   fun plus(adapter: ProtoAdapter<*>): WireTypeAdapterFactory = plus(listOf(adapter))
 
+  /**
+   * Creates and caches the adapters in [gson] for [types], and for the message types in this
+   * factory's type registry, so their first use doesn't pay for reflection and adapter creation.
+   * Adapters for the messages and enums that these types reference are created too. [gson] must
+   * have been created with this factory.
+   *
+   * Each type is prewarmed as a task on [pool]; [listener] is told how long each took. The returned
+   * future completes when all are done.
+   */
+  @JvmOverloads
+  fun prewarm(
+    gson: Gson,
+    types: Collection<Class<*>>,
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+    listener: JsonPrewarmListener = JsonPrewarmListener.NONE,
+  ): CompletableFuture<Void?> = prewarmJsonAdapters(types, typeRegistry, pool, listener) { type ->
+    gson.getAdapter(type)
+  }
+
   @Suppress("UNCHECKED_CAST")
   override fun <T> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T>? {
     val rawType = type.rawType
 
     return when {
-      rawType == AnyMessage::class.java -> AnyMessageTypeAdapter(gson, typeUrlToAdapter) as TypeAdapter<T>
+      rawType == AnyMessage::class.java -> AnyMessageTypeAdapter(gson, typeRegistry) as TypeAdapter<T>
       rawType == FieldMask::class.java -> GsonJsonIntegration.formatterAdapter(FieldMaskJsonFormatter) as TypeAdapter<T>
       Message::class.java.isAssignableFrom(rawType) -> {
         val messageAdapter = createRuntimeMessageAdapter<Nothing, Nothing>(
@@ -98,7 +133,8 @@ class WireTypeAdapterFactory @JvmOverloads constructor(
           classLoader = rawType.classLoader,
         )
         val jsonAdapters = GsonJsonIntegration.jsonAdapters(messageAdapter, gson)
-        MessageTypeAdapter(messageAdapter, jsonAdapters).nullSafe() as TypeAdapter<T>
+        val jsonCodec = jsonCodecOrNull(rawType as Class<Nothing>)
+        MessageTypeAdapter(messageAdapter, jsonCodec, jsonAdapters).nullSafe() as TypeAdapter<T>
       }
       WireEnum::class.java.isAssignableFrom(rawType) -> {
         val enumAdapter = RuntimeEnumAdapter.create(rawType as Class<Nothing>)
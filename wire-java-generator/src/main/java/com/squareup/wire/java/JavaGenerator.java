@@ -25,6 +25,7 @@ import static com.squareup.wire.schema.internal.JvmLanguages.javaPackage;
 import static com.squareup.wire.schema.internal.JvmLanguages.legacyQualifiedFieldName;
 import static com.squareup.wire.schema.internal.JvmLanguages.optionValueToInt;
 import static com.squareup.wire.schema.internal.JvmLanguages.optionValueToLong;
+import static com.squareup.wire.schema.internal.JvmLanguages.redactableTypes;
 import static javax.lang.model.element.Modifier.ABSTRACT;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
@@ -34,6 +35,8 @@ import static javax.lang.model.element.Modifier.STATIC;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -54,6 +57,7 @@ import com.palantir.javapoet.WildcardTypeName;
 import com.squareup.wire.EnumAdapter;
 import com.squareup.wire.FieldEncoding;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageJsonCodec;
 import com.squareup.wire.ProtoAdapter;
 import com.squareup.wire.ProtoAdapter.EnumConstantNotFoundException;
 import com.squareup.wire.ProtoReader;
@@ -114,6 +118,7 @@ public final class JavaGenerator {
   static final ClassName STRING = ClassName.get(String.class);
   static final ClassName LIST = ClassName.get(List.class);
   static final ClassName MESSAGE = ClassName.get(Message.class);
+  static final ClassName MESSAGE_JSON_CODEC = ClassName.get(MessageJsonCodec.class);
   static final ClassName WIRE_ENCLOSING_TYPE = ClassName.get(WireEnclosingType.class);
   static final ClassName ANDROID_MESSAGE = MESSAGE.peerClass("AndroidMessage");
   static final ClassName ADAPTER = ClassName.get(ProtoAdapter.class);
@@ -224,6 +229,9 @@ public final class JavaGenerator {
                     nameAllocator.newName("serialVersionUID", "serialVersionUID");
                     nameAllocator.newName("ADAPTER", "ADAPTER");
                     nameAllocator.newName("MESSAGE_OPTIONS", "MESSAGE_OPTIONS");
+                    if (emitJsonCodecs) {
+                      nameAllocator.newName("JSON_CODEC", "JSON_CODEC");
+                    }
                     if (emitAndroid) {
                       nameAllocator.newName("CREATOR", "CREATOR");
                     }
@@ -257,6 +265,16 @@ public final class JavaGenerator {
                 }
               });
 
+  /** Types whose values may change when they're redacted. This is computed once per schema. */
+  private final Supplier<Set<ProtoType>> redactableTypes =
+      Suppliers.memoize(
+          new Supplier<Set<ProtoType>>() {
+            @Override
+            public Set<ProtoType> get() {
+              return redactableTypes(schema);
+            }
+          });
+
   private final Schema schema;
 
   /** Proto type to the corresponding Java type. This honors the Java package extension. */
@@ -272,6 +290,7 @@ public final class JavaGenerator {
   private final boolean emitDeclaredOptions;
   private final boolean emitAppliedOptions;
   private final boolean buildersOnly;
+  private final boolean emitJsonCodecs;
 
   private JavaGenerator(
       Schema schema,
@@ -283,7 +302,8 @@ public final class JavaGenerator {
       boolean emitCompact,
       boolean emitDeclaredOptions,
       boolean emitAppliedOptions,
-      boolean buildersOnly) {
+      boolean buildersOnly,
+      boolean emitJsonCodecs) {
     this.schema = schema;
     this.typeToJavaName = ImmutableMap.copyOf(typeToJavaName);
     this.memberToJavaName = ImmutableMap.copyOf(memberToJavaName);
@@ -294,6 +314,7 @@ public final class JavaGenerator {
     this.emitDeclaredOptions = emitDeclaredOptions;
     this.emitAppliedOptions = emitAppliedOptions;
     this.buildersOnly = buildersOnly;
+    this.emitJsonCodecs = emitJsonCodecs;
   }
 
   public JavaGenerator withAndroid(boolean emitAndroid) {
@@ -307,7 +328,8 @@ public final class JavaGenerator {
         emitCompact,
         emitDeclaredOptions,
         emitAppliedOptions,
-        buildersOnly);
+        buildersOnly,
+        emitJsonCodecs);
   }
 
   public JavaGenerator withAndroidAnnotations(boolean emitAndroidAnnotations) {
@@ -321,7 +343,8 @@ public final class JavaGenerator {
         emitCompact,
         emitDeclaredOptions,
         emitAppliedOptions,
-        buildersOnly);
+        buildersOnly,
+        emitJsonCodecs);
   }
 
   public JavaGenerator withCompact(boolean emitCompact) {
@@ -335,7 +358,8 @@ public final class JavaGenerator {
         emitCompact,
         emitDeclaredOptions,
         emitAppliedOptions,
-        buildersOnly);
+        buildersOnly,
+        emitJsonCodecs);
   }
 
   public JavaGenerator withProfile(Profile profile) {
@@ -349,7 +373,8 @@ public final class JavaGenerator {
         emitCompact,
         emitDeclaredOptions,
         emitAppliedOptions,
-        buildersOnly);
+        buildersOnly,
+        emitJsonCodecs);
   }
 
   public JavaGenerator withOptions(boolean emitDeclaredOptions, boolean emitAppliedOptions) {
@@ -363,7 +388,8 @@ public final class JavaGenerator {
         emitCompact,
         emitDeclaredOptions,
         emitAppliedOptions,
-        buildersOnly);
+        buildersOnly,
+        emitJsonCodecs);
   }
 
   public JavaGenerator withBuildersOnly(boolean buildersOnly) {
@@ -377,7 +403,23 @@ public final class JavaGenerator {
         emitCompact,
         emitDeclaredOptions,
         emitAppliedOptions,
-        buildersOnly);
+        buildersOnly,
+        emitJsonCodecs);
+  }
+
+  public JavaGenerator withJsonCodecs(boolean emitJsonCodecs) {
+    return new JavaGenerator(
+        schema,
+        typeToJavaName,
+        memberToJavaName,
+        profile,
+        emitAndroid,
+        emitAndroidAnnotations,
+        emitCompact,
+        emitDeclaredOptions,
+        emitAppliedOptions,
+        buildersOnly,
+        emitJsonCodecs);
   }
 
   public static JavaGenerator get(Schema schema) {
@@ -409,7 +451,8 @@ public final class JavaGenerator {
         false /* emitCompact */,
         false /* emitDeclaredOptions */,
         false /* emitAppliedOptions */,
-        false /* buildersOnly */);
+        false /* buildersOnly */,
+        false /* emitJsonCodecs */);
   }
 
   private static void putAllExtensions(
@@ -622,6 +665,10 @@ public final class JavaGenerator {
     return ParameterizedTypeName.get(ADAPTER, messageType);
   }
 
+  static TypeName jsonCodecOf(TypeName messageType) {
+    return ParameterizedTypeName.get(MESSAGE_JSON_CODEC, messageType);
+  }
+
   static TypeName builderOf(TypeName messageType, ClassName builderType) {
     return ParameterizedTypeName.get(BUILDER, messageType, builderType);
   }
@@ -812,6 +859,17 @@ public final class JavaGenerator {
             adapterName, javaType, adapterJavaType, type.getType(), type.getSyntax()));
     // Note: The non-compact implementation is added at the very bottom of the surrounding type.
 
+    ClassName jsonCodecJavaType = null;
+    if (emitJsonCodecs) {
+      String jsonCodecClassName = nameAllocator.newName("JsonCodec_" + javaType.simpleName());
+      jsonCodecJavaType = javaType.nestedClass(jsonCodecClassName);
+      builder.addField(
+          FieldSpec.builder(jsonCodecOf(javaType), nameAllocator.get("JSON_CODEC"))
+              .addModifiers(PUBLIC, STATIC, FINAL)
+              .initializer("new $T()", jsonCodecJavaType)
+              .build());
+    }
+
     if (emitAndroid) {
       TypeName creatorType = creatorOf(javaType);
       String creatorName = nameAllocator.get("CREATOR");
@@ -896,6 +954,11 @@ public final class JavaGenerator {
           messageAdapter(nameAllocator, type, javaType, adapterJavaType, builderJavaType));
     }
 
+    if (jsonCodecJavaType != null) {
+      builder.addType(
+          messageJsonCodec(nameAllocator, type, javaType, jsonCodecJavaType, builderJavaType));
+    }
+
     return builder.build();
   }
 
@@ -1221,6 +1284,71 @@ public final class JavaGenerator {
     return adapter.build();
   }
 
+  // Example:
+  //
+  // private static final class JsonCodec_Person extends MessageJsonCodec<Person> {
+  //   @Override
+  //   public void encode(Person value, MessageJsonCodec.FieldWriter writer) { ... }
+  //
+  //   @Override
+  //   public Person decode(MessageJsonCodec.FieldReader reader) { ... }
+  // }
+  //
+  private TypeSpec messageJsonCodec(
+      NameAllocator nameAllocator,
+      MessageType type,
+      ClassName javaType,
+      ClassName jsonCodecJavaType,
+      ClassName builderJavaType) {
+    List<Field> fields = type.getFieldsAndOneOfFields();
+
+    MethodSpec.Builder encode =
+        MethodSpec.methodBuilder("encode")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .addParameter(javaType, "value")
+            .addParameter(MESSAGE_JSON_CODEC.nestedClass("FieldWriter"), "writer");
+    for (Field field : fields) {
+      encode.addStatement("writer.write($L, value.$L)", field.getTag(), nameAllocator.get(field));
+    }
+
+    MethodSpec.Builder decode =
+        MethodSpec.methodBuilder("decode")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(javaType)
+            .addParameter(MESSAGE_JSON_CODEC.nestedClass("FieldReader"), "reader");
+    boolean uncheckedCasts = false;
+    decode.addStatement("$1T builder = new $1T()", builderJavaType);
+    decode.beginControlFlow("for (int tag; (tag = reader.nextTag()) != -1;)");
+    decode.beginControlFlow("switch (tag)");
+    for (Field field : fields) {
+      TypeName fieldType = fieldType(field).box();
+      uncheckedCasts |= fieldType instanceof ParameterizedTypeName;
+      decode.addStatement(
+          "case $L: builder.$L(($T) reader.value()); break",
+          field.getTag(),
+          nameAllocator.get(field),
+          fieldType);
+    }
+    decode.endControlFlow(); // switch
+    decode.endControlFlow(); // for
+    decode.addStatement("return builder.build()");
+    if (uncheckedCasts) {
+      decode.addAnnotation(
+          AnnotationSpec.builder(SuppressWarnings.class)
+              .addMember("value", "$S", "unchecked")
+              .build());
+    }
+
+    return TypeSpec.classBuilder(jsonCodecJavaType.simpleName())
+        .superclass(jsonCodecOf(javaType))
+        .addModifiers(PRIVATE, STATIC, FINAL)
+        .addMethod(encode.build())
+        .addMethod(decode.build())
+        .build();
+  }
+
   private MethodSpec messageAdapterEncodedSize(
       NameAllocator nameAllocator, MessageType type, TypeName javaType, boolean useBuilder) {
     MethodSpec.Builder result =
@@ -1352,7 +1480,7 @@ public final class JavaGenerator {
         if (useBuilder) {
           result.nextControlFlow("catch ($T e)", EnumConstantNotFoundException.class);
           result.addStatement(
-              "builder.addUnknownField(tag, $T.VARINT, (long) e.value)", FieldEncoding.class);
+              "reader.addUnknownField(tag, $T.VARINT, (long) e.value)", FieldEncoding.class);
           result.endControlFlow(); // try/catch
         } else {
           result.nextControlFlow("catch ($T ignored)", EnumConstantNotFoundException.class);
@@ -1520,11 +1648,41 @@ public final class JavaGenerator {
       return result.build();
     }
 
+    // A message without redactions anywhere in its subtree is returned as-is.
+    if (!redactableTypes.get().contains(type.getType())) {
+      result.addStatement("return value");
+      return result.build();
+    }
+
+    // Without redacted fields of its own, a message is returned as-is if redacting doesn't change
+    // its children and it has no unknown fields. Only children that hold redactions are redacted.
+    Map<Field, String> redactedChildren = new LinkedHashMap<>();
+    if (redactedFieldCount == 0) {
+      NameAllocator localNames = new NameAllocator();
+      localNames.newName("value", "value");
+      localNames.newName("builder", "builder");
+      List<CodeBlock> unchanged = new ArrayList<>();
+      for (Field field : type.getFieldsAndOneOfFields()) {
+        CodeBlock redactedChild = redactedChild(nameAllocator, field);
+        if (redactedChild == null) continue;
+        String fieldName = nameAllocator.get(field);
+        String localName = localNames.newName(fieldName, field);
+        result.addStatement("$T $N = $L", fieldType(field), localName, redactedChild);
+        unchanged.add(CodeBlock.of("$N == value.$N", localName, fieldName));
+        redactedChildren.put(field, localName);
+      }
+      unchanged.add(CodeBlock.of("value.unknownFields().size() == 0"));
+      result.addStatement("if ($L) return value", CodeBlock.join(unchanged, " && "));
+    }
+
     result.addStatement("$1T builder = value.newBuilder()", builderJavaType);
 
     for (Field field : type.getFieldsAndOneOfFields()) {
       String fieldName = nameAllocator.get(field);
-      if (field.isRedacted()) {
+      String localName = redactedChildren.get(field);
+      if (localName != null) {
+        result.addStatement("builder.$N = $N", fieldName, localName);
+      } else if (field.isRedacted()) {
         if (field.isRepeated()) {
           result.addStatement("builder.$N = $T.emptyList()", fieldName, Collections.class);
         } else if (field.getType().isMap()) {
@@ -1532,7 +1690,7 @@ public final class JavaGenerator {
         } else {
           result.addStatement("builder.$N = null", fieldName);
         }
-      } else if (!field.getType().isScalar() && !isEnum(field.getType())) {
+      } else if (hasRedactableValues(field)) {
         if (field.isRepeated()) {
           CodeBlock adapter = singleAdapterFor(field, nameAllocator);
           result.addStatement(
@@ -1561,6 +1719,40 @@ public final class JavaGenerator {
     return result.build();
   }
 
+  /**
+   * Returns an expression that redacts the value of {@code field}, a field that isn't redacted
+   * itself. Returns null if the field's values can't contain redactions.
+   */
+  private @Nullable CodeBlock redactedChild(NameAllocator nameAllocator, Field field) {
+    if (!hasRedactableValues(field)) return null;
+    ProtoType type = field.getType();
+    String fieldName = nameAllocator.get(field);
+    if (field.isRepeated()) {
+      CodeBlock adapter = singleAdapterFor(field, nameAllocator);
+      return CodeBlock.of(
+          "$T.redactedElements(value.$N, $L)", Internal.class, fieldName, adapter);
+    }
+    if (type.isMap()) {
+      ProtoType valueType = type.getValueType();
+      return CodeBlock.of(
+          "$T.redactedElements(value.$N, $L)",
+          Internal.class,
+          fieldName,
+          singleAdapterFor(valueType));
+    }
+    CodeBlock adapter = adapterFor(field, nameAllocator);
+    if (field.isRequired()) {
+      return CodeBlock.of("$L.redact(value.$N)", adapter, fieldName);
+    }
+    return CodeBlock.of("value.$1N != null ? $2L.redact(value.$1N) : null", fieldName, adapter);
+  }
+
+  /** Returns true if redacting the values of {@code field} may change them. */
+  private boolean hasRedactableValues(Field field) {
+    ProtoType type = field.getType();
+    return redactableTypes.get().contains(type.isMap() ? type.getValueType() : type);
+  }
+
   private String fieldName(ProtoType type, Field field) {
     MessageType messageType = (MessageType) schema.getType(type);
     NameAllocator names = nameAllocators.getUnchecked(messageType);
@@ -1885,6 +2077,7 @@ public final class JavaGenerator {
   //   if (other == this) return true;
   //   if (!(other instanceof SimpleMessage)) return false;
   //   SimpleMessage o = (SimpleMessage) other;
+  //   if (super.hashCode != 0 && o.hashCode != 0 && super.hashCode != o.hashCode) return false;
   //   return equals(unknownFields(), o.unknownFields())
   //       && equals(optional_int32, o.optional_int32);
   //
@@ -1905,9 +2098,16 @@ public final class JavaGenerator {
     result.addStatement("if (!($N instanceof $T)) return false", otherName, javaType);
 
     result.addStatement("$T $N = ($T) $N", javaType, oName, javaType, otherName);
-    result.addCode("$[return unknownFields().equals($N.unknownFields())", oName);
 
     List<Field> fields = type.getFieldsAndOneOfFields();
+    if (!fields.isEmpty()) {
+      // Messages with different cached hash codes can't be equal.
+      result.addStatement(
+          "if (super.hashCode != 0 && $1N.hashCode != 0 && super.hashCode != $1N.hashCode) return false",
+          oName);
+    }
+    result.addCode("$[return unknownFields().equals($N.unknownFields())", oName);
+
     for (Field field : fields) {
       String fieldName = localNameAllocator.get(field);
       if (field.isRequired() || field.isRepeated() || field.getType().isMap()) {
@@ -47,6 +47,12 @@ class JavaSchemaHandler(
 
   /** If true, the constructor of all generated types will be non-public. */
   private val buildersOnly: Boolean = false,
+
+  /**
+   * If true, each generated message gets a `JSON_CODEC` that reads and writes its fields without
+   * reflection. `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+   */
+  private val emitJsonCodecs: Boolean = false,
 ) : SchemaHandler() {
   private lateinit var javaGenerator: JavaGenerator
 
@@ -60,6 +66,7 @@ class JavaSchemaHandler(
       .withCompact(compact)
       .withOptions(emitDeclaredOptions, emitAppliedOptions)
       .withBuildersOnly(buildersOnly)
+      .withJsonCodecs(emitJsonCodecs)
 
     context.fileSystem.createDirectories(context.outDirectory)
 
@@ -633,6 +633,53 @@ public final class JavaGeneratorTest {
                 + "  }\n");
   }
 
+  @Test
+  public void redactReturnsMessagesWithoutRedactionsAsIs() throws IOException {
+    Schema schema =
+        new SchemaBuilder()
+            .add(
+                Path.get("message.proto"),
+                ""
+                    + "import \"option_redacted.proto\";\n"
+                    + "message Outer {\n"
+                    + "  optional Secret secret = 1;\n"
+                    + "  optional Plain plain = 2;\n"
+                    + "}\n"
+                    + "message Secret {\n"
+                    + "  optional string text = 1 [(squareup.protos.redacted_option.redacted) = true];\n"
+                    + "}\n"
+                    + "message Plain {\n"
+                    + "  optional string text = 1;\n"
+                    + "}\n")
+            .add(
+                Path.get("option_redacted.proto"),
+                ""
+                    + "package squareup.protos.redacted_option;\n"
+                    + "import \"google/protobuf/descriptor.proto\";\n"
+                    + "extend google.protobuf.FieldOptions {\n"
+                    + "  optional bool redacted = 22200;\n"
+                    + "}\n")
+            .build();
+    JavaWithProfilesGenerator generator = new JavaWithProfilesGenerator(schema);
+    assertThat(generator.generateJava("Plain"))
+        .contains(
+            ""
+                + "    public Plain redact(Plain value) {\n"
+                + "      return value;\n"
+                + "    }\n");
+    assertThat(generator.generateJava("Outer"))
+        .contains(
+            ""
+                + "    public Outer redact(Outer value) {\n"
+                + "      Secret secret = value.secret != null ? Secret.ADAPTER.redact(value.secret) : null;\n"
+                + "      if (secret == value.secret && value.unknownFields().size() == 0) return value;\n"
+                + "      Builder builder = value.newBuilder();\n"
+                + "      builder.secret = secret;\n"
+                + "      builder.clearUnknownFields();\n"
+                + "      return builder.build();\n"
+                + "    }\n");
+  }
+
   @Test
   public void nestedAbstractAdapterIsStatic() throws IOException {
     Schema schema =
@@ -886,6 +933,37 @@ public final class JavaGeneratorTest {
     assertThat(javaOutput).doesNotContain("public InnerMessage(");
   }
 
+  @Test
+  public void emitJsonCodecs() throws Exception {
+    Schema schema =
+        new SchemaBuilder()
+            .add(
+                Path.get("message.proto"),
+                ""
+                    + "syntax = \"proto2\";\n"
+                    + "message Person {\n"
+                    + "  required string name = 1;\n"
+                    + "  repeated string emails = 2;\n"
+                    + "}\n")
+            .build();
+    String javaOutput =
+        new JavaWithProfilesGenerator(schema)
+            .generateJava(
+                "Person",
+                null /* profileName */,
+                false /* buildersOnly */,
+                false /* emitDeclaredOptions */,
+                false /* emitAppliedOptions */,
+                true /* emitJsonCodecs */);
+    assertThat(javaOutput)
+        .contains("public static final MessageJsonCodec<Person> JSON_CODEC = new JsonCodec_Person();");
+    assertThat(javaOutput)
+        .contains("private static final class JsonCodec_Person extends MessageJsonCodec<Person> {");
+    assertThat(javaOutput).contains("writer.write(2, value.emails);");
+    assertThat(javaOutput).contains("case 2: builder.emails((List<String>) reader.value()); break;");
+    assertThat(javaOutput).contains("@SuppressWarnings(\"unchecked\")");
+  }
+
   @Test
   public void generateTypeUsesPackageNameOnFieldAndClassNameClashWithinPackage() throws Exception {
     Schema schema =
@@ -0,0 +1,8 @@
+plugins {
+  kotlin("jvm")
+}
+
+dependencies {
+  implementation(projects.wireRuntime)
+  api(libs.okio.core)
+}
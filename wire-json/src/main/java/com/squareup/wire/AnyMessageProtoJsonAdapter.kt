@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+internal class AnyMessageProtoJsonAdapter(
+  private val protoJson: ProtoJson,
+) : ProtoJsonAdapter<AnyMessage>() {
+  private val typeRegistry = protoJson.typeRegistry
+
+  override fun write(writer: ProtoJsonWriter, value: AnyMessage) {
+    writer.beginObject()
+    writer.name(TYPE_NAME)
+    writer.value(value.typeUrl)
+
+    val protoAdapter = typeRegistry[value.typeUrl]
+      ?: throw ProtoJsonException("Cannot find type for url: ${value.typeUrl}")
+
+    if (protoAdapter == ProtoAdapter.FIELD_MASK) {
+      writer.name(VALUE_NAME)
+      protoJson.adapter(FieldMask::class.java).write(writer, value.unpack(typeRegistry) as FieldMask)
+    } else {
+      messageAdapter(protoAdapter).writeFields(writer, value.unpack(typeRegistry))
+    }
+    writer.endObject()
+  }
+
+  override fun read(reader: ProtoJsonReader): AnyMessage {
+    val typeUrl = reader.peekJson().readStringNamed("@type")
+      ?: throw ProtoJsonException("expected @type in ${reader.path}")
+
+    val protoAdapter = typeRegistry[typeUrl]
+      ?: throw ProtoJsonException("Cannot resolve type: $typeUrl in ${reader.path}")
+
+    if (protoAdapter == ProtoAdapter.FIELD_MASK) {
+      var fieldMask = FieldMask()
+      reader.beginObject()
+      while (reader.hasNext()) {
+        if (reader.nextName() == "value" && reader.peek() != ProtoJsonReader.Token.NULL) {
+          fieldMask = protoJson.adapter(FieldMask::class.java).read(reader) ?: FieldMask()
+        } else {
+          reader.skipValue()
+        }
+      }
+      reader.endObject()
+      return AnyMessage(typeUrl, ProtoAdapter.FIELD_MASK.encodeByteString(fieldMask))
+    }
+
+    // The delegate skips the "@type" member like any other unknown member.
+    @Suppress("UNCHECKED_CAST")
+    return AnyMessage.pack(protoAdapter as ProtoAdapter<Any>, messageAdapter(protoAdapter).read(reader))
+  }
+
+  @Suppress("UNCHECKED_CAST")
+  private fun messageAdapter(protoAdapter: ProtoAdapter<*>) =
+    protoJson.adapter(protoAdapter as ProtoAdapter<Any>) as MessageProtoJsonAdapter<*, *>
+
+  /** Returns the string named [name] of an object, or null if no such member exists. */
+  private fun ProtoJsonReader.readStringNamed(name: String): String? {
+    beginObject()
+    while (hasNext()) {
+      if (nextName() == name) {
+        return nextString()
+      } else {
+        skipValue()
+      }
+    }
+    return null
+  }
+
+  private companion object {
+    val TYPE_NAME = ProtoJsonWriter.encodeName("@type")
+    val VALUE_NAME = ProtoJsonWriter.encodeName("value")
+  }
+}
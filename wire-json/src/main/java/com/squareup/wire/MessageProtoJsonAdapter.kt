@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import com.squareup.wire.ProtoJsonReader.NameOptions
+import com.squareup.wire.ProtoJsonReader.Token
+import com.squareup.wire.internal.RuntimeMessageAdapter
+import okio.ByteString
+
+/**
+ * Reads and writes messages of [messageAdapter]. These are usually generated messages, but may be
+ * maps of field names to values for message adapters created from a schema.
+ */
+internal class MessageProtoJsonAdapter<M : Any, B : Any>(
+  private val protoJson: ProtoJson,
+  val messageAdapter: RuntimeMessageAdapter<M, B>,
+  private val jsonCodec: MessageJsonCodec<M>?,
+) : ProtoJsonAdapter<M>() {
+  /** A field's adapter and its name, encoded with [ProtoJsonWriter.encodeName]. */
+  class JsonField(
+    val encodedName: ByteString,
+    val adapter: ProtoJsonAdapter<Any>,
+  )
+
+  /**
+   * Field adapters are created on first use so that adapters for recursive message types can find
+   * this one.
+   */
+  val fields: List<JsonField> by lazy {
+    val adapters = ProtoJsonIntegration.jsonAdapters(messageAdapter, protoJson)
+    messageAdapter.jsonNames.mapIndexed { index, name ->
+      JsonField(ProtoJsonWriter.encodeName(name), adapters[index])
+    }
+  }
+
+  private val nameMatcher = messageAdapter.jsonNameMatcher
+  private val nameOptions = NameOptions(nameMatcher.names)
+
+  override fun write(writer: ProtoJsonWriter, value: M) {
+    writer.beginObject()
+    writeFields(writer, value)
+    writer.endObject()
+  }
+
+  /** Writes the fields of [value], an [M], to an object that the caller has already begun. */
+  fun writeFields(writer: ProtoJsonWriter, value: Any) {
+    @Suppress("UNCHECKED_CAST")
+    messageAdapter.writeAllFields(
+      message = value as M,
+      jsonAdapters = fields,
+      redactedFieldsAdapter = null,
+      jsonCodec = jsonCodec,
+    ) { _, fieldValue, field ->
+      writer.name(field.encodedName)
+      field.adapter.write(writer, fieldValue!!)
+    }
+  }
+
+  override fun read(reader: ProtoJsonReader): M {
+    reader.beginObject()
+    val message = when (jsonCodec) {
+      null -> {
+        val builder = messageAdapter.newBuilder()
+        while (true) {
+          val index = nextFieldIndex(reader)
+          if (index == -1) break
+          val value = fields[index].adapter.read(reader) ?: continue
+          messageAdapter.fieldBindingsArray[index].set(builder, value)
+        }
+        messageAdapter.build(builder)
+      }
+      else -> jsonCodec.decode(
+        object : MessageJsonCodec.FieldReader {
+          private var value: Any? = null
+
+          override fun nextTag(): Int {
+            while (true) {
+              val index = nextFieldIndex(reader)
+              if (index == -1) return -1
+              value = fields[index].adapter.read(reader) ?: continue
+              return messageAdapter.fieldBindingsArray[index].tag
+            }
+          }
+
+          override fun value(): Any = value!!
+        },
+      )
+    }
+    reader.endObject()
+    return message
+  }
+
+  override fun writeStreaming(
+    writer: ProtoJsonWriter,
+    value: M,
+    fieldName: String,
+    elements: Iterator<*>,
+  ) {
+    val index = repeatedFieldIndex(fieldName)
+    val streamedField = fields[index]
+    writer.beginObject()
+    messageAdapter.writeAllFields(
+      message = value,
+      jsonAdapters = fields,
+      redactedFieldsAdapter = null,
+      jsonCodec = jsonCodec,
+    ) { _, fieldValue, field ->
+      if (field === streamedField) return@writeAllFields
+      writer.name(field.encodedName)
+      field.adapter.write(writer, fieldValue!!)
+    }
+    writer.name(streamedField.encodedName)
+    @Suppress("UNCHECKED_CAST")
+    val listAdapter = streamedField.adapter as ProtoJsonIntegration.ListAdapter<Any>
+    @Suppress("UNCHECKED_CAST")
+    listAdapter.writeElements(writer, elements as Iterator<Any>)
+    writer.endObject()
+  }
+
+  override fun readStreaming(reader: ProtoJsonReader, fieldName: String, action: (Any) -> Unit): M {
+    val streamedIndex = repeatedFieldIndex(fieldName)
+    val builder = messageAdapter.newBuilder()
+    reader.beginObject()
+    while (true) {
+      val index = nextFieldIndex(reader)
+      if (index == -1) break
+      if (index == streamedIndex) {
+        @Suppress("UNCHECKED_CAST")
+        (fields[index].adapter as ProtoJsonIntegration.ListAdapter<Any>).readElements(reader, action)
+        continue
+      }
+      val value = fields[index].adapter.read(reader) ?: continue
+      messageAdapter.fieldBindingsArray[index].set(builder, value)
+    }
+    reader.endObject()
+    return messageAdapter.build(builder)
+  }
+
+  private fun repeatedFieldIndex(fieldName: String): Int {
+    val index = nameMatcher.fieldIndex(fieldName)
+    require(index != -1 && messageAdapter.fieldBindingsArray[index].label.isRepeated) {
+      "${messageAdapter.type?.java?.name} has no repeated field $fieldName"
+    }
+    return index
+  }
+
+  /**
+   * Returns the index of the next field in the object that has a value, or -1 if there are no more
+   * such fields. Members that aren't fields of this message are skipped, as are null values, which
+   * ProtoJSON reads as the field's default value.
+   */
+  fun nextFieldIndex(reader: ProtoJsonReader): Int {
+    while (reader.hasNext()) {
+      val option = reader.selectName(nameOptions)
+      if (option == -1 || reader.peek() == Token.NULL) {
+        reader.skipValue()
+        continue
+      }
+      return nameMatcher.fieldIndexOfName(option)
+    }
+    return -1
+  }
+}
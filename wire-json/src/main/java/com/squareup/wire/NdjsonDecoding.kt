@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveTask
+import okio.Buffer
+import okio.ByteString
+import okio.ByteString.Companion.encodeUtf8
+
+/**
+ * Decodes the lines of [ndjson] on [pool]. The input is split at line breaks into a few chunks per
+ * worker, so that workers which finish early can take another, and each chunk is decoded in order
+ * with one [NdjsonMessageSource].
+ */
+internal fun <T : Any> ProtoJsonAdapter<T>.decodeNdjsonParallel(
+  ndjson: ByteString,
+  pool: ForkJoinPool,
+): List<T> {
+  val chunkSize = maxOf(MIN_CHUNK_SIZE, ndjson.size / (pool.parallelism * CHUNKS_PER_WORKER))
+  val chunks = mutableListOf<DecodeNdjsonChunk<T>>()
+  var start = 0
+  while (start < ndjson.size) {
+    val lineBreak = when {
+      ndjson.size - start <= chunkSize -> -1
+      else -> ndjson.indexOf(LINE_BREAK, start + chunkSize)
+    }
+    val end = if (lineBreak == -1) ndjson.size else lineBreak + 1
+    chunks += DecodeNdjsonChunk(this, ndjson, start, end)
+    start = end
+  }
+  return when (chunks.size) {
+    0 -> listOf()
+    1 -> chunks[0].invoke()
+    else -> pool.invoke(DecodeNdjsonChunks(chunks))
+  }
+}
+
+/** Enough chunks that workers which finish early can take work from slower ones. */
+private const val CHUNKS_PER_WORKER = 4
+
+/** Smaller chunks cost more to coordinate than they save. */
+private const val MIN_CHUNK_SIZE = 64 * 1024
+
+private val LINE_BREAK = "\n".encodeUtf8()
+
+private class DecodeNdjsonChunks<T : Any>(
+  private val chunks: List<DecodeNdjsonChunk<T>>,
+) : RecursiveTask<List<T>>() {
+  override fun compute(): List<T> {
+    invokeAll(chunks)
+    return chunks.flatMap { it.join() }
+  }
+}
+
+private class DecodeNdjsonChunk<T : Any>(
+  private val adapter: ProtoJsonAdapter<T>,
+  private val ndjson: ByteString,
+  private val start: Int,
+  private val end: Int,
+) : RecursiveTask<List<T>>() {
+  override fun compute(): List<T> {
+    val source = NdjsonMessageSource(Buffer().write(ndjson, start, end - start), adapter)
+    val result = mutableListOf<T>()
+    while (true) {
+      result += source.read() ?: break
+    }
+    return result
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import java.io.IOException
+import okio.BufferedSink
+
+/**
+ * Writes a stream of messages as [NDJSON](https://github.com/ndjson/ndjson-spec), one JSON object
+ * per line, that can be read by [NdjsonMessageSource].
+ *
+ * Each message is written directly to [sink] by one writer that is reused for every line, so
+ * writing doesn't buffer messages or allocate per message.
+ *
+ * @param flushInterval the number of messages to write between flushes of [sink]. The default of
+ *     1 flushes after every message. Use a larger value to batch small messages into fewer writes
+ *     to the underlying file or socket; call [flush] to flush a partial batch.
+ */
+class NdjsonMessageSink<T : Any> @JvmOverloads constructor(
+  private val sink: BufferedSink,
+  private val messageAdapter: ProtoJsonAdapter<T>,
+  private val flushInterval: Int = 1,
+) : MessageSink<T> {
+  private val writer = ProtoJsonWriter(sink)
+  private var unflushedCount = 0
+  private var closed = false
+
+  init {
+    require(flushInterval >= 1) { "flushInterval < 1: $flushInterval" }
+  }
+
+  @Throws(IOException::class)
+  override fun write(message: T) {
+    check(!closed) { "closed" }
+
+    messageAdapter.write(writer, message)
+    writer.newline()
+
+    if (++unflushedCount >= flushInterval) {
+      flush()
+    }
+  }
+
+  /** Flushes messages that have been written but not yet flushed to the underlying stream. */
+  @Throws(IOException::class)
+  fun flush() {
+    check(!closed) { "closed" }
+    unflushedCount = 0
+    sink.flush()
+  }
+
+  /**
+   * Closes the underlying stream. NDJSON has no way to signal abnormal termination, so readers
+   * will see only the messages written before this call.
+   */
+  @Throws(IOException::class)
+  override fun cancel() {
+    check(!closed) { "closed" }
+    close()
+  }
+
+  @Throws(IOException::class)
+  override fun close() {
+    if (closed) return
+    closed = true
+    sink.close()
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import java.io.IOException
+import okio.BufferedSource
+
+/**
+ * Reads a stream of messages written as [NDJSON](https://github.com/ndjson/ndjson-spec), one JSON
+ * object per line, such as by [NdjsonMessageSink]. Blank lines are skipped.
+ *
+ * One reader is reused for every line, and each message is read directly from [source] without
+ * first reading its line into a string.
+ */
+class NdjsonMessageSource<T : Any>(
+  private val source: BufferedSource,
+  private val messageAdapter: ProtoJsonAdapter<T>,
+) : MessageSource<T> {
+  private val reader = ProtoJsonReader(source)
+  /** The number of line breaks consumed. */
+  private var lineBreakCount = 0
+  private var closed = false
+
+  @Throws(IOException::class)
+  override fun read(): T? {
+    check(!closed) { "closed" }
+
+    // Skip blank lines, and the line break of the previous message.
+    while (true) {
+      if (!source.request(1L)) return null
+      when (source.buffer[0L].toInt().toChar()) {
+        '\n' -> lineBreakCount++
+        ' ', '\t', '\r' -> Unit
+        else -> break
+      }
+      source.skip(1L)
+    }
+
+    reader.beginNextDocument()
+    val message = messageAdapter.readNonNull(reader)
+
+    // Only whitespace may follow the message on its line.
+    while (source.request(1L)) {
+      when (source.buffer[0L].toInt().toChar()) {
+        '\n' -> break
+        ' ', '\t', '\r' -> source.skip(1L)
+        else -> throw ProtoJsonException(
+          "Expected a line break after the message on line ${lineBreakCount + 1}",
+        )
+      }
+    }
+    return message
+  }
+
+  @Throws(IOException::class)
+  override fun close() {
+    if (closed) return
+    closed = true
+    source.close()
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import com.squareup.wire.internal.EnumConstantNames
+import com.squareup.wire.internal.EnumConstantNamesJsonFormatter
+import com.squareup.wire.internal.EnumJsonFormatter
+import com.squareup.wire.internal.FieldMaskJsonFormatter
+import com.squareup.wire.internal.RuntimeMessageAdapter
+import com.squareup.wire.internal.createRuntimeMessageAdapter
+import com.squareup.wire.internal.jsonCodecOrNull
+import com.squareup.wire.internal.prewarmJsonAdapters
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import kotlin.reflect.KClass
+
+/**
+ * Encodes and decodes Wire messages as [ProtoJSON](https://protobuf.dev/programming-guides/json/)
+ * without a JSON library. JSON is read from and written to okio sources and sinks as UTF-8 bytes:
+ * field names are matched and written as pre-encoded bytes, and each field is read and written with
+ * an adapter for its type.
+ *
+ * ```
+ * val protoJson = ProtoJson()
+ * val json = protoJson.adapter(Pizza::class.java).encode(pizza)
+ * ```
+ *
+ * The JSON is the same as that of `WireJsonAdapterFactory` and `WireTypeAdapterFactory` configured
+ * with the same options, except that non-finite floating point values are written as the strings
+ * `"NaN"`, `"Infinity"`, and `"-Infinity"` as ProtoJSON requires.
+ *
+ * Use [typeRegistry] to encode and decode [AnyMessage] values. In Proto3, fields set to their
+ * identity value are omitted unless [writeIdentityValues] is true. Set [preservingProtoFieldNames]
+ * to write field names as they're declared in the schema instead of in camelCase.
+ *
+ * Adapters are cached, so create a single instance and share it. Instances are thread safe.
+ */
+class ProtoJson @JvmOverloads constructor(
+  typeRegistry: TypeRegistry = TypeRegistry.EMPTY,
+  private val writeIdentityValues: Boolean = false,
+  private val preservingProtoFieldNames: Boolean = false,
+) {
+  /** Built-in adapters are registered by default; entries in [typeRegistry] take precedence. */
+  internal val typeRegistry: TypeRegistry = TypeRegistry.of(ProtoAdapter.FIELD_MASK) + typeRegistry
+
+  private val adapters = ConcurrentHashMap<Class<*>, ProtoJsonAdapter<*>>()
+  private val transcoders = ConcurrentHashMap<Class<*>, ProtoJsonTranscoder>()
+  private val schemaAdapters = ConcurrentHashMap<ProtoAdapter<*>, ProtoJsonAdapter<*>>()
+  private val schemaTranscoders = ConcurrentHashMap<ProtoAdapter<*>, ProtoJsonTranscoder>()
+
+  /**
+   * Returns an adapter for [type], which must be a Wire message, a Wire enum, [AnyMessage], or
+   * [FieldMask].
+   */
+  fun <T : Any> adapter(type: Class<T>): ProtoJsonAdapter<T> {
+    @Suppress("UNCHECKED_CAST")
+    return adapters.getOrPut(type) { create(type) } as ProtoJsonAdapter<T>
+  }
+
+  fun <T : Any> adapter(type: KClass<T>): ProtoJsonAdapter<T> = adapter(type.javaObjectType)
+
+  /**
+   * Returns an adapter for the values of [protoAdapter], which must be an adapter for a message or
+   * enum type. Use this with adapters from `Schema.protoAdapter()`, which have no generated
+   * classes: their messages are maps of field names to values, and their enums are constant names.
+   * Field names, `json_name` options, enums, and well-known types are handled as they are for
+   * generated messages.
+   *
+   * ```
+   * val adapter = protoJson.adapter(schema.protoAdapter("squareup.Pizza", includeUnknown = false))
+   * val json = adapter.encode(mapOf("toppings" to listOf("cheese")))
+   * ```
+   *
+   * Adapters are cached by [protoAdapter], so reuse it rather than creating one per call. Unknown
+   * fields aren't written.
+   */
+  fun <T : Any> adapter(protoAdapter: ProtoAdapter<T>): ProtoJsonAdapter<T> {
+    if (!protoAdapter.isSchemaType) {
+      val type = protoAdapter.type?.javaObjectType
+        ?: throw IllegalArgumentException("no ProtoJSON adapter for $protoAdapter")
+      @Suppress("UNCHECKED_CAST")
+      return adapter(type as Class<T>)
+    }
+    @Suppress("UNCHECKED_CAST")
+    return schemaAdapters.getOrPut(protoAdapter) { createSchemaAdapter(protoAdapter) } as ProtoJsonAdapter<T>
+  }
+
+  /**
+   * Returns a transcoder between the binary encoding and ProtoJSON for [type], which must be a Wire
+   * message.
+   */
+  fun transcoder(type: Class<*>): ProtoJsonTranscoder {
+    return transcoders.getOrPut(type) {
+      @Suppress("UNCHECKED_CAST")
+      val jsonAdapter = adapter(type as Class<Any>) as? MessageProtoJsonAdapter<*, *>
+        ?: throw IllegalArgumentException("no ProtoJSON transcoder for $type")
+      ProtoJsonTranscoder(this, jsonAdapter)
+    }
+  }
+
+  fun transcoder(type: KClass<*>): ProtoJsonTranscoder = transcoder(type.javaObjectType)
+
+  /**
+   * Returns a transcoder between the binary encoding and ProtoJSON for messages of [protoAdapter],
+   * which may be an adapter from `Schema.protoAdapter()`.
+   */
+  fun transcoder(protoAdapter: ProtoAdapter<*>): ProtoJsonTranscoder {
+    if (!protoAdapter.isSchemaType) {
+      val type = protoAdapter.type?.javaObjectType
+        ?: throw IllegalArgumentException("no ProtoJSON transcoder for $protoAdapter")
+      return transcoder(type)
+    }
+    return schemaTranscoders.getOrPut(protoAdapter) {
+      @Suppress("UNCHECKED_CAST")
+      val jsonAdapter = adapter(protoAdapter as ProtoAdapter<Any>) as? MessageProtoJsonAdapter<*, *>
+        ?: throw IllegalArgumentException("no ProtoJSON transcoder for $protoAdapter")
+      ProtoJsonTranscoder(this, jsonAdapter)
+    }
+  }
+
+  /**
+   * Creates and caches the adapters for [types], and for the message types in [typeRegistry], so
+   * their first use doesn't pay for reflection and adapter creation. Adapters for the messages and
+   * enums that these types reference are created too.
+   *
+   * Each type is prewarmed as a task on [pool]; [listener] is told how long each took. The returned
+   * future completes when all are done.
+   */
+  @JvmOverloads
+  fun prewarm(
+    types: Collection<Class<*>>,
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+    listener: JsonPrewarmListener = JsonPrewarmListener.NONE,
+  ): CompletableFuture<Void?> = prewarmJsonAdapters(types, typeRegistry, pool, listener) { type ->
+    prewarm(type, mutableSetOf())
+  }
+
+  /** Creates the adapter for [type] and, unlike [adapter], the adapters for its fields. */
+  private fun prewarm(type: Class<*>, visited: MutableSet<Class<*>>) {
+    if (!visited.add(type)) return
+    @Suppress("UNCHECKED_CAST")
+    val adapter = adapter(type as Class<Any>) as? MessageProtoJsonAdapter<*, *> ?: return
+    adapter.fields // Field adapters are created lazily.
+    for (field in adapter.messageAdapter.fields.values) {
+      val fieldType = field.singleAdapter.type?.javaObjectType ?: continue
+      if (Message::class.java.isAssignableFrom(fieldType)) prewarm(fieldType, visited)
+    }
+  }
+
+  /** Adapters created from a schema have no message or enum classes. */
+  private val ProtoAdapter<*>.isSchemaType: Boolean
+    get() = this is EnumConstantNames || (this is RuntimeMessageAdapter<*, *> && type == Map::class)
+
+  /** Returns an adapter for the messages or enums of [protoAdapter], which is a schema type. */
+  @Suppress("UNCHECKED_CAST")
+  private fun createSchemaAdapter(protoAdapter: ProtoAdapter<*>): ProtoJsonAdapter<*> = when (protoAdapter) {
+    is EnumConstantNames -> ProtoJsonIntegration.formatterAdapter(EnumConstantNamesJsonFormatter(protoAdapter))
+    else -> {
+      var messageAdapter = protoAdapter as RuntimeMessageAdapter<Any, Any>
+      if (preservingProtoFieldNames) messageAdapter = messageAdapter.preservingProtoFieldNames()
+      MessageProtoJsonAdapter(this, messageAdapter, jsonCodec = null)
+    }
+  }
+
+  @Suppress("UNCHECKED_CAST")
+  private fun create(type: Class<*>): ProtoJsonAdapter<*> = when {
+    type == AnyMessage::class.java -> AnyMessageProtoJsonAdapter(this)
+    type == FieldMask::class.java -> ProtoJsonIntegration.formatterAdapter(FieldMaskJsonFormatter)
+    Message::class.java.isAssignableFrom(type) -> {
+      val messageAdapter = createRuntimeMessageAdapter<Nothing, Nothing>(
+        messageType = type as Class<Nothing>,
+        writeIdentityValues = writeIdentityValues,
+        preservingProtoFieldNames = preservingProtoFieldNames,
+        classLoader = type.classLoader,
+      )
+      MessageProtoJsonAdapter(this, messageAdapter, jsonCodecOrNull(type as Class<Nothing>))
+    }
+    WireEnum::class.java.isAssignableFrom(type) -> {
+      val enumAdapter = RuntimeEnumAdapter.create(type as Class<Nothing>)
+      ProtoJsonIntegration.formatterAdapter(EnumJsonFormatter(enumAdapter))
+    }
+    else -> ProtoJsonIntegration.scalarAdapter(type)
+      ?: throw IllegalArgumentException("no ProtoJSON adapter for $type")
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import java.io.IOException
+import java.util.concurrent.ForkJoinPool
+import okio.Buffer
+import okio.BufferedSink
+import okio.BufferedSource
+import okio.ByteString
+
+/**
+ * Encodes and decodes values of type [T] as ProtoJSON. Get instances from [ProtoJson.adapter].
+ *
+ * ```
+ * val adapter = protoJson.adapter(Pizza::class.java)
+ * val json = adapter.encode(pizza)
+ * val decoded = adapter.decode(json)
+ * ```
+ */
+abstract class ProtoJsonAdapter<T : Any> internal constructor() {
+  /** Writes [value], which is never null. */
+  internal abstract fun write(writer: ProtoJsonWriter, value: T)
+
+  /**
+   * Reads a value, which is never a JSON null. Returns null if the value isn't recognized, like an
+   * unknown enum constant.
+   */
+  internal abstract fun read(reader: ProtoJsonReader): T?
+
+  /** Writes [value] as UTF-8 encoded JSON to [sink]. */
+  @Throws(IOException::class)
+  fun encode(value: T, sink: BufferedSink) {
+    write(ProtoJsonWriter(sink), value)
+  }
+
+  fun encode(value: T): String {
+    val buffer = Buffer()
+    encode(value, buffer)
+    return buffer.readUtf8()
+  }
+
+  /**
+   * Reads one JSON value from [source]. Bytes that follow the value are not consumed, so values
+   * can be read from a stream one after another.
+   */
+  @Throws(IOException::class)
+  fun decode(source: BufferedSource): T = readNonNull(ProtoJsonReader(source))
+
+  /** Reads [json], which must contain exactly one JSON value. */
+  @Throws(IOException::class)
+  fun decode(json: String): T {
+    val reader = ProtoJsonReader(Buffer().writeUtf8(json))
+    val result = readNonNull(reader)
+    if (reader.peek() != ProtoJsonReader.Token.END_DOCUMENT) {
+      throw ProtoJsonException("JSON document was not fully consumed")
+    }
+    return result
+  }
+
+  /**
+   * Decodes [ndjson], which holds one JSON value per line as in
+   * [NDJSON](https://github.com/ndjson/ndjson-spec), and returns the values in order. The input is
+   * split at line breaks and decoded on the workers of [pool]. Use [NdjsonMessageSource] to decode
+   * a stream sequentially instead.
+   *
+   * To limit the number of threads, pass a [ForkJoinPool] created with the desired parallelism and
+   * reuse it across calls.
+   */
+  @Throws(IOException::class)
+  @JvmOverloads
+  fun decodeNdjson(
+    ndjson: ByteString,
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+  ): List<T> = decodeNdjsonParallel(ndjson, pool)
+
+  /**
+   * Writes [value] as UTF-8 encoded JSON to [sink], taking the elements of its repeated field
+   * [fieldName] from [elements] as they are produced instead of from [value]. Use this to write a
+   * message whose repeated field is too large to hold in memory; the field is written after the
+   * message's other fields.
+   *
+   * @param fieldName the field's JSON name or its name in the schema.
+   * @throws IllegalArgumentException if this isn't an adapter for a message with a repeated field
+   *     named [fieldName].
+   */
+  @Throws(IOException::class)
+  fun encodeStreaming(value: T, fieldName: String, elements: Iterator<*>, sink: BufferedSink) {
+    writeStreaming(ProtoJsonWriter(sink), value, fieldName, elements)
+  }
+
+  /**
+   * Reads one JSON object from [source], passing the elements of its repeated field [fieldName] to
+   * [action] as they are read instead of collecting them. Returns the message without that field.
+   * Use this to read a message whose repeated field is too large to hold in memory.
+   *
+   * @param fieldName the field's JSON name or its name in the schema.
+   * @throws IllegalArgumentException if this isn't an adapter for a message with a repeated field
+   *     named [fieldName].
+   */
+  @Throws(IOException::class)
+  fun <E> decodeStreaming(source: BufferedSource, fieldName: String, action: (E) -> Unit): T {
+    val reader = ProtoJsonReader(source)
+    if (reader.peek() == ProtoJsonReader.Token.NULL) {
+      throw ProtoJsonException("Unexpected null at path ${reader.path}")
+    }
+    @Suppress("UNCHECKED_CAST")
+    return readStreaming(reader, fieldName, action as (Any) -> Unit)
+  }
+
+  internal open fun writeStreaming(
+    writer: ProtoJsonWriter,
+    value: T,
+    fieldName: String,
+    elements: Iterator<*>,
+  ): Unit = throw IllegalArgumentException("streaming requires a message adapter")
+
+  internal open fun readStreaming(
+    reader: ProtoJsonReader,
+    fieldName: String,
+    action: (Any) -> Unit,
+  ): T = throw IllegalArgumentException("streaming requires a message adapter")
+
+  /** Reads a value that must be present and recognized. */
+  internal fun readNonNull(reader: ProtoJsonReader): T {
+    if (reader.peek() == ProtoJsonReader.Token.NULL) {
+      throw ProtoJsonException("Unexpected null at path ${reader.path}")
+    }
+    return read(reader) ?: throw ProtoJsonException("Unrecognized value at path ${reader.path}")
+  }
+}
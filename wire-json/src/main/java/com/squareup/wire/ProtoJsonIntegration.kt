@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import com.squareup.wire.ProtoJsonReader.Token
+import com.squareup.wire.internal.JsonFormatter
+import com.squareup.wire.internal.JsonIntegration
+import com.squareup.wire.internal.RuntimeMessageAdapter
+import com.squareup.wire.internal.StructTree
+import com.squareup.wire.internal.StructTreeBuilder
+import com.squareup.wire.internal.StructView
+import com.squareup.wire.internal.Utf8JsonFormatter
+import java.lang.reflect.Type
+import okio.Buffer
+
+internal object ProtoJsonIntegration : JsonIntegration<ProtoJson, ProtoJsonAdapter<Any>>() {
+  override fun frameworkAdapter(framework: ProtoJson, type: Type): ProtoJsonAdapter<Any> {
+    @Suppress("UNCHECKED_CAST")
+    return framework.adapter(type as Class<Any>)
+  }
+
+  override fun listAdapter(
+    elementAdapter: ProtoJsonAdapter<Any>,
+    skipNull: Boolean,
+  ): ProtoJsonAdapter<Any> {
+    @Suppress("UNCHECKED_CAST")
+    return ListAdapter(elementAdapter, skipNull) as ProtoJsonAdapter<Any>
+  }
+
+  override fun mapAdapter(
+    framework: ProtoJson,
+    keyFormatter: JsonFormatter<*>,
+    valueAdapter: ProtoJsonAdapter<Any>,
+  ): ProtoJsonAdapter<Any> {
+    @Suppress("UNCHECKED_CAST")
+    return MapAdapter(keyFormatter as JsonFormatter<Any>, valueAdapter) as ProtoJsonAdapter<Any>
+  }
+
+  override fun structAdapter(framework: ProtoJson): ProtoJsonAdapter<Any> = StructAdapter
+
+  override fun schemaMessageAdapter(
+    framework: ProtoJson,
+    messageAdapter: RuntimeMessageAdapter<*, *>,
+  ): ProtoJsonAdapter<Any> {
+    @Suppress("UNCHECKED_CAST")
+    return framework.adapter(messageAdapter as ProtoAdapter<Any>)
+  }
+
+  override fun formatterAdapter(jsonStringAdapter: JsonFormatter<*>): ProtoJsonAdapter<Any> {
+    @Suppress("UNCHECKED_CAST")
+    return FormatterAdapter(jsonStringAdapter as JsonFormatter<Any>)
+  }
+
+  /** Returns an adapter for a built-in type that JSON has a literal for, or null if there's none. */
+  fun scalarAdapter(type: Class<*>): ProtoJsonAdapter<*>? = when (type) {
+    String::class.javaObjectType -> StringAdapter
+    Int::class.javaObjectType -> IntAdapter
+    Long::class.javaObjectType -> LongAdapter
+    Float::class.javaObjectType -> FloatAdapter
+    Double::class.javaObjectType -> DoubleAdapter
+    Boolean::class.javaObjectType -> BooleanAdapter
+    Unit::class.javaObjectType -> EmptyAdapter
+    else -> null
+  }
+
+  private class FormatterAdapter<T : Any>(
+    private val formatter: JsonFormatter<T>,
+  ) : ProtoJsonAdapter<T>() {
+    /** Non-null if this formatter reads and writes bytes directly. */
+    private val utf8Formatter = formatter as? Utf8JsonFormatter<T>
+    private val parseUtf8: ((Buffer, Long) -> T?)? = utf8Formatter?.let { it::parseUtf8 }
+
+    override fun write(writer: ProtoJsonWriter, value: T) {
+      if (utf8Formatter != null) {
+        utf8Formatter.writeUtf8(value, writer.rawValue())
+        return
+      }
+      when (val stringOrNumber = formatter.toStringOrNumber(value)) {
+        is Number -> writer.value(stringOrNumber)
+        else -> writer.value(stringOrNumber as String)
+      }
+    }
+
+    override fun read(reader: ProtoJsonReader): T? {
+      if (parseUtf8 != null) {
+        reader.nextLiteralOrNull(parseUtf8)?.let { return it }
+      }
+      val string = reader.nextString()
+      try {
+        return formatter.fromString(string)
+      } catch (_: RuntimeException) {
+        throw ProtoJsonException("decode failed: $string at path ${reader.path}")
+      }
+    }
+  }
+
+  class ListAdapter<T : Any>(
+    val elementAdapter: ProtoJsonAdapter<T>,
+    val skipNull: Boolean,
+  ) : ProtoJsonAdapter<List<T>>() {
+    override fun write(writer: ProtoJsonWriter, value: List<T>) {
+      writeElements(writer, value.iterator())
+    }
+
+    fun writeElements(writer: ProtoJsonWriter, elements: Iterator<T>) {
+      writer.beginArray()
+      for (element in elements) {
+        elementAdapter.write(writer, element)
+      }
+      writer.endArray()
+    }
+
+    override fun read(reader: ProtoJsonReader): List<T> {
+      val result = ArrayList<T>()
+      readElements(reader) { result += it }
+      return result
+    }
+
+    /** Reads an array, passing each element to [action] as it is read. */
+    inline fun readElements(reader: ProtoJsonReader, action: (T) -> Unit) {
+      reader.beginArray()
+      while (reader.hasNext()) {
+        if (reader.peek() == Token.NULL) {
+          throw ProtoJsonException("Unexpected null at path ${reader.path}")
+        }
+        val element = elementAdapter.read(reader)
+        if (element == null) {
+          if (skipNull) continue
+          throw ProtoJsonException("Unrecognized value at path ${reader.path}")
+        }
+        action(element)
+      }
+      reader.endArray()
+    }
+  }
+
+  private class MapAdapter<K : Any, V : Any>(
+    private val keyFormatter: JsonFormatter<K>,
+    private val valueAdapter: ProtoJsonAdapter<V>,
+  ) : ProtoJsonAdapter<Map<K, V>>() {
+    override fun write(writer: ProtoJsonWriter, value: Map<K, V>) {
+      writer.beginObject()
+      for ((k, v) in value) {
+        writer.name(keyFormatter.toStringOrNumber(k).toString())
+        valueAdapter.write(writer, v)
+      }
+      writer.endObject()
+    }
+
+    override fun read(reader: ProtoJsonReader): Map<K, V> {
+      val result = LinkedHashMap<K, V>()
+      reader.beginObject()
+      while (reader.hasNext()) {
+        val name = reader.nextName()
+        val key = try {
+          keyFormatter.fromString(name)
+        } catch (_: RuntimeException) {
+          null
+        } ?: throw ProtoJsonException("decode failed: $name at path ${reader.path}")
+        if (reader.peek() == Token.NULL) {
+          reader.nextNull()
+          continue
+        }
+        result[key] = valueAdapter.read(reader) ?: continue
+      }
+      reader.endObject()
+      return result
+    }
+  }
+
+  /**
+   * Reads and writes trees of maps, lists, strings, doubles, booleans, and nulls. Maps and lists are
+   * read into a [StructTree], and those backed by one are written without boxing.
+   */
+  private object StructAdapter : ProtoJsonAdapter<Any>() {
+    override fun write(writer: ProtoJsonWriter, value: Any) = writeValue(writer, value)
+
+    private fun writeValue(writer: ProtoJsonWriter, value: Any?) {
+      when (value) {
+        null -> writer.nullValue()
+        is StructView -> writeNode(writer, value.tree, value.node)
+        is Map<*, *> -> {
+          writer.beginObject()
+          for ((k, v) in value) {
+            writer.name(k.toString())
+            writeValue(writer, v)
+          }
+          writer.endObject()
+        }
+        is List<*> -> {
+          writer.beginArray()
+          for (element in value) {
+            writeValue(writer, element)
+          }
+          writer.endArray()
+        }
+        is String -> writer.value(value)
+        is Boolean -> writer.value(value)
+        is Number -> writer.value(value)
+        else -> throw IllegalArgumentException("unexpected struct value: $value")
+      }
+    }
+
+    private fun writeNode(writer: ProtoJsonWriter, tree: StructTree, node: Int) {
+      when (tree.kind(node)) {
+        StructTree.KIND_NULL -> writer.nullValue()
+        StructTree.KIND_FALSE -> writer.value(false)
+        StructTree.KIND_TRUE -> writer.value(true)
+        StructTree.KIND_NUMBER -> writer.value(tree.number(node))
+        StructTree.KIND_STRING -> writer.value(tree.string(node))
+        StructTree.KIND_MAP -> {
+          writer.beginObject()
+          var child = node + 1
+          while (child < tree.end(node)) {
+            val key = tree.key(child)
+            if (key != null) {
+              writer.name(key)
+              writeNode(writer, tree, child)
+            }
+            child = tree.end(child)
+          }
+          writer.endObject()
+        }
+        else -> {
+          writer.beginArray()
+          var child = node + 1
+          while (child < tree.end(node)) {
+            writeNode(writer, tree, child)
+            child = tree.end(child)
+          }
+          writer.endArray()
+        }
+      }
+    }
+
+    override fun read(reader: ProtoJsonReader): Any = when (reader.peek()) {
+      Token.BEGIN_OBJECT, Token.BEGIN_ARRAY -> {
+        val builder = StructTreeBuilder()
+        readNode(reader, builder, key = null)
+        builder.build().value(0)!!
+      }
+      else -> readScalar(reader)!!
+    }
+
+    private fun readNode(reader: ProtoJsonReader, builder: StructTreeBuilder, key: String?) {
+      when (reader.peek()) {
+        Token.BEGIN_OBJECT -> {
+          val node = builder.beginMap(key)
+          reader.beginObject()
+          while (reader.hasNext()) {
+            val name = reader.nextName()
+            readNode(reader, builder, name)
+          }
+          reader.endObject()
+          builder.end(node)
+        }
+        Token.BEGIN_ARRAY -> {
+          val node = builder.beginList(key)
+          reader.beginArray()
+          while (reader.hasNext()) {
+            readNode(reader, builder, key = null)
+          }
+          reader.endArray()
+          builder.end(node)
+        }
+        Token.STRING -> builder.addString(key, reader.nextString())
+        Token.NUMBER -> builder.addNumber(key, reader.nextDouble())
+        Token.BOOLEAN -> builder.addBoolean(key, reader.nextBoolean())
+        Token.NULL -> {
+          reader.nextNull()
+          builder.addNull(key)
+        }
+        else -> throw ProtoJsonException("Unexpected ${reader.peek()} at path ${reader.path}")
+      }
+    }
+
+    private fun readScalar(reader: ProtoJsonReader): Any? = when (reader.peek()) {
+      Token.STRING -> reader.nextString()
+      Token.NUMBER -> reader.nextDouble()
+      Token.BOOLEAN -> reader.nextBoolean()
+      Token.NULL -> {
+        reader.nextNull()
+        null
+      }
+      else -> throw ProtoJsonException("Unexpected ${reader.peek()} at path ${reader.path}")
+    }
+  }
+
+  private object StringAdapter : ProtoJsonAdapter<String>() {
+    override fun write(writer: ProtoJsonWriter, value: String) = writer.value(value)
+    override fun read(reader: ProtoJsonReader) = reader.nextString()
+  }
+
+  private object IntAdapter : ProtoJsonAdapter<Int>() {
+    override fun write(writer: ProtoJsonWriter, value: Int) = writer.value(value.toLong())
+    override fun read(reader: ProtoJsonReader) = reader.nextInt()
+  }
+
+  private object LongAdapter : ProtoJsonAdapter<Long>() {
+    override fun write(writer: ProtoJsonWriter, value: Long) = writer.value(value)
+    override fun read(reader: ProtoJsonReader) = reader.nextLong()
+  }
+
+  private object FloatAdapter : ProtoJsonAdapter<Float>() {
+    override fun write(writer: ProtoJsonWriter, value: Float) = writer.value(value)
+    override fun read(reader: ProtoJsonReader) = reader.nextDouble().toFloat()
+  }
+
+  private object DoubleAdapter : ProtoJsonAdapter<Double>() {
+    override fun write(writer: ProtoJsonWriter, value: Double) = writer.value(value)
+    override fun read(reader: ProtoJsonReader) = reader.nextDouble()
+  }
+
+  private object BooleanAdapter : ProtoJsonAdapter<Boolean>() {
+    override fun write(writer: ProtoJsonWriter, value: Boolean) = writer.value(value)
+    override fun read(reader: ProtoJsonReader) = reader.nextBoolean()
+  }
+
+  /** `google.protobuf.Empty` is an empty object. */
+  private object EmptyAdapter : ProtoJsonAdapter<Unit>() {
+    override fun write(writer: ProtoJsonWriter, value: Unit) {
+      writer.beginObject()
+      writer.endObject()
+    }
+
+    override fun read(reader: ProtoJsonReader) = reader.skipValue()
+  }
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import java.math.BigDecimal
+import okio.Buffer
+import okio.BufferedSource
+import okio.ByteString
+import okio.ByteString.Companion.encodeUtf8
+import okio.Options
+
+/**
+ * Reads JSON from UTF-8 bytes in [source]. Strings are decoded straight from the source's buffer,
+ * and member names can be matched against pre-encoded [NameOptions] without decoding them at all.
+ *
+ * Numbers and strings are interchangeable: each `next` function for a number accepts a quoted
+ * string, and [nextString] accepts a number, returning its literal text.
+ */
+internal class ProtoJsonReader(
+  private val source: BufferedSource,
+) {
+  private val buffer = source.buffer
+
+  private var peeked = PEEKED_NONE
+
+  /** The length of the number literal when [peeked] is [PEEKED_NUMBER]. */
+  private var peekedNumberLength = 0L
+
+  private var stack = IntArray(32).also { it[0] = EMPTY_DOCUMENT }
+  private var stackSize = 1
+  private var pathNames = arrayOfNulls<String>(32)
+  private var pathIndices = IntArray(32)
+
+  enum class Token {
+    BEGIN_ARRAY,
+    END_ARRAY,
+    BEGIN_OBJECT,
+    END_OBJECT,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT,
+  }
+
+  /** Member names to match with [selectName]. */
+  class NameOptions(val names: List<String>) {
+    internal val options = Options.of(*names.map { ProtoJsonWriter.encodeNameSuffix(it) }.toTypedArray())
+  }
+
+  /** A JSONPath like `$.pizzas[0].toppings` to the current location, for error messages. */
+  val path: String
+    get() = buildString {
+      append('$')
+      for (i in 1 until stackSize) {
+        when (stack[i]) {
+          EMPTY_ARRAY, NONEMPTY_ARRAY -> append('[').append(pathIndices[i]).append(']')
+          EMPTY_OBJECT, DANGLING_NAME, NONEMPTY_OBJECT -> {
+            append('.')
+            pathNames[i]?.let { append(it) }
+          }
+        }
+      }
+    }
+
+  /**
+   * Prepares to read another top-level value after the one that was just read, as in NDJSON. The
+   * caller is responsible for consuming the line break between them.
+   */
+  fun beginNextDocument() {
+    check(stackSize == 1 && peeked == PEEKED_NONE) { "value not fully consumed" }
+    stack[0] = EMPTY_DOCUMENT
+  }
+
+  fun peek(): Token = when (peekedOrDoPeek()) {
+    PEEKED_BEGIN_OBJECT -> Token.BEGIN_OBJECT
+    PEEKED_END_OBJECT -> Token.END_OBJECT
+    PEEKED_BEGIN_ARRAY -> Token.BEGIN_ARRAY
+    PEEKED_END_ARRAY -> Token.END_ARRAY
+    PEEKED_NAME -> Token.NAME
+    PEEKED_STRING -> Token.STRING
+    PEEKED_NUMBER -> Token.NUMBER
+    PEEKED_TRUE, PEEKED_FALSE -> Token.BOOLEAN
+    PEEKED_NULL -> Token.NULL
+    else -> Token.END_DOCUMENT
+  }
+
+  fun hasNext(): Boolean {
+    val p = peekedOrDoPeek()
+    return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_EOF
+  }
+
+  fun beginObject() {
+    expect(PEEKED_BEGIN_OBJECT, "BEGIN_OBJECT")
+    push(EMPTY_OBJECT)
+  }
+
+  fun endObject() {
+    expect(PEEKED_END_OBJECT, "END_OBJECT")
+    stackSize--
+    pathNames[stackSize] = null
+    afterValue()
+  }
+
+  fun beginArray() {
+    expect(PEEKED_BEGIN_ARRAY, "BEGIN_ARRAY")
+    push(EMPTY_ARRAY)
+    pathIndices[stackSize - 1] = 0
+  }
+
+  fun endArray() {
+    expect(PEEKED_END_ARRAY, "END_ARRAY")
+    stackSize--
+    afterValue()
+  }
+
+  fun nextName(): String {
+    expect(PEEKED_NAME, "a name")
+    val name = readQuoted()
+    pathNames[stackSize - 1] = name
+    return name
+  }
+
+  /**
+   * Reads the next member name and returns its index in [options], or -1 if it isn't one of them.
+   * Names are matched by their encoded bytes, falling back to decoding the name if that fails, as
+   * it does for names with escapes.
+   */
+  fun selectName(options: NameOptions): Int {
+    expect(PEEKED_NAME, "a name")
+    val index = source.select(options.options)
+    if (index != -1) {
+      pathNames[stackSize - 1] = options.names[index]
+      return index
+    }
+    val name = readQuoted()
+    pathNames[stackSize - 1] = name
+    return options.names.indexOf(name)
+  }
+
+  fun nextString(): String {
+    val result = when (peekedOrDoPeek()) {
+      PEEKED_STRING -> readQuoted()
+      PEEKED_NUMBER -> buffer.readUtf8(peekedNumberLength)
+      else -> throw unexpected("a string")
+    }
+    peeked = PEEKED_NONE
+    afterValue()
+    return result
+  }
+
+  fun nextBoolean(): Boolean {
+    val result = when (peekedOrDoPeek()) {
+      PEEKED_TRUE -> true
+      PEEKED_FALSE -> false
+      else -> throw unexpected("a boolean")
+    }
+    peeked = PEEKED_NONE
+    afterValue()
+    return result
+  }
+
+  fun nextNull() {
+    expect(PEEKED_NULL, "null")
+    afterValue()
+  }
+
+  /**
+   * Passes the bytes of the next value to [parse] if it is a number, or a string without escapes.
+   * If [parse] returns non-null that value is consumed and the result is returned. Otherwise this
+   * returns null and the value can still be read another way.
+   *
+   * [parse] reads the value from the front of the buffer, excluding quotes, and must not consume
+   * it.
+   */
+  internal fun <T : Any> nextLiteralOrNull(parse: (Buffer, Long) -> T?): T? {
+    val p = peekedOrDoPeek()
+    val byteCount = literalLength(p)
+    if (byteCount == -1L) return null
+    val result = parse(buffer, byteCount) ?: return null
+    buffer.skip(if (p == PEEKED_STRING) byteCount + 1L else byteCount)
+    peeked = PEEKED_NONE
+    afterValue()
+    return result
+  }
+
+  /** Reads a number or a string like `"123"`. Fractions are accepted if they are exact, like `5.0`. */
+  fun nextLong(): Long {
+    val p = peekedOrDoPeek()
+    val byteCount = literalLength(p)
+    if (byteCount != -1L && isPlainLong(byteCount)) {
+      val result = buffer.readDecimalLong()
+      if (p == PEEKED_STRING) buffer.skip(1L)
+      peeked = PEEKED_NONE
+      afterValue()
+      return result
+    }
+    val string = nextNumberString("a long")
+    return string.toLongOrNull() ?: try {
+      BigDecimal(string).longValueExact()
+    } catch (_: ArithmeticException) {
+      throw ProtoJsonException("Expected a long but was $string at path $path")
+    } catch (_: NumberFormatException) {
+      throw ProtoJsonException("Expected a long but was $string at path $path")
+    }
+  }
+
+  /** Reads a number or a string like `"123"`. Fractions are accepted if they are exact, like `5.0`. */
+  fun nextInt(): Int {
+    val string = nextNumberString("an int")
+    string.toIntOrNull()?.let { return it }
+    val asDouble = string.toDoubleOrNull()
+    val result = asDouble?.toInt()
+    if (result == null || result.toDouble() != asDouble) {
+      throw ProtoJsonException("Expected an int but was $string at path $path")
+    }
+    return result
+  }
+
+  /** Reads a number, or a string like `"1.5"` or `"NaN"`. */
+  fun nextDouble(): Double {
+    val string = nextNumberString("a double")
+    return string.toDoubleOrNull()
+      ?: throw ProtoJsonException("Expected a double but was $string at path $path")
+  }
+
+  private fun nextNumberString(expected: String): String {
+    val p = peekedOrDoPeek()
+    if (p != PEEKED_NUMBER && p != PEEKED_STRING) throw unexpected(expected)
+    return nextString()
+  }
+
+  /** Skips the next value, recursively skipping nested objects and arrays. */
+  fun skipValue() {
+    var depth = 0
+    do {
+      when (peekedOrDoPeek()) {
+        PEEKED_BEGIN_OBJECT -> {
+          beginObject()
+          depth++
+        }
+        PEEKED_BEGIN_ARRAY -> {
+          beginArray()
+          depth++
+        }
+        PEEKED_END_OBJECT -> {
+          endObject()
+          depth--
+        }
+        PEEKED_END_ARRAY -> {
+          endArray()
+          depth--
+        }
+        PEEKED_NAME -> {
+          skipQuoted()
+          peeked = PEEKED_NONE
+          pathNames[stackSize - 1] = null
+        }
+        PEEKED_STRING -> {
+          skipQuoted()
+          peeked = PEEKED_NONE
+          afterValue()
+        }
+        PEEKED_NUMBER -> {
+          buffer.skip(peekedNumberLength)
+          peeked = PEEKED_NONE
+          afterValue()
+        }
+        PEEKED_TRUE, PEEKED_FALSE, PEEKED_NULL -> {
+          peeked = PEEKED_NONE
+          afterValue()
+        }
+        else -> throw unexpected("a value")
+      }
+    } while (depth > 0)
+  }
+
+  /**
+   * Returns a reader that reads ahead from the current position without consuming anything from
+   * this reader.
+   */
+  fun peekJson(): ProtoJsonReader {
+    val result = ProtoJsonReader(source.peek())
+    result.peeked = peeked
+    result.peekedNumberLength = peekedNumberLength
+    result.stack = stack.copyOf()
+    result.stackSize = stackSize
+    result.pathNames = pathNames.copyOf()
+    result.pathIndices = pathIndices.copyOf()
+    return result
+  }
+
+  private fun expect(expectedPeeked: Int, expected: String) {
+    if (peekedOrDoPeek() != expectedPeeked) throw unexpected(expected)
+    peeked = PEEKED_NONE
+  }
+
+  private fun unexpected(expected: String) = ProtoJsonException("Expected $expected but was ${peek()} at path $path")
+
+  private fun syntaxError(message: String) = ProtoJsonException("$message at path $path")
+
+  private fun push(scope: Int) {
+    if (stackSize == stack.size) {
+      if (stackSize == MAX_DEPTH) throw ProtoJsonException("Nesting too deep at $path")
+      stack = stack.copyOf(stackSize * 2)
+      pathNames = pathNames.copyOf(stackSize * 2)
+      pathIndices = pathIndices.copyOf(stackSize * 2)
+    }
+    stack[stackSize++] = scope
+  }
+
+  private fun afterValue() {
+    pathIndices[stackSize - 1]++
+  }
+
+  private fun peekedOrDoPeek(): Int {
+    if (peeked == PEEKED_NONE) peeked = doPeek()
+    return peeked
+  }
+
+  private fun doPeek(): Int {
+    val scope = stack[stackSize - 1]
+    when (scope) {
+      EMPTY_ARRAY -> stack[stackSize - 1] = NONEMPTY_ARRAY
+      NONEMPTY_ARRAY -> {
+        when (nextNonWhitespace()) {
+          ']'.code -> return consume(PEEKED_END_ARRAY)
+          ','.code -> buffer.skip(1L)
+          else -> throw syntaxError("Unterminated array")
+        }
+      }
+      EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+        stack[stackSize - 1] = DANGLING_NAME
+        if (scope == NONEMPTY_OBJECT) {
+          when (nextNonWhitespace()) {
+            '}'.code -> return consume(PEEKED_END_OBJECT)
+            ','.code -> buffer.skip(1L)
+            else -> throw syntaxError("Unterminated object")
+          }
+        }
+        return when (nextNonWhitespace()) {
+          '"'.code -> consume(PEEKED_NAME)
+          '}'.code -> if (scope == EMPTY_OBJECT) consume(PEEKED_END_OBJECT) else throw syntaxError("Expected name")
+          else -> throw syntaxError("Expected name")
+        }
+      }
+      DANGLING_NAME -> {
+        stack[stackSize - 1] = NONEMPTY_OBJECT
+        if (nextNonWhitespace() != ':'.code) throw syntaxError("Expected ':'")
+        buffer.skip(1L)
+      }
+      EMPTY_DOCUMENT -> stack[stackSize - 1] = NONEMPTY_DOCUMENT
+      NONEMPTY_DOCUMENT -> {
+        if (nextNonWhitespace() == -1) return PEEKED_EOF
+        throw syntaxError("Expected end of document")
+      }
+    }
+
+    return when (val c = nextNonWhitespace()) {
+      '{'.code -> consume(PEEKED_BEGIN_OBJECT)
+      '['.code -> consume(PEEKED_BEGIN_ARRAY)
+      ']'.code -> if (scope == EMPTY_ARRAY) consume(PEEKED_END_ARRAY) else throw syntaxError("Unexpected character ']'")
+      '"'.code -> consume(PEEKED_STRING)
+      't'.code -> literal(TRUE, PEEKED_TRUE)
+      'f'.code -> literal(FALSE, PEEKED_FALSE)
+      'n'.code -> literal(NULL, PEEKED_NULL)
+      -1 -> throw syntaxError("End of input")
+      else -> {
+        if (c != '-'.code && c !in '0'.code..'9'.code) throw syntaxError("Unexpected character '${c.toChar()}'")
+        var length = 1L
+        while (source.request(length + 1) && isNumberChar(buffer[length].toInt())) length++
+        peekedNumberLength = length
+        PEEKED_NUMBER
+      }
+    }
+  }
+
+  private fun consume(result: Int): Int {
+    buffer.skip(1L)
+    return result
+  }
+
+  private fun literal(bytes: ByteString, result: Int): Int {
+    if (!source.rangeEquals(0L, bytes)) throw syntaxError("Unexpected literal")
+    buffer.skip(bytes.size.toLong())
+    return result
+  }
+
+  private fun isNumberChar(c: Int): Boolean = c in '0'.code..'9'.code ||
+    c == '-'.code || c == '+'.code || c == '.'.code || c == 'e'.code || c == 'E'.code
+
+  /** Returns the next non-whitespace byte without consuming it, or -1 if the input is exhausted. */
+  private fun nextNonWhitespace(): Int {
+    while (source.request(1L)) {
+      val c = buffer[0L].toInt()
+      if (c != ' '.code && c != '\n'.code && c != '\t'.code && c != '\r'.code) return c
+      buffer.skip(1L)
+    }
+    return -1
+  }
+
+  /**
+   * Returns the length of the peeked number, or of the peeked string if it has no escapes.
+   * Otherwise this returns -1.
+   */
+  private fun literalLength(p: Int): Long {
+    if (p == PEEKED_NUMBER) return peekedNumberLength
+    if (p != PEEKED_STRING) return -1L
+    val index = source.indexOfElement(QUOTE_OR_SLASH)
+    return if (index != -1L && buffer[index] == '"'.code.toByte()) index else -1L
+  }
+
+  /** Returns true if the first [byteCount] bytes are an integer like `-123` that fits a long. */
+  private fun isPlainLong(byteCount: Long): Boolean {
+    val start = if (buffer[0] == '-'.code.toByte()) 1L else 0L
+    if (byteCount - start !in 1L..18L) return false
+    for (i in start until byteCount) {
+      if (buffer[i].toInt() !in '0'.code..'9'.code) return false
+    }
+    return true
+  }
+
+  /** Reads a string whose opening quote has been consumed, including its closing quote. */
+  private fun readQuoted(): String {
+    var builder: StringBuilder? = null
+    while (true) {
+      val index = source.indexOfElement(QUOTE_OR_SLASH)
+      if (index == -1L) throw syntaxError("Unterminated string")
+      if (buffer[index] == '"'.code.toByte()) {
+        val chunk = buffer.readUtf8(index)
+        buffer.skip(1L)
+        if (builder == null) return chunk
+        return builder.append(chunk).toString()
+      }
+      if (builder == null) builder = StringBuilder()
+      builder.append(buffer.readUtf8(index))
+      buffer.skip(1L)
+      builder.append(readEscape())
+    }
+  }
+
+  private fun skipQuoted() {
+    while (true) {
+      val index = source.indexOfElement(QUOTE_OR_SLASH)
+      if (index == -1L) throw syntaxError("Unterminated string")
+      val c = buffer[index]
+      buffer.skip(index + 1)
+      if (c == '"'.code.toByte()) return
+      readEscape()
+    }
+  }
+
+  private fun readEscape(): Char {
+    if (!source.request(1L)) throw syntaxError("Unterminated escape sequence")
+    return when (val c = buffer.readByte().toInt().toChar()) {
+      'u' -> {
+        if (!source.request(4L)) throw syntaxError("Unterminated escape sequence")
+        val hex = buffer.readUtf8(4L)
+        hex.toIntOrNull(16)?.toChar() ?: throw syntaxError("Invalid escape sequence: \\u$hex")
+      }
+      't' -> '\t'
+      'b' -> '\b'
+      'n' -> '\n'
+      'r' -> '\r'
+      'f' -> '\u000c'
+      '"', '\\', '/' -> c
+      else -> throw syntaxError("Invalid escape sequence: \\$c")
+    }
+  }
+
+  private companion object {
+    const val PEEKED_NONE = 0
+    const val PEEKED_BEGIN_OBJECT = 1
+    const val PEEKED_END_OBJECT = 2
+    const val PEEKED_BEGIN_ARRAY = 3
+    const val PEEKED_END_ARRAY = 4
+    const val PEEKED_TRUE = 5
+    const val PEEKED_FALSE = 6
+    const val PEEKED_NULL = 7
+    const val PEEKED_NAME = 8
+    const val PEEKED_STRING = 9
+    const val PEEKED_NUMBER = 10
+    const val PEEKED_EOF = 11
+
+    const val EMPTY_ARRAY = 1
+    const val NONEMPTY_ARRAY = 2
+    const val EMPTY_OBJECT = 3
+    const val DANGLING_NAME = 4
+    const val NONEMPTY_OBJECT = 5
+    const val EMPTY_DOCUMENT = 6
+    const val NONEMPTY_DOCUMENT = 7
+
+    /** Deeper documents are rejected rather than risking a stack overflow. */
+    const val MAX_DEPTH = 256
+
+    val QUOTE_OR_SLASH = "\"\\".encodeUtf8()
+    val TRUE = "true".encodeUtf8()
+    val FALSE = "false".encodeUtf8()
+    val NULL = "null".encodeUtf8()
+  }
+}
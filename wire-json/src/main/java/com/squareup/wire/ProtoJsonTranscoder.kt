@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import com.squareup.wire.ProtoAdapter.EnumConstantNotFoundException
+import com.squareup.wire.ProtoJsonReader.Token
+import com.squareup.wire.internal.RuntimeMessageAdapter
+import java.io.IOException
+import okio.Buffer
+import okio.BufferedSink
+import okio.BufferedSource
+import okio.ByteString
+
+/**
+ * Converts a message type between the protobuf binary encoding and ProtoJSON without creating
+ * message objects. Get instances from [ProtoJson.transcoder].
+ *
+ * ```
+ * val transcoder = protoJson.transcoder(Pizza::class.java)
+ * val json = transcoder.toJson(pizzaBytes)
+ * val bytes = transcoder.toBinary(json)
+ * ```
+ *
+ * The JSON is the same as decoding the message and encoding it with [ProtoJsonAdapter], and the
+ * binary decodes to the same message as decoding the JSON with [ProtoJsonAdapter]. Nested
+ * messages are transcoded field by field; only scalars, enums, maps, and well-known types are
+ * decoded as values along the way. Unknown fields are dropped, as ProtoJSON can't represent them.
+ */
+class ProtoJsonTranscoder internal constructor(
+  private val protoJson: ProtoJson,
+  private val jsonAdapter: MessageProtoJsonAdapter<*, *>,
+) {
+  private val messageAdapter = jsonAdapter.messageAdapter
+  private val fieldBindings = messageAdapter.fieldBindingsArray
+
+  /** Field tags in ascending order, and the index of the field with each tag. */
+  private val sortedTags: IntArray
+  private val sortedTagIndexes: IntArray
+
+  /** The index of each field's oneof, or -1 for fields that aren't members of one. */
+  private val oneOfIndexes: IntArray
+  private val oneOfCount: Int
+
+  /**
+   * True for singular fields whose occurrences are concatenated and decoded once, so that repeated
+   * occurrences merge like they do when decoding a message.
+   */
+  private val mergesAsBytes = BooleanArray(fieldBindings.size) { index ->
+    val field = fieldBindings[index]
+    val singleAdapter = field.singleAdapter
+    !field.isMap &&
+      !field.label.isRepeated &&
+      singleAdapter.fieldEncoding == FieldEncoding.LENGTH_DELIMITED &&
+      singleAdapter !== ProtoAdapter.STRING &&
+      singleAdapter !== ProtoAdapter.BYTES
+  }
+
+  /**
+   * The transcoder for each field of a generated or schema message type, or null for fields that
+   * are read and written as values. Created on first use so that recursive message types can find
+   * this transcoder.
+   */
+  private val nestedTranscoders: Array<ProtoJsonTranscoder?> by lazy {
+    Array(fieldBindings.size) { index ->
+      val field = fieldBindings[index]
+      val singleAdapter = field.singleAdapter
+      val type = singleAdapter.type?.javaObjectType
+      when {
+        field.isMap || !field.isMessage || type == AnyMessage::class.java -> null
+        type != null && Message::class.java.isAssignableFrom(type) -> protoJson.transcoder(type)
+        // Schema messages are maps. Well-known types like Duration are read as values.
+        singleAdapter is RuntimeMessageAdapter<*, *> && type == Map::class.java -> protoJson.transcoder(singleAdapter)
+        else -> null
+      }
+    }
+  }
+
+  init {
+    val order = fieldBindings.indices.sortedBy { fieldBindings[it].tag }
+    sortedTags = IntArray(order.size) { fieldBindings[order[it]].tag }
+    sortedTagIndexes = order.toIntArray()
+
+    val oneOfNames = fieldBindings.mapNotNull { it.oneOfName }.distinct()
+    oneOfIndexes = IntArray(fieldBindings.size) { oneOfNames.indexOf(fieldBindings[it].oneOfName) }
+    oneOfCount = oneOfNames.size
+  }
+
+  /** Writes [bytes], a binary-encoded message, as UTF-8 encoded JSON to [sink]. */
+  @Throws(IOException::class)
+  fun toJson(bytes: ByteString, sink: BufferedSink) {
+    writeJson(ProtoReader32(bytes), ProtoJsonWriter(sink))
+  }
+
+  @Throws(IOException::class)
+  fun toJson(bytes: ByteString): String {
+    val buffer = Buffer()
+    toJson(bytes, buffer)
+    return buffer.readUtf8()
+  }
+
+  /**
+   * Reads one JSON object from [source] and writes it as a binary-encoded message to [sink]. Bytes
+   * that follow the object are not consumed.
+   */
+  @Throws(IOException::class)
+  fun toBinary(source: BufferedSource, sink: BufferedSink) {
+    writeBinary(ProtoJsonReader(source), ProtoWriter(sink))
+  }
+
+  /** Reads [json], which must contain exactly one JSON object, as a binary-encoded message. */
+  @Throws(IOException::class)
+  fun toBinary(json: String): ByteString {
+    val reader = ProtoJsonReader(Buffer().writeUtf8(json))
+    val buffer = Buffer()
+    writeBinary(reader, ProtoWriter(buffer))
+    if (reader.peek() != Token.END_DOCUMENT) {
+      throw ProtoJsonException("JSON document was not fully consumed")
+    }
+    return buffer.readByteString()
+  }
+
+  private fun writeJson(reader: ProtoReader32, writer: ProtoJsonWriter) {
+    // Fields may be out of order and repeated fields may be interleaved, so collect each field's
+    // value before writing any. Nested messages are collected as bytes.
+    val values = arrayOfNulls<Any>(fieldBindings.size)
+    // The member of each oneof that was read last. Like a builder, reading one clears the others.
+    val oneOfMembers = IntArray(oneOfCount) { -1 }
+    reader.forEachTag { tag ->
+      val index = indexOfTag(tag)
+      if (index == -1) {
+        reader.skip()
+      } else {
+        try {
+          readField(reader, index, values)
+          val oneOf = oneOfIndexes[index]
+          if (oneOf != -1) {
+            val previous = oneOfMembers[oneOf]
+            if (previous != -1 && previous != index) values[previous] = null
+            oneOfMembers[oneOf] = index
+          }
+        } catch (e: EnumConstantNotFoundException) {
+          // An unknown enum constant is an unknown field, which isn't written.
+        }
+      }
+    }
+
+    val nestedTranscoders = nestedTranscoders
+    writer.beginObject()
+    for (index in fieldBindings.indices) {
+      val field = fieldBindings[index]
+      var value = values[index]
+      if (value != null && mergesAsBytes[index] && nestedTranscoders[index] == null) {
+        value = field.singleAdapter.decode(value as ByteString)
+      }
+      if (value == null && (field.isMap || field.label.isRepeated || field.label == WireField.Label.OMIT_IDENTITY)) {
+        value = field.adapter.identity
+      }
+      if (field.omitFromJson(messageAdapter.syntax, value)) continue
+
+      val jsonField = jsonAdapter.fields[index]
+      writer.name(jsonField.encodedName)
+      val nested = nestedTranscoders[index]
+      when {
+        nested == null -> jsonField.adapter.write(writer, value!!)
+        field.label.isRepeated -> {
+          writer.beginArray()
+          for (element in value as List<*>) {
+            nested.writeJson(ProtoReader32(element as ByteString), writer)
+          }
+          writer.endArray()
+        }
+        else -> nested.writeJson(ProtoReader32(value as ByteString), writer)
+      }
+    }
+    writer.endObject()
+  }
+
+  /** Reads one occurrence of the field at [index] and merges it into [values]. */
+  @Suppress("UNCHECKED_CAST")
+  private fun readField(reader: ProtoReader32, index: Int, values: Array<Any?>) {
+    val field = fieldBindings[index]
+    when {
+      field.isMap -> {
+        val entry = field.adapter.decode(reader) as Map<Any?, Any?>
+        val map = values[index] as MutableMap<Any?, Any?>? ?: LinkedHashMap<Any?, Any?>().also { values[index] = it }
+        map.putAll(entry)
+      }
+      field.label.isRepeated -> {
+        val element = when {
+          nestedTranscoders[index] != null -> reader.readBytes()
+          else -> field.singleAdapter.decode(reader)
+        }
+        val list = values[index] as MutableList<Any?>? ?: ArrayList<Any?>().also { values[index] = it }
+        list += element
+      }
+      mergesAsBytes[index] -> {
+        val bytes = reader.readBytes()
+        val previous = values[index] as ByteString?
+        values[index] = if (previous == null) bytes else Buffer().write(previous).write(bytes).readByteString()
+      }
+      else -> values[index] = field.singleAdapter.decode(reader)
+    }
+  }
+
+  private fun writeBinary(reader: ProtoJsonReader, writer: ProtoWriter) {
+    val nestedTranscoders = nestedTranscoders
+    reader.beginObject()
+    while (true) {
+      val index = jsonAdapter.nextFieldIndex(reader)
+      if (index == -1) break
+      val field = fieldBindings[index]
+      val nested = nestedTranscoders[index]
+      when {
+        nested == null -> {
+          val value = jsonAdapter.fields[index].adapter.read(reader) ?: continue
+          if (field.label == WireField.Label.OMIT_IDENTITY && value == field.singleAdapter.identity) continue
+          field.adapter.encodeWithTag(writer, field.tag, value)
+        }
+        field.label.isRepeated -> {
+          reader.beginArray()
+          while (reader.hasNext()) {
+            if (reader.peek() == Token.NULL) {
+              throw ProtoJsonException("Unexpected null at path ${reader.path}")
+            }
+            nested.writeNestedBinary(reader, writer, field.tag)
+          }
+          reader.endArray()
+        }
+        else -> nested.writeNestedBinary(reader, writer, field.tag)
+      }
+    }
+    reader.endObject()
+  }
+
+  /** Writes the JSON object in [reader] as a length-delimited field of [writer]. */
+  private fun writeNestedBinary(reader: ProtoJsonReader, writer: ProtoWriter, tag: Int) {
+    val buffer = Buffer()
+    writeBinary(reader, ProtoWriter(buffer))
+    writer.writeTag(tag, FieldEncoding.LENGTH_DELIMITED)
+    writer.writeVarint32(buffer.size.toInt())
+    writer.writeBytes(buffer.readByteString())
+  }
+
+  /** Returns the index of the field with [tag], or -1 if this message has no such field. */
+  private fun indexOfTag(tag: Int): Int {
+    val position = sortedTags.binarySearch(tag)
+    return if (position >= 0) sortedTagIndexes[position] else -1
+  }
+}
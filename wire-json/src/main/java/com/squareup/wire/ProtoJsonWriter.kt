@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import okio.Buffer
+import okio.BufferedSink
+import okio.ByteString
+
+/**
+ * Writes JSON as UTF-8 bytes to [sink]. Object member names are written from pre-encoded bytes
+ * that include their quotes and colon; see [encodeName].
+ *
+ * This writer doesn't validate its input. Callers are trusted to balance objects and arrays and to
+ * write a name before each value in an object.
+ */
+internal class ProtoJsonWriter(
+  private val sink: BufferedSink,
+) {
+  /** True at each depth once a value has been written, so the next value needs a comma. */
+  private var needsComma = BooleanArray(32)
+  private var depth = 0
+
+  /** True after a name is written, so its value doesn't need a comma. */
+  private var afterName = false
+
+  fun beginObject() = open('{')
+
+  fun endObject() = close('}')
+
+  fun beginArray() = open('[')
+
+  fun endArray() = close(']')
+
+  /** Writes a name that was encoded with [encodeName]. */
+  fun name(encodedName: ByteString) {
+    if (needsComma[depth]) sink.writeByte(','.code)
+    needsComma[depth] = true
+    sink.write(encodedName)
+    afterName = true
+  }
+
+  fun name(name: String) {
+    if (needsComma[depth]) sink.writeByte(','.code)
+    needsComma[depth] = true
+    sink.writeQuoted(name)
+    sink.writeByte(':'.code)
+    afterName = true
+  }
+
+  fun value(value: String) {
+    beforeValue()
+    sink.writeQuoted(value)
+  }
+
+  fun value(value: Boolean) {
+    beforeValue()
+    sink.writeUtf8(if (value) "true" else "false")
+  }
+
+  fun value(value: Long) {
+    beforeValue()
+    sink.writeDecimalLong(value)
+  }
+
+  /** Writes finite values as numbers, and infinities and NaN as strings as ProtoJSON requires. */
+  fun value(value: Double) {
+    if (value.isNaN() || value.isInfinite()) return value(value.toString())
+    beforeValue()
+    sink.writeUtf8(value.toString())
+  }
+
+  fun value(value: Float) {
+    if (value.isNaN() || value.isInfinite()) return value(value.toString())
+    beforeValue()
+    sink.writeUtf8(value.toString())
+  }
+
+  fun value(value: Number) {
+    when (value) {
+      is Int, is Long, is Short, is Byte -> value(value.toLong())
+      is Double -> value(value)
+      is Float -> value(value)
+      else -> {
+        beforeValue()
+        sink.writeUtf8(value.toString())
+      }
+    }
+  }
+
+  /** Prepares to write a value and returns the sink to write its UTF-8 bytes to. */
+  internal fun rawValue(): BufferedSink {
+    beforeValue()
+    return sink
+  }
+
+  fun nullValue() {
+    beforeValue()
+    sink.writeUtf8("null")
+  }
+
+  /** Ends a top-level value with a newline so that another can follow, as in NDJSON. */
+  fun newline() {
+    check(depth == 0) { "value not complete" }
+    sink.writeByte('\n'.code)
+    needsComma[0] = false
+  }
+
+  private fun open(bracket: Char) {
+    beforeValue()
+    sink.writeByte(bracket.code)
+    depth++
+    if (depth == needsComma.size) needsComma = needsComma.copyOf(depth * 2)
+    needsComma[depth] = false
+  }
+
+  private fun close(bracket: Char) {
+    depth--
+    sink.writeByte(bracket.code)
+  }
+
+  private fun beforeValue() {
+    if (afterName) {
+      afterName = false
+    } else {
+      if (needsComma[depth]) sink.writeByte(','.code)
+      needsComma[depth] = true
+    }
+  }
+
+  companion object {
+    /** Returns the bytes of `"name":`, escaped as necessary. */
+    fun encodeName(name: String): ByteString {
+      val buffer = Buffer()
+      buffer.writeQuoted(name)
+      buffer.writeByte(':'.code)
+      return buffer.readByteString()
+    }
+
+    /** Returns the bytes of `name"`, the name as it is read after its opening quote. */
+    fun encodeNameSuffix(name: String): ByteString {
+      val buffer = Buffer()
+      buffer.writeQuoted(name)
+      buffer.skip(1L)
+      return buffer.readByteString()
+    }
+
+    private fun BufferedSink.writeQuoted(value: String) {
+      writeByte('"'.code)
+      var last = 0
+      for (i in value.indices) {
+        val c = value[i]
+        val replacement = when {
+          c == '"' -> "\\\""
+          c == '\\' -> "\\\\"
+          c < ' ' -> REPLACEMENT_CHARS[c.code]
+          c == '\u2028' -> "\\u2028"
+          c == '\u2029' -> "\\u2029"
+          else -> continue
+        }
+        if (last < i) writeUtf8(value, last, i)
+        writeUtf8(replacement)
+        last = i + 1
+      }
+      if (last < value.length) writeUtf8(value, last, value.length)
+      writeByte('"'.code)
+    }
+
+    private val REPLACEMENT_CHARS = Array(32) { c ->
+      when (c) {
+        '\t'.code -> "\\t"
+        '\b'.code -> "\\b"
+        '\n'.code -> "\\n"
+        '\r'.code -> "\\r"
+        '\u000c'.code -> "\\f"
+        else -> "\\u%04x".format(c)
+      }
+    }
+  }
+}
@@ -62,6 +62,7 @@ import com.squareup.wire.GrpcMethod
 import com.squareup.wire.GrpcServerStreamingCall
 import com.squareup.wire.GrpcStreamingCall
 import com.squareup.wire.Message
+import com.squareup.wire.MessageJsonCodec
 import com.squareup.wire.MessageSink
 import com.squareup.wire.MessageSource
 import com.squareup.wire.ProtoAdapter
@@ -81,6 +82,7 @@ import com.squareup.wire.internal.DoubleArrayList
 import com.squareup.wire.internal.FloatArrayList
 import com.squareup.wire.internal.IntArrayList
 import com.squareup.wire.internal.LongArrayList
+import com.squareup.wire.internal.MutableMessage
 import com.squareup.wire.internal.boxedOneOfClassName
 import com.squareup.wire.internal.boxedOneOfKeyFieldName
 import com.squareup.wire.internal.boxedOneOfKeysFieldName
@@ -119,6 +121,7 @@ import com.squareup.wire.schema.internal.javaPackage
 import com.squareup.wire.schema.internal.legacyQualifiedFieldName
 import com.squareup.wire.schema.internal.optionValueToInt
 import com.squareup.wire.schema.internal.optionValueToLong
+import com.squareup.wire.schema.internal.redactableTypes
 import java.util.Locale
 import kotlinx.coroutines.channels.ReceiveChannel
 import kotlinx.coroutines.channels.SendChannel
@@ -146,6 +149,7 @@ class KotlinGenerator private constructor(
   private val mutableTypes: Boolean,
   private val explicitStreamingCalls: Boolean,
   private val makeImmutableCopies: Boolean,
+  private val emitJsonCodecs: Boolean,
 ) {
   @Deprecated(level = DeprecationLevel.HIDDEN, message = "Obsolete, for compiled code before oneofMode was added.")
   private constructor(
@@ -189,8 +193,10 @@ class KotlinGenerator private constructor(
     mutableTypes = mutableTypes,
     explicitStreamingCalls = explicitStreamingCalls,
     makeImmutableCopies = makeImmutableCopies,
+    emitJsonCodecs = false,
   )
 
+  private val redactableTypes: Set<ProtoType> by lazy { redactableTypes(schema) }
   private val nameAllocatorStore = mutableMapOf<Type, NameAllocator>()
   private val sealedSubclassNameAllocatorStore = mutableMapOf<OneOf, NameAllocator>()
 
@@ -588,6 +594,9 @@ class KotlinGenerator private constructor(
           newName("Builder", "Builder")
           newName("builder", "builder")
           newName("MESSAGE_OPTIONS", "MESSAGE_OPTIONS")
+          if (emitJsonCodecs) {
+            newName("JSON_CODEC", "JSON_CODEC")
+          }
 
           if (emitAndroid) {
             newName("CREATOR", "CREATOR")
@@ -645,6 +654,7 @@ class KotlinGenerator private constructor(
 
     addDefaultFields(type, companionBuilder, nameAllocator)
     addAdapter(type, companionBuilder)
+    if (type.hasJsonCodec) addJsonCodec(type, companionBuilder)
     if (useJavaInterop) addBuildFunction(type, companionBuilder, builderClassName)
 
     val classBuilder = TypeSpec.classBuilder(className)
@@ -666,6 +676,9 @@ class KotlinGenerator private constructor(
       .superclass(superclass)
       .addSuperclassConstructorParameter(adapterName)
       .addSuperclassConstructorParameter(unknownFields)
+      .apply {
+        if (mutableTypes) addSuperinterface(MUTABLE_MESSAGE)
+      }
       .addFunction(generateNewBuilderMethod(type, builderClassName))
       .addFunction(generateEqualsMethod(type, nameAllocator))
       .addFunction(generateHashCodeMethod(type, nameAllocator))
@@ -814,6 +827,7 @@ class KotlinGenerator private constructor(
   // override fun equals(other: Any?): Boolean {
   //   if (other === this) return true
   //   if (other !is SimpleMessage) return false
+  //   if (super.hashCode != 0 && other.hashCode != 0 && super.hashCode != other.hashCode) return false
   //   if (unknownFields != other.unknownFields) return false
   //   if (optional_int32 != other.optional_int32) return false
   //   return true
@@ -830,6 +844,13 @@ class KotlinGenerator private constructor(
     val body = buildCodeBlock {
       addStatement("if (%N === this) return·true", otherName)
       addStatement("if (%N !is %T) return·false", otherName, kotlinType)
+      if (!mutableTypes && type.fieldsAndOneOfFields.isNotEmpty()) {
+        // Messages with different cached hash codes can't be equal.
+        addStatement(
+          "if (super.hashCode != 0 && %1N.hashCode != 0 && super.hashCode != %1N.hashCode) return·false",
+          otherName,
+        )
+      }
       addStatement("if (unknownFields != %N.unknownFields) return·false", otherName)
 
       for (fieldOrOneOf in type.fieldsAndFlatOneOfFieldsAndBoxedOneOfs()) {
@@ -1736,8 +1757,14 @@ class KotlinGenerator private constructor(
       .addFunction(encodeFun(type, reverse = true))
       .addFunction(decodeFun(PROTO_READER, type))
       .apply {
+        if (mutableTypes && !buildersOnly) {
+          addFunction(decodeFun(PROTO_READER, type, into = true))
+        }
         if (emitProtoReader32) {
           addFunction(decodeFun(PROTO_READER_32, type))
+          if (mutableTypes && !buildersOnly) {
+            addFunction(decodeFun(PROTO_READER_32, type, into = true))
+          }
         }
       }
       .addFunctions(redactFunctions(type))
@@ -1758,6 +1785,148 @@ class KotlinGenerator private constructor(
     )
   }
 
+  /**
+   * Example
+   * ```
+   * companion object {
+   *  @JvmField
+   *  val JSON_CODEC: MessageJsonCodec<Person> = object : MessageJsonCodec<Person>() {
+   *    override fun encode(value: Person, writer: MessageJsonCodec.FieldWriter) { .. }
+   *    override fun decode(reader: MessageJsonCodec.FieldReader): Person { .. }
+   *  }
+   * }
+   * ```
+   */
+  private fun addJsonCodec(type: MessageType, companionObjBuilder: TypeSpec.Builder) {
+    val nameAllocator = nameAllocator(type)
+    val className = generatedTypeName(type)
+    val codecType = MESSAGE_JSON_CODEC.parameterizedBy(className)
+    val fields = type.fieldsAndFlatOneOfFieldsAndBoxedOneOfs().filterIsInstance<Field>()
+
+    val codecObject = TypeSpec.anonymousClassBuilder()
+      .superclass(codecType)
+      .addFunction(jsonCodecEncodeFun(className, fields, nameAllocator))
+      .addFunction(jsonCodecDecodeFun(type, className, fields, nameAllocator))
+
+    companionObjBuilder.addProperty(
+      PropertySpec.builder(nameAllocator["JSON_CODEC"], codecType)
+        .addAnnotation(ClassName(jvmAnnotationPackage, "JvmField"))
+        .initializer("%L", codecObject.build())
+        .build(),
+    )
+  }
+
+  private fun jsonCodecEncodeFun(
+    className: TypeName,
+    fields: List<Field>,
+    nameAllocator: NameAllocator,
+  ): FunSpec {
+    val body = buildCodeBlock {
+      for (field in fields) {
+        addStatement("writer.write(%L, value.%N)", field.tag, nameAllocator[field])
+      }
+    }
+    return FunSpec.builder("encode")
+      .addModifiers(OVERRIDE)
+      .addParameter("value", className)
+      .addParameter("writer", MESSAGE_JSON_CODEC.nestedClass("FieldWriter"))
+      .addCode(body)
+      .build()
+  }
+
+  /**
+   * Returns `decode`, which assigns each value from the reader straight to a local, or to the
+   * builder in [buildersOnly] mode, and then constructs the message.
+   */
+  private fun jsonCodecDecodeFun(
+    message: MessageType,
+    className: TypeName,
+    fields: List<Field>,
+    nameAllocator: NameAllocator,
+  ): FunSpec {
+    val missingRequiredFields = MemberName("com.squareup.wire.internal", "missingRequiredFields")
+    val body = buildCodeBlock {
+      if (buildersOnly) {
+        addStatement("val builder = Builder()")
+      } else {
+        for (field in fields) {
+          addStatement(
+            "var %N: %T = %L",
+            nameAllocator[field],
+            field.typeNameForBuilderField,
+            field.identityValue,
+          )
+        }
+      }
+
+      beginControlFlow("while (true)")
+      beginControlFlow("when (reader.nextTag())")
+      addStatement("-1 -> break")
+      for (field in fields) {
+        val fieldName = nameAllocator[field]
+        val valueType = field.typeNameForBuilderSetter().copy(nullable = false)
+        val value = CodeBlock.of("reader.value() as %T", valueType)
+        val flatOneOf = message.flatOneOfs().firstOrNull { field in it.fields }
+        when {
+          buildersOnly -> addStatement("%L -> builder.%N(%L)", field.tag, fieldName, value)
+          flatOneOf != null -> {
+            // Like the builder, setting a field of a oneof clears the others.
+            beginControlFlow("%L ->", field.tag)
+            addStatement("%N = %L", fieldName, value)
+            for (other in flatOneOf.fields) {
+              if (other != field) addStatement("%N = null", nameAllocator[other])
+            }
+            endControlFlow()
+          }
+          else -> addStatement("%L -> %N = %L", field.tag, fieldName, value)
+        }
+      }
+      endControlFlow()
+      endControlFlow()
+
+      if (buildersOnly) {
+        addStatement("return builder.build()")
+      } else {
+        addStatement("return·%T(⇥", className)
+        for (field in fields) {
+          val fieldName = nameAllocator[field]
+          if (!field.isRepeated && !field.isMap && field.isRequired) {
+            addStatement("%1N = %1N ?: throw %2M(%1N, %3S),", fieldName, missingRequiredFields, field.name)
+          } else {
+            addStatement("%1N = %1N,", fieldName)
+          }
+        }
+        add("⇤)\n")
+      }
+    }
+
+    return FunSpec.builder("decode")
+      .addModifiers(OVERRIDE)
+      .apply {
+        if (fields.any { it.isRepeated || it.isMap }) {
+          addAnnotation(
+            AnnotationSpec.builder(Suppress::class)
+              .addMember("%S", "UNCHECKED_CAST")
+              .build(),
+          )
+        }
+      }
+      .addParameter("reader", MESSAGE_JSON_CODEC.nestedClass("FieldReader"))
+      .returns(className)
+      .addCode(body)
+      .build()
+  }
+
+  /**
+   * True if this message gets a generated JSON codec. Boxed and sealed oneofs and primitive arrays
+   * aren't supported; JSON for those messages is read and written with reflection.
+   */
+  private val MessageType.hasJsonCodec: Boolean
+    get() = emitJsonCodecs &&
+      boxOneOfs().isEmpty() &&
+      sealedOneOfs().isEmpty() &&
+      fieldsAndFlatOneOfFieldsAndBoxedOneOfs().none { it is Field && it.useArray }
+
   private fun Field.toProtoAdapterPropertySpec(): PropertySpec {
     val adapterType = ProtoAdapter::class.asTypeName()
       .parameterizedBy(
@@ -1938,9 +2107,18 @@ class KotlinGenerator private constructor(
       .build()
   }
 
-  private fun decodeFun(protoReaderType: ClassName, message: MessageType): FunSpec {
+  /**
+   * Returns `decode`, or `decodeInto` if [into] is true. The latter is only for mutable types: it
+   * decodes into an existing message, reusing its nested messages and collections.
+   */
+  private fun decodeFun(
+    protoReaderType: ClassName,
+    message: MessageType,
+    into: Boolean = false,
+  ): FunSpec {
     val className = typeToKotlinName.getValue(message.type)
     val nameAllocator = nameAllocator(message).copy()
+    val existing = if (into) nameAllocator.newName("existing") else null
     // The builder's fields will be of immutable types. In order to optimize decoding, we'll create
     // mutable collections into which values will be aggregated to later be set to the builder via
     // its setters.
@@ -1966,8 +2144,14 @@ class KotlinGenerator private constructor(
           when (fieldOrOneOf) {
             is Field -> {
               val fieldName = nameAllocator[fieldOrOneOf]
-              val fieldDeclaration: CodeBlock = fieldOrOneOf.getDeclaration(fieldName)
+              val fieldDeclaration: CodeBlock = when (existing) {
+                null -> fieldOrOneOf.getDeclaration(fieldName)
+                else -> fieldOrOneOf.getReusingDeclaration(fieldName, existing)
+              }
               addStatement("%L", fieldDeclaration)
+              if (existing != null && fieldOrOneOf.reusesElements) {
+                addStatement("var %N = 0", nameAllocator.newName("${fieldName}Count", fieldOrOneOf.countTag))
+              }
             }
             is OneOf -> {
               val fieldName = nameAllocator[fieldOrOneOf]
@@ -1982,10 +2166,15 @@ class KotlinGenerator private constructor(
     }
 
     val returnBody = buildCodeBlock {
-      addStatement("return·%T(⇥", className)
-
       val missingRequiredFields = MemberName("com.squareup.wire.internal", "missingRequiredFields")
 
+      if (existing != null) {
+        add(decodeIntoReturnBody(message, nameAllocator, existing))
+        return@buildCodeBlock
+      }
+
+      addStatement("return·%T(⇥", className)
+
       if (buildersOnly) {
         add("builder = builder")
         if (collectionFields.isNotEmpty()) {
@@ -2072,7 +2261,7 @@ class KotlinGenerator private constructor(
           when {
             field.type!!.isEnum -> {
               beginControlFlow("%L -> try", field.tag)
-              add("%L\n", decodeAndAssign(protoReaderType, field, fieldName, adapterName, flatOneOf, nameAllocator))
+              add("%L\n", decodeAndAssign(protoReaderType, field, fieldName, adapterName, flatOneOf, nameAllocator, existing))
               nextControlFlow("catch (e: %T)", ProtoAdapter.EnumConstantNotFoundException::class)
               addStatement(
                 "reader.addUnknownField(%L, %T.VARINT, e.value.toLong())",
@@ -2083,14 +2272,14 @@ class KotlinGenerator private constructor(
             }
             field.isPacked && field.isScalar -> {
               beginControlFlow("%L ->", field.tag)
-              add(decodeAndAssign(protoReaderType, field, fieldName, adapterName, flatOneOf, nameAllocator))
+              add(decodeAndAssign(protoReaderType, field, fieldName, adapterName, flatOneOf, nameAllocator, existing))
               endControlFlow()
             }
             else -> {
               add(
                 "%L -> %L\n",
                 field.tag,
-                decodeAndAssign(protoReaderType, field, fieldName, adapterName, flatOneOf, nameAllocator),
+                decodeAndAssign(protoReaderType, field, fieldName, adapterName, flatOneOf, nameAllocator, existing),
               )
             }
           }
@@ -2151,8 +2340,11 @@ class KotlinGenerator private constructor(
       }
     }
 
-    return FunSpec.builder("decode")
+    return FunSpec.builder(if (into) "decodeInto" else "decode")
       .addParameter("reader", protoReaderType)
+      .apply {
+        if (existing != null) addParameter(existing, className)
+      }
       .returns(className)
       .addCode(declarationBody)
       .addCode(decodeBlock)
@@ -2161,6 +2353,67 @@ class KotlinGenerator private constructor(
       .build()
   }
 
+  /**
+   * Returns the statements that end `decodeInto`: each decoded field is assigned to [existing],
+   * which is returned.
+   */
+  private fun decodeIntoReturnBody(
+    message: MessageType,
+    nameAllocator: NameAllocator,
+    existing: String,
+  ): CodeBlock = buildCodeBlock {
+    val missingRequiredFields = MemberName("com.squareup.wire.internal", "missingRequiredFields")
+    for (fieldOrOneOf in message.fieldsAndFlatOneOfFieldsAndBoxedOneOfs()) {
+      when (fieldOrOneOf) {
+        is Field -> {
+          val fieldName = nameAllocator[fieldOrOneOf]
+          when {
+            fieldOrOneOf.useArray -> {
+              addStatement(
+                "%1N.%2N = %2N?.toArray() ?: %3L",
+                existing,
+                fieldName,
+                fieldOrOneOf.emptyPrimitiveArrayForType,
+              )
+            }
+            fieldOrOneOf.reusesElements -> {
+              // Drop the reusable elements that weren't decoded into.
+              addStatement(
+                "%M(%N, %N)",
+                MemberName("com.squareup.wire.internal", "truncateList"),
+                fieldName,
+                nameAllocator[fieldOrOneOf.countTag],
+              )
+              addStatement("%1N.%2N = %2N", existing, fieldName)
+            }
+            !fieldOrOneOf.isRepeated && !fieldOrOneOf.isMap && fieldOrOneOf.isRequired -> {
+              addStatement(
+                "%1N.%2N = %2N ?: throw %3M(%2N, %4S)",
+                existing,
+                fieldName,
+                missingRequiredFields,
+                fieldOrOneOf.name,
+              )
+            }
+            else -> addStatement("%1N.%2N = %2N", existing, fieldName)
+          }
+        }
+        is OneOf -> addStatement("%1N.%2N = %2N", existing, nameAllocator[fieldOrOneOf])
+        else -> throw IllegalArgumentException("Unexpected element: $fieldOrOneOf")
+      }
+    }
+    addStatement("%N.unknownFields = unknownFields", existing)
+    addStatement("return %N", existing)
+  }
+
+  /** True if `decodeInto` decodes this repeated message field into its existing elements. */
+  private val Field.reusesElements: Boolean
+    get() = isRepeated && type!!.isMessage
+
+  /** The [NameAllocator] tag of this field's element count in `decodeInto`. */
+  private val Field.countTag: String
+    get() = "$name#count"
+
   /** Returns a call to `ProtoReader.forEachTag {}`. This needs an import for [PROTO_READER_32]. */
   private val ClassName.forEachTag: CodeBlock
     get() = when (PROTO_READER_32) {
@@ -2175,6 +2428,7 @@ class KotlinGenerator private constructor(
     adapterName: CodeBlock,
     oneOf: OneOf?,
     nameAllocator: NameAllocator,
+    existing: String? = null,
   ): CodeBlock {
     val decode = if (field.useArray) {
       CodeBlock.of(
@@ -2204,6 +2458,12 @@ class KotlinGenerator private constructor(
         }
       }
 
+      field.isPacked && field.isScalar && existing != null -> {
+        buildCodeBlock {
+          addStatement("%L.tryDecode(reader, %N)", adapterName, fieldName)
+        }
+      }
+
       field.isPacked && field.isScalar -> {
         buildCodeBlock {
           beginControlFlow("if (%N == null)", fieldName)
@@ -2223,8 +2483,29 @@ class KotlinGenerator private constructor(
         CodeBlock.of("%L.tryDecode(reader, %N)", adapterName, fieldName)
       }
 
+      field.reusesElements && existing != null -> {
+        CodeBlock.of(
+          "%M(%L, reader, %N, %N++)",
+          MemberName("com.squareup.wire.internal", "decodeElementInto"),
+          adapterName,
+          fieldName,
+          nameAllocator[field.countTag],
+        )
+      }
+
       field.isRepeated -> CodeBlock.of("%N.add(%L)", fieldName, decode)
       field.isMap -> CodeBlock.of("%N.putAll(%L)", fieldName, decode)
+      field.type!!.isMessage && existing != null -> {
+        CodeBlock.of(
+          "%N = %M(%L, reader, %N, %N.%N)",
+          fieldName,
+          MemberName("com.squareup.wire.internal", "decodeMessageInto"),
+          adapterName,
+          fieldName,
+          existing,
+          fieldName,
+        )
+      }
       field.type!!.isMessage -> {
         val decodeMessageOrMerge = MemberName("com.squareup.wire.internal", "decodeMessageOrMerge")
         if (buildersOnly) {
@@ -2342,6 +2623,30 @@ class KotlinGenerator private constructor(
       return listOf(redactBuilder.build())
     }
 
+    // A message without redactions anywhere in its subtree is returned as-is.
+    if (message.type !in redactableTypes) {
+      return listOf(redactBuilder.addStatement("return value").build())
+    }
+
+    // Without redacted fields of its own, a message is returned as-is if redacting doesn't change
+    // its children and it has no unknown fields. Only children that hold redactions are redacted.
+    val redactedChildren = mutableMapOf<Field, String>()
+    val hasRedactedFields = message.fieldsAndFlatOneOfFieldsAndBoxedOneOfs().any {
+      it is Field && it.isRedacted || it is OneOf && it.fields.any { field -> field.isRedacted }
+    }
+    if (!hasRedactedFields) {
+      val childFields = message.fieldsAndFlatOneOfFieldsAndBoxedOneOfs()
+        .filterIsInstance<Field>()
+        .filter { it.redact(nameAllocator[it]) != null }
+      if (!buildersOnly && childFields.size >= FIELD_CHUNK_SIZE) {
+        return chunkedRedactChildrenFunctions(className, childFields, nameAllocator, redactBuilder)
+      }
+      val unchanged =
+        redactBuilder.addRedactedChildren(childFields, nameAllocator, redactedChildren)
+      unchanged += CodeBlock.of("value.unknownFields.size == 0")
+      redactBuilder.addStatement("if (%L) return value", unchanged.joinToCode(" && "))
+    }
+
     if (buildersOnly) {
       val newBuilderBlock = buildCodeBlock {
         add("return %T(\n⇥builder = value.newBuilder()⇥", className)
@@ -2349,7 +2654,8 @@ class KotlinGenerator private constructor(
           when (fieldOrOneOf) {
             is Field -> {
               val fieldName = nameAllocator[fieldOrOneOf]
-              val redactedField = fieldOrOneOf.redact(fieldName)
+              val redactedField = redactedChildren[fieldOrOneOf]?.let { CodeBlock.of("%N", it) }
+                ?: fieldOrOneOf.redact(fieldName)
               if (redactedField != null) {
                 add("\n.%1N(%2L)", fieldName, redactedField)
               }
@@ -2376,7 +2682,8 @@ class KotlinGenerator private constructor(
       when (fieldOrOneOf) {
         is Field -> {
           val fieldName = nameAllocator[fieldOrOneOf]
-          val redactedField = fieldOrOneOf.redact(fieldName)
+          val redactedField = redactedChildren[fieldOrOneOf]?.let { CodeBlock.of("%N", it) }
+            ?: fieldOrOneOf.redact(fieldName)
           if (redactedField != null) {
             redactedFields += CodeBlock.of("%N = %L", fieldName, redactedField)
           }
@@ -2419,6 +2726,66 @@ class KotlinGenerator private constructor(
     return listOf(redactBuilder.build()) + resultFunctions
   }
 
+  /**
+   * Declares a local holding the redacted value of each of [fields] and records its name in
+   * [locals]. Returns a check for each field that redacting didn't change it.
+   */
+  private fun FunSpec.Builder.addRedactedChildren(
+    fields: List<Field>,
+    nameAllocator: NameAllocator,
+    locals: MutableMap<Field, String>,
+  ): MutableList<CodeBlock> {
+    val localNames = NameAllocator().apply { newName("value", "value") }
+    val unchanged = mutableListOf<CodeBlock>()
+    for (field in fields) {
+      val fieldName = nameAllocator[field]
+      val localName = localNames.newName(fieldName, field)
+      addStatement("val %N = %L", localName, field.redact(fieldName)!!)
+      unchanged += CodeBlock.of("%N === value.%N", localName, fieldName)
+      locals[field] = localName
+    }
+    return unchanged
+  }
+
+  /**
+   * Returns functions that redact a message with too many [childFields] for one function. Each
+   * chunk of fields is redacted by its own function, which copies the message only if one of its
+   * fields changes.
+   */
+  private fun chunkedRedactChildrenFunctions(
+    className: ClassName,
+    childFields: List<Field>,
+    nameAllocator: NameAllocator,
+    redactBuilder: FunSpec.Builder,
+  ): List<FunSpec> {
+    val chunkFunctions = childFields.chunked(FIELD_CHUNK_SIZE).withIndex().map { (index, chunk) ->
+      val chunkBuilder = FunSpec.builder("redact$index")
+        .addModifiers(PRIVATE)
+        .addParameter("value", className)
+        .returns(className)
+      val locals = mutableMapOf<Field, String>()
+      val unchanged = chunkBuilder.addRedactedChildren(chunk, nameAllocator, locals)
+      val copiedFields = chunk.map {
+        CodeBlock.of("%N = %N", nameAllocator[it], locals.getValue(it))
+      }
+      chunkBuilder
+        .addStatement("if (%L) return value", unchanged.joinToCode(" && "))
+        .addStatement("return %L", copiedFields.toValueCopyExpression())
+        .build()
+    }
+    for ((index, chunkFunction) in chunkFunctions.withIndex()) {
+      if (index == 0) {
+        redactBuilder.addStatement("var result = %N(%N)", chunkFunction, "value")
+      } else {
+        redactBuilder.addStatement("result = %N(result)", chunkFunction)
+      }
+    }
+    redactBuilder
+      .addStatement("if (result === value && value.unknownFields.size == 0) return value")
+      .addStatement("return result.copy(unknownFields = %T.EMPTY)", ByteString::class)
+    return listOf(redactBuilder.build()) + chunkFunctions
+  }
+
   private fun List<CodeBlock>.toValueCopyExpression(): CodeBlock = joinToCode(
     separator = ",\n",
     prefix = "value.copy(\n⇥",
@@ -2437,6 +2804,8 @@ class KotlinGenerator private constructor(
         else -> CodeBlock.of("null")
       }
     } else if (!type!!.isScalar && !type!!.isEnum) {
+      // Children of types without redactions are unchanged by redacting.
+      if ((if (isMap) valueType else type!!) !in redactableTypes) return null
       val redactElements = MemberName("com.squareup.wire.internal", "redactElements")
       if (isRepeated) {
         return CodeBlock.of("value.%N.%M(%L)", fieldName, redactElements, getAdapterName())
@@ -2940,6 +3309,15 @@ class KotlinGenerator private constructor(
   private fun Field.getDeclaration(allocatedName: String) = when {
     useArray -> CodeBlock.of("var %N: %T? = null", allocatedName, arrayListClassForType)
     isPacked && isScalar -> CodeBlock.of("var %N: MutableList<%T>? = null", allocatedName, type!!.typeName)
+    isRepeated && !mutableTypes && makeImmutableCopies -> {
+      // immutableCopyOf() freezes lists from newMutableList() in place instead of copying them.
+      CodeBlock.of(
+        "val %N = %M<%T>()",
+        allocatedName,
+        MemberName("com.squareup.wire.internal", "newMutableList"),
+        type!!.typeName,
+      )
+    }
     isRepeated -> CodeBlock.of("val %N = mutableListOf<%T>()", allocatedName, type!!.typeName)
     isMap -> CodeBlock.of(
       "val %N = mutableMapOf<%T, %T>()",
@@ -2950,6 +3328,27 @@ class KotlinGenerator private constructor(
     else -> CodeBlock.of("var %N: %T = %L", allocatedName, typeNameForBuilderField, identityValue)
   }
 
+  /**
+   * Returns the declaration of this field's local in `decodeInto`. Collections are taken from
+   * [existing] and cleared, except that repeated messages keep their elements to decode into.
+   */
+  private fun Field.getReusingDeclaration(allocatedName: String, existing: String): CodeBlock {
+    val reuse = when {
+      useArray -> return getDeclaration(allocatedName)
+      reusesElements -> "reusableListOf"
+      isRepeated -> "clearedListOf"
+      isMap -> "clearedMapOf"
+      else -> return getDeclaration(allocatedName)
+    }
+    return CodeBlock.of(
+      "val %N = %M(%N.%N)",
+      allocatedName,
+      MemberName("com.squareup.wire.internal", reuse),
+      existing,
+      allocatedName,
+    )
+  }
+
   private val Field.typeNameForBuilderField: TypeName
     get() {
       val typeNameForBuilderSetter = typeNameForBuilderSetter()
@@ -3516,8 +3915,10 @@ class KotlinGenerator private constructor(
       ProtoType.UINT32 to CodeBlock.of("0"),
     )
     private val MESSAGE = Message::class.asClassName()
+    private val MESSAGE_JSON_CODEC = MessageJsonCodec::class.asClassName()
     private val WIRE_ENCLOSING_TYPE = WireEnclosingType::class.asClassName()
     private val ANDROID_MESSAGE = MESSAGE.peerClass("AndroidMessage")
+    private val MUTABLE_MESSAGE = MutableMessage::class.asClassName()
     private val PROTO_READER = ProtoReader::class.asClassName()
     private val PROTO_READER_32 = ProtoReader32::class.asClassName()
     private val FOR_EACH_TAG = MemberName("com.squareup.wire", "forEachTag")
@@ -3543,6 +3944,7 @@ class KotlinGenerator private constructor(
       mutableTypes: Boolean = false,
       explicitStreamingCalls: Boolean = false,
       makeImmutableCopies: Boolean = true,
+      emitJsonCodecs: Boolean = false,
     ): KotlinGenerator {
       val typeToKotlinName = mutableMapOf<ProtoType, TypeName>()
       val memberToKotlinName = mutableMapOf<ProtoMember, TypeName>()
@@ -3622,6 +4024,7 @@ class KotlinGenerator private constructor(
         mutableTypes = mutableTypes,
         explicitStreamingCalls = explicitStreamingCalls,
         makeImmutableCopies = makeImmutableCopies,
+        emitJsonCodecs = emitJsonCodecs,
       )
     }
 
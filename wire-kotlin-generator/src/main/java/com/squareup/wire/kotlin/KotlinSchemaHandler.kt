@@ -110,6 +110,11 @@ class KotlinSchemaHandler(
    * critical usages.
    */
   private val makeImmutableCopies: Boolean = true,
+  /**
+   * If true, each generated message gets a `JSON_CODEC` that reads and writes its fields without
+   * reflection. `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+   */
+  private val emitJsonCodecs: Boolean = false,
 ) : SchemaHandler() {
   private lateinit var kotlinGenerator: KotlinGenerator
 
@@ -135,6 +140,7 @@ class KotlinSchemaHandler(
       mutableTypes = mutableTypes,
       explicitStreamingCalls = explicitStreamingCalls,
       makeImmutableCopies = makeImmutableCopies,
+      emitJsonCodecs = emitJsonCodecs,
     )
     context.fileSystem.createDirectories(context.outDirectory)
     super.handle(schema, context)
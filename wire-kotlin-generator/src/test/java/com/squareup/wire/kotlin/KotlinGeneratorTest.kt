@@ -1834,6 +1834,59 @@ class KotlinGeneratorTest {
     assertThat(code).doesNotContain("immutableCopyOf")
   }
 
+  @Test fun emitJsonCodecs() {
+    val schema = buildSchema {
+      add(
+        "proto_package/person.proto".toPath(),
+        """
+        |package proto_package;
+        |
+        |message Person {
+        |  required string name = 1;
+        |  repeated string emails = 2;
+        |  oneof contact {
+        |    string phone = 3;
+        |    string fax = 4;
+        |  }
+        |}
+        |
+        """.trimMargin(),
+      )
+    }
+    val code = KotlinWithProfilesGenerator(schema).generateKotlin(
+      typeName = "proto_package.Person",
+      emitJsonCodecs = true,
+    )
+    assertThat(code).contains("public val JSON_CODEC: MessageJsonCodec<Person>")
+    assertThat(code).contains("writer.write(2, value.emails)")
+    assertThat(code).contains("2 -> emails = reader.value() as List<String>")
+    assertThat(code).contains("name = name ?: throw missingRequiredFields(name, \"name\"),")
+    // Reading one field of a oneof clears the others.
+    assertThat(code.lines().joinToString("\n") { it.trim() }).contains(
+      """
+      |3 -> {
+      |phone = reader.value() as String
+      |fax = null
+      |}
+      """.trimMargin(),
+    )
+  }
+
+  @Test fun noJsonCodecsByDefault() {
+    val schema = buildSchema {
+      add(
+        "message.proto".toPath(),
+        """
+        |message Message {
+        |  optional string a = 1;
+        |}
+        """.trimMargin(),
+      )
+    }
+    val code = KotlinWithProfilesGenerator(schema).generateKotlin("Message")
+    assertThat(code).doesNotContain("JSON_CODEC")
+  }
+
   @Test fun documentationEscapesBrackets() {
     val schema = buildSchema {
       add(
@@ -2201,6 +2254,53 @@ class KotlinGeneratorTest {
     )
   }
 
+  @Test
+  fun redactReturnsMessagesWithoutRedactionsAsIs() {
+    val schema = redactedChildSchema(
+      """
+      |message Outer {
+      |  optional Secret secret = 1;
+      |  optional Plain plain = 2;
+      |}
+      """.trimMargin(),
+    )
+    val generator = KotlinWithProfilesGenerator(schema)
+    assertThat(generator.generateKotlin("Plain"))
+      .contains("override fun redact(`value`: Plain): Plain = value\n")
+    assertThat(generator.generateKotlin("Outer")).contains(
+      """
+      |      override fun redact(`value`: Outer): Outer {
+      |        val secret = value.secret?.let(Secret.ADAPTER::redact)
+      |        if (secret === value.secret && value.unknownFields.size == 0) return value
+      |        return value.copy(
+      |          secret = secret,
+      |          unknownFields = ByteString.EMPTY
+      |        )
+      |      }
+      """.trimMargin(),
+    )
+  }
+
+  @Test
+  fun redactChunksChildrenOfLargeMessages() {
+    val fields = (1..150).joinToString("\n") { "|  optional Secret secret$it = $it;" }
+    val schema = redactedChildSchema("|message Large {\n$fields\n|}".trimMargin())
+    val code = KotlinWithProfilesGenerator(schema).generateKotlin("Large")
+    assertThat(code).contains(
+      """
+      |      override fun redact(`value`: Large): Large {
+      |        var result = redact0(`value`)
+      |        result = redact1(result)
+      |        if (result === value && value.unknownFields.size == 0) return value
+      |        return result.copy(unknownFields = ByteString.EMPTY)
+      |      }
+      """.trimMargin(),
+    )
+    assertThat(code).contains("private fun redact1(`value`: Large): Large {")
+    assertThat(code).contains("val secret150 = value.secret150?.let(Secret.ADAPTER::redact)")
+    assertThat(code).doesNotContain("redact2")
+  }
+
   @Test
   fun buildersOnlyGeneratesNonPublicConstructors() {
     val schema = buildSchema {
@@ -2875,6 +2975,7 @@ class KotlinGeneratorTest {
     assertThat(code).contains("public var header_: MutableHeader? = null")
     assertThat(code).contains("public var payload: MutablePayload? = null")
     assertThat(code).contains("override var unknownFields: ByteString = ByteString.EMPTY")
+    assertThat(code).contains("MutableMessage {")
     assertThat(code).contains("MutableHeader#ADAPTER") // should refer to adapters of Mutable message types.
     assertThat(code).contains("MutablePayload#ADAPTER")
     assertThat(code).contains("var result = 0") // hashCode() is no longer calling super.hashCode().
@@ -2884,6 +2985,13 @@ class KotlinGeneratorTest {
     assertThat(code).contains(
       "throw UnsupportedOperationException(\"redact() is unsupported for mutable message types\")",
     )
+    assertThat(code).contains(
+      "override fun decodeInto(reader: ProtoReader, existing: MutablePacket): MutablePacket",
+    )
+    assertThat(code).contains(
+      "payload = decodeMessageInto(MutablePayload.ADAPTER, reader, payload, existing.payload)",
+    )
+    assertThat(code).contains("return existing")
   }
 
   companion object {
@@ -2922,6 +3030,35 @@ class KotlinGeneratorTest {
       )
     }
 
+    /** A schema with [messages] and two messages they can hold: one redacted, one not. */
+    private fun redactedChildSchema(messages: String) = buildSchema {
+      add(
+        "message.proto".toPath(),
+        """
+        |syntax = "proto2";
+        |import "option_redacted.proto";
+        |message Secret {
+        |  optional string text = 1 [(squareup.protos.redacted_option.redacted) = true];
+        |}
+        |message Plain {
+        |  optional string text = 1;
+        |}
+        |
+        """.trimMargin() + messages,
+      )
+      add(
+        "option_redacted.proto".toPath(),
+        """
+        |syntax = "proto2";
+        |package squareup.protos.redacted_option;
+        |import "google/protobuf/descriptor.proto";
+        |extend google.protobuf.FieldOptions {
+        |  optional bool redacted = 22200;
+        |}
+        """.trimMargin(),
+      )
+    }
+
     private val pointMessage = """
           |message Point {
           |  optional int32 latitude = 1;
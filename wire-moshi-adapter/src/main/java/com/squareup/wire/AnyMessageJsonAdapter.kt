@@ -24,7 +24,7 @@ import java.io.IOException
 
 internal class AnyMessageJsonAdapter(
   private val moshi: Moshi,
-  private val typeUrlToAdapter: Map<String, ProtoAdapter<*>>,
+  private val typeRegistry: TypeRegistry,
 ) : JsonAdapter<AnyMessage>() {
 
   @Throws(IOException::class)
@@ -38,14 +38,14 @@ internal class AnyMessageJsonAdapter(
     writer.name("@type")
     writer.value(value.typeUrl)
 
-    val protoAdapter = typeUrlToAdapter[value.typeUrl]
+    val protoAdapter = typeRegistry[value.typeUrl]
       ?: throw JsonDataException("Cannot find type for url: ${value.typeUrl} in ${writer.path}")
 
     if (protoAdapter == ProtoAdapter.FIELD_MASK) {
       @Suppress("UNCHECKED_CAST")
       val delegate = moshi.adapter(FieldMask::class.java) as JsonAdapter<FieldMask>
       writer.name("value")
-      delegate.toJson(writer, value.unpack(ProtoAdapter.FIELD_MASK))
+      delegate.toJson(writer, value.unpack(typeRegistry) as FieldMask)
       writer.endObject()
       return
     }
@@ -54,7 +54,7 @@ internal class AnyMessageJsonAdapter(
     val delegate = moshi.adapter(protoAdapter.type!!.java) as JsonAdapter<Message<*, *>>
 
     val flattenToken = writer.beginFlatten()
-    delegate.toJson(writer, value.unpack(protoAdapter) as Message<*, *>)
+    delegate.toJson(writer, value.unpack(typeRegistry) as Message<*, *>)
     writer.endFlatten(flattenToken)
     writer.endObject()
   }
@@ -69,7 +69,7 @@ internal class AnyMessageJsonAdapter(
     val typeUrl = reader.peekJson().use { it.readStringNamed("@type") }
       ?: throw JsonDataException("expected @type in ${reader.path}")
 
-    val protoAdapter = typeUrlToAdapter[typeUrl]
+    val protoAdapter = typeRegistry[typeUrl]
       ?: throw JsonDataException("Cannot resolve type: $typeUrl in ${reader.path}")
 
     if (protoAdapter == ProtoAdapter.FIELD_MASK) {
@@ -23,21 +23,13 @@ import java.io.IOException
 
 internal class MessageJsonAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
   private val messageAdapter: RuntimeMessageAdapter<M, B>,
+  private val jsonCodec: MessageJsonCodec<M>?,
   private val jsonAdapters: List<JsonAdapter<Any?>>,
   private val redactedFieldsAdapter: JsonAdapter<List<String>>,
 ) : JsonAdapter<M>() {
-  private val jsonNames = messageAdapter.jsonNames
-  private val jsonAlternateNames = messageAdapter.jsonAlternateNames
+  private val nameMatcher = messageAdapter.jsonNameMatcher
 
-  private val options: JsonReader.Options = run {
-    val optionStrings = mutableListOf<String>()
-    for (i in jsonNames.indices) {
-      val encodeName = jsonNames[i]
-      optionStrings += encodeName
-      optionStrings += jsonAlternateNames[i] ?: "$encodeName\u0000"
-    }
-    return@run JsonReader.Options.of(*optionStrings.toTypedArray())
-  }
+  private val options: JsonReader.Options = JsonReader.Options.of(*nameMatcher.names.toTypedArray())
 
   @Throws(IOException::class)
   override fun toJson(out: JsonWriter, message: M?) {
@@ -52,6 +44,7 @@ internal class MessageJsonAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
       message = message,
       jsonAdapters = jsonAdapters,
       redactedFieldsAdapter = redactedFieldsAdapter,
+      jsonCodec = jsonCodec,
     ) { name, value, jsonAdapter ->
       out.name(name)
       jsonAdapter.toJson(out, value)
@@ -61,6 +54,8 @@ internal class MessageJsonAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
 
   @Throws(IOException::class)
   override fun fromJson(input: JsonReader): M {
+    if (jsonCodec != null) return fromJson(input, jsonCodec)
+
     val builder = messageAdapter.newBuilder()
     input.beginObject()
     while (input.hasNext()) {
@@ -70,7 +65,7 @@ internal class MessageJsonAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
         input.skipValue()
         continue
       }
-      val index = option / 2
+      val index = nameMatcher.fieldIndexOfName(option)
 
       val value = jsonAdapters[index].fromJson(input)
 
@@ -84,4 +79,32 @@ internal class MessageJsonAdapter<M : Message<M, B>, B : Message.Builder<M, B>>(
     input.endObject()
     return builder.build()
   }
+
+  private fun fromJson(input: JsonReader, jsonCodec: MessageJsonCodec<M>): M {
+    input.beginObject()
+    val message = jsonCodec.decode(
+      object : MessageJsonCodec.FieldReader {
+        private var value: Any? = null
+
+        override fun nextTag(): Int {
+          while (input.hasNext()) {
+            val option = input.selectName(options)
+            if (option == -1) {
+              input.skipName()
+              input.skipValue()
+              continue
+            }
+            val index = nameMatcher.fieldIndexOfName(option)
+            value = jsonAdapters[index].fromJson(input) ?: continue
+            return messageAdapter.fieldBindingsArray[index].tag
+          }
+          return -1
+        }
+
+        override fun value(): Any = value!!
+      },
+    )
+    input.endObject()
+    return message
+  }
 }
@@ -20,9 +20,11 @@ import com.squareup.moshi.JsonDataException
 import com.squareup.moshi.JsonReader
 import com.squareup.moshi.JsonWriter
 import com.squareup.moshi.Moshi
+import com.squareup.wire.internal.ByteStringJsonFormatter
 import com.squareup.wire.internal.JsonFormatter
 import com.squareup.wire.internal.JsonIntegration
 import java.lang.reflect.Type
+import okio.ByteString
 
 internal object MoshiJsonIntegration : JsonIntegration<Moshi, JsonAdapter<Any?>>() {
   override fun frameworkAdapter(
@@ -50,10 +52,34 @@ internal object MoshiJsonIntegration : JsonIntegration<Moshi, JsonAdapter<Any?>>
   override fun structAdapter(framework: Moshi): JsonAdapter<Any?> = framework.adapter<Any?>(Object::class.java).serializeNulls().nullSafe()
 
   override fun formatterAdapter(jsonStringAdapter: JsonFormatter<*>): JsonAdapter<Any?> {
+    if (jsonStringAdapter === ByteStringJsonFormatter) {
+      @Suppress("UNCHECKED_CAST")
+      return ByteStringJsonAdapter.nullSafe() as JsonAdapter<Any?>
+    }
     @Suppress("UNCHECKED_CAST")
     return FormatterJsonAdapter(jsonStringAdapter).nullSafe() as JsonAdapter<Any?>
   }
 
+  /**
+   * Streams base64 directly to the writer's sink and from the reader's source, so large values are
+   * never held as strings.
+   */
+  private object ByteStringJsonAdapter : JsonAdapter<ByteString>() {
+    override fun toJson(
+      writer: JsonWriter,
+      value: ByteString?,
+    ) {
+      writer.valueSink().use { ByteStringJsonFormatter.writeUtf8(value!!, it) }
+    }
+
+    override fun fromJson(reader: JsonReader): ByteString? {
+      if (reader.peek() != JsonReader.Token.STRING) {
+        return ByteStringJsonFormatter.fromString(reader.nextString())
+      }
+      return reader.nextSource().use { ByteStringJsonFormatter.readJsonString(it) }
+    }
+  }
+
   private class FormatterJsonAdapter<T : Any>(
     private val formatter: JsonFormatter<T>,
   ) : JsonAdapter<T>() {
@@ -21,7 +21,11 @@ import com.squareup.moshi.Types
 import com.squareup.wire.internal.EnumJsonFormatter
 import com.squareup.wire.internal.FieldMaskJsonFormatter
 import com.squareup.wire.internal.createRuntimeMessageAdapter
+import com.squareup.wire.internal.jsonCodecOrNull
+import com.squareup.wire.internal.prewarmJsonAdapters
 import java.lang.reflect.Type
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ForkJoinPool
 
 /**
  * A [JsonAdapter.Factory] that allows Wire messages to be serialized and deserialized using the
@@ -46,24 +50,36 @@ import java.lang.reflect.Type
  * definition in the protobuf schema on JSON serialisation. If false, Wire will follow the official
  * specification (i.e. camelCase). Note that [preservingProtoFieldNames], when true, takes
  * precedence over the `jsonName` option.
+ *
+ * Messages generated with the `emitJsonCodecs` option are read and written with their generated
+ * [MessageJsonCodec] instead of reflection, which is faster.
  */
 class WireJsonAdapterFactory @JvmOverloads constructor(
   typeUrlToAdapter: Map<String, ProtoAdapter<*>> = mapOf(),
   private val writeIdentityValues: Boolean = false,
   private val preservingProtoFieldNames: Boolean = false,
 ) : JsonAdapter.Factory {
+  /**
+   * Uses the adapters in [typeRegistry] to encode and decode [AnyMessage] values. The same registry
+   * can unpack those values with [AnyMessage.unpack], which retains decoded messages unless they
+   * are mutable.
+   */
+  @JvmOverloads constructor(
+    typeRegistry: TypeRegistry,
+    writeIdentityValues: Boolean = false,
+    preservingProtoFieldNames: Boolean = false,
+  ) : this(typeRegistry.toMap(), writeIdentityValues, preservingProtoFieldNames)
+
   /** Built-in adapters are registered by default; entries in [typeUrlToAdapter] take precedence. */
-  private val typeUrlToAdapter: Map<String, ProtoAdapter<*>> = buildMap {
-    put(ProtoAdapter.FIELD_MASK.typeUrl!!, ProtoAdapter.FIELD_MASK)
-    putAll(typeUrlToAdapter)
-  }
+  private val typeRegistry: TypeRegistry =
+    TypeRegistry.of(ProtoAdapter.FIELD_MASK) + TypeRegistry.of(typeUrlToAdapter)
 
   /**
    * Returns a new WireJsonAdapterFactory that can encode the messages for [adapters] if they're
    * used with [AnyMessage].
    */
   fun plus(adapters: List<ProtoAdapter<*>>): WireJsonAdapterFactory {
-    val newMap = typeUrlToAdapter.toMutableMap()
+    val newMap = typeRegistry.toMap().toMutableMap()
     for (adapter in adapters) {
       val key = adapter.typeUrl ?: throw IllegalArgumentException(
         "recompile ${adapter.type} to use it with WireJsonAdapterFactory",
@@ -79,6 +95,25 @@ class WireJsonAdapterFactory @JvmOverloads constructor(
    */
   fun plus(adapter: ProtoAdapter<*>): WireJsonAdapterFactory = plus(listOf(adapter))
 
+  /**
+   * Creates and caches the adapters in [moshi] for [types], and for the message types in this
+   * factory's type registry, so their first use doesn't pay for reflection and adapter creation.
+   * Adapters for the messages and enums that these types reference are created too. [moshi] must
+   * have been built with this factory.
+   *
+   * Each type is prewarmed as a task on [pool]; [listener] is told how long each took. The returned
+   * future completes when all are done.
+   */
+  @JvmOverloads
+  fun prewarm(
+    moshi: Moshi,
+    types: Collection<Class<*>>,
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+    listener: JsonPrewarmListener = JsonPrewarmListener.NONE,
+  ): CompletableFuture<Void?> = prewarmJsonAdapters(types, typeRegistry, pool, listener) { type ->
+    moshi.adapter<Any>(type)
+  }
+
   @Suppress("UNCHECKED_CAST")
   override fun create(
     type: Type,
@@ -89,7 +124,7 @@ class WireJsonAdapterFactory @JvmOverloads constructor(
 
     return when {
       annotations.isNotEmpty() -> null
-      rawType == AnyMessage::class.java -> AnyMessageJsonAdapter(moshi, typeUrlToAdapter)
+      rawType == AnyMessage::class.java -> AnyMessageJsonAdapter(moshi, typeRegistry)
       rawType == FieldMask::class.java -> MoshiJsonIntegration.formatterAdapter(FieldMaskJsonFormatter)
       Message::class.java.isAssignableFrom(rawType) -> {
         val messageAdapter = createRuntimeMessageAdapter<Nothing, Nothing>(
@@ -102,7 +137,8 @@ class WireJsonAdapterFactory @JvmOverloads constructor(
         val redactedFieldsAdapter = moshi.adapter<List<String>>(
           Types.newParameterizedType(List::class.java, String::class.java),
         )
-        MessageJsonAdapter(messageAdapter, jsonAdapters, redactedFieldsAdapter).nullSafe()
+        val jsonCodec = jsonCodecOrNull(rawType as Class<Nothing>)
+        MessageJsonAdapter(messageAdapter, jsonCodec, jsonAdapters, redactedFieldsAdapter).nullSafe()
       }
       WireEnum::class.java.isAssignableFrom(rawType) -> {
         val enumAdapter = RuntimeEnumAdapter.create(type as Class<Nothing>)
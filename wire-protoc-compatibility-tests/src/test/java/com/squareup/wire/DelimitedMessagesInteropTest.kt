@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNull
+import com.google.protobuf.Duration
+import okio.Buffer
+import org.junit.Test
+
+class DelimitedMessagesInteropTest {
+  private val googleMessages = listOf(
+    Duration.newBuilder().setSeconds(1L).setNanos(200_000_000).build(),
+    Duration.newBuilder().build(),
+    Duration.newBuilder().setSeconds(-315_576_000_000L).build(),
+  )
+
+  private val wireMessages = listOf(
+    durationOfSeconds(1L, 200_000_000L),
+    durationOfSeconds(0L, 0L),
+    durationOfSeconds(-315_576_000_000L, 0L),
+  )
+
+  @Test fun wireReadsWriteDelimitedTo() {
+    val buffer = Buffer()
+    for (googleMessage in googleMessages) {
+      googleMessage.writeDelimitedTo(buffer.outputStream())
+    }
+
+    val source = DelimitedMessageSource(buffer, ProtoAdapter.DURATION)
+    for (wireMessage in wireMessages) {
+      assertThat(source.read()).isEqualTo(wireMessage)
+    }
+    assertThat(source.read()).isNull()
+  }
+
+  @Test fun parseDelimitedFromReadsWire() {
+    val buffer = Buffer()
+    DelimitedMessageSink(buffer, ProtoAdapter.DURATION).use { sink ->
+      for (wireMessage in wireMessages) {
+        sink.write(wireMessage)
+      }
+    }
+
+    val inputStream = buffer.inputStream()
+    val parsed = generateSequence { Duration.parseDelimitedFrom(inputStream) }.toList()
+    assertThat(parsed).containsExactly(*googleMessages.toTypedArray())
+  }
+}
@@ -16,6 +16,7 @@
 package com.squareup.wire
 
 import com.squareup.wire.AnyMessage.Companion.pack
+import com.squareup.wire.internal.MutableMessage
 import kotlin.jvm.JvmField
 import okio.ByteString
 
@@ -29,6 +30,7 @@ import okio.ByteString
  * Example
  * ```
  * val person: Person = anyMessage.unpack(Person.ADAPTER)
+ * val message: Any = anyMessage.unpack(TypeRegistry.of(Person.ADAPTER, Address.ADAPTER))
  * val anyMessage: AnyMessage = AnyMessage.pack(person)
  * val fieldMask = FieldMask(listOf("name"))
  * val fieldMaskAny: AnyMessage = AnyMessage.pack(ProtoAdapter.FIELD_MASK, fieldMask)
@@ -39,14 +41,56 @@ class AnyMessage(
   val value: ByteString = ByteString.EMPTY,
 ) : Message<AnyMessage, Nothing>(ADAPTER, ByteString.EMPTY) {
 
+  /**
+   * The most recently unpacked value and the adapter that decoded it. Unpacking again with the
+   * same adapter returns this value rather than decoding [value] again.
+   */
+  private var unpacked: Unpacked? = null
+
   fun <T> unpack(adapter: ProtoAdapter<T>): T {
     check(typeUrl == adapter.typeUrl) {
       "type mismatch: $typeUrl != ${adapter.typeUrl}"
     }
-    return adapter.decode(value)
+    return decode(adapter)
+  }
+
+  fun <T> unpackOrNull(adapter: ProtoAdapter<T>): T? = if (typeUrl == adapter.typeUrl) decode(adapter) else null
+
+  /**
+   * Unpacks this using the adapter that [registry] has for [typeUrl]. The decoded value is
+   * retained, so unpacking again with a registry that has the same adapter doesn't decode again.
+   * Values that callers can change, like mutable message types and the maps of schema adapters, are
+   * decoded again on each call instead.
+   */
+  fun unpack(registry: TypeRegistry): Any {
+    val adapter = checkNotNull(registry[typeUrl]) { "no adapter for $typeUrl in $registry" }
+    return decode(adapter)!!
   }
 
-  fun <T> unpackOrNull(adapter: ProtoAdapter<T>): T? = if (typeUrl == adapter.typeUrl) adapter.decode(value) else null
+  /** Like [unpack], but returns null if [registry] doesn't have an adapter for [typeUrl]. */
+  fun unpackOrNull(registry: TypeRegistry): Any? {
+    val adapter = registry[typeUrl] ?: return null
+    return decode(adapter)
+  }
+
+  private fun <T> decode(adapter: ProtoAdapter<T>): T {
+    val unpacked = unpacked
+    if (unpacked != null && unpacked.adapter === adapter) {
+      @Suppress("UNCHECKED_CAST")
+      return unpacked.value as T
+    }
+    val result = adapter.decode(value)
+    // Sharing one instance is only safe if nobody can change it.
+    if (result !is MutableMessage && result !is Map<*, *>) {
+      this.unpacked = Unpacked(adapter, result)
+    }
+    return result
+  }
+
+  private class Unpacked(
+    val adapter: ProtoAdapter<*>,
+    val value: Any?,
+  )
 
   @Deprecated(
     message = "Shouldn't be used in Kotlin",
@@ -54,7 +54,7 @@ import okio.EOFException
 import okio.IOException
 
 internal class ByteArrayProtoReader32(
-  private val source: ByteArray,
+  private var source: ByteArray,
 
   /** The current position in [source], starting at 0 and increasing monotonically. */
   private var pos: Int = 0,
@@ -89,21 +89,65 @@ internal class ByteArrayProtoReader32(
   /** Pooled buffers for unknown fields, indexed by [recursionDepth]. */
   private val bufferStack = mutableListOf<Buffer>()
 
+  /**
+   * The range of [source] holding unknown fields that haven't been copied to [bufferStack], indexed
+   * by [recursionDepth]. Adjacent unknown fields share a range so they're copied once, as-is.
+   */
+  private var unknownFieldsStart = IntArray(0)
+  private var unknownFieldsEnd = IntArray(0)
+
+  /** The position of the most recently read tag, or -1 if it was implied by a packed field. */
+  private var tagPos = -1
+
   /** Lazily-initialized. */
   private var protoReader: ProtoReader32AsProtoReader? = null
 
+  override var discardUnknownFields: Boolean = false
+
   override fun asProtoReader(): ProtoReader {
     return protoReader
       ?: ProtoReader32AsProtoReader(this).also { protoReader = it }
   }
 
+  /**
+   * Prepares this reader to read a new message from [source], discarding any state from the
+   * previous message. This lets a single reader decode many messages without allocating.
+   */
+  fun reset(source: ByteArray, pos: Int = 0, limit: Int = source.size) {
+    require(pos in 0..source.size) {
+      "pos=$pos must be between 0 and source size ${source.size}"
+    }
+    require(limit in pos..source.size) {
+      "limit=$limit must be between pos=$pos and source size ${source.size}"
+    }
+    this.source = source
+    this.pos = pos
+    this.limit = limit
+    recursionDepth = 0
+    state = STATE_LENGTH_DELIMITED
+    tag = -1
+    pushedLimit = -1
+    nextFieldEncoding = null
+    tagPos = -1
+    // A failed decode may have left unknown fields behind.
+    for (buffer in bufferStack) {
+      buffer.clear()
+    }
+  }
+
   override fun beginMessage(): Int {
     check(state == STATE_LENGTH_DELIMITED) { "Unexpected call to beginMessage()" }
     if (++recursionDepth > RECURSION_LIMIT) {
       throw IOException("Wire recursion limit exceeded")
     }
     // Allocate a buffer to store unknown fields encountered at this recursion level.
-    if (recursionDepth > bufferStack.size) bufferStack += Buffer()
+    if (recursionDepth > bufferStack.size) {
+      bufferStack += Buffer()
+      unknownFieldsStart = unknownFieldsStart.copyOf(bufferStack.size)
+      unknownFieldsEnd = unknownFieldsEnd.copyOf(bufferStack.size)
+    }
+    unknownFieldsStart[recursionDepth - 1] = pos
+    unknownFieldsEnd[recursionDepth - 1] = pos
     // Give the pushed limit to the caller to hold. The value is returned in endMessage() where we
     // resume using it as our limit.
     val token = pushedLimit
@@ -120,10 +164,15 @@ internal class ByteArrayProtoReader32(
     }
     limit = token
     val unknownFieldsBuffer = bufferStack[recursionDepth]
-    return if (unknownFieldsBuffer.size > 0L) {
-      unknownFieldsBuffer.readByteString()
-    } else {
-      ByteString.EMPTY
+    val start = unknownFieldsStart[recursionDepth]
+    val end = unknownFieldsEnd[recursionDepth]
+    return when {
+      // The common case: all unknown fields were adjacent. Copy them straight from the source.
+      unknownFieldsBuffer.size == 0L && start < end -> source.toByteString(start, end - start)
+      else -> {
+        flushUnknownFields(recursionDepth)
+        if (unknownFieldsBuffer.size > 0L) unknownFieldsBuffer.readByteString() else ByteString.EMPTY
+      }
     }
   }
 
@@ -150,12 +199,14 @@ internal class ByteArrayProtoReader32(
   override fun nextTag(): Int {
     if (state == STATE_PACKED_TAG) {
       state = STATE_LENGTH_DELIMITED
+      tagPos = -1
       return tag
     } else if (state != STATE_TAG) {
       throw IllegalStateException("Unexpected call to nextTag()")
     }
 
     loop@ while (pos < limit) {
+      tagPos = pos
       val tagAndFieldEncoding = internalReadVarint32()
       if (tagAndFieldEncoding == 0) throw ProtocolException("Unexpected tag 0. Reader position: $pos. Last read tag: $tag.")
 
@@ -404,10 +455,27 @@ internal class ByteArrayProtoReader32(
   }
 
   override fun readUnknownField(tag: Int) {
-    val fieldEncoding = peekFieldEncoding()
-    val protoAdapter = fieldEncoding!!.rawProtoAdapter()
-    val value = protoAdapter.decode(this)
-    addUnknownField(tag, fieldEncoding, value)
+    if (discardUnknownFields) {
+      skip()
+      return
+    }
+    val fieldStart = tagPos
+    if (fieldStart == -1 || tag != this.tag) {
+      val fieldEncoding = peekFieldEncoding()
+      val protoAdapter = fieldEncoding!!.rawProtoAdapter()
+      val value = protoAdapter.decode(this)
+      addUnknownField(tag, fieldEncoding, value)
+      return
+    }
+
+    // Retain the field's tag and value as they appear in the source, without decoding them.
+    skip()
+    val depth = recursionDepth - 1
+    if (unknownFieldsEnd[depth] != fieldStart) {
+      flushUnknownFields(depth)
+      unknownFieldsStart[depth] = fieldStart
+    }
+    unknownFieldsEnd[depth] = pos
   }
 
   override fun addUnknownField(
@@ -415,12 +483,24 @@ internal class ByteArrayProtoReader32(
     fieldEncoding: FieldEncoding,
     value: Any?,
   ) {
+    if (discardUnknownFields) return
+    flushUnknownFields(recursionDepth - 1)
     val unknownFieldsWriter = ProtoWriter(bufferStack[recursionDepth - 1])
     val protoAdapter = fieldEncoding.rawProtoAdapter()
     @Suppress("UNCHECKED_CAST") // We encode and decode the same types.
     (protoAdapter as ProtoAdapter<Any>).encodeWithTag(unknownFieldsWriter, tag, value)
   }
 
+  /** Copies the unknown fields in the source range at [depth] to its buffer. */
+  private fun flushUnknownFields(depth: Int) {
+    val start = unknownFieldsStart[depth]
+    val end = unknownFieldsEnd[depth]
+    if (start < end) {
+      bufferStack[depth].write(source, start, end - start)
+      unknownFieldsStart[depth] = end
+    }
+  }
+
   override fun nextFieldMinLengthInBytes(): Int {
     return when (nextFieldEncoding) {
       FieldEncoding.LENGTH_DELIMITED -> remainingInLimit()
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import kotlin.Throws
+import kotlin.jvm.JvmOverloads
+import okio.BufferedSink
+import okio.IOException
+
+/**
+ * Writes a stream of length-prefixed messages that can be read by [DelimitedMessageSource] or by
+ * protobuf-java's `parseDelimitedFrom()`.
+ *
+ * Messages are encoded with a [ReverseProtoWriter] that is reused for each message, so the length
+ * prefix is computed without encoding the message twice.
+ *
+ * @param flushInterval the number of messages to write between flushes of [sink]. The default of
+ *     1 flushes after every message. Use a larger value to batch small messages into fewer writes
+ *     to the underlying file or socket; call [flush] to flush a partial batch.
+ */
+class DelimitedMessageSink<T : Any> @JvmOverloads constructor(
+  private val sink: BufferedSink,
+  private val messageAdapter: ProtoAdapter<T>,
+  private val framing: MessageFraming = MessageFraming.VARINT,
+  private val flushInterval: Int = 1,
+) : MessageSink<T> {
+  private val writer = ReverseProtoWriter()
+  private var unflushedCount = 0
+  private var closed = false
+
+  init {
+    require(flushInterval >= 1) { "flushInterval < 1: $flushInterval" }
+  }
+
+  @Throws(IOException::class)
+  override fun write(message: T) {
+    check(!closed) { "closed" }
+
+    messageAdapter.encode(writer, message)
+    when (framing) {
+      MessageFraming.VARINT -> writer.writeVarint32(writer.byteCount)
+      MessageFraming.FIXED32 -> writer.writeFixed32(writer.byteCount)
+    }
+    writer.writeTo(sink)
+
+    if (++unflushedCount >= flushInterval) {
+      flush()
+    }
+  }
+
+  /** Flushes messages that have been written but not yet flushed to the underlying stream. */
+  @Throws(IOException::class)
+  fun flush() {
+    check(!closed) { "closed" }
+    unflushedCount = 0
+    sink.flush()
+  }
+
+  /**
+   * Closes the underlying stream. Length-prefixed streams have no way to signal abnormal
+   * termination, so readers will see only the messages written before this call.
+   */
+  @Throws(IOException::class)
+  override fun cancel() {
+    check(!closed) { "closed" }
+    close()
+  }
+
+  @Throws(IOException::class)
+  override fun close() {
+    if (closed) return
+    closed = true
+    sink.close()
+  }
+}
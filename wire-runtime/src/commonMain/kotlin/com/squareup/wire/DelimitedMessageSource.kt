@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import com.squareup.wire.internal.ProtocolException
+import kotlin.Throws
+import kotlin.jvm.JvmOverloads
+import okio.BufferedSource
+import okio.EOFException
+import okio.IOException
+
+/**
+ * Reads a stream of length-prefixed messages, such as a file written by protobuf-java's
+ * `writeDelimitedTo()` or by [DelimitedMessageSink].
+ *
+ * Each message is read into a byte array that is reused for subsequent messages, so reading a
+ * stream of similarly-sized messages doesn't allocate buffers per message.
+ *
+ * @param maxMessageSize the largest encoded message to accept. Reading a longer message throws
+ *     rather than allocating a buffer for it, which guards against corrupt or hostile input.
+ */
+class DelimitedMessageSource<T : Any> @JvmOverloads constructor(
+  private val source: BufferedSource,
+  private val messageAdapter: ProtoAdapter<T>,
+  private val framing: MessageFraming = MessageFraming.VARINT,
+  private val maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE,
+) : MessageSource<T> {
+  private var messageBytes = EMPTY_BYTE_ARRAY
+  private var closed = false
+
+  init {
+    require(maxMessageSize >= 0) { "maxMessageSize < 0: $maxMessageSize" }
+  }
+
+  @Throws(IOException::class)
+  override fun read(): T? {
+    check(!closed) { "closed" }
+    if (source.exhausted()) return null
+
+    val byteCount = when (framing) {
+      MessageFraming.VARINT -> readVarint32()
+      MessageFraming.FIXED32 -> source.readIntLe()
+    }
+    if (byteCount < 0 || byteCount > maxMessageSize) {
+      throw ProtocolException(
+        "message of ${byteCount.toUInt()} bytes exceeds maxMessageSize=$maxMessageSize",
+      )
+    }
+
+    if (messageBytes.size < byteCount) {
+      messageBytes = ByteArray(maxOf(byteCount, minOf(messageBytes.size * 2, maxMessageSize)))
+    }
+    var offset = 0
+    while (offset < byteCount) {
+      val read = source.read(messageBytes, offset, byteCount - offset)
+      if (read == -1) throw EOFException("expected $byteCount bytes but was $offset")
+      offset += read
+    }
+
+    return messageAdapter.decode(ProtoReader32(messageBytes, 0, byteCount))
+  }
+
+  private fun readVarint32(): Int {
+    var result = 0
+    var shift = 0
+    while (shift < 32) {
+      val b = source.readByte().toInt()
+      result = result or ((b and 0x7f) shl shift)
+      if (b and 0x80 == 0) return result
+      shift += 7
+    }
+    throw ProtocolException("malformed message length")
+  }
+
+  @Throws(IOException::class)
+  override fun close() {
+    if (closed) return
+    closed = true
+    source.close()
+  }
+
+  companion object {
+    /** 64 MiB, which is also protobuf-java's historical limit. */
+    const val DEFAULT_MAX_MESSAGE_SIZE: Int = 64 * 1024 * 1024
+
+    private val EMPTY_BYTE_ARRAY = ByteArray(0)
+  }
+}
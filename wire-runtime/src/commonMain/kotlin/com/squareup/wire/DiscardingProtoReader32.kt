@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import okio.ByteString
+
+/**
+ * Decorates a [ProtoReader32] that wasn't created by `ProtoReader32()` so that it skips unknown
+ * fields. Readers created by `ProtoReader32()` are told to discard directly instead.
+ */
+internal class DiscardingProtoReader32(
+  private val delegate: ProtoReader32,
+) : ProtoReader32 {
+  /** Lazily-initialized. */
+  private var protoReader: ProtoReader32AsProtoReader? = null
+
+  override val discardUnknownFields: Boolean
+    get() = true
+
+  override fun asProtoReader(): ProtoReader {
+    return protoReader
+      ?: ProtoReader32AsProtoReader(this).also { protoReader = it }
+  }
+
+  override fun beginMessage() = delegate.beginMessage()
+
+  override fun endMessageAndGetUnknownFields(token: Int): ByteString {
+    delegate.endMessageAndGetUnknownFields(token)
+    return ByteString.EMPTY
+  }
+
+  override fun nextLengthDelimited() = delegate.nextLengthDelimited()
+
+  override fun nextTag() = delegate.nextTag()
+
+  override fun peekFieldEncoding() = delegate.peekFieldEncoding()
+
+  override fun skip() {
+    delegate.skip()
+  }
+
+  override fun readBytes() = delegate.readBytes()
+
+  override fun beforePossiblyPackedScalar() = delegate.beforePossiblyPackedScalar()
+
+  override fun readString() = delegate.readString()
+
+  override fun readVarint32() = delegate.readVarint32()
+
+  override fun readVarint64() = delegate.readVarint64()
+
+  override fun readFixed32() = delegate.readFixed32()
+
+  override fun readFixed64() = delegate.readFixed64()
+
+  override fun readUnknownField(tag: Int) {
+    delegate.skip()
+  }
+
+  override fun addUnknownField(tag: Int, fieldEncoding: FieldEncoding, value: Any?) {
+    // Discarded.
+  }
+
+  override fun nextFieldMinLengthInBytes() = delegate.nextFieldMinLengthInBytes()
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+/**
+ * How [DelimitedMessageSource] and [DelimitedMessageSink] mark where each message in a stream
+ * ends. Each message is prefixed with the length of its encoded bytes.
+ */
+enum class MessageFraming {
+  /**
+   * The length is a varint. This is the framing of protobuf-java's `writeDelimitedTo()` and
+   * `parseDelimitedFrom()`.
+   */
+  VARINT,
+
+  /** The length is 4 bytes, little-endian, like a protobuf `fixed32` value. */
+  FIXED32,
+}
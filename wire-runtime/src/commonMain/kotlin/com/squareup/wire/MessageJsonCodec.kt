@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+/**
+ * Reads and writes the fields of messages of type [M] without reflection. Wire generates a codec
+ * named `JSON_CODEC` for each message type when the `emitJsonCodecs` option is enabled, and JSON
+ * adapters like `WireJsonAdapterFactory` and `WireTypeAdapterFactory` use it when it is present.
+ *
+ * Codecs don't format JSON. They identify each field by its tag and pass its value to or from the
+ * JSON library, which encodes it with the adapter for that field.
+ */
+abstract class MessageJsonCodec<M : Any> {
+  /** Writes each field of [value] to [writer], in declaration order. */
+  abstract fun encode(value: M, writer: FieldWriter)
+
+  /** Returns a message with the fields read from [reader]. */
+  abstract fun decode(reader: FieldReader): M
+
+  interface FieldWriter {
+    /** Writes [value] as the field [tag]. The writer decides whether absent values are omitted. */
+    fun write(tag: Int, value: Any?)
+  }
+
+  interface FieldReader {
+    /**
+     * Reads the next field that has a value and returns its tag, or -1 if there are no more fields.
+     * Fields that aren't known to the message and fields whose values are null are skipped.
+     */
+    fun nextTag(): Int
+
+    /** Returns the value of the field returned by the most recent call to [nextTag]. */
+    fun value(): Any
+  }
+}
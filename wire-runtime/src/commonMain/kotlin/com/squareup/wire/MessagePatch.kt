@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import okio.ByteString
+
+/**
+ * The changes between two messages of the same type, computed by [ProtoAdapter.diff] and applied
+ * with [ProtoAdapter.applyPatch].
+ *
+ * [fieldMask] names each field that changed. Fields of nested messages that changed in place are
+ * named with dotted paths like `address.city`. [values] is a partial message in the protobuf wire
+ * format with the new value of each field in [fieldMask]; fields in the mask that are absent from
+ * [values] were cleared. Both can be sent with their own adapters, [ProtoAdapter.FIELD_MASK] and
+ * [ProtoAdapter.BYTES].
+ */
+class MessagePatch(
+  val fieldMask: FieldMask,
+  val values: ByteString,
+) {
+  /** True if the two messages have the same fields. */
+  val isEmpty: Boolean
+    get() = fieldMask.paths.isEmpty()
+
+  override fun equals(other: Any?): Boolean {
+    if (other === this) return true
+    return other is MessagePatch && fieldMask == other.fieldMask && values == other.values
+  }
+
+  override fun hashCode(): Int = fieldMask.hashCode() * 31 + values.hashCode()
+
+  override fun toString(): String = "MessagePatch{paths=${fieldMask.paths}, values=${values.hex()}}"
+}
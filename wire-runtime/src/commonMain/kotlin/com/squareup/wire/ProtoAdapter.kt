@@ -25,6 +25,12 @@ import com.squareup.wire.ProtoWriter.Companion.int32Size
 import com.squareup.wire.ProtoWriter.Companion.tagSize
 import com.squareup.wire.ProtoWriter.Companion.varint32Size
 import com.squareup.wire.ProtoWriter.Companion.varint64Size
+import com.squareup.wire.internal.RuntimeMessageAdapter
+import com.squareup.wire.internal.StructTreeBuilder
+import com.squareup.wire.internal.ToStringWriter
+import com.squareup.wire.internal.decodeListValue
+import com.squareup.wire.internal.decodeStruct
+import com.squareup.wire.internal.messageAdapterOrNull
 import kotlin.reflect.KClass
 import okio.Buffer
 import okio.BufferedSink
@@ -126,6 +132,18 @@ expect abstract class ProtoAdapter<E>(
   /** Read a non-null value from `reader`. */
   open fun decode(reader: ProtoReader32): E
 
+  /**
+   * Read a non-null value from `reader` into [existing], reusing its storage where possible.
+   * Adapters for mutable message types reset and refill [existing] in place, reusing its nested
+   * messages and lists, and return it. Other adapters return a newly-decoded value.
+   *
+   * If decoding fails, [existing] may be left partially updated.
+   */
+  open fun decodeInto(reader: ProtoReader, existing: E): E
+
+  /** Read a non-null value from `reader` into [existing], reusing its storage where possible. */
+  open fun decodeInto(reader: ProtoReader32, existing: E): E
+
   /** Read an encoded message from `bytes`. */
   fun decode(bytes: ByteArray): E
 
@@ -150,6 +168,32 @@ expect abstract class ProtoAdapter<E>(
   /** Returns a human-readable version of the given `value`. */
   open fun toString(value: E): String
 
+  /**
+   * Writes a human-readable version of [value] to [appendable] as it is produced, rather than
+   * building the entire string in memory. Deep nesting, long lists and maps, and long strings and
+   * byte strings are elided according to [limits].
+   */
+  fun toString(value: E, appendable: Appendable, limits: ToStringLimits)
+
+  /** Writes [value] to [writer]. Adapters that know the structure of `E` override this. */
+  internal open fun appendTo(value: E, writer: ToStringWriter)
+
+  /**
+   * Returns the fields that differ between the messages [old] and [new]. Fields holding messages
+   * that changed in place are diffed recursively, and values that both messages share are skipped
+   * without being compared. Pass the result to [applyPatch] to get a message equal to [new] from
+   * [old].
+   *
+   * The unknown fields of [old] and [new] are not compared.
+   */
+  fun diff(old: E, new: E): MessagePatch
+
+  /**
+   * Returns a copy of [old] with the changes in [patch], computed by [diff], applied. The unknown
+   * fields of [old] are retained.
+   */
+  fun applyPatch(old: E, patch: MessagePatch): E
+
   internal fun withLabel(label: WireField.Label): ProtoAdapter<*>
 
   /** Returns an adapter for `E` but as a packed, repeated value. */
@@ -164,6 +208,12 @@ expect abstract class ProtoAdapter<E>(
    */
   fun asRepeated(): ProtoAdapter<List<E>>
 
+  /**
+   * Returns an adapter for `E` that skips unknown fields when decoding, at every level of nesting.
+   * Use this when decoded values are never re-encoded, as their unknown fields would be lost.
+   */
+  fun discardingUnknownFields(): ProtoAdapter<E>
+
   class EnumConstantNotFoundException(
     value: Int,
     type: KClass<*>?,
@@ -382,6 +432,31 @@ internal inline fun <E> ProtoAdapter<E>.commonTryDecode(
 @Suppress("NOTHING_TO_INLINE")
 internal inline fun <E> commonToString(value: E): String = value.toString()
 
+@Suppress("NOTHING_TO_INLINE")
+internal inline fun <E> ProtoAdapter<E>.commonToString(
+  value: E,
+  appendable: Appendable,
+  limits: ToStringLimits,
+) {
+  appendTo(value, ToStringWriter(appendable, limits))
+}
+
+internal fun <E> ProtoAdapter<E>.commonDiff(old: E, new: E): MessagePatch {
+  val paths = mutableListOf<String>()
+  val values = Buffer()
+  fieldsAdapter(old).diff(old!!, new!!, "", paths, ProtoWriter(values))
+  return MessagePatch(FieldMask(paths), values.readByteString())
+}
+
+@Suppress("UNCHECKED_CAST")
+internal fun <E> ProtoAdapter<E>.commonApplyPatch(old: E, patch: MessagePatch): E =
+  fieldsAdapter(old).applyPatch(old!!, patch.fieldMask.paths, patch.values) as E
+
+private fun ProtoAdapter<*>.fieldsAdapter(value: Any?): RuntimeMessageAdapter<Any, Any> {
+  return value?.let { messageAdapterOrNull(it) }
+    ?: throw UnsupportedOperationException("the fields of $type are not accessible")
+}
+
 @Suppress("NOTHING_TO_INLINE")
 internal inline fun <E> ProtoAdapter<E>.commonWithLabel(label: WireField.Label): ProtoAdapter<*> {
   if (label.isRepeated) {
@@ -390,6 +465,90 @@ internal inline fun <E> ProtoAdapter<E>.commonWithLabel(label: WireField.Label):
   return this
 }
 
+internal class UnknownFieldsDiscardingProtoAdapter<E>(
+  private val originalAdapter: ProtoAdapter<E>,
+) : ProtoAdapter<E>(
+  originalAdapter.fieldEncoding,
+  originalAdapter.type,
+  originalAdapter.typeUrl,
+  originalAdapter.syntax,
+  originalAdapter.identity,
+  originalAdapter.sourceFile,
+) {
+  override fun encodedSize(value: E): Int = originalAdapter.encodedSize(value)
+
+  override fun encode(writer: ProtoWriter, value: E) {
+    originalAdapter.encode(writer, value)
+  }
+
+  override fun encode(writer: ReverseProtoWriter, value: E) {
+    originalAdapter.encode(writer, value)
+  }
+
+  override fun decode(reader: ProtoReader): E = discarding(reader) { originalAdapter.decode(it) }
+
+  override fun decode(reader: ProtoReader32): E = discarding(reader) { originalAdapter.decode(it) }
+
+  override fun decodeInto(reader: ProtoReader, existing: E): E =
+    discarding(reader) { originalAdapter.decodeInto(it, existing) }
+
+  override fun decodeInto(reader: ProtoReader32, existing: E): E =
+    discarding(reader) { originalAdapter.decodeInto(it, existing) }
+
+  private inline fun discarding(reader: ProtoReader, block: (ProtoReader) -> E): E {
+    // Adapted readers that can't be told to discard are decorated instead.
+    if (reader is ProtoReader32AsProtoReader && reader.delegate !is ByteArrayProtoReader32) {
+      return discarding(reader.delegate) { block(it.asProtoReader()) }
+    }
+    val discardUnknownFields = reader.discardUnknownFields
+    reader.discardUnknownFields = true
+    try {
+      return block(reader)
+    } finally {
+      reader.discardUnknownFields = discardUnknownFields
+    }
+  }
+
+  private inline fun discarding(reader: ProtoReader32, block: (ProtoReader32) -> E): E {
+    if (reader !is ByteArrayProtoReader32) {
+      return block(if (reader.discardUnknownFields) reader else DiscardingProtoReader32(reader))
+    }
+    val discardUnknownFields = reader.discardUnknownFields
+    reader.discardUnknownFields = true
+    try {
+      return block(reader)
+    } finally {
+      reader.discardUnknownFields = discardUnknownFields
+    }
+  }
+
+  override fun redact(value: E): E = originalAdapter.redact(value)
+
+  override fun toString(value: E): String = originalAdapter.toString(value)
+
+  override fun appendTo(value: E, writer: ToStringWriter) {
+    originalAdapter.appendTo(value, writer)
+  }
+}
+
+/**
+ * Encodes the elements of large repeated fields concurrently. Because each element is written with
+ * its own tag and length prefix, contiguous runs of elements can be encoded independently and
+ * concatenated.
+ */
+internal interface RepeatedFieldEncoder {
+  /**
+   * Writes each element of [value] to [writer] with [tag]. Returns false without writing anything
+   * if [value] should be encoded on the calling thread instead.
+   */
+  fun <E> encodeWithTag(
+    writer: ReverseProtoWriter,
+    tag: Int,
+    adapter: ProtoAdapter<E>,
+    value: List<E>,
+  ): Boolean
+}
+
 @Suppress("NOTHING_TO_INLINE")
 internal inline fun <E> ProtoAdapter<E>.commonCreatePacked(): ProtoAdapter<List<E>> {
   require(fieldEncoding != LENGTH_DELIMITED) {
@@ -446,6 +605,10 @@ internal class PackedProtoAdapter<E>(
   override fun decode(reader: ProtoReader32): List<E> = listOf(originalAdapter.decode(reader))
 
   override fun redact(value: List<E>): List<E> = emptyList()
+
+  override fun appendTo(value: List<E>, writer: ToStringWriter) {
+    writer.appendList(value, originalAdapter)
+  }
 }
 
 @Suppress("NOTHING_TO_INLINE")
@@ -484,6 +647,12 @@ internal class RepeatedProtoAdapter<E>(
 
   override fun encodeWithTag(writer: ReverseProtoWriter, tag: Int, value: List<E>?) {
     if (value == null) return
+    val repeatedFieldEncoder = writer.repeatedFieldEncoder
+    if (repeatedFieldEncoder != null &&
+      repeatedFieldEncoder.encodeWithTag(writer, tag, originalAdapter, value)
+    ) {
+      return
+    }
     for (i in (value.size - 1) downTo 0) {
       originalAdapter.encodeWithTag(writer, tag, value[i])
     }
@@ -494,6 +663,10 @@ internal class RepeatedProtoAdapter<E>(
   override fun decode(reader: ProtoReader32): List<E> = listOf(originalAdapter.decode(reader))
 
   override fun redact(value: List<E>): List<E> = emptyList()
+
+  override fun appendTo(value: List<E>, writer: ToStringWriter) {
+    writer.appendList(value, originalAdapter)
+  }
 }
 
 internal class DoubleArrayProtoAdapter(
@@ -780,6 +953,10 @@ internal class MapProtoAdapter<K, V> internal constructor(
   }
 
   override fun redact(value: Map<K, V>): Map<K, V> = emptyMap()
+
+  override fun appendTo(value: Map<K, V>, writer: ToStringWriter) {
+    writer.appendMap(value, entryAdapter.keyAdapter, entryAdapter.valueAdapter)
+  }
 }
 
 private class MapEntryProtoAdapter<K, V> internal constructor(
@@ -1429,41 +1606,17 @@ internal fun commonStructMap(): ProtoAdapter<Map<String, *>?> = object : ProtoAd
   }
 
   override fun decode(reader: ProtoReader): Map<String, *>? {
-    val result = mutableMapOf<String, Any?>()
-    reader.forEachTag { entryTag ->
-      if (entryTag != 1) return@forEachTag reader.skip()
-
-      var key: String? = null
-      var value: Any? = null
-      reader.forEachTag { tag ->
-        when (tag) {
-          1 -> key = STRING.decode(reader)
-          2 -> value = STRUCT_VALUE.decode(reader)
-          else -> reader.readUnknownField(tag)
-        }
-      }
-      if (key != null) result[key!!] = value
-    }
-    return result
+    val builder = StructTreeBuilder()
+    builder.decodeStruct(reader, key = null)
+    @Suppress("UNCHECKED_CAST")
+    return builder.build().value(0) as Map<String, *>
   }
 
   override fun decode(reader: ProtoReader32): Map<String, *>? {
-    val result = mutableMapOf<String, Any?>()
-    reader.forEachTag { entryTag ->
-      if (entryTag != 1) return@forEachTag reader.skip()
-
-      var key: String? = null
-      var value: Any? = null
-      reader.forEachTag { tag ->
-        when (tag) {
-          1 -> key = STRING.decode(reader)
-          2 -> value = STRUCT_VALUE.decode(reader)
-          else -> reader.readUnknownField(tag)
-        }
-      }
-      if (key != null) result[key!!] = value
-    }
-    return result
+    val builder = StructTreeBuilder()
+    builder.decodeStruct(reader, key = null)
+    @Suppress("UNCHECKED_CAST")
+    return builder.build().value(0) as Map<String, *>
   }
 
   override fun redact(value: Map<String, *>?) = value?.mapValues { STRUCT_VALUE.redact(it) }
@@ -1500,21 +1653,15 @@ internal fun commonStructList(): ProtoAdapter<List<*>?> = object : ProtoAdapter<
   }
 
   override fun decode(reader: ProtoReader): List<*>? {
-    val result = mutableListOf<Any?>()
-    reader.forEachTag { entryTag ->
-      if (entryTag != 1) return@forEachTag reader.skip()
-      result.add(STRUCT_VALUE.decode(reader))
-    }
-    return result
+    val builder = StructTreeBuilder()
+    builder.decodeListValue(reader, key = null)
+    return builder.build().value(0) as List<*>
   }
 
   override fun decode(reader: ProtoReader32): List<*>? {
-    val result = mutableListOf<Any?>()
-    reader.forEachTag { entryTag ->
-      if (entryTag != 1) return@forEachTag reader.skip()
-      result.add(STRUCT_VALUE.decode(reader))
-    }
-    return result
+    val builder = StructTreeBuilder()
+    builder.decodeListValue(reader, key = null)
+    return builder.build().value(0) as List<*>
   }
 
   override fun redact(value: List<*>?) = value?.map { STRUCT_VALUE.redact(it) }
@@ -82,6 +82,12 @@ open class ProtoReader(private val source: BufferedSource) {
   /** Pooled buffers for unknown fields, indexed by [recursionDepth]. */
   private val bufferStack = mutableListOf<Buffer>()
 
+  /**
+   * True to skip unknown fields rather than retain them. Messages decoded with this set have
+   * empty unknown fields, which saves memory for consumers that never re-encode what they read.
+   */
+  open var discardUnknownFields: Boolean = false
+
   /**
    * Begin a nested message. A call to this method will restrict the reader so that [nextTag]
    * returns -1 when the message is complete. An accompanying call to [endMessage] must then occur
@@ -483,6 +489,10 @@ open class ProtoReader(private val source: BufferedSource) {
    * [endMessageAndGetUnknownFields] to retrieve unknown fields.
    */
   open fun readUnknownField(tag: Int) {
+    if (discardUnknownFields) {
+      skip()
+      return
+    }
     val fieldEncoding = peekFieldEncoding()
     val protoAdapter = fieldEncoding!!.rawProtoAdapter()
     val value = protoAdapter.decode(this)
@@ -498,6 +508,7 @@ open class ProtoReader(private val source: BufferedSource) {
     fieldEncoding: FieldEncoding,
     value: Any?,
   ) {
+    if (discardUnknownFields) return
     val unknownFieldsWriter = ProtoWriter(bufferStack[recursionDepth - 1])
     val protoAdapter = fieldEncoding.rawProtoAdapter()
     @Suppress("UNCHECKED_CAST") // We encode and decode the same types.
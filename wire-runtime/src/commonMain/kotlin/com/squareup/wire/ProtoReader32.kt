@@ -50,6 +50,15 @@ interface ProtoReader32 {
   /** Returns a [ProtoReader] that reads the same data as this using a different type. */
   fun asProtoReader(): ProtoReader
 
+  /**
+   * True if this skips unknown fields rather than retaining them. Messages decoded with this set
+   * have empty unknown fields, which saves memory for consumers that never re-encode what they
+   * read. Pass `discardUnknownFields = true` to `ProtoReader32()` to create a reader that does
+   * this, or decode with [ProtoAdapter.discardingUnknownFields] to discard for a single call.
+   */
+  val discardUnknownFields: Boolean
+    get() = false
+
   /**
    * Begin a nested message. A call to this method will restrict the reader so that [nextTag]
    * returns -1 when the message is complete. An accompanying call to
@@ -183,3 +192,33 @@ fun ProtoReader32(
   pos = pos,
   limit = limit,
 )
+
+/**
+ * Returns a reader of [source] that skips unknown fields if [discardUnknownFields] is true. Values
+ * decoded with it have empty unknown fields.
+ */
+fun ProtoReader32(
+  source: ByteString,
+  pos: Int = 0,
+  limit: Int = source.size,
+  discardUnknownFields: Boolean,
+): ProtoReader32 = ByteArrayProtoReader32(
+  source = source.toByteArray(),
+  pos = pos,
+  limit = limit,
+).also { it.discardUnknownFields = discardUnknownFields }
+
+/**
+ * Returns a reader of [source] that skips unknown fields if [discardUnknownFields] is true. Values
+ * decoded with it have empty unknown fields.
+ */
+fun ProtoReader32(
+  source: ByteArray,
+  pos: Int = 0,
+  limit: Int = source.size,
+  discardUnknownFields: Boolean,
+): ProtoReader32 = ByteArrayProtoReader32(
+  source = source,
+  pos = pos,
+  limit = limit,
+).also { it.discardUnknownFields = discardUnknownFields }
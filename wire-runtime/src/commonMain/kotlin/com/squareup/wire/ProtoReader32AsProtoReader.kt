@@ -28,6 +28,13 @@ import okio.Buffer
 internal class ProtoReader32AsProtoReader(
   val delegate: ProtoReader32,
 ) : ProtoReader(Buffer()) {
+  override var discardUnknownFields: Boolean
+    get() = delegate.discardUnknownFields
+    set(value) {
+      // Only our own reader can be told to discard. Wrap others in DiscardingProtoReader32.
+      (delegate as? ByteArrayProtoReader32)?.discardUnknownFields = value
+    }
+
   override fun beginMessage() = delegate.beginMessage().toLong()
 
   override fun endMessageAndGetUnknownFields(token: Long) = delegate.endMessageAndGetUnknownFields(token.toInt())
@@ -61,6 +61,9 @@ class ReverseProtoWriter {
   private val forwardBuffer: Buffer by lazy(mode = NONE) { Buffer() }
   private val forwardWriter: ProtoWriter by lazy(mode = NONE) { ProtoWriter(forwardBuffer) }
 
+  /** Encodes large repeated fields concurrently, or null to encode them on the calling thread. */
+  internal var repeatedFieldEncoder: RepeatedFieldEncoder? = null
+
   /** The total number of bytes emitted thus far. */
   val byteCount: Int
     get() = tail.size.toInt() + (array.size - arrayLimit)
@@ -110,6 +113,13 @@ class ReverseProtoWriter {
     writeBytes(forwardBuffer.readByteString())
   }
 
+  /** Moves the bytes of [buffer] to the front of this writer without copying them. */
+  internal fun writeBuffer(buffer: Buffer) {
+    emitCurrentSegment()
+    buffer.writeAll(tail)
+    tail = buffer
+  }
+
   fun writeBytes(value: ByteString) {
     var valueLimit = value.size
     while (valueLimit != 0) {
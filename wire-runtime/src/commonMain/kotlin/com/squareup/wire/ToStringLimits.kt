@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import kotlin.jvm.JvmField
+import kotlin.jvm.JvmOverloads
+
+/**
+ * Bounds the output of [ProtoAdapter.toString] when it writes to an [Appendable]. Whatever exceeds
+ * a limit is elided and replaced with a `…` marker, so huge messages can be logged cheaply.
+ *
+ * @param maxDepth messages nested more deeply than this are written as `Name{…}`.
+ * @param maxCollectionSize lists and maps with more elements than this are truncated and end
+ *     with a marker like `…(999 more)`.
+ * @param maxBytesSize byte strings longer than this are written as a truncated hex prefix.
+ * @param maxStringLength strings longer than this are truncated and end with a marker like
+ *     `…(999 more)`.
+ */
+class ToStringLimits @JvmOverloads constructor(
+  val maxDepth: Int = 16,
+  val maxCollectionSize: Int = 100,
+  val maxBytesSize: Int = 64,
+  val maxStringLength: Int = 1_024,
+) {
+  init {
+    require(maxDepth >= 0) { "maxDepth < 0: $maxDepth" }
+    require(maxCollectionSize >= 0) { "maxCollectionSize < 0: $maxCollectionSize" }
+    require(maxBytesSize >= 0) { "maxBytesSize < 0: $maxBytesSize" }
+    require(maxStringLength >= 0) { "maxStringLength < 0: $maxStringLength" }
+  }
+
+  companion object {
+    @JvmField
+    val DEFAULT: ToStringLimits = ToStringLimits()
+  }
+}
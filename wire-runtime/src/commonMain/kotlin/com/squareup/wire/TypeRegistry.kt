@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import kotlin.jvm.JvmField
+import kotlin.jvm.JvmStatic
+
+/**
+ * Maps type URLs like `type.googleapis.com/squareup.protos.Person` to the adapters for those
+ * types. Use this to unpack an [AnyMessage] without knowing its type up front.
+ *
+ * ```
+ * val registry = TypeRegistry.of(Person.ADAPTER, Address.ADAPTER)
+ * val message = anyMessage.unpack(registry)
+ * ```
+ *
+ * Registries are immutable; [plus] returns a new registry.
+ */
+class TypeRegistry private constructor(
+  private val typeUrlToAdapter: Map<String, ProtoAdapter<*>>,
+) {
+  /** Returns the adapter registered for [typeUrl], or null if there isn't one. */
+  operator fun get(typeUrl: String): ProtoAdapter<*>? = typeUrlToAdapter[typeUrl]
+
+  /** Returns a map of each registered type URL to its adapter. */
+  fun toMap(): Map<String, ProtoAdapter<*>> = typeUrlToAdapter
+
+  /**
+   * Returns a registry that also contains [adapters], each registered under its own type URL. If
+   * a type URL is already registered, the adapter in [adapters] takes precedence.
+   */
+  operator fun plus(adapters: Iterable<ProtoAdapter<*>>): TypeRegistry {
+    val result = LinkedHashMap(typeUrlToAdapter)
+    for (adapter in adapters) {
+      val typeUrl = adapter.typeUrl ?: throw IllegalArgumentException(
+        "recompile ${adapter.type} to use it with TypeRegistry",
+      )
+      result[typeUrl] = adapter
+    }
+    return TypeRegistry(result)
+  }
+
+  /** Returns a registry that also contains [adapter], registered under its own type URL. */
+  operator fun plus(adapter: ProtoAdapter<*>): TypeRegistry = plus(listOf(adapter))
+
+  /**
+   * Returns a registry that contains the adapters of both registries. If a type URL is in both,
+   * the adapter in [other] takes precedence.
+   */
+  operator fun plus(other: TypeRegistry): TypeRegistry {
+    if (other.typeUrlToAdapter.isEmpty()) return this
+    if (typeUrlToAdapter.isEmpty()) return other
+    return TypeRegistry(LinkedHashMap(typeUrlToAdapter).apply { putAll(other.typeUrlToAdapter) })
+  }
+
+  override fun equals(other: Any?): Boolean = other is TypeRegistry && other.typeUrlToAdapter == typeUrlToAdapter
+
+  override fun hashCode(): Int = typeUrlToAdapter.hashCode()
+
+  override fun toString(): String = "TypeRegistry${typeUrlToAdapter.keys}"
+
+  companion object {
+    @JvmField
+    val EMPTY: TypeRegistry = TypeRegistry(emptyMap())
+
+    /** Returns a registry of [adapters], each registered under its own type URL. */
+    @JvmStatic
+    fun of(vararg adapters: ProtoAdapter<*>): TypeRegistry = EMPTY + adapters.asList()
+
+    /**
+     * Returns a registry of the adapters in [typeUrlToAdapter], registered under their keys rather
+     * than their own type URLs.
+     */
+    @JvmStatic
+    fun of(typeUrlToAdapter: Map<String, ProtoAdapter<*>>): TypeRegistry = when {
+      typeUrlToAdapter.isEmpty() -> EMPTY
+      else -> TypeRegistry(LinkedHashMap(typeUrlToAdapter))
+    }
+  }
+}
@@ -15,6 +15,8 @@
  */
 package com.squareup.wire.internal
 
+import com.squareup.wire.Message
+import com.squareup.wire.ProtoAdapter
 import okio.IOException
 
 expect interface Serializable
@@ -37,6 +39,12 @@ expect fun <T> MutableList<T>.toUnmodifiableList(): List<T>
 
 expect fun <K, V> MutableMap<K, V>.toUnmodifiableMap(): Map<K, V>
 
+/**
+ * Returns an adapter that writes [message] field by field in [ProtoAdapter.appendTo], or null if
+ * the fields of generated messages can't be enumerated on this platform.
+ */
+internal expect fun reflectiveAdapterOrNull(message: Message<*, *>): ProtoAdapter<Any>?
+
 /**
  * Convert [string], from snake case to camel case.
  *
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+/**
+ * An enum adapter for an enum that has no generated class, like those created from a schema. Its
+ * values are constant names, or tags for constants it doesn't know.
+ */
+interface EnumConstantNames {
+  /** Returns the name of the constant tagged [tag], or null if there is no such constant. */
+  fun constantName(tag: Int): String?
+
+  /** Returns the tag of the constant named [name], or null if there is no such constant. */
+  fun constantTag(name: String): Int?
+}
@@ -47,6 +47,13 @@ abstract class FieldOrOneOfBinding<M, B> {
    */
   abstract val wireFieldJsonName: String
 
+  /**
+   * The name of the oneof that this field is a member of, or null if it isn't a member of one.
+   * Setting one member of a oneof clears the others.
+   */
+  open val oneOfName: String?
+    get() = null
+
   abstract val keyAdapter: ProtoAdapter<*>
 
   abstract val singleAdapter: ProtoAdapter<*>
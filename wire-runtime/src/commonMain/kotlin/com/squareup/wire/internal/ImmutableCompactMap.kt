@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+/**
+ * An immutable, insertion-ordered map for proto map fields. Keys and values are held in parallel
+ * arrays in insertion order and found through an open-addressing table of indexes, so there is no
+ * per-entry object. `int32` and `int64` keys, and scalar values, are stored unboxed.
+ */
+internal sealed class ImmutableCompactMap<K, V>(
+  private val valueList: List<V>,
+  private val table: IntArray,
+) : AbstractMap<K, V>(),
+  Serializable {
+  override val size: Int
+    get() = valueList.size
+
+  protected abstract fun keyAt(index: Int): K
+
+  protected abstract fun keyEquals(index: Int, key: Any?): Boolean
+
+  private fun indexOf(key: Any?): Int {
+    if (key == null) return -1
+    val mask = table.size - 1
+    var slot = spread(key.hashCode()) and mask
+    // No entry is further than MAX_PROBE_LENGTH from its home slot.
+    for (probe in 0..MAX_PROBE_LENGTH) {
+      val entry = table[slot]
+      if (entry == 0) return -1
+      if (keyEquals(entry - 1, key)) return entry - 1
+      slot = (slot + 1) and mask
+    }
+    return -1
+  }
+
+  override fun containsKey(key: K): Boolean = indexOf(key) != -1
+
+  override fun containsValue(value: V): Boolean = valueList.contains(value)
+
+  override fun get(key: K): V? {
+    val index = indexOf(key)
+    return if (index == -1) null else valueList[index]
+  }
+
+  override val entries: Set<Map.Entry<K, V>> = object : AbstractSet<Map.Entry<K, V>>() {
+    override val size: Int
+      get() = valueList.size
+
+    override fun iterator(): Iterator<Map.Entry<K, V>> = object : Iterator<Map.Entry<K, V>> {
+      private var index = 0
+
+      override fun hasNext(): Boolean = index < valueList.size
+
+      override fun next(): Map.Entry<K, V> {
+        if (index >= valueList.size) throw NoSuchElementException()
+        val result = Entry(keyAt(index), valueList[index])
+        index++
+        return result
+      }
+    }
+  }
+
+  // Protected rather than private so that Java serialization finds it on each subclass.
+  @Throws(ObjectStreamException::class)
+  protected fun writeReplace(): Any = LinkedHashMap(this).toUnmodifiableMap()
+
+  private class Entry<K, V>(
+    override val key: K,
+    override val value: V,
+  ) : Map.Entry<K, V> {
+    override fun equals(other: Any?): Boolean = other is Map.Entry<*, *> && key == other.key && value == other.value
+
+    override fun hashCode(): Int = key.hashCode() xor value.hashCode()
+
+    override fun toString(): String = "$key=$value"
+  }
+}
+
+internal class ImmutableIntKeyMap<V>(
+  private val keys: IntArray,
+  values: List<V>,
+  table: IntArray,
+) : ImmutableCompactMap<Int, V>(values, table) {
+  override fun keyAt(index: Int): Int = keys[index]
+
+  override fun keyEquals(index: Int, key: Any?): Boolean = key is Int && keys[index] == key
+}
+
+internal class ImmutableLongKeyMap<V>(
+  private val keys: LongArray,
+  values: List<V>,
+  table: IntArray,
+) : ImmutableCompactMap<Long, V>(values, table) {
+  override fun keyAt(index: Int): Long = keys[index]
+
+  override fun keyEquals(index: Int, key: Any?): Boolean = key is Long && keys[index] == key
+}
+
+internal class ImmutableObjectKeyMap<K, V>(
+  private val keys: Array<Any?>,
+  values: List<V>,
+  table: IntArray,
+) : ImmutableCompactMap<K, V>(values, table) {
+  @Suppress("UNCHECKED_CAST")
+  override fun keyAt(index: Int): K = keys[index] as K
+
+  override fun keyEquals(index: Int, key: Any?): Boolean = keys[index] == key
+}
+
+/** An immutable list over [array], which must not be retained elsewhere. */
+private class ImmutableArrayList<T>(private val array: Array<Any?>) :
+  AbstractList<T>(),
+  RandomAccess {
+  override val size: Int
+    get() = array.size
+
+  @Suppress("UNCHECKED_CAST")
+  override fun get(index: Int): T = array[index] as T
+}
+
+/** Spreads higher bits of [hash] downward, as most tables are small. */
+private fun spread(hash: Int): Int = hash xor (hash ushr 16)
+
+/**
+ * The furthest an entry may be from its home slot. Keys with colliding hash codes, such as those
+ * chosen by an attacker, would otherwise make building and searching the table quadratic.
+ */
+private const val MAX_PROBE_LENGTH = 64
+
+/**
+ * Returns a table whose capacity is a power of two and at least twice [size]. Each slot holds an
+ * entry's index plus one, or zero if the slot is empty. Collisions probe linearly. Returns null if
+ * an entry would be more than [MAX_PROBE_LENGTH] slots from its home slot.
+ */
+private inline fun buildTable(size: Int, hashAt: (Int) -> Int): IntArray? {
+  var capacity = 2
+  while (capacity < size * 2) capacity = capacity shl 1
+  val table = IntArray(capacity)
+  val mask = capacity - 1
+  for (index in 0 until size) {
+    var slot = spread(hashAt(index)) and mask
+    var probe = 0
+    while (table[slot] != 0) {
+      if (++probe > MAX_PROBE_LENGTH) return null
+      slot = (slot + 1) and mask
+    }
+    table[slot] = index + 1
+  }
+  return table
+}
+
+/**
+ * Returns an immutable map of [keys] to [values], which are in insertion order and must not be
+ * retained elsewhere. The keys must be distinct and non-null. If too many keys have colliding hash
+ * codes this returns a [LinkedHashMap] copy, which tolerates them.
+ */
+internal fun <K, V> compactMapOf(keys: Array<Any?>, values: Array<Any?>): Map<K, V> {
+  if (keys.isEmpty()) return emptyMap()
+
+  val table = buildTable(keys.size) { keys[it].hashCode() }
+  if (table == null) {
+    val map = LinkedHashMap<K, V>(keys.size * 2)
+    for (index in keys.indices) {
+      @Suppress("UNCHECKED_CAST")
+      map[keys[index] as K] = values[index] as V
+    }
+    return map.toUnmodifiableMap()
+  }
+
+  @Suppress("UNCHECKED_CAST")
+  val valueList = (primitiveCopyOf(values.asList()) ?: ImmutableArrayList<V>(values)) as List<V>
+
+  @Suppress("UNCHECKED_CAST")
+  return when {
+    keys[0] is Int && keys.all { it is Int } -> {
+      ImmutableIntKeyMap(IntArray(keys.size) { keys[it] as Int }, valueList, table)
+    }
+    keys[0] is Long && keys.all { it is Long } -> {
+      ImmutableLongKeyMap(LongArray(keys.size) { keys[it] as Long }, valueList, table)
+    }
+    else -> ImmutableObjectKeyMap<K, V>(keys, valueList, table)
+  } as Map<K, V>
+}
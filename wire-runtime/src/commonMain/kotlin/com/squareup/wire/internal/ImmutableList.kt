@@ -15,12 +15,11 @@
  */
 package com.squareup.wire.internal
 
-internal class ImmutableList<T>(list: List<T>) :
+/** An unmodifiable view of [list]. Callers must not retain any other reference to [list]. */
+internal class ImmutableList<T>(private val list: ArrayList<T>) :
   AbstractList<T?>(),
   RandomAccess,
   Serializable {
-  private val list = ArrayList(list)
-
   override val size: Int
     get() = list.size
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+/**
+ * An immutable list of scalars backed by a primitive array. Elements are boxed on access only, so
+ * a retained `repeated int64` field costs 8 bytes per element rather than a reference plus a boxed
+ * `Long`.
+ */
+internal sealed class ImmutablePrimitiveList<T> :
+  AbstractList<T>(),
+  RandomAccess,
+  Serializable {
+  // Protected rather than private so that Java serialization finds it on each subclass.
+  @Throws(ObjectStreamException::class)
+  protected fun writeReplace(): Any = ArrayList(this).toUnmodifiableList()
+}
+
+internal class ImmutableIntList(private val array: IntArray) : ImmutablePrimitiveList<Int>() {
+  override val size: Int
+    get() = array.size
+
+  override fun get(index: Int): Int = array[index]
+}
+
+internal class ImmutableLongList(private val array: LongArray) : ImmutablePrimitiveList<Long>() {
+  override val size: Int
+    get() = array.size
+
+  override fun get(index: Int): Long = array[index]
+}
+
+internal class ImmutableFloatList(private val array: FloatArray) : ImmutablePrimitiveList<Float>() {
+  override val size: Int
+    get() = array.size
+
+  override fun get(index: Int): Float = array[index]
+}
+
+internal class ImmutableDoubleList(private val array: DoubleArray) : ImmutablePrimitiveList<Double>() {
+  override val size: Int
+    get() = array.size
+
+  override fun get(index: Int): Double = array[index]
+}
+
+internal class ImmutableBooleanList(private val array: BooleanArray) : ImmutablePrimitiveList<Boolean>() {
+  override val size: Int
+    get() = array.size
+
+  override fun get(index: Int): Boolean = array[index]
+}
+
+/**
+ * Returns an unboxed copy of [list] if all of its elements are of the same scalar type, or null if
+ * it should be copied as a list of references.
+ *
+ * `Double` is checked before `Float` because on JavaScript every number is also a `Float`.
+ */
+internal fun primitiveCopyOf(list: List<*>): List<*>? {
+  if (list.isEmpty()) return null
+  return when (list[0]) {
+    is Int -> {
+      val array = IntArray(list.size)
+      var size = 0
+      for (element in list) {
+        if (element !is Int || size == array.size) return null
+        array[size++] = element
+      }
+      if (size == array.size) ImmutableIntList(array) else null
+    }
+    is Long -> {
+      val array = LongArray(list.size)
+      var size = 0
+      for (element in list) {
+        if (element !is Long || size == array.size) return null
+        array[size++] = element
+      }
+      if (size == array.size) ImmutableLongList(array) else null
+    }
+    is Double -> {
+      val array = DoubleArray(list.size)
+      var size = 0
+      for (element in list) {
+        if (element !is Double || size == array.size) return null
+        array[size++] = element
+      }
+      if (size == array.size) ImmutableDoubleList(array) else null
+    }
+    is Float -> {
+      val array = FloatArray(list.size)
+      var size = 0
+      for (element in list) {
+        if (element !is Float || size == array.size) return null
+        array[size++] = element
+      }
+      if (size == array.size) ImmutableFloatList(array) else null
+    }
+    is Boolean -> {
+      val array = BooleanArray(list.size)
+      var size = 0
+      for (element in list) {
+        if (element !is Boolean || size == array.size) return null
+        array[size++] = element
+      }
+      if (size == array.size) ImmutableBooleanList(array) else null
+    }
+    else -> null
+  }
+}
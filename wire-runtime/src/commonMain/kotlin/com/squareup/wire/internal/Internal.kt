@@ -44,7 +44,7 @@ fun <K, V> newMutableMap(): MutableMap<K, V> = LinkedHashMap()
 )
 fun <T> copyOf(@Suppress("UNUSED_PARAMETER") name: String, list: List<T>?): MutableList<T> = copyOf(list!!)
 
-fun <T> copyOf(list: List<T>): MutableList<T> = if (list === emptyList<T>() || list is ImmutableList<*>) {
+fun <T> copyOf(list: List<T>): MutableList<T> = if (list === emptyList<T>() || list is ImmutableList<*> || list is ImmutablePrimitiveList<*>) {
   MutableOnWriteList(list)
 } else {
   ArrayList(list)
@@ -56,18 +56,32 @@ fun <T> copyOf(list: List<T>): MutableList<T> = if (list === emptyList<T>() || l
 )
 fun <K, V> copyOf(@Suppress("UNUSED_PARAMETER") name: String, map: Map<K, V>?): MutableMap<K, V> = copyOf(map!!)
 
-fun <K, V> copyOf(map: Map<K, V>): MutableMap<K, V> = LinkedHashMap(map)
+fun <K, V> copyOf(map: Map<K, V>): MutableMap<K, V> = if (map is ImmutableCompactMap<*, *>) {
+  MutableOnWriteMap(map)
+} else {
+  LinkedHashMap(map)
+}
 
 fun <T> immutableCopyOf(name: String, list: List<T>): List<T> {
   @Suppress("NAME_SHADOWING")
   var list = list
+  var owner: MutableOnWriteList<T>? = null
   if (list is MutableOnWriteList<*>) {
-    list = (list as MutableOnWriteList<T>).mutableList
+    owner = list as MutableOnWriteList<T>
+    list = owner.mutableList
   }
-  if (list === emptyList<T>() || list is ImmutableList<*>) {
+  if (list === emptyList<T>() || list is ImmutableList<*> || list is ImmutablePrimitiveList<*>) {
     return list
   }
-  val result = ImmutableList(list)
+  // Scalars are stored unboxed. A list that holds a primitive type cannot contain null.
+  val primitiveCopy = primitiveCopyOf(list)
+  if (primitiveCopy != null) {
+    @Suppress("UNCHECKED_CAST")
+    return primitiveCopy as List<T>
+  }
+  // A list from newMutableList() is exclusively owned by its builder, so take it over rather than
+  // copying it. User-supplied lists get a defensive copy.
+  val result = owner?.freeze() ?: ImmutableList(ArrayList(list))
   // Check after the list has been copied to defend against races.
   require(null !in result) { "$name.contains(null)" }
   @Suppress("UNCHECKED_CAST")
@@ -75,14 +89,32 @@ fun <T> immutableCopyOf(name: String, list: List<T>): List<T> {
 }
 
 fun <K, V> immutableCopyOf(name: String, map: Map<K, V>): Map<K, V> {
+  @Suppress("NAME_SHADOWING")
+  var map = map
+  if (map is MutableOnWriteMap<*, *>) {
+    map = (map as MutableOnWriteMap<K, V>).map
+  }
   if (map.isEmpty()) {
     return emptyMap()
   }
-  val result = LinkedHashMap(map)
+  if (map is ImmutableCompactMap<*, *>) {
+    return map
+  }
+  val size = map.size
+  val keys = arrayOfNulls<Any>(size)
+  val values = arrayOfNulls<Any>(size)
+  var index = 0
+  for ((key, value) in map) {
+    if (index == size) throw ConcurrentModificationException()
+    keys[index] = key
+    values[index] = value
+    index++
+  }
+  if (index != size) throw ConcurrentModificationException()
   // Check after the map has been copied to defend against races.
-  require(null !in (result.keys as Collection<K?>)) { "$name.containsKey(null)" }
-  require(null !in (result.values as Collection<V?>)) { "$name.containsValue(null)" }
-  return result.toUnmodifiableMap()
+  require(null !in keys) { "$name.containsKey(null)" }
+  require(null !in values) { "$name.containsValue(null)" }
+  return compactMapOf(keys, values)
 }
 
 /** Confirms the values of [map] are structs and returns an immutable copy. */
@@ -96,12 +128,30 @@ fun <K, V> immutableCopyOfMapWithStructValues(name: String, map: Map<K, V>): Map
   return copy.toUnmodifiableMap() as Map<K, V>
 }
 
-/** Confirms [value] is a struct and returns an immutable copy. */
+/**
+ * Confirms [value] is a struct and returns an immutable copy. Lists and maps are copied into a
+ * [StructTree], unless they are already backed by one.
+ */
 fun <T> immutableCopyOfStruct(name: String, value: T): T = when (value) {
   null -> value
   is Boolean -> value
   is Double -> value
   is String -> value
+  is StructView -> value
+  is List<*>, is Map<*, *> -> {
+    val builder = StructTreeBuilder()
+    @Suppress("UNCHECKED_CAST")
+    if (builder.addValue(null, value)) {
+      builder.build().value(0) as T
+    } else {
+      immutableCopyOfStructCollection(name, value)
+    }
+  }
+  else -> immutableCopyOfStructCollection(name, value)
+}
+
+/** Copies a list or map with keys that aren't strings, or throws if [value] isn't a struct. */
+private fun <T : Any> immutableCopyOfStructCollection(name: String, value: T): T = when (value) {
   is List<*> -> {
     val copy = mutableListOf<Any?>()
     for (element in value) {
@@ -129,11 +179,43 @@ fun <T> immutableCopyOfStruct(name: String, value: T): T = when (value) {
 private val Any.typeName
   get() = this::class
 
+/**
+ * Returns this list with each element redacted. If redacting doesn't change any element this
+ * returns this list, so that subtrees without redacted fields are shared rather than copied.
+ */
 @JvmName("-redactElements") // Hide from Java
-fun <T> List<T>.redactElements(adapter: ProtoAdapter<T>): List<T> = map(adapter::redact)
+fun <T> List<T>.redactElements(adapter: ProtoAdapter<T>): List<T> {
+  for (i in indices) {
+    val element = this[i]
+    val redacted = adapter.redact(element)
+    if (redacted === element) continue
+
+    val result = ArrayList<T>(size)
+    for (j in 0 until i) result += this[j]
+    result += redacted
+    for (j in i + 1 until size) result += adapter.redact(this[j])
+    return result
+  }
+  return this
+}
 
+/**
+ * Returns this map with each value redacted. If redacting doesn't change any value this returns
+ * this map.
+ */
 @JvmName("-redactElements") // Hide from Java
-fun <K, V> Map<K, V>.redactElements(adapter: ProtoAdapter<V>): Map<K, V> = mapValues { (_, value) -> adapter.redact(value) }
+fun <K, V> Map<K, V>.redactElements(adapter: ProtoAdapter<V>): Map<K, V> {
+  var result: LinkedHashMap<K, V>? = null
+  for ((key, value) in this) {
+    val redacted = adapter.redact(value)
+    if (result == null) {
+      if (redacted === value) continue
+      result = LinkedHashMap(this)
+    }
+    result[key] = redacted
+  }
+  return result ?: this
+}
 
 @Suppress("SuspiciousEqualsCombination")
 fun equals(a: Any?, b: Any?): Boolean = a === b || (a != null && a == b)
@@ -199,7 +281,7 @@ fun countNonNull(a: Any?, b: Any?, c: Any?, d: Any?, vararg rest: Any?): Int {
   return result
 }
 
-private const val ESCAPED_CHARS = ",[]{}\\"
+internal const val ESCAPED_CHARS = ",[]{}\\"
 
 /** Return a string where `,[]{}\` are escaped with a `\`. */
 fun sanitize(value: String): String = buildString(value.length) {
@@ -358,6 +440,64 @@ fun <E> decodeMessageOrMerge(adapter: ProtoAdapter<E>, reader: ProtoReader32, ex
   return adapter.decode(buffer)
 }
 
+/**
+ * Decodes a message field from [reader] for `decodeInto`. The first occurrence is decoded into
+ * [reusable] if it is not null; later occurrences are merged with [decoded].
+ */
+fun <E> decodeMessageInto(adapter: ProtoAdapter<E>, reader: ProtoReader, decoded: E?, reusable: E?): E = when {
+  decoded != null -> decodeMessageOrMerge(adapter, reader, decoded)
+  reusable != null -> adapter.decodeInto(reader, reusable)
+  else -> adapter.decode(reader)
+}
+
+fun <E> decodeMessageInto(adapter: ProtoAdapter<E>, reader: ProtoReader32, decoded: E?, reusable: E?): E = when {
+  decoded != null -> decodeMessageOrMerge(adapter, reader, decoded)
+  reusable != null -> adapter.decodeInto(reader, reusable)
+  else -> adapter.decode(reader)
+}
+
+/**
+ * Decodes the element at [index] of a repeated message field for `decodeInto`, reusing the
+ * element already at that index if there is one.
+ */
+fun <E> decodeElementInto(adapter: ProtoAdapter<E>, reader: ProtoReader, list: MutableList<E>, index: Int) {
+  if (index < list.size) {
+    list[index] = adapter.decodeInto(reader, list[index])
+  } else {
+    list.add(adapter.decode(reader))
+  }
+}
+
+fun <E> decodeElementInto(adapter: ProtoAdapter<E>, reader: ProtoReader32, list: MutableList<E>, index: Int) {
+  if (index < list.size) {
+    list[index] = adapter.decodeInto(reader, list[index])
+  } else {
+    list.add(adapter.decode(reader))
+  }
+}
+
+/** Returns [list] if it is an [ArrayList] so its elements can be decoded into, or a copy. */
+fun <T> reusableListOf(list: List<T>): MutableList<T> = list as? ArrayList<T> ?: ArrayList(list)
+
+/** Returns [list] cleared if it is an [ArrayList], or a new list. */
+fun <T> clearedListOf(list: List<T>): MutableList<T> {
+  if (list !is ArrayList<T>) return ArrayList()
+  list.clear()
+  return list
+}
+
+/** Returns [map] cleared if it is a [LinkedHashMap], or a new map. */
+fun <K, V> clearedMapOf(map: Map<K, V>): MutableMap<K, V> {
+  if (map !is LinkedHashMap<K, V>) return LinkedHashMap()
+  map.clear()
+  return map
+}
+
+/** Removes the elements of [list] at [size] and beyond. */
+fun truncateList(list: MutableList<*>, size: Int) {
+  if (size < list.size) list.subList(size, list.size).clear()
+}
+
 fun decodePrimitive_double(reader: ProtoReader32): Double = Double.fromBits(reader.readFixed64())
 fun decodePrimitive_double(reader: ProtoReader): Double = Double.fromBits(reader.readFixed64())
 fun decodePrimitive_fixed32(reader: ProtoReader32): Int = reader.readFixed32()
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+/**
+ * Matches JSON member names to the index of a message's field. A field matches both its JSON name
+ * and its alternate name, if it has one.
+ *
+ * Readers that match raw UTF-8 against a set of options, like Moshi's `JsonReader.selectName`,
+ * should build their options from [names] and map the selected option with [fieldIndexOfName].
+ * Readers that only produce strings should use [fieldIndex]. It looks names up in a hash table
+ * whose seed and size are chosen so that no two names collide. A lookup then costs one probe and
+ * at most one string comparison. Messages with too many names for such a table fall back to
+ * linear probing.
+ */
+class JsonNameMatcher(
+  jsonNames: List<String>,
+  jsonAlternateNames: List<String?>,
+) {
+  /** The distinct names to match: each field's JSON name, followed by the alternate names. */
+  val names: List<String>
+
+  /** The index of the field of each name in [names]. */
+  private val nameFieldIndexes: IntArray
+
+  private val seed: Int
+
+  /** The index in [names] of the name in each slot, or -1 for empty slots. */
+  private val slots: IntArray
+
+  /** The number of slots after a name's hashed slot that may hold it. */
+  private val maxProbe: Int
+
+  init {
+    val nameToFieldIndex = LinkedHashMap<String, Int>()
+    jsonNames.forEachIndexed { index, name -> nameToFieldIndex.getOrPut(name) { index } }
+    jsonAlternateNames.forEachIndexed { index, name ->
+      if (name != null) nameToFieldIndex.getOrPut(name) { index }
+    }
+    names = nameToFieldIndex.keys.toList()
+    nameFieldIndexes = nameToFieldIndex.values.toIntArray()
+
+    // Search for a seed that hashes every name to its own slot, growing the table if necessary.
+    // If none is found, fall back to linear probing.
+    val minSize = (names.size * 2).coerceAtLeast(2).takeHighestOneBit().let {
+      if (it < names.size * 2) it shl 1 else it
+    }
+    var found: IntArray? = null
+    var foundSeed = 0
+    search@ for (size in generateSequence(minSize) { it shl 1 }.take(4)) {
+      for (candidateSeed in 0 until SEED_ATTEMPTS) {
+        val candidate = perfectSlotsOrNull(size, candidateSeed)
+        if (candidate != null) {
+          found = candidate
+          foundSeed = candidateSeed
+          break@search
+        }
+      }
+    }
+    if (found != null) {
+      slots = found
+      seed = foundSeed
+      maxProbe = 0
+    } else {
+      slots = IntArray(minSize) { -1 }
+      seed = 0
+      var longestProbe = 0
+      for (nameIndex in names.indices) {
+        var slot = hash(names[nameIndex], seed) and (minSize - 1)
+        var probe = 0
+        while (slots[slot] != -1) {
+          slot = (slot + 1) and (minSize - 1)
+          probe++
+        }
+        slots[slot] = nameIndex
+        longestProbe = maxOf(longestProbe, probe)
+      }
+      maxProbe = longestProbe
+    }
+  }
+
+  private fun perfectSlotsOrNull(size: Int, seed: Int): IntArray? {
+    val result = IntArray(size) { -1 }
+    for (nameIndex in names.indices) {
+      val slot = hash(names[nameIndex], seed) and (size - 1)
+      if (result[slot] != -1) return null
+      result[slot] = nameIndex
+    }
+    return result
+  }
+
+  /** Returns the index of the field named [name], or -1 if no field has that name. */
+  fun fieldIndex(name: String): Int {
+    val mask = slots.size - 1
+    var slot = hash(name, seed) and mask
+    for (probe in 0..maxProbe) {
+      val nameIndex = slots[slot]
+      if (nameIndex == -1) return -1
+      if (names[nameIndex] == name) return nameFieldIndexes[nameIndex]
+      slot = (slot + 1) and mask
+    }
+    return -1
+  }
+
+  /** Returns the index of the field of the name at [nameIndex] in [names]. */
+  fun fieldIndexOfName(nameIndex: Int): Int = nameFieldIndexes[nameIndex]
+
+  private companion object {
+    const val SEED_ATTEMPTS = 64
+
+    /** FNV-1a over the UTF-16 code units of [name], with [seed] mixed into the offset basis. */
+    fun hash(name: String, seed: Int): Int {
+      var result = -0x7ee3623b xor (seed * -0x61c88647)
+      for (i in name.indices) {
+        result = (result xor name[i].code) * 0x01000193
+      }
+      return result xor (result ushr 16)
+    }
+  }
+}
@@ -17,7 +17,7 @@ package com.squareup.wire.internal
 
 /** A wrapper around an empty/immutable list which only switches to mutable on first mutation. */
 internal class MutableOnWriteList<T>(
-  private val immutableList: List<T>,
+  private var immutableList: List<T>,
 ) : AbstractMutableList<T>(),
   RandomAccess,
   Serializable {
@@ -49,6 +49,20 @@ internal class MutableOnWriteList<T>(
     return (mutableList as ArrayList).removeAt(index)
   }
 
+  /**
+   * Returns this list's elements as an immutable list without copying them. The returned list takes
+   * ownership of the elements; this list makes a fresh copy if it is mutated again.
+   */
+  fun freeze(): List<T> {
+    val list = mutableList
+    if (list === immutableList) return list
+    @Suppress("UNCHECKED_CAST")
+    val result = ImmutableList(list as ArrayList<T>) as List<T>
+    immutableList = result
+    mutableList = result
+    return result
+  }
+
   @Throws(ObjectStreamException::class)
   private fun writeReplace(): Any = ArrayList(mutableList)
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+/**
+ * A wrapper around an immutable map which only switches to mutable on first mutation. The entries,
+ * keys, and values views read the current map, and switch only when they're used to mutate it.
+ */
+internal class MutableOnWriteMap<K, V>(
+  private val immutableMap: Map<K, V>,
+) : AbstractMutableMap<K, V>(),
+  Serializable {
+  internal var map: Map<K, V> = immutableMap
+
+  private fun mutableMap(): MutableMap<K, V> {
+    if (map === immutableMap) {
+      map = LinkedHashMap(immutableMap)
+    }
+    return map as MutableMap<K, V>
+  }
+
+  override val size: Int
+    get() = map.size
+
+  override fun isEmpty(): Boolean = map.isEmpty()
+
+  override fun containsKey(key: K): Boolean = map.containsKey(key)
+
+  override fun containsValue(value: V): Boolean = map.containsValue(value)
+
+  override fun get(key: K): V? = map[key]
+
+  override fun put(key: K, value: V): V? = mutableMap().put(key, value)
+
+  override fun remove(key: K): V? = mutableMap().remove(key)
+
+  override fun clear() {
+    mutableMap().clear()
+  }
+
+  override val entries: MutableSet<MutableMap.MutableEntry<K, V>> = Entries()
+
+  override fun equals(other: Any?): Boolean = other === this || map == other
+
+  override fun hashCode(): Int = map.hashCode()
+
+  override fun toString(): String = map.toString()
+
+  private inner class Entries : AbstractMutableSet<MutableMap.MutableEntry<K, V>>() {
+    override val size: Int
+      get() = map.size
+
+    override fun contains(element: MutableMap.MutableEntry<K, V>): Boolean =
+      map.containsKey(element.key) && map[element.key] == element.value
+
+    override fun add(element: MutableMap.MutableEntry<K, V>): Boolean =
+      throw UnsupportedOperationException()
+
+    override fun iterator(): MutableIterator<MutableMap.MutableEntry<K, V>> {
+      if (map !== immutableMap) return mutableMap().entries.iterator()
+
+      // Iterate the immutable map, which doesn't change if we switch to mutable part way through.
+      val delegate = immutableMap.entries.iterator()
+      return object : MutableIterator<MutableMap.MutableEntry<K, V>> {
+        private var last: Entry? = null
+
+        override fun hasNext(): Boolean = delegate.hasNext()
+
+        override fun next(): MutableMap.MutableEntry<K, V> =
+          Entry(delegate.next()).also { last = it }
+
+        override fun remove() {
+          val last = checkNotNull(last)
+          mutableMap().remove(last.key)
+          this.last = null
+        }
+      }
+    }
+  }
+
+  private inner class Entry(entry: Map.Entry<K, V>) : MutableMap.MutableEntry<K, V> {
+    override val key: K = entry.key
+
+    override var value: V = entry.value
+      private set
+
+    override fun setValue(newValue: V): V {
+      val oldValue = value
+      mutableMap()[key] = newValue
+      value = newValue
+      return oldValue
+    }
+
+    override fun equals(other: Any?): Boolean =
+      other is Map.Entry<*, *> && other.key == key && other.value == value
+
+    override fun hashCode(): Int = key.hashCode() xor value.hashCode()
+
+    override fun toString(): String = "$key=$value"
+  }
+
+  @Throws(ObjectStreamException::class)
+  private fun writeReplace(): Any = LinkedHashMap(map)
+}
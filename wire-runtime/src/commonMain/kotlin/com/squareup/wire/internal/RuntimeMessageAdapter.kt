@@ -16,11 +16,15 @@
 package com.squareup.wire.internal
 
 import com.squareup.wire.FieldEncoding
+import com.squareup.wire.Message
+import com.squareup.wire.MessageJsonCodec
 import com.squareup.wire.ProtoAdapter
 import com.squareup.wire.ProtoReader
 import com.squareup.wire.ProtoWriter
 import com.squareup.wire.ReverseProtoWriter
 import com.squareup.wire.WireField
+import okio.Buffer
+import okio.ByteString
 
 class RuntimeMessageAdapter<M : Any, B : Any>(
   private val binding: MessageBinding<M, B>,
@@ -75,12 +79,23 @@ class RuntimeMessageAdapter<M : Any, B : Any>(
     }
   }
 
+  /** Matches the names in [jsonNames] and [jsonAlternateNames] when reading JSON. */
+  val jsonNameMatcher: JsonNameMatcher by lazy { JsonNameMatcher(jsonNames, jsonAlternateNames) }
+
   /** When writing each field as JSON this is the name to use. */
   val FieldOrOneOfBinding<*, *>.jsonName: String
     get() = if (wireFieldJsonName.isEmpty() || preservingProtoFieldNames) declaredName else wireFieldJsonName
 
   fun newBuilder(): B = binding.newBuilder()
 
+  fun build(builder: B): M = binding.build(builder)
+
+  /** Returns an adapter like this one that writes JSON field names as they're declared. */
+  fun preservingProtoFieldNames(): RuntimeMessageAdapter<M, B> = when {
+    preservingProtoFieldNames -> this
+    else -> RuntimeMessageAdapter(binding, preservingProtoFieldNames = true)
+  }
+
   override fun encodedSize(value: M): Int {
     val cachedSerializedSize = binding.getCachedSerializedSize(value)
     if (cachedSerializedSize != 0) return cachedSerializedSize
@@ -113,34 +128,86 @@ class RuntimeMessageAdapter<M : Any, B : Any>(
     }
   }
 
+  /**
+   * Fields that [redact] may change: redacted fields, and fields that hold messages with redacted
+   * fields anywhere below them. This is empty for messages without redactions.
+   */
+  private val redactableFields by lazy {
+    fieldBindingsArray.filter {
+      it.redacted || it.isMessage && mayRedact(it.singleAdapter, mutableListOf())
+    }
+  }
+
   override fun redact(value: M): M {
-    val builder = binding.newBuilder()
-    for (field in fields.values) {
+    // Messages without redactions anywhere in their subtree are returned as-is.
+    if (redactableFields.isEmpty()) return value
+
+    for (field in redactableFields) {
       if (field.redacted && field.label == WireField.Label.REQUIRED) {
         throw UnsupportedOperationException(
           "Field '${field.name}' in $type is required and cannot be redacted.",
         )
       }
-      val isMessage = field.isMessage
-      if (field.redacted || isMessage && !field.label.isRepeated) {
-        val builderValue = field.getFromBuilder(builder)
-        if (builderValue != null) {
-          val redactedValue = field.adapter.redact(builderValue)
-          field.set(builder, redactedValue)
-        }
-      } else if (isMessage && field.label.isRepeated) {
-        @Suppress("UNCHECKED_CAST")
-        val values = field.getFromBuilder(builder) as List<Any>
+    }
 
-        @Suppress("UNCHECKED_CAST")
-        val adapter = field.singleAdapter as ProtoAdapter<Any>
-        field.set(builder, values.redactElements(adapter))
-      }
+    // Only copy the message if redacting changes it. Subtrees without redactions are shared.
+    var builder: B? = null
+    for (field in redactableFields) {
+      val fieldValue = field[value] ?: continue
+      val redactedValue = field.redactValue(fieldValue)
+      if (redactedValue === fieldValue || field.redacted && redactedValue == fieldValue) continue
+      if (builder == null) builder = newBuilder(value)
+      field.set(builder, redactedValue)
+    }
+    if (builder == null) {
+      if (binding.unknownFields(value).size == 0) return value
+      builder = newBuilder(value)
     }
     binding.clearUnknownFields(builder)
     return binding.build(builder)
   }
 
+  /**
+   * Returns true if redacting values of [adapter] may change them. Adapters in [visited] were
+   * already checked. Message adapters whose fields can't be inspected are assumed to redact.
+   */
+  private fun mayRedact(adapter: ProtoAdapter<*>, visited: MutableList<ProtoAdapter<*>>): Boolean {
+    if (adapter !is RuntimeMessageAdapter<*, *>) return adapter !in MESSAGE_BACKED_BUILT_IN_ADAPTERS
+    if (visited.any { it === adapter }) return false
+    visited += adapter
+    return adapter.fieldBindingsArray.any {
+      it.redacted || it.isMessage && mayRedact(it.singleAdapter, visited)
+    }
+  }
+
+  @Suppress("UNCHECKED_CAST")
+  private fun FieldOrOneOfBinding<M, B>.redactValue(fieldValue: Any): Any? {
+    if (redacted) return absentValue()
+
+    val elementAdapter = singleAdapter as ProtoAdapter<Any>
+    return when {
+      label.isRepeated -> (fieldValue as List<Any>).redactElements(elementAdapter)
+      isMap -> (fieldValue as Map<Any, Any>).redactElements(elementAdapter)
+      else -> elementAdapter.redact(fieldValue)
+    }
+  }
+
+  /** Returns the value of this field when it is cleared. */
+  private fun FieldOrOneOfBinding<M, B>.absentValue(): Any? = when {
+    label.isRepeated || isMap || label == WireField.Label.OMIT_IDENTITY -> adapter.identity
+    else -> null
+  }
+
+  /** Returns a builder with the field values of [value], but not its unknown fields. */
+  private fun newBuilder(value: M): B {
+    val builder = binding.newBuilder()
+    for (field in fieldBindingsArray) {
+      val fieldValue = field[value] ?: continue
+      field.set(builder, fieldValue)
+    }
+    return builder
+  }
+
   override fun equals(other: Any?): Boolean = other is RuntimeMessageAdapter<*, *> && other.messageType == messageType
 
   override fun hashCode(): Int = messageType.hashCode()
@@ -160,72 +227,244 @@ class RuntimeMessageAdapter<M : Any, B : Any>(
     append('}')
   }
 
+  override fun appendTo(value: M, writer: ToStringWriter) {
+    writer.appendMessage(messageType.simpleName) {
+      var first = true
+      for (field in fields.values) {
+        val fieldValue = field[value] ?: continue
+        if (fieldValue is List<*> && fieldValue.isEmpty()) continue
+        if (fieldValue is Map<*, *> && fieldValue.isEmpty()) continue
+        writer.appendFieldName(field.name, first)
+        first = false
+        if (field.redacted) {
+          writer.append(REDACTED)
+        } else {
+          field.adapter.appendTo(fieldValue, writer)
+        }
+      }
+    }
+  }
+
   override fun decode(reader: ProtoReader): M {
     val builder = newBuilder()
     val token = reader.beginMessage()
     while (true) {
       val tag = reader.nextTag()
       if (tag == -1) break
-      val field = fields[tag]
-      try {
-        if (field != null) {
-          if (field.isMap) {
-            val value = field.adapter.decode(reader)
-            field.value(builder, value)
+      decodeField(reader, tag, builder)
+    }
+    reader.endMessageAndGetUnknownFields(token) // Ignore return value
+
+    return binding.build(builder)
+  }
+
+  /** Decodes the field [tag] from [reader] and merges it into [builder]. */
+  private fun decodeField(reader: ProtoReader, tag: Int, builder: B) {
+    val field = fields[tag]
+    try {
+      if (field != null) {
+        if (field.isMap) {
+          val value = field.adapter.decode(reader)
+          field.value(builder, value)
+        } else {
+          val singleAdapter = field.singleAdapter
+          if ((field.isMessage || singleAdapter in MESSAGE_BACKED_BUILT_IN_ADAPTERS) &&
+            !field.label.isRepeated
+          ) {
+            @Suppress("UNCHECKED_CAST")
+            val adapter = singleAdapter as ProtoAdapter<Any>
+            val value = decodeMessageOrMerge(adapter, reader, field.getFromBuilder(builder))
+            field.set(builder, value)
           } else {
-            val singleAdapter = field.singleAdapter
-            if ((field.isMessage || singleAdapter in MESSAGE_BACKED_BUILT_IN_ADAPTERS) &&
-              !field.label.isRepeated
-            ) {
-              @Suppress("UNCHECKED_CAST")
-              val adapter = singleAdapter as ProtoAdapter<Any>
-              val value = decodeMessageOrMerge(adapter, reader, field.getFromBuilder(builder))
-              field.set(builder, value)
-            } else {
-              val value = singleAdapter.decode(reader)
-              field.value(builder, value!!)
-            }
+            val value = singleAdapter.decode(reader)
+            field.value(builder, value!!)
           }
-        } else {
-          val fieldEncoding = reader.peekFieldEncoding()!!
-          val value = fieldEncoding.rawProtoAdapter().decode(reader)
-          binding.addUnknownField(builder, tag, fieldEncoding, value)
         }
-      } catch (e: EnumConstantNotFoundException) {
-        // An unknown Enum value was encountered, store it as an unknown field.
+      } else if (reader.discardUnknownFields) {
+        reader.skip()
+      } else {
+        val fieldEncoding = reader.peekFieldEncoding()!!
+        val value = fieldEncoding.rawProtoAdapter().decode(reader)
+        binding.addUnknownField(builder, tag, fieldEncoding, value)
+      }
+    } catch (e: EnumConstantNotFoundException) {
+      // An unknown Enum value was encountered, store it as an unknown field.
+      if (!reader.discardUnknownFields) {
         binding.addUnknownField(builder, tag, FieldEncoding.VARINT, e.value.toLong())
       }
     }
-    reader.endMessageAndGetUnknownFields(token) // Ignore return value
+  }
+
+  /**
+   * Writes the fields that differ between [old] and [new] to [writer] as a partial message, and
+   * adds their paths, each prefixed with [prefix], to [paths]. Fields holding messages that changed
+   * in place are diffed recursively; other changed fields are written whole.
+   */
+  internal fun diff(old: M, new: M, prefix: String, paths: MutableList<String>, writer: ProtoWriter) {
+    for (field in fieldBindingsArray) {
+      val oldValue = field[old]
+      val newValue = field[new]
+      // Values shared by both messages are skipped without being compared.
+      if (oldValue === newValue || oldValue == newValue) continue
+
+      val path = prefix + field.declaredName
+      val nestedAdapter = when {
+        oldValue == null || newValue == null || field.label.isRepeated || field.isMap -> null
+        else -> field.singleAdapter.messageAdapterOrNull(newValue)
+      }
+      if (nestedAdapter != null &&
+        nestedAdapter.binding.unknownFields(oldValue!!) == nestedAdapter.binding.unknownFields(newValue!!)
+      ) {
+        val buffer = Buffer()
+        nestedAdapter.diff(oldValue, newValue, "$path.", paths, ProtoWriter(buffer))
+        writer.writeTag(field.tag, FieldEncoding.LENGTH_DELIMITED)
+        writer.writeVarint32(buffer.size.toInt())
+        writer.writeBytes(buffer.readByteString())
+      } else {
+        paths += path
+        if (newValue != null) field.adapter.encodeWithTag(writer, field.tag, newValue)
+      }
+    }
+  }
+
+  /**
+   * Returns a copy of [old] with the fields named by [paths] set to their values in [values], a
+   * partial message written by [diff]. Fields in [paths] that are absent from [values] are cleared.
+   */
+  internal fun applyPatch(old: M, paths: List<String>, values: ByteString): M {
+    val replacedFields = mutableSetOf<String>()
+    val nestedPaths = mutableMapOf<String, MutableList<String>>()
+    for (path in paths) {
+      val dot = path.indexOf('.')
+      if (dot == -1) {
+        replacedFields += path
+      } else {
+        nestedPaths.getOrPut(path.substring(0, dot)) { mutableListOf() } += path.substring(dot + 1)
+      }
+    }
+
+    val builder = newBuilder(old)
+    addUnknownFields(builder, binding.unknownFields(old))
+    // Clear replaced fields before setting any, so clearing a oneof doesn't undo setting another.
+    for (field in fieldBindingsArray) {
+      if (field.declaredName in replacedFields) field.set(builder, field.absentValue())
+    }
+
+    val nestedValues = mutableMapOf<Int, ByteString>()
+    val reader = ProtoReader(Buffer().write(values))
+    val token = reader.beginMessage()
+    while (true) {
+      val tag = reader.nextTag()
+      if (tag == -1) break
+      val name = fields[tag]?.declaredName
+      when {
+        name in replacedFields -> decodeField(reader, tag, builder)
+        name in nestedPaths -> nestedValues[tag] = reader.readBytes()
+        else -> reader.skip()
+      }
+    }
+    reader.endMessageAndGetUnknownFields(token)
+
+    for (field in fieldBindingsArray) {
+      val fieldPaths = nestedPaths[field.declaredName] ?: continue
+      if (field.declaredName in replacedFields) continue
+      val oldValue = requireNotNull(field[old]) {
+        "cannot patch ${field.declaredName} of a message that doesn't have one"
+      }
+      val nestedAdapter = requireNotNull(field.singleAdapter.messageAdapterOrNull(oldValue)) {
+        "cannot patch ${field.declaredName}: the fields of ${oldValue::class} are not accessible"
+      }
+      val nestedValue = nestedValues[field.tag] ?: ByteString.EMPTY
+      field.set(builder, nestedAdapter.applyPatch(oldValue, fieldPaths, nestedValue))
+    }
 
     return binding.build(builder)
   }
 
+  private fun addUnknownFields(builder: B, unknownFields: ByteString) {
+    if (unknownFields.size == 0) return
+    val reader = ProtoReader(Buffer().write(unknownFields))
+    val token = reader.beginMessage()
+    while (true) {
+      val tag = reader.nextTag()
+      if (tag == -1) break
+      val fieldEncoding = reader.peekFieldEncoding()!!
+      val value = fieldEncoding.rawProtoAdapter().decode(reader)
+      binding.addUnknownField(builder, tag, fieldEncoding, value)
+    }
+    reader.endMessageAndGetUnknownFields(token)
+  }
+
+  /**
+   * The index in [fieldBindingsArray] of each field, keyed by tag, or -1 for tags that aren't
+   * fields. Tags are usually small and dense, so this is a flat array. If they aren't, this is empty
+   * and [indexOfTag] searches [sortedTags] instead.
+   */
+  private val tagToIndex: IntArray by lazy {
+    val maxTag = fieldBindingsArray.maxOfOrNull { it.tag } ?: 0
+    if (maxTag > maxOf(64, fieldBindingsArray.size * 4)) return@lazy IntArray(0)
+    val result = IntArray(maxTag + 1) { -1 }
+    for (index in fieldBindingsArray.indices) {
+      result[fieldBindingsArray[index].tag] = index
+    }
+    result
+  }
+
+  /** Indexes in [fieldBindingsArray], ordered by tag. */
+  private val sortedTagIndexes: IntArray by lazy {
+    fieldBindingsArray.indices.sortedBy { fieldBindingsArray[it].tag }.toIntArray()
+  }
+
+  /** The tag of each field in [sortedTagIndexes]. */
+  private val sortedTags: IntArray by lazy {
+    IntArray(sortedTagIndexes.size) { fieldBindingsArray[sortedTagIndexes[it]].tag }
+  }
+
+  private fun indexOfTag(tag: Int): Int {
+    val tagToIndex = tagToIndex
+    if (tagToIndex.isNotEmpty()) return tagToIndex[tag]
+    return sortedTagIndexes[sortedTags.binarySearch(tag)]
+  }
+
   /**
    * Walk the fields of [message] and invoke [encodeValue] on each that should be written as JSON.
-   * This omits fields that have the identity value when that is required.
+   * This omits fields that have the identity value when that is required. If [jsonCodec] is not
+   * null it is used to read the fields of [message] instead of reflection.
    */
   fun <A> writeAllFields(
     message: M?,
     jsonAdapters: List<A>,
     redactedFieldsAdapter: A?,
+    jsonCodec: MessageJsonCodec<M>? = null,
     encodeValue: (String, Any?, A) -> Unit,
   ) {
     var redactedFields: MutableList<String>? = null
-    for (index in fieldBindingsArray.indices) {
+    fun writeField(index: Int, value: Any?) {
       val field = fieldBindingsArray[index]
-      val value = field[message!!]
-      if (field.omitFromJson(syntax, value)) continue
+      if (field.omitFromJson(syntax, value)) return
       if (field.redacted && redactedFieldsAdapter != null && value != null) {
         // We initialize here to avoid a performance hit for non-redacted code.
         if (redactedFields == null) {
           redactedFields = mutableListOf()
         }
-        redactedFields.add(jsonNames[index])
-        continue
+        redactedFields!!.add(jsonNames[index])
+        return
       }
       encodeValue(jsonNames[index], value, jsonAdapters[index])
     }
+
+    if (jsonCodec != null) {
+      jsonCodec.encode(
+        message!!,
+        object : MessageJsonCodec.FieldWriter {
+          override fun write(tag: Int, value: Any?) = writeField(indexOfTag(tag), value)
+        },
+      )
+    } else {
+      for (index in fieldBindingsArray.indices) {
+        writeField(index, fieldBindingsArray[index][message!!])
+      }
+    }
     if (redactedFields?.isNotEmpty() == true) {
       encodeValue("__redacted_fields", redactedFields, redactedFieldsAdapter!!)
     }
@@ -261,3 +500,14 @@ class RuntimeMessageAdapter<M : Any, B : Any>(
     )
   }
 }
+
+/**
+ * Returns an adapter that exposes the fields of [value], a message encoded by this adapter, or null
+ * if its fields can't be accessed on this platform.
+ */
+@Suppress("UNCHECKED_CAST")
+internal fun ProtoAdapter<*>.messageAdapterOrNull(value: Any): RuntimeMessageAdapter<Any, Any>? {
+  if (this is RuntimeMessageAdapter<*, *>) return this as RuntimeMessageAdapter<Any, Any>
+  val message = value as? Message<*, *> ?: return null
+  return reflectiveAdapterOrNull(message) as? RuntimeMessageAdapter<Any, Any>
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import com.squareup.wire.ProtoAdapter
+import com.squareup.wire.ProtoReader
+import com.squareup.wire.ProtoReader32
+import com.squareup.wire.forEachTag
+
+/**
+ * An immutable tree of struct values (null, Boolean, Double, String, List, and Map) in flat arrays.
+ * Nodes are numbered depth-first, so the descendants of a list or map node immediately follow it.
+ * Numbers and booleans are unboxed, and equal map keys share one string.
+ *
+ * Lists and maps are exposed as read-only [List] and [Map] views, created on first access. The
+ * views implement [StructView] so that encoders can walk the arrays directly.
+ */
+class StructTree internal constructor(
+  private val kinds: ByteArray,
+  /** The node after each node's descendants. */
+  private val ends: IntArray,
+  private val numbers: DoubleArray,
+  /** Strings for string nodes, and views for list and map nodes. */
+  private val objects: Array<Any?>,
+  /** Keys of map entries. Null for list elements and for entries replaced by a later duplicate. */
+  private val keys: Array<String?>,
+) {
+  fun kind(node: Int): Int = kinds[node].toInt()
+
+  /** Returns the node that follows [node] and its descendants. */
+  fun end(node: Int): Int = ends[node]
+
+  fun number(node: Int): Double = numbers[node]
+
+  fun string(node: Int): String = objects[node] as String
+
+  /** Returns the key of [node] in its map, or null if it isn't a map entry. */
+  fun key(node: Int): String? = keys[node]
+
+  /** Returns the value of [node], boxing numbers and booleans. */
+  fun value(node: Int): Any? = when (kinds[node].toInt()) {
+    KIND_NULL -> null
+    KIND_FALSE -> false
+    KIND_TRUE -> true
+    KIND_NUMBER -> numbers[node]
+    KIND_STRING -> objects[node]
+    // Views are immutable, so a race here at worst creates an extra one.
+    KIND_MAP -> objects[node] ?: MapView(node).also { objects[node] = it }
+    else -> objects[node] ?: ListView(node).also { objects[node] = it }
+  }
+
+  /** Returns the children of [node], skipping entries replaced by a later duplicate. */
+  private fun children(node: Int): IntArray {
+    val isMap = kinds[node].toInt() == KIND_MAP
+    var count = 0
+    var child = node + 1
+    while (child < ends[node]) {
+      if (!isMap || keys[child] != null) count++
+      child = ends[child]
+    }
+    val result = IntArray(count)
+    var i = 0
+    child = node + 1
+    while (child < ends[node]) {
+      if (!isMap || keys[child] != null) result[i++] = child
+      child = ends[child]
+    }
+    return result
+  }
+
+  private inner class MapView(
+    override val node: Int,
+  ) : AbstractMap<String, Any?>(),
+    StructView,
+    Serializable {
+    override val tree: StructTree
+      get() = this@StructTree
+
+    private val children: IntArray by lazy { children(node) }
+
+    /** Large maps are indexed on first lookup. */
+    private val index: Map<String, Int>? by lazy {
+      if (children.size <= LINEAR_SEARCH_LIMIT) return@lazy null
+      HashMap<String, Int>(children.size * 2).apply {
+        for (child in children) put(keys[child]!!, child)
+      }
+    }
+
+    override val size: Int
+      get() = children.size
+
+    override val entries: Set<Map.Entry<String, Any?>> = object : AbstractSet<Map.Entry<String, Any?>>() {
+      override val size: Int
+        get() = children.size
+
+      override fun iterator(): Iterator<Map.Entry<String, Any?>> = object : Iterator<Map.Entry<String, Any?>> {
+        private var i = 0
+
+        override fun hasNext() = i < children.size
+
+        override fun next(): Map.Entry<String, Any?> {
+          if (!hasNext()) throw NoSuchElementException()
+          val child = children[i++]
+          return Entry(keys[child]!!, value(child))
+        }
+      }
+    }
+
+    override fun containsKey(key: String) = find(key) != -1
+
+    override fun get(key: String): Any? {
+      val child = find(key)
+      return if (child != -1) value(child) else null
+    }
+
+    private fun find(key: String): Int {
+      val index = index
+      if (index != null) return index[key] ?: -1
+      for (child in children) {
+        if (keys[child] == key) return child
+      }
+      return -1
+    }
+
+    @Throws(ObjectStreamException::class)
+    private fun writeReplace(): Any = LinkedHashMap(this).toUnmodifiableMap()
+  }
+
+  private class Entry(
+    override val key: String,
+    override val value: Any?,
+  ) : Map.Entry<String, Any?> {
+    override fun equals(other: Any?) = other is Map.Entry<*, *> && other.key == key && other.value == value
+
+    override fun hashCode() = key.hashCode() xor value.hashCode()
+
+    override fun toString() = "$key=$value"
+  }
+
+  private inner class ListView(
+    override val node: Int,
+  ) : AbstractList<Any?>(),
+    RandomAccess,
+    StructView,
+    Serializable {
+    override val tree: StructTree
+      get() = this@StructTree
+
+    private val children: IntArray by lazy { children(node) }
+
+    override val size: Int
+      get() = children.size
+
+    override fun get(index: Int): Any? {
+      if (index !in children.indices) throw IndexOutOfBoundsException("index: $index, size: $size")
+      return value(children[index])
+    }
+
+    @Throws(ObjectStreamException::class)
+    private fun writeReplace(): Any = ArrayList(this).toUnmodifiableList()
+  }
+
+  companion object {
+    const val KIND_NULL: Int = 0
+    const val KIND_FALSE: Int = 1
+    const val KIND_TRUE: Int = 2
+    const val KIND_NUMBER: Int = 3
+    const val KIND_STRING: Int = 4
+    const val KIND_MAP: Int = 5
+    const val KIND_LIST: Int = 6
+
+    private const val LINEAR_SEARCH_LIMIT = 8
+  }
+}
+
+/** A [Map] or [List] backed by node [node] of [tree]. */
+interface StructView {
+  val tree: StructTree
+  val node: Int
+}
+
+/**
+ * Builds a [StructTree] depth-first. Add a map or list with [beginMap] or [beginList], then its
+ * children, then call [end]. The first node added is the root.
+ */
+class StructTreeBuilder {
+  private var kinds = ByteArray(16)
+  private var ends = IntArray(16)
+  private var numbers = DoubleArray(16)
+  private var objects = arrayOfNulls<Any>(16)
+  private var keys = arrayOfNulls<String>(16)
+  private val internedKeys = HashMap<String, String>()
+
+  /** Scratch space for finding duplicate keys. */
+  private var mapChildren = IntArray(16)
+
+  /** The number of nodes added so far, which is also the index of the next node. */
+  var size: Int = 0
+    private set
+
+  fun addNull(key: String?) {
+    add(key, StructTree.KIND_NULL)
+  }
+
+  fun addBoolean(key: String?, value: Boolean) {
+    add(key, if (value) StructTree.KIND_TRUE else StructTree.KIND_FALSE)
+  }
+
+  fun addNumber(key: String?, value: Double) {
+    numbers[add(key, StructTree.KIND_NUMBER)] = value
+  }
+
+  fun addString(key: String?, value: String) {
+    objects[add(key, StructTree.KIND_STRING)] = value
+  }
+
+  /** Returns the new node, which must be passed to [end] after its entries are added. */
+  fun beginMap(key: String?): Int = add(key, StructTree.KIND_MAP)
+
+  /** Returns the new node, which must be passed to [end] after its elements are added. */
+  fun beginList(key: String?): Int = add(key, StructTree.KIND_LIST)
+
+  fun end(node: Int) {
+    ends[node] = size
+    if (kinds[node].toInt() == StructTree.KIND_MAP) removeDuplicateKeys(node)
+  }
+
+  /**
+   * Adds [value] and its descendants. Returns false if they aren't all struct values, or if a map
+   * has a key that isn't a string.
+   */
+  fun addValue(key: String?, value: Any?): Boolean {
+    when (value) {
+      null -> addNull(key)
+      is Boolean -> addBoolean(key, value)
+      is Double -> addNumber(key, value)
+      is String -> addString(key, value)
+      is Map<*, *> -> {
+        val node = beginMap(key)
+        for ((k, v) in value) {
+          if (k !is String || !addValue(k, v)) return false
+        }
+        end(node)
+      }
+      is List<*> -> {
+        val node = beginList(key)
+        for (element in value) {
+          if (!addValue(null, element)) return false
+        }
+        end(node)
+      }
+      else -> return false
+    }
+    return true
+  }
+
+  /** Sets the key of [node], which was added before its key was known. */
+  fun setKey(node: Int, key: String) {
+    keys[node] = internedKeys.getOrPut(key) { key }
+  }
+
+  /** Removes the nodes added since the builder had [size] nodes. */
+  fun truncate(size: Int) {
+    objects.fill(null, size, this.size)
+    this.size = size
+  }
+
+  fun build(): StructTree {
+    check(size > 0) { "no root" }
+    return StructTree(
+      kinds = kinds.copyOf(size),
+      ends = ends.copyOf(size),
+      numbers = numbers.copyOf(size),
+      objects = objects.copyOf(size),
+      keys = keys.copyOf(size),
+    )
+  }
+
+  private fun add(key: String?, kind: Int): Int {
+    if (size == kinds.size) {
+      val capacity = size * 2
+      kinds = kinds.copyOf(capacity)
+      ends = ends.copyOf(capacity)
+      numbers = numbers.copyOf(capacity)
+      objects = objects.copyOf(capacity)
+      keys = keys.copyOf(capacity)
+    }
+    val node = size++
+    kinds[node] = kind.toByte()
+    ends[node] = size
+    keys[node] = key?.let { internedKeys.getOrPut(it) { it } }
+    return node
+  }
+
+  /**
+   * Clears the key of each entry of [map] that a later entry has the same key as, so that the map
+   * has the later value like a [MutableMap] would.
+   */
+  private fun removeDuplicateKeys(map: Int) {
+    var count = 0
+    var child = map + 1
+    while (child < size) {
+      if (count == mapChildren.size) mapChildren = mapChildren.copyOf(count * 2)
+      mapChildren[count++] = child
+      child = ends[child]
+    }
+    if (count < 2) return
+
+    // Keys are interned, so equal keys are the same instance.
+    if (count <= 8) {
+      for (i in 0 until count - 1) {
+        val key = keys[mapChildren[i]]
+        for (j in i + 1 until count) {
+          if (keys[mapChildren[j]] === key) {
+            keys[mapChildren[i]] = null
+            break
+          }
+        }
+      }
+    } else {
+      val seen = HashSet<String>()
+      for (i in count - 1 downTo 0) {
+        if (!seen.add(keys[mapChildren[i]]!!)) keys[mapChildren[i]] = null
+      }
+    }
+  }
+}
+
+/** Decodes the fields of a `google.protobuf.Struct` as a map node. */
+internal fun StructTreeBuilder.decodeStruct(reader: ProtoReader, key: String?) {
+  val node = beginMap(key)
+  reader.forEachTag { entryTag ->
+    if (entryTag != 1) return@forEachTag reader.skip()
+
+    val valueNode = size
+    var entryKey: String? = null
+    reader.forEachTag { tag ->
+      when (tag) {
+        1 -> entryKey = ProtoAdapter.STRING.decode(reader)
+        2 -> {
+          truncate(valueNode)
+          decodeValue(reader, null)
+        }
+        else -> reader.readUnknownField(tag)
+      }
+    }
+    val k = entryKey
+    when {
+      k == null -> truncate(valueNode)
+      size == valueNode -> addNull(k)
+      else -> setKey(valueNode, k)
+    }
+  }
+  end(node)
+}
+
+/** Decodes the fields of a `google.protobuf.ListValue` as a list node. */
+internal fun StructTreeBuilder.decodeListValue(reader: ProtoReader, key: String?) {
+  val node = beginList(key)
+  reader.forEachTag { tag ->
+    if (tag != 1) return@forEachTag reader.skip()
+    decodeValue(reader, null)
+  }
+  end(node)
+}
+
+/** Decodes the fields of a `google.protobuf.Value` as a node. An empty value is null. */
+private fun StructTreeBuilder.decodeValue(reader: ProtoReader, key: String?) {
+  val node = size
+  reader.forEachTag { tag ->
+    if (tag in 1..6) truncate(node) // The last value wins.
+    when (tag) {
+      1 -> {
+        ProtoAdapter.STRUCT_NULL.decode(reader)
+        addNull(key)
+      }
+      2 -> addNumber(key, ProtoAdapter.DOUBLE.decode(reader))
+      3 -> addString(key, ProtoAdapter.STRING.decode(reader))
+      4 -> addBoolean(key, ProtoAdapter.BOOL.decode(reader))
+      5 -> decodeStruct(reader, key)
+      6 -> decodeListValue(reader, key)
+      else -> reader.skip()
+    }
+  }
+  if (size == node) addNull(key)
+}
+
+/** Decodes the fields of a `google.protobuf.Struct` as a map node. */
+internal fun StructTreeBuilder.decodeStruct(reader: ProtoReader32, key: String?) {
+  val node = beginMap(key)
+  reader.forEachTag { entryTag ->
+    if (entryTag != 1) return@forEachTag reader.skip()
+
+    val valueNode = size
+    var entryKey: String? = null
+    reader.forEachTag { tag ->
+      when (tag) {
+        1 -> entryKey = ProtoAdapter.STRING.decode(reader)
+        2 -> {
+          truncate(valueNode)
+          decodeValue(reader, null)
+        }
+        else -> reader.readUnknownField(tag)
+      }
+    }
+    val k = entryKey
+    when {
+      k == null -> truncate(valueNode)
+      size == valueNode -> addNull(k)
+      else -> setKey(valueNode, k)
+    }
+  }
+  end(node)
+}
+
+/** Decodes the fields of a `google.protobuf.ListValue` as a list node. */
+internal fun StructTreeBuilder.decodeListValue(reader: ProtoReader32, key: String?) {
+  val node = beginList(key)
+  reader.forEachTag { tag ->
+    if (tag != 1) return@forEachTag reader.skip()
+    decodeValue(reader, null)
+  }
+  end(node)
+}
+
+/** Decodes the fields of a `google.protobuf.Value` as a node. An empty value is null. */
+private fun StructTreeBuilder.decodeValue(reader: ProtoReader32, key: String?) {
+  val node = size
+  reader.forEachTag { tag ->
+    if (tag in 1..6) truncate(node) // The last value wins.
+    when (tag) {
+      1 -> {
+        ProtoAdapter.STRUCT_NULL.decode(reader)
+        addNull(key)
+      }
+      2 -> addNumber(key, ProtoAdapter.DOUBLE.decode(reader))
+      3 -> addString(key, ProtoAdapter.STRING.decode(reader))
+      4 -> addBoolean(key, ProtoAdapter.BOOL.decode(reader))
+      5 -> decodeStruct(reader, key)
+      6 -> decodeListValue(reader, key)
+      else -> reader.skip()
+    }
+  }
+  if (size == node) addNull(key)
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import com.squareup.wire.Message
+import com.squareup.wire.ProtoAdapter
+import com.squareup.wire.ToStringLimits
+import okio.ByteString
+
+/**
+ * Writes a human-readable version of values directly to [out], eliding whatever exceeds
+ * [limits]. Adapters that know the structure of their values write them field by field with
+ * [ProtoAdapter.appendTo]; everything else is written by [appendValue].
+ */
+internal class ToStringWriter(
+  private val out: Appendable,
+  private val limits: ToStringLimits,
+) {
+  /** The number of messages that enclose the value being written. */
+  private var depth = 0
+
+  fun append(value: String) {
+    out.append(value)
+  }
+
+  /** Writes [value] in a format chosen by its runtime type. */
+  fun appendValue(value: Any?) {
+    when (value) {
+      null -> out.append("null")
+      is String -> appendString(value)
+      is ByteString -> appendBytes(value)
+      is Message<*, *> -> appendMessage(value)
+      is List<*> -> appendList(value, null)
+      is Map<*, *> -> appendMap(value, null, null)
+      else -> out.append(value.toString())
+    }
+  }
+
+  /** Writes [value] with [adapter] if it is non-null, or by its runtime type otherwise. */
+  fun <E> appendValue(value: E, adapter: ProtoAdapter<E>?) {
+    if (adapter != null && value != null) {
+      adapter.appendTo(value, this)
+    } else {
+      appendValue(value)
+    }
+  }
+
+  private fun appendString(value: String) {
+    val length = minOf(value.length, limits.maxStringLength)
+    for (i in 0 until length) {
+      val char = value[i]
+      if (char in ESCAPED_CHARS) out.append('\\')
+      out.append(char)
+    }
+    appendMore(value.length - length)
+  }
+
+  private fun appendBytes(value: ByteString) {
+    if (value.size <= limits.maxBytesSize) {
+      out.append(value.toString())
+      return
+    }
+    out.append("[size=")
+    out.append(value.size.toString())
+    out.append(" hex=")
+    out.append(value.substring(0, limits.maxBytesSize).hex())
+    out.append("…]")
+  }
+
+  private fun appendMessage(message: Message<*, *>) {
+    val adapter = reflectiveAdapterOrNull(message)
+    if (adapter != null) {
+      adapter.appendTo(message, this)
+    } else {
+      out.append(message.toString())
+    }
+  }
+
+  fun <E> appendList(list: List<E>, elementAdapter: ProtoAdapter<E>?) {
+    out.append('[')
+    val count = minOf(list.size, limits.maxCollectionSize)
+    for (i in 0 until count) {
+      if (i > 0) out.append(", ")
+      appendValue(list[i], elementAdapter)
+    }
+    if (count > 0 && list.size > count) out.append(", ")
+    appendMore(list.size - count)
+    out.append(']')
+  }
+
+  fun <K, V> appendMap(map: Map<K, V>, keyAdapter: ProtoAdapter<K>?, valueAdapter: ProtoAdapter<V>?) {
+    out.append('{')
+    val count = minOf(map.size, limits.maxCollectionSize)
+    var i = 0
+    for ((key, value) in map) {
+      if (i == count) break
+      if (i > 0) out.append(", ")
+      appendValue(key, keyAdapter)
+      out.append('=')
+      appendValue(value, valueAdapter)
+      i++
+    }
+    if (count > 0 && map.size > count) out.append(", ")
+    appendMore(map.size - count)
+    out.append('}')
+  }
+
+  /**
+   * Writes a message named [typeName], calling [appendFields] to write its fields unless the
+   * message is nested too deeply.
+   */
+  fun appendMessage(typeName: String?, appendFields: () -> Unit) {
+    out.append(typeName ?: "null")
+    out.append('{')
+    if (depth >= limits.maxDepth) {
+      out.append('…')
+    } else {
+      depth++
+      try {
+        appendFields()
+      } finally {
+        depth--
+      }
+    }
+    out.append('}')
+  }
+
+  /** Writes the separator and name that precede a field's value. */
+  fun appendFieldName(name: String, first: Boolean) {
+    if (!first) out.append(", ")
+    out.append(name)
+    out.append('=')
+  }
+
+  private fun appendMore(count: Int) {
+    if (count <= 0) return
+    out.append("…(")
+    out.append(count.toString())
+    out.append(" more)")
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNull
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+import okio.Buffer
+import okio.ByteString.Companion.decodeHex
+import okio.EOFException
+import okio.IOException
+import okio.Sink
+import okio.buffer
+import okio.use
+
+class DelimitedMessagesTest {
+  @Test fun varintFraming() {
+    val buffer = Buffer()
+    DelimitedMessageSink(buffer, ProtoAdapter.STRING).use { sink ->
+      sink.write("a")
+      sink.write("")
+      sink.write("x".repeat(200))
+    }
+    assertThat(buffer.readByteString(3)).isEqualTo("016100".decodeHex())
+    assertThat(buffer.readByteString(2)).isEqualTo("c801".decodeHex())
+    assertThat(buffer.size).isEqualTo(200L)
+  }
+
+  @Test fun fixed32Framing() {
+    val buffer = Buffer()
+    DelimitedMessageSink(buffer, ProtoAdapter.STRING, MessageFraming.FIXED32).use { sink ->
+      sink.write("a")
+      sink.write("bc")
+    }
+    assertThat(buffer.readByteString()).isEqualTo("0100000061020000006263".decodeHex())
+  }
+
+  @Test fun roundTrip() {
+    for (framing in MessageFraming.entries) {
+      val buffer = Buffer()
+      DelimitedMessageSink(buffer, ProtoAdapter.STRING, framing).use { sink ->
+        sink.write("short")
+        sink.write("l".repeat(100_000))
+        sink.write("s")
+      }
+      DelimitedMessageSource(buffer, ProtoAdapter.STRING, framing).use { source ->
+        assertThat(source.read()).isEqualTo("short")
+        assertThat(source.read()).isEqualTo("l".repeat(100_000))
+        assertThat(source.read()).isEqualTo("s")
+        assertThat(source.read()).isNull()
+      }
+    }
+  }
+
+  @Test fun batchedFlushes() {
+    val buffer = Buffer()
+    val sink = DelimitedMessageSink((buffer as Sink).buffer(), ProtoAdapter.STRING, flushInterval = 3)
+    sink.write("a")
+    sink.write("b")
+    assertThat(buffer.size).isEqualTo(0L)
+    sink.write("c")
+    assertThat(buffer.size).isEqualTo(6L)
+    sink.write("d")
+    sink.flush()
+    assertThat(buffer.size).isEqualTo(8L)
+    sink.close()
+  }
+
+  @Test fun messageLargerThanMaxMessageSize() {
+    val buffer = Buffer().write("0461626364".decodeHex())
+    val source = DelimitedMessageSource(buffer, ProtoAdapter.STRING, maxMessageSize = 3)
+    val exception = assertFailsWith<IOException> {
+      source.read()
+    }
+    assertThat(exception.message).isEqualTo("message of 4 bytes exceeds maxMessageSize=3")
+  }
+
+  @Test fun truncatedMessage() {
+    val buffer = Buffer().write("04616263".decodeHex())
+    val source = DelimitedMessageSource(buffer, ProtoAdapter.STRING)
+    assertFailsWith<EOFException> {
+      source.read()
+    }
+  }
+}
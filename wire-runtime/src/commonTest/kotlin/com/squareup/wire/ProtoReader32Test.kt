@@ -19,9 +19,14 @@ import assertk.assertFailure
 import assertk.assertThat
 import assertk.assertions.hasMessage
 import assertk.assertions.isEqualTo
+import assertk.assertions.isFalse
 import assertk.assertions.isInstanceOf
+import assertk.assertions.isTrue
 import com.squareup.wire.ReverseProtoWriterTest.Person
+import com.squareup.wire.Syntax.PROTO_2
 import kotlin.test.Test
+import okio.Buffer
+import okio.ByteString
 import okio.ByteString.Companion.decodeHex
 import okio.EOFException
 import okio.IOException
@@ -65,6 +70,100 @@ class ProtoReader32Test {
     reader.endMessageAndGetUnknownFields(secondToken)
   }
 
+  @Test fun unknownFieldsRetainedFromSource() {
+    val encoded = (
+      "0802" + // 1: int32 = 2
+        "1003" + // 2: unknown varint = 3
+        "1a026869" + // 3: unknown bytes = "hi"
+        "3005" + // 6: int32 = 5, which we add as unknown
+        "2001" + // 4: int32 = 1
+        "2d01000000" // 5: unknown fixed32 = 1
+      ).decodeHex()
+    val reader = ProtoReader32(encoded)
+    val token = reader.beginMessage()
+    assertThat(reader.nextTag()).isEqualTo(1)
+    assertThat(ProtoAdapter.INT32.decode(reader)).isEqualTo(2)
+    assertThat(reader.nextTag()).isEqualTo(2)
+    reader.readUnknownField(2)
+    assertThat(reader.nextTag()).isEqualTo(3)
+    reader.readUnknownField(3)
+    assertThat(reader.nextTag()).isEqualTo(6)
+    reader.addUnknownField(6, FieldEncoding.VARINT, ProtoAdapter.INT32.decode(reader).toLong())
+    assertThat(reader.nextTag()).isEqualTo(4)
+    assertThat(ProtoAdapter.INT32.decode(reader)).isEqualTo(1)
+    assertThat(reader.nextTag()).isEqualTo(5)
+    reader.readUnknownField(5)
+    assertThat(reader.nextTag()).isEqualTo(-1)
+    assertThat(reader.endMessageAndGetUnknownFields(token))
+      .isEqualTo("10031a02686930052d01000000".decodeHex())
+  }
+
+  @Test fun adjacentUnknownFieldsRetainedFromSource() {
+    // A non-canonical varint is retained as-is rather than re-encoded.
+    val encoded = "0802" + "108300" + "1a026869"
+    val reader = ProtoReader32(encoded.decodeHex())
+    val token = reader.beginMessage()
+    assertThat(reader.nextTag()).isEqualTo(1)
+    assertThat(ProtoAdapter.INT32.decode(reader)).isEqualTo(2)
+    assertThat(reader.nextTag()).isEqualTo(2)
+    reader.readUnknownField(2)
+    assertThat(reader.nextTag()).isEqualTo(3)
+    reader.readUnknownField(3)
+    assertThat(reader.nextTag()).isEqualTo(-1)
+    assertThat(reader.endMessageAndGetUnknownFields(token)).isEqualTo("1083001a026869".decodeHex())
+  }
+
+  @Test fun discardUnknownFields() {
+    val encoded = (
+      "0802" + // 1: int32 = 2
+        "1a026869" + // 3: unknown bytes = "hi"
+        "2001" // 4: int32 = 1, which we add as unknown
+      ).decodeHex()
+    val reader = ProtoReader32(encoded, discardUnknownFields = true)
+    assertThat(reader.discardUnknownFields).isTrue()
+    val token = reader.beginMessage()
+    assertThat(reader.nextTag()).isEqualTo(1)
+    assertThat(ProtoAdapter.INT32.decode(reader)).isEqualTo(2)
+    assertThat(reader.nextTag()).isEqualTo(3)
+    reader.readUnknownField(3)
+    assertThat(reader.nextTag()).isEqualTo(4)
+    reader.addUnknownField(4, FieldEncoding.VARINT, ProtoAdapter.INT32.decode(reader).toLong())
+    assertThat(reader.nextTag()).isEqualTo(-1)
+    assertThat(reader.endMessageAndGetUnknownFields(token)).isEqualTo(ByteString.EMPTY)
+  }
+
+  @Test fun discardingAdapterDiscardsForOneCall() {
+    val encoded = "0802" + "1a026869"
+    val reader = ProtoReader32(encoded.decodeHex())
+    assertThat(unknownFieldsAdapter.discardingUnknownFields().decode(reader))
+      .isEqualTo(ByteString.EMPTY)
+    assertThat(reader.discardUnknownFields).isFalse()
+    assertThat(unknownFieldsAdapter.decode(ProtoReader32(encoded.decodeHex())))
+      .isEqualTo(encoded.decodeHex())
+  }
+
+  @Test fun discardingAdapterDiscardsWhenDecodingInto() {
+    val encoded = "0802" + "1a026869"
+    val adapter = unknownFieldsAdapter.discardingUnknownFields()
+    val existing = "2001".decodeHex()
+    assertThat(adapter.decodeInto(ProtoReader32(encoded.decodeHex()), existing))
+      .isEqualTo(existing)
+    assertThat(adapter.decodeInto(ProtoReader32(encoded.decodeHex()).asProtoReader(), existing))
+      .isEqualTo(existing)
+    assertThat(unknownFieldsAdapter.decodeInto(ProtoReader32(encoded.decodeHex()), existing))
+      .isEqualTo(("2001" + encoded).decodeHex())
+  }
+
+  @Test fun discardingAdapterDiscardsFromOtherReaders() {
+    val encoded = "0802" + "1a026869"
+    val reader = ForwardingProtoReader32(ProtoReader32(encoded.decodeHex()))
+    assertThat(unknownFieldsAdapter.discardingUnknownFields().decode(reader))
+      .isEqualTo(ByteString.EMPTY)
+    val adaptedReader = ForwardingProtoReader32(ProtoReader32(encoded.decodeHex())).asProtoReader()
+    assertThat(unknownFieldsAdapter.discardingUnknownFields().decode(adaptedReader))
+      .isEqualTo(ByteString.EMPTY)
+  }
+
   /** We had a bug where we weren't enforcing recursion limits for groups. */
   @Test fun testSkipGroupNested() {
     val data = ByteArray(50000) {
@@ -125,4 +224,44 @@ class ProtoReader32Test {
   }
 
   // Consider pasting new tests into ProtoReaderTest.kt also.
+
+  /** A [ProtoReader32] that wasn't created by `ProtoReader32()`. */
+  private class ForwardingProtoReader32(
+    private val delegate: ProtoReader32,
+  ) : ProtoReader32 by delegate {
+    override fun asProtoReader(): ProtoReader = ProtoReader32AsProtoReader(this)
+  }
+
+  /** Decodes a message as its unknown fields. Decoding into a value appends to it. */
+  private val unknownFieldsAdapter = object : ProtoAdapter<ByteString>(
+    FieldEncoding.LENGTH_DELIMITED,
+    ByteString::class,
+    null,
+    PROTO_2,
+    null,
+  ) {
+    override fun redact(value: ByteString) = error("unexpected call")
+
+    override fun encodedSize(value: ByteString): Int = value.size
+
+    override fun encode(writer: ProtoWriter, value: ByteString) {
+      writer.writeBytes(value)
+    }
+
+    override fun decode(reader: ProtoReader): ByteString {
+      return reader.forEachTag { tag -> reader.readUnknownField(tag) }
+    }
+
+    override fun decode(reader: ProtoReader32): ByteString {
+      return reader.forEachTag { tag -> reader.readUnknownField(tag) }
+    }
+
+    override fun decodeInto(reader: ProtoReader, existing: ByteString): ByteString {
+      return Buffer().write(existing).write(decode(reader)).readByteString()
+    }
+
+    override fun decodeInto(reader: ProtoReader32, existing: ByteString): ByteString {
+      return Buffer().write(existing).write(decode(reader)).readByteString()
+    }
+  }
 }
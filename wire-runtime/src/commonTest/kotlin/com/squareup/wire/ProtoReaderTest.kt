@@ -23,6 +23,7 @@ import assertk.assertions.isInstanceOf
 import com.squareup.wire.ReverseProtoWriterTest.Person
 import kotlin.test.Test
 import okio.Buffer
+import okio.ByteString
 import okio.ByteString.Companion.decodeHex
 import okio.EOFException
 import okio.IOException
@@ -66,6 +67,25 @@ class ProtoReaderTest {
     reader.endMessageAndGetUnknownFields(secondToken)
   }
 
+  @Test fun discardUnknownFields() {
+    val encoded = (
+      "0802" + // 1: int32 = 2
+        "1a026869" + // 3: unknown bytes = "hi"
+        "2001" // 4: int32 = 1, which we add as unknown
+      ).decodeHex()
+    val reader = ProtoReader(Buffer().write(encoded))
+    reader.discardUnknownFields = true
+    val token = reader.beginMessage()
+    assertThat(reader.nextTag()).isEqualTo(1)
+    assertThat(ProtoAdapter.INT32.decode(reader)).isEqualTo(2)
+    assertThat(reader.nextTag()).isEqualTo(3)
+    reader.readUnknownField(3)
+    assertThat(reader.nextTag()).isEqualTo(4)
+    reader.addUnknownField(4, FieldEncoding.VARINT, ProtoAdapter.INT32.decode(reader).toLong())
+    assertThat(reader.nextTag()).isEqualTo(-1)
+    assertThat(reader.endMessageAndGetUnknownFields(token)).isEqualTo(ByteString.EMPTY)
+  }
+
   /** We had a bug where we weren't enforcing recursion limits for groups. */
   @Test fun testSkipGroupNested() {
     val data = ByteArray(50000) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.isEqualTo
+import assertk.assertions.isFalse
+import assertk.assertions.isInstanceOf
+import assertk.assertions.isNull
+import assertk.assertions.isSameInstanceAs
+import assertk.assertions.isTrue
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+class ImmutableCompactMapTest {
+  @Test
+  fun intKeys() {
+    val source = linkedMapOf(3 to "c", 1 to "a", 2 to "b")
+    val copy = immutableCopyOf("map", source)
+    assertThat(copy).isInstanceOf<ImmutableIntKeyMap<*>>()
+    assertThat(copy).isEqualTo(source)
+    assertThat(copy.hashCode()).isEqualTo(source.hashCode())
+    assertThat(copy.keys).containsExactly(3, 1, 2)
+    assertThat(copy[2]).isEqualTo("b")
+    assertThat(copy[4]).isNull()
+    assertThat(copy.toString()).isEqualTo("{3=c, 1=a, 2=b}")
+  }
+
+  @Test
+  fun longKeysAndValues() {
+    val source = linkedMapOf(Long.MIN_VALUE to 1L, 0L to 2L, Long.MAX_VALUE to 3L)
+    val copy = immutableCopyOf("map", source)
+    assertThat(copy).isInstanceOf<ImmutableLongKeyMap<*>>()
+    assertThat(copy).isEqualTo(source)
+    assertThat(copy[Long.MAX_VALUE]).isEqualTo(3L)
+    assertThat(copy.containsValue(2L)).isTrue()
+    assertThat(copy.containsValue(4L)).isFalse()
+  }
+
+  @Test
+  fun stringKeys() {
+    val source = linkedMapOf<String, Int>()
+    for (i in 0 until 1_000) {
+      source["key $i"] = i
+    }
+    val copy = immutableCopyOf("map", source)
+    assertThat(copy).isInstanceOf<ImmutableObjectKeyMap<*, *>>()
+    assertThat(copy).isEqualTo(source)
+    for (i in 0 until 1_000) {
+      assertThat(copy["key $i"]).isEqualTo(i)
+    }
+    assertThat(copy.containsKey("key 1000")).isFalse()
+    assertThat(copy.entries.first().key).isEqualTo("key 0")
+  }
+
+  @Test
+  fun someCollidingKeys() {
+    // Every key has the same hash code, but not so many that the table gives up.
+    val source = linkedMapOf<String, Int>()
+    for ((i, key) in collidingKeys(5).withIndex()) {
+      source[key] = i
+    }
+    val copy = immutableCopyOf("map", source)
+    assertThat(copy).isInstanceOf<ImmutableObjectKeyMap<*, *>>()
+    assertThat(copy).isEqualTo(source)
+    for ((key, value) in source) {
+      assertThat(copy[key]).isEqualTo(value)
+    }
+    assertThat(copy["AaAaAaAaAa"]).isEqualTo(0)
+    assertThat(copy.containsKey("AaAaAaAaAB")).isFalse()
+  }
+
+  @Test
+  fun manyCollidingKeys() {
+    // Every key has the same hash code, which would make probing quadratic.
+    val source = linkedMapOf<String, Int>()
+    for ((i, key) in collidingKeys(12).withIndex()) {
+      source[key] = i
+    }
+    val copy = immutableCopyOf("map", source)
+    assertThat(copy is ImmutableCompactMap<*, *>).isFalse()
+    assertThat(copy).isEqualTo(source)
+    assertThat(copy.keys.toList()).isEqualTo(source.keys.toList())
+    for ((key, value) in source) {
+      assertThat(copy[key]).isEqualTo(value)
+    }
+  }
+
+  @Test
+  fun alreadyImmutableIsNotCopiedAgain() {
+    val copy = immutableCopyOf("map", mapOf("a" to 1))
+    assertThat(immutableCopyOf("map", copy)).isSameInstanceAs(copy)
+  }
+
+  @Test
+  fun nullValueIsRejected() {
+    val exception = assertFailsWith<IllegalArgumentException> {
+      immutableCopyOf("map", mapOf("a" to null))
+    }
+    assertThat(exception.message).isEqualTo("map.containsValue(null)")
+  }
+
+  /** Returns the 2^[length] strings of "Aa" and "BB" pairs, which all have the same hash code. */
+  private fun collidingKeys(length: Int): List<String> {
+    var result = listOf("")
+    repeat(length) {
+      result = result.flatMap { listOf(it + "Aa", it + "BB") }
+    }
+    return result
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isInstanceOf
+import assertk.assertions.isSameInstanceAs
+import assertk.assertions.isTrue
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+class ImmutablePrimitiveListTest {
+  @Test
+  fun intsAreStoredUnboxed() {
+    val copy = immutableCopyOf("ints", mutableListOf(1, 2, 3))
+    assertThat(copy).isInstanceOf<ImmutableIntList>()
+    assertThat(copy).isEqualTo(listOf(1, 2, 3))
+    assertThat(copy.hashCode()).isEqualTo(listOf(1, 2, 3).hashCode())
+    assertThat(copy.toString()).isEqualTo("[1, 2, 3]")
+  }
+
+  @Test
+  fun longsAreStoredUnboxed() {
+    val copy = immutableCopyOf("longs", mutableListOf(1L, Long.MAX_VALUE))
+    assertThat(copy).isInstanceOf<ImmutableLongList>()
+    assertThat(copy).isEqualTo(listOf(1L, Long.MAX_VALUE))
+  }
+
+  @Test
+  fun doublesAreStoredUnboxed() {
+    val copy = immutableCopyOf("doubles", mutableListOf(1.5, -0.0))
+    assertThat(copy).isInstanceOf<ImmutableDoubleList>()
+    assertThat(copy).isEqualTo(listOf(1.5, -0.0))
+  }
+
+  @Test
+  fun booleansAreStoredUnboxed() {
+    val copy = immutableCopyOf("booleans", mutableListOf(true, false, true))
+    assertThat(copy).isInstanceOf<ImmutableBooleanList>()
+    assertThat(copy).isEqualTo(listOf(true, false, true))
+  }
+
+  @Test
+  fun nonScalarsAreNotSpecialized() {
+    val copy = immutableCopyOf("strings", mutableListOf("a", "b"))
+    assertThat(copy).isInstanceOf<ImmutableList<*>>()
+    assertThat(copy).isEqualTo(listOf("a", "b"))
+  }
+
+  @Test
+  fun nullElementIsRejected() {
+    val exception = assertFailsWith<IllegalArgumentException> {
+      immutableCopyOf("ints", mutableListOf(1, null))
+    }
+    assertThat(exception.message).isEqualTo("ints.contains(null)")
+  }
+
+  @Test
+  fun alreadyImmutableIsNotCopiedAgain() {
+    val copy = immutableCopyOf("ints", mutableListOf(1, 2, 3))
+    assertThat(immutableCopyOf("ints", copy)).isSameInstanceAs(copy)
+  }
+
+  @Test
+  fun copyOfIsMutableOnWrite() {
+    val immutable = immutableCopyOf("ints", mutableListOf(1, 2, 3))
+    val mutable = copyOf(immutable)
+    mutable.add(4)
+    assertThat(mutable).isEqualTo(listOf(1, 2, 3, 4))
+    assertThat(immutable).isEqualTo(listOf(1, 2, 3))
+    assertThat(immutableCopyOf("ints", mutable) is ImmutableIntList).isTrue()
+  }
+}
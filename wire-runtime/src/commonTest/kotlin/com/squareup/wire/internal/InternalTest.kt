@@ -16,8 +16,11 @@
 package com.squareup.wire.internal
 
 import assertk.assertThat
+import assertk.assertions.isEmpty
 import assertk.assertions.isEqualTo
+import assertk.assertions.isFalse
 import assertk.assertions.isNotNull
+import assertk.assertions.isSameInstanceAs
 import com.squareup.wire.wireVersion
 import kotlin.test.Test
 
@@ -100,6 +103,75 @@ class InternalTest {
     assertThat(camelCase("hello_🦕_world", upperCamel = true)).isEqualTo("Hello🦕World")
   }
 
+  @Test fun immutableCopyOfTakesOverNewMutableList() {
+    val list = newMutableList<String>()
+    list += "a"
+    val copy = immutableCopyOf("list", list)
+    assertThat(immutableCopyOf("list", list)).isSameInstanceAs(copy)
+
+    list += "b"
+    assertThat(copy).isEqualTo(listOf("a"))
+    assertThat(list).isEqualTo(listOf("a", "b"))
+  }
+
+  @Test fun immutableCopyOfCopiesUserList() {
+    val list = mutableListOf("a")
+    val copy = immutableCopyOf("list", list)
+
+    list += "b"
+    assertThat(copy).isEqualTo(listOf("a"))
+  }
+
+  @Test fun copyOfMapSharesUntilMutated() {
+    val immutable = immutableCopyOf("map", mapOf("a" to 1))
+    val copy = copyOf(immutable)
+    assertThat(copy["a"]).isEqualTo(1)
+    assertThat(immutableCopyOf("map", copy)).isSameInstanceAs(immutable)
+
+    copy["b"] = 2
+    assertThat(immutable).isEqualTo(mapOf("a" to 1))
+    assertThat(immutableCopyOf("map", copy)).isEqualTo(mapOf("a" to 1, "b" to 2))
+  }
+
+  @Test fun copyOfMapSharesWhenRead() {
+    val immutable = immutableCopyOf("map", mapOf("a" to 1, "b" to 2))
+    val copy = copyOf(immutable)
+    assertThat(copy.entries.map { it.key to it.value }).isEqualTo(listOf("a" to 1, "b" to 2))
+    assertThat(copy.keys.toList()).isEqualTo(listOf("a", "b"))
+    assertThat(copy.values.toList()).isEqualTo(listOf(1, 2))
+    assertThat(copy.toString()).isEqualTo("{a=1, b=2}")
+    assertThat(copy.hashCode()).isEqualTo(mapOf("a" to 1, "b" to 2).hashCode())
+    assertThat(copy).isEqualTo(mapOf("a" to 1, "b" to 2))
+    assertThat(immutableCopyOf("map", copy)).isSameInstanceAs(immutable)
+  }
+
+  @Test fun copyOfMapEntriesWriteThrough() {
+    val immutable = immutableCopyOf("map", mapOf("a" to 1, "b" to 2, "c" to 3))
+    val copy = copyOf(immutable)
+    val iterator = copy.entries.iterator()
+    iterator.next().setValue(10)
+    iterator.next()
+    iterator.remove()
+    assertThat(iterator.next().key).isEqualTo("c")
+    assertThat(iterator.hasNext()).isFalse()
+    assertThat(copy).isEqualTo(mapOf("a" to 10, "c" to 3))
+    assertThat(immutable).isEqualTo(mapOf("a" to 1, "b" to 2, "c" to 3))
+  }
+
+  @Test fun decodeIntoReusesArrayLists() {
+    val list = arrayListOf("a", "b", "c")
+    assertThat(reusableListOf(list)).isSameInstanceAs(list)
+    truncateList(list, 1)
+    assertThat(list).isEqualTo(listOf("a"))
+    assertThat(clearedListOf(list)).isSameInstanceAs(list)
+    assertThat(list).isEmpty()
+
+    val immutable = immutableCopyOf("list", listOf("a"))
+    assertThat(reusableListOf(immutable)).isEqualTo(listOf("a"))
+    assertThat(clearedListOf(immutable)).isEmpty()
+    assertThat(immutable).isEqualTo(listOf("a"))
+  }
+
   @Test fun versionIsExposed() {
     assertThat(wireVersion).isNotNull()
   }
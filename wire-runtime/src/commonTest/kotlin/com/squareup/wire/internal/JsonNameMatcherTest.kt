@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.isEqualTo
+import kotlin.test.Test
+
+class JsonNameMatcherTest {
+  @Test
+  fun jsonAndAlternateNames() {
+    val matcher = JsonNameMatcher(
+      jsonNames = listOf("customerId", "name", "public"),
+      jsonAlternateNames = listOf("customer_id", null, "public_"),
+    )
+    assertThat(matcher.names).containsExactly("customerId", "name", "public", "customer_id", "public_")
+    assertThat(matcher.fieldIndex("customerId")).isEqualTo(0)
+    assertThat(matcher.fieldIndex("customer_id")).isEqualTo(0)
+    assertThat(matcher.fieldIndex("name")).isEqualTo(1)
+    assertThat(matcher.fieldIndex("public_")).isEqualTo(2)
+    assertThat(matcher.fieldIndex("customerid")).isEqualTo(-1)
+    assertThat(matcher.fieldIndex("")).isEqualTo(-1)
+    assertThat(matcher.fieldIndexOfName(3)).isEqualTo(0)
+  }
+
+  @Test
+  fun jsonNamesTakePrecedenceOverAlternateNames() {
+    val matcher = JsonNameMatcher(
+      jsonNames = listOf("fooBar", "foo_bar"),
+      jsonAlternateNames = listOf("foo_bar", null),
+    )
+    assertThat(matcher.names).containsExactly("fooBar", "foo_bar")
+    assertThat(matcher.fieldIndex("foo_bar")).isEqualTo(1)
+  }
+
+  @Test
+  fun manyNames() {
+    val jsonNames = List(2_000) { "field$it" }
+    val matcher = JsonNameMatcher(jsonNames, jsonNames.map { "field_$it" })
+    for (i in jsonNames.indices) {
+      assertThat(matcher.fieldIndex("field$i")).isEqualTo(i)
+      assertThat(matcher.fieldIndex("field_field$i")).isEqualTo(i)
+    }
+    assertThat(matcher.fieldIndex("field2000")).isEqualTo(-1)
+  }
+
+  @Test
+  fun noNames() {
+    val matcher = JsonNameMatcher(emptyList(), emptyList())
+    assertThat(matcher.fieldIndex("name")).isEqualTo(-1)
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.isEqualTo
+import assertk.assertions.isFalse
+import assertk.assertions.isInstanceOf
+import assertk.assertions.isNull
+import assertk.assertions.isSameInstanceAs
+import assertk.assertions.isTrue
+import com.squareup.wire.ProtoAdapter
+import com.squareup.wire.ProtoReader32
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+class StructTreeTest {
+  private val struct = linkedMapOf(
+    "name" to "pizza",
+    "price" to 12.5,
+    "vegetarian" to true,
+    "discount" to null,
+    "toppings" to listOf("cheese", "basil", listOf(1.0, 2.0), mapOf<String, Any?>()),
+    "oven" to mapOf("temperature" to 450.0, "wood" to false),
+  )
+
+  @Test
+  fun copyIsEqualToSource() {
+    val copy = immutableCopyOfStruct("struct", struct)
+    assertThat(copy).isInstanceOf<StructView>()
+    assertThat(copy).isEqualTo(struct)
+    assertThat(copy.hashCode()).isEqualTo(struct.hashCode())
+    assertThat(copy.toString()).isEqualTo(struct.toString())
+    assertThat(copy.keys).containsExactly("name", "price", "vegetarian", "discount", "toppings", "oven")
+    assertThat(copy["price"]).isEqualTo(12.5)
+    assertThat(copy.containsKey("discount")).isTrue()
+    assertThat(copy.containsKey("crust")).isFalse()
+    assertThat(copy["crust"]).isNull()
+    assertThat((copy["toppings"] as List<*>)[2]).isEqualTo(listOf(1.0, 2.0))
+  }
+
+  @Test
+  fun alreadyCopiedIsNotCopiedAgain() {
+    val copy = immutableCopyOfStruct("struct", struct)
+    assertThat(immutableCopyOfStruct("struct", copy)).isSameInstanceAs(copy)
+  }
+
+  @Test
+  fun largeMap() {
+    val source = linkedMapOf<String, Any?>()
+    for (i in 0 until 100) {
+      source["key $i"] = i.toDouble()
+    }
+    val copy = immutableCopyOfStruct("struct", source)
+    assertThat(copy).isEqualTo(source)
+    for (i in 0 until 100) {
+      assertThat(copy["key $i"]).isEqualTo(i.toDouble())
+    }
+    assertThat(copy["key 100"]).isNull()
+  }
+
+  @Test
+  fun listIndexOutOfBounds() {
+    val copy = immutableCopyOfStruct("struct", listOf("a", "b"))
+    assertFailsWith<IndexOutOfBoundsException> {
+      copy[2]
+    }
+  }
+
+  @Test
+  fun duplicateKeysKeepLastValue() {
+    val builder = StructTreeBuilder()
+    val node = builder.beginMap(key = null)
+    builder.addNumber("a", 1.0)
+    builder.addNumber("b", 2.0)
+    builder.addNumber("a", 3.0)
+    builder.end(node)
+    assertThat(builder.build().value(0)).isEqualTo(mapOf("b" to 2.0, "a" to 3.0))
+  }
+
+  @Test
+  fun nonStringKeysAreCopiedWithoutTree() {
+    val copy = immutableCopyOfStruct("struct", mapOf(1.0 to "one"))
+    assertThat(copy).isEqualTo(mapOf(1.0 to "one"))
+    assertThat(copy is StructView).isFalse()
+  }
+
+  @Test
+  fun nonStructValueIsRejected() {
+    val exception = assertFailsWith<IllegalArgumentException> {
+      immutableCopyOfStruct("struct", mapOf("a" to listOf(1)))
+    }
+    assertThat(exception.message).isEqualTo(
+      "struct value struct must be a JSON type " +
+        "(null, Boolean, Double, String, List, or Map) but was ${Int::class}: 1",
+    )
+  }
+
+  @Test
+  fun encodeAndDecode() {
+    val bytes = ProtoAdapter.STRUCT_MAP.encodeByteString(struct)
+    val decoded = ProtoAdapter.STRUCT_MAP.decode(bytes)!!
+    assertThat(decoded).isInstanceOf<StructView>()
+    assertThat(decoded).isEqualTo(struct)
+    assertThat(ProtoAdapter.STRUCT_MAP.encodeByteString(decoded)).isEqualTo(bytes)
+  }
+
+  @Test
+  fun decodeWithProtoReader32() {
+    val bytes = ProtoAdapter.STRUCT_MAP.encodeByteString(struct)
+    val decoded = ProtoAdapter.STRUCT_MAP.decode(ProtoReader32(bytes))!!
+    assertThat(decoded).isInstanceOf<StructView>()
+    assertThat(decoded).isEqualTo(struct)
+
+    val list = struct["toppings"] as List<*>
+    val listBytes = ProtoAdapter.STRUCT_LIST.encodeByteString(list)
+    val decodedList = ProtoAdapter.STRUCT_LIST.decode(ProtoReader32(listBytes))!!
+    assertThat(decodedList).isInstanceOf<StructView>()
+    assertThat(decodedList).isEqualTo(list)
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@file:JvmName("DelimitedMessages")
+
+package com.squareup.wire
+
+import com.squareup.wire.DelimitedMessageSource.Companion.DEFAULT_MAX_MESSAGE_SIZE
+import java.nio.channels.Channels
+import java.nio.channels.ReadableByteChannel
+import java.nio.channels.WritableByteChannel
+import okio.buffer
+import okio.sink
+import okio.source
+
+/**
+ * Returns a source that reads length-prefixed messages from this channel, such as a
+ * [java.nio.channels.FileChannel] or a blocking [java.nio.channels.SocketChannel].
+ *
+ * Reads go directly into okio's segment buffers; there is no intermediate [java.nio.ByteBuffer].
+ * The channel must be in blocking mode.
+ */
+@JvmOverloads
+fun <T : Any> ReadableByteChannel.delimitedMessageSource(
+  messageAdapter: ProtoAdapter<T>,
+  framing: MessageFraming = MessageFraming.VARINT,
+  maxMessageSize: Int = DEFAULT_MAX_MESSAGE_SIZE,
+): DelimitedMessageSource<T> = DelimitedMessageSource(
+  source = Channels.newInputStream(this).source().buffer(),
+  messageAdapter = messageAdapter,
+  framing = framing,
+  maxMessageSize = maxMessageSize,
+)
+
+/**
+ * Returns a sink that writes length-prefixed messages to this channel, such as a
+ * [java.nio.channels.FileChannel] or a blocking [java.nio.channels.SocketChannel].
+ *
+ * Writes go directly from okio's segment buffers; there is no intermediate
+ * [java.nio.ByteBuffer]. The channel must be in blocking mode.
+ */
+@JvmOverloads
+fun <T : Any> WritableByteChannel.delimitedMessageSink(
+  messageAdapter: ProtoAdapter<T>,
+  framing: MessageFraming = MessageFraming.VARINT,
+  flushInterval: Int = 1,
+): DelimitedMessageSink<T> = DelimitedMessageSink(
+  sink = Channels.newOutputStream(this).sink().buffer(),
+  messageAdapter = messageAdapter,
+  framing = framing,
+  flushInterval = flushInterval,
+)
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+/**
+ * Receives timing as JSON adapters for Wire messages are created ahead of their first use, with
+ * `WireJsonAdapterFactory.prewarm()`, `WireTypeAdapterFactory.prewarm()`, or `ProtoJson.prewarm()`.
+ *
+ * Methods are invoked on the threads doing the work, so implementations must be thread safe.
+ */
+abstract class JsonPrewarmListener {
+  /**
+   * Invoked after the adapter for [type], and the adapters for the types it references, were
+   * created.
+   */
+  open fun adapterCreated(type: Class<*>, elapsedNanos: Long) {
+  }
+
+  /** Invoked if creating the adapter for [type] failed. */
+  open fun adapterFailed(type: Class<*>, exception: Throwable) {
+  }
+
+  /** Invoked once after adapters were created for all [typeCount] types, successfully or not. */
+  open fun prewarmFinished(typeCount: Int, elapsedNanos: Long) {
+  }
+
+  companion object {
+    @JvmField
+    val NONE: JsonPrewarmListener = object : JsonPrewarmListener() {
+    }
+  }
+}
@@ -17,9 +17,16 @@
 
 package com.squareup.wire
 
+import com.squareup.wire.internal.DecodingSpliterator
+import com.squareup.wire.internal.ForkJoinRepeatedFieldEncoder
+import com.squareup.wire.internal.ParallelEncodingProtoAdapter
+import com.squareup.wire.internal.ToStringWriter
 import com.squareup.wire.internal.createRuntimeMessageAdapter
+import com.squareup.wire.internal.decodeAllParallel
 import java.io.InputStream
 import java.io.OutputStream
+import java.util.Spliterator
+import java.util.concurrent.ForkJoinPool
 import kotlin.reflect.KClass
 import okio.BufferedSink
 import okio.BufferedSource
@@ -140,6 +147,20 @@ actual abstract class ProtoAdapter<E> actual constructor(
   @Throws(IOException::class)
   actual open fun decode(reader: ProtoReader32): E = decode(reader.asProtoReader())
 
+  /**
+   * Read a non-null value from `reader` into [existing], reusing its storage where possible.
+   * Adapters for mutable message types reset and refill [existing] in place, reusing its nested
+   * messages and lists, and return it. Other adapters return a newly-decoded value.
+   *
+   * If decoding fails, [existing] may be left partially updated.
+   */
+  @Throws(IOException::class)
+  actual open fun decodeInto(reader: ProtoReader, existing: E): E = decode(reader)
+
+  /** Read a non-null value from `reader` into [existing], reusing its storage where possible. */
+  @Throws(IOException::class)
+  actual open fun decodeInto(reader: ProtoReader32, existing: E): E = decodeInto(reader.asProtoReader(), existing)
+
   @Throws(IOException::class)
   actual fun decode(bytes: ByteArray): E = commonDecode(bytes)
 
@@ -158,8 +179,86 @@ actual abstract class ProtoAdapter<E> actual constructor(
   @Throws(IOException::class)
   fun decode(stream: InputStream): E = decode(stream.source().buffer())
 
+  /**
+   * Decodes each of [messages] and returns the decoded values in the same order. The work is split
+   * across the workers of [pool], each of which reuses one reader for the messages it decodes.
+   *
+   * To limit the number of threads, pass a [ForkJoinPool] created with the desired parallelism and
+   * reuse it across calls.
+   */
+  @Throws(IOException::class)
+  @JvmOverloads
+  fun decodeAll(
+    messages: List<ByteArray>,
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+  ): List<E> = decodeAllParallel(messages, pool)
+
+  /**
+   * Decodes each of [messages] and returns the decoded values in the same order. The work is split
+   * across the workers of [pool], each of which reuses one reader for the messages it decodes.
+   */
+  @Throws(IOException::class)
+  @JvmOverloads
+  @JvmName("decodeAllByteStrings")
+  fun decodeAll(
+    messages: List<ByteString>,
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+  ): List<E> = decodeAllParallel(messages, pool)
+
+  /**
+   * Returns a spliterator that decodes [messages] lazily, in order. Use it with
+   * [java.util.stream.StreamSupport] to decode with a parallel stream:
+   *
+   * ```
+   * Stream<Person> people = StreamSupport.stream(Person.ADAPTER.decodeSpliterator(batch), true);
+   * ```
+   *
+   * Each split of the spliterator reuses one reader for the messages it decodes.
+   */
+  fun decodeSpliterator(messages: List<ByteArray>): Spliterator<E> =
+    DecodingSpliterator(this, messages, 0, messages.size)
+
+  /** Returns a spliterator that decodes [messages] lazily, in order. */
+  @JvmName("decodeSpliteratorByteStrings")
+  fun decodeSpliterator(messages: List<ByteString>): Spliterator<E> =
+    DecodingSpliterator(this, messages, 0, messages.size)
+
   actual open fun toString(value: E): String = commonToString(value)
 
+  /**
+   * Writes a human-readable version of [value] to [appendable] as it is produced, rather than
+   * building the entire string in memory. Deep nesting, long lists and maps, and long strings and
+   * byte strings are elided according to [limits].
+   *
+   * Messages are written field by field using reflection, so this is suitable for logging
+   * messages that are too large to format with [toString].
+   */
+  actual fun toString(value: E, appendable: Appendable, limits: ToStringLimits) {
+    commonToString(value, appendable, limits)
+  }
+
+  internal actual open fun appendTo(value: E, writer: ToStringWriter) {
+    writer.appendValue(value)
+  }
+
+  /**
+   * Returns the fields that differ between the messages [old] and [new]. Fields holding messages
+   * that changed in place are diffed recursively, and values that both messages share are skipped
+   * without being compared. Pass the result to [applyPatch] to get a message equal to [new] from
+   * [old].
+   *
+   * The unknown fields of [old] and [new] are not compared.
+   *
+   * Messages are accessed field by field using reflection. Other types are not supported.
+   */
+  actual fun diff(old: E, new: E): MessagePatch = commonDiff(old, new)
+
+  /**
+   * Returns a copy of [old] with the changes in [patch], computed by [diff], applied. The unknown
+   * fields of [old] are retained.
+   */
+  actual fun applyPatch(old: E, patch: MessagePatch): E = commonApplyPatch(old, patch)
+
   internal actual fun withLabel(label: WireField.Label): ProtoAdapter<*> = commonWithLabel(label)
 
   actual fun asPacked(): ProtoAdapter<List<E>> {
@@ -175,6 +274,30 @@ actual abstract class ProtoAdapter<E> actual constructor(
     "Can't create a repeated adapter from a repeated or packed adapter.",
   )
 
+  /**
+   * Returns an adapter for `E` that skips unknown fields when decoding, at every level of nesting.
+   * Use this when decoded values are never re-encoded, as their unknown fields would be lost.
+   */
+  actual fun discardingUnknownFields(): ProtoAdapter<E> = UnknownFieldsDiscardingProtoAdapter(this)
+
+  /**
+   * Returns an adapter for `E` that encodes large repeated fields concurrently on [pool]. A
+   * repeated field with at least [threshold] elements is split into chunks that are encoded on
+   * separate workers and then concatenated, so the output is identical to [encode]'s.
+   *
+   * This only speeds up encoding to an [okio.BufferedSink], a [ByteArray], or a [ByteString];
+   * those use a [ReverseProtoWriter]. Use it for messages with hundreds of thousands of elements
+   * in a field; for smaller messages the coordination costs more than it saves.
+   */
+  @JvmOverloads
+  fun parallelEncoding(
+    pool: ForkJoinPool = ForkJoinPool.commonPool(),
+    threshold: Int = 10_000,
+  ): ProtoAdapter<E> {
+    require(threshold >= 1) { "threshold < 1: $threshold" }
+    return ParallelEncodingProtoAdapter(this, ForkJoinRepeatedFieldEncoder(pool, threshold))
+  }
+
   internal val isStruct: Boolean
     get() = this == STRUCT_MAP || this == STRUCT_LIST || this == STRUCT_VALUE || this == STRUCT_NULL
 
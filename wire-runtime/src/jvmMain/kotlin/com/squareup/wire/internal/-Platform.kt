@@ -15,7 +15,11 @@
  */
 package com.squareup.wire.internal
 
+import com.squareup.wire.Message
+import com.squareup.wire.ProtoAdapter
+import java.lang.ref.WeakReference
 import java.util.Collections
+import java.util.WeakHashMap
 
 actual typealias Serializable = java.io.Serializable
 
@@ -39,6 +43,41 @@ actual inline fun <T> MutableList<T>.toUnmodifiableList(): List<T> =
 actual inline fun <K, V> MutableMap<K, V>.toUnmodifiableMap(): Map<K, V> =
   Collections.unmodifiableMap(this)
 
+/**
+ * Reflective adapters by message class, or [NO_REFLECTIVE_ADAPTER] if reflection can't be used.
+ * Adapters reference their message class, so they are held weakly; otherwise this map would keep
+ * unused classes and their class loaders from being unloaded. Soft references aren't enough as
+ * they're only cleared under memory pressure. `ClassValue` would be a better fit, but Android
+ * doesn't have it.
+ */
+private val reflectiveAdapters: MutableMap<Class<*>, WeakReference<Any>> =
+  Collections.synchronizedMap(WeakHashMap())
+
+private val NO_REFLECTIVE_ADAPTER = Any()
+
+@Suppress("UNCHECKED_CAST")
+internal actual fun reflectiveAdapterOrNull(message: Message<*, *>): ProtoAdapter<Any>? {
+  val messageType = message.javaClass
+  val adapter = reflectiveAdapters[messageType]?.get()
+    ?: createReflectiveAdapter(message).also {
+      reflectiveAdapters[messageType] = WeakReference(it)
+    }
+  return if (adapter === NO_REFLECTIVE_ADAPTER) null else adapter as ProtoAdapter<Any>
+}
+
+@Suppress("UNCHECKED_CAST")
+private fun createReflectiveAdapter(message: Message<*, *>): Any = try {
+  val runtimeAdapter = createRuntimeMessageAdapter<Nothing, Nothing>(
+    messageType = message.javaClass as Class<Nothing>,
+    typeUrl = message.adapter.typeUrl,
+    syntax = message.adapter.syntax,
+  )
+  // Hand-written messages like AnyMessage have no annotated fields; use their toString().
+  if (runtimeAdapter.fields.isEmpty()) NO_REFLECTIVE_ADAPTER else runtimeAdapter
+} catch (_: RuntimeException) {
+  NO_REFLECTIVE_ADAPTER
+}
+
 actual fun camelCase(string: String, upperCamel: Boolean): String = buildString(string.length) {
   var index = 0
   var uppercase = upperCamel
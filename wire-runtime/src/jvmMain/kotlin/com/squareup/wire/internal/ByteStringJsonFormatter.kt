@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2020 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import okio.Buffer
+import okio.BufferedSink
+import okio.BufferedSource
+import okio.ByteString
+import okio.ByteString.Companion.decodeBase64
+
+/** Encodes a byte string as base64. */
+object ByteStringJsonFormatter : Utf8JsonFormatter<ByteString> {
+  override fun toStringOrNumber(value: ByteString) = value.base64()
+
+  override fun fromString(value: String) = value.decodeBase64()
+
+  override fun writeUtf8(value: ByteString, sink: BufferedSink) {
+    sink.writeByte('"'.code)
+    sink.writeBase64(value)
+    sink.writeByte('"'.code)
+  }
+
+  override fun parseUtf8(buffer: Buffer, byteCount: Long): ByteString? {
+    val decoder = Base64Decoder()
+    buffer.readUnsafe().use { cursor ->
+      var remaining = byteCount
+      cursor.seek(0L)
+      while (remaining > 0L) {
+        val end = minOf(cursor.end.toLong(), cursor.start + remaining).toInt()
+        for (i in cursor.start until end) {
+          if (!decoder.append(cursor.data!![i].toInt())) return null
+        }
+        remaining -= end - cursor.start
+        cursor.next()
+      }
+    }
+    return decoder.finish()
+  }
+
+  /**
+   * Decodes a JSON string like `"AAEC"`, including its quotes, from [source]. Unlike
+   * [fromString] this doesn't need the whole value in memory as a string.
+   */
+  fun readJsonString(source: BufferedSource): ByteString? {
+    if (source.readByte() != '"'.code.toByte()) return null
+    val decoder = Base64Decoder()
+    while (true) {
+      val c = when (val b = source.readByte().toInt()) {
+        '"'.code -> return decoder.finish()
+        '\\'.code -> readEscape(source)
+        else -> b
+      }
+      if (!decoder.append(c)) return null
+    }
+  }
+
+  /** Returns the character escaped by the backslash just consumed from [source], or -1. */
+  private fun readEscape(source: BufferedSource): Int = when (val c = source.readByte().toInt()) {
+    'u'.code -> source.readUtf8(4L).toIntOrNull(16) ?: -1
+    'n'.code -> '\n'.code
+    'r'.code -> '\r'.code
+    't'.code -> '\t'.code
+    '"'.code, '\\'.code, '/'.code -> c
+    else -> -1
+  }
+}
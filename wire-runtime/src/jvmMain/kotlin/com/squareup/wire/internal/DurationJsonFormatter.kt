@@ -16,6 +16,8 @@
 package com.squareup.wire.internal
 
 import com.squareup.wire.Duration
+import okio.Buffer
+import okio.BufferedSink
 
 /**
  * Encode a duration as a JSON string like "1.200s". From the spec:
@@ -27,34 +29,24 @@ import com.squareup.wire.Duration
  * Note that [Duration] always returns a positive nanosPart, so "-1.200s" is represented as -2
  * seconds and 800_000_000 nanoseconds.
  */
-object DurationJsonFormatter : JsonFormatter<Duration> {
-  override fun toStringOrNumber(value: Duration): String {
-    var seconds = value.seconds
-    var nanos = value.nano
-    var prefix = ""
-    if (seconds < 0L) {
-      if (seconds == Long.MIN_VALUE) {
-        prefix = "-922337203685477580" // Avoid overflow inverting MIN_VALUE.
-        seconds = 8
-      } else {
-        prefix = "-"
-        seconds = -seconds
-      }
-      if (nanos != 0) {
-        seconds -= 1L
-        nanos = 1_000_000_000 - nanos
-      }
-    }
-    return when {
-      nanos == 0 -> "%s%ds".format(prefix, seconds)
-      nanos % 1_000_000 == 0 -> "%s%d.%03ds".format(prefix, seconds, nanos / 1_000_000L)
-      nanos % 1_000 == 0 -> "%s%d.%06ds".format(prefix, seconds, nanos / 1_000L)
-      else -> "%s%d.%09ds".format(prefix, seconds, nanos / 1L)
-    }
+object DurationJsonFormatter : Utf8JsonFormatter<Duration> {
+  override fun toStringOrNumber(value: Duration): String = Buffer().apply { writeDuration(value) }.readUtf8()
+
+  override fun writeUtf8(value: Duration, sink: BufferedSink) {
+    sink.writeByte('"'.code)
+    sink.writeDuration(value)
+    sink.writeByte('"'.code)
+  }
+
+  override fun parseUtf8(buffer: Buffer, byteCount: Long): Duration? {
+    if (byteCount > 32L) return null
+    return parseDurationOrNull(byteCount.toInt()) { buffer[it.toLong()].toInt() }
   }
 
   /** Throws a NumberFormatException if the string isn't a number like "1s" or "1.23456789s". */
   override fun fromString(value: String): Duration {
+    parseDurationOrNull(value.length) { value[it].code }?.let { return it }
+
     val sIndex = value.indexOf('s')
     if (sIndex != value.length - 1) throw NumberFormatException()
 
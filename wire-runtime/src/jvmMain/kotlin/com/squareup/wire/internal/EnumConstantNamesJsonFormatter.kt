@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+/**
+ * Encodes enums that have no generated class using their constant names, and constants that
+ * aren't known using their tags. Decodes using either their names or their tags.
+ */
+class EnumConstantNamesJsonFormatter(
+  private val constants: EnumConstantNames,
+) : JsonFormatter<Any> {
+  override fun fromString(value: String): Any? {
+    if (constants.constantTag(value) != null) return value
+    val tag = value.toIntOrNull() ?: return null
+    return constants.constantName(tag) ?: tag
+  }
+
+  override fun toStringOrNumber(value: Any): Any = when (value) {
+    is String -> value
+    is Int -> constants.constantName(value) ?: value
+    else -> throw IllegalArgumentException("unexpected enum value: $value")
+  }
+}
@@ -40,6 +40,8 @@ class FieldBinding<M : Message<M, B>, B : Message.Builder<M, B>> internal constr
   override val declaredName: String =
     if (wireField.declaredName.isEmpty()) messageField.name else wireField.declaredName
   override val tag: Int = wireField.tag
+  override val oneOfName: String? =
+    if (wireField.label.isOneOf && wireField.oneofName.isNotEmpty()) wireField.oneofName else null
   private val keyAdapterString = wireField.keyAdapter
   private val adapterString = wireField.adapter
   override val redacted: Boolean = wireField.redacted
@@ -16,8 +16,9 @@
 package com.squareup.wire.internal
 
 import com.squareup.wire.Instant
-import java.time.format.DateTimeFormatter.ISO_INSTANT
 import java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME
+import okio.Buffer
+import okio.BufferedSink
 
 /**
  * Encode an instant as a JSON string like "1950-01-01T00:00:00Z". From the spec:
@@ -25,10 +26,23 @@ import java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME
  * > Uses RFC 3339, where generated output will always be Z-normalized and uses 0, 3, 6 or 9
  * > fractional digits. Offsets other than "Z" are also accepted.
  */
-object InstantJsonFormatter : JsonFormatter<Instant> {
-  override fun toStringOrNumber(value: Instant): Any = ISO_INSTANT.format(value)
+object InstantJsonFormatter : Utf8JsonFormatter<Instant> {
+  override fun toStringOrNumber(value: Instant): Any = Buffer().apply { writeInstant(value) }.readUtf8()
+
+  override fun writeUtf8(value: Instant, sink: BufferedSink) {
+    sink.writeByte('"'.code)
+    sink.writeInstant(value)
+    sink.writeByte('"'.code)
+  }
+
+  override fun parseUtf8(buffer: Buffer, byteCount: Long): Instant? {
+    if (byteCount > 40L) return null
+    return parseInstantOrNull(byteCount.toInt()) { buffer[it.toLong()].toInt() }
+  }
 
   override fun fromString(value: String): Instant {
+    parseInstantOrNull(value.length) { value[it].code }?.let { return it }
+
     val parsed = ISO_OFFSET_DATE_TIME.parse(value)
     return Instant.from(parsed)
   }
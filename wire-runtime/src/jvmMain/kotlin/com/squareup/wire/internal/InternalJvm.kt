@@ -35,6 +35,12 @@ fun <T> redactElements(map: MutableMap<*, T>, adapter: ProtoAdapter<T>) {
   }
 }
 
+/** Returns [list] with each element redacted, or [list] itself if redacting changes nothing. */
+fun <T> redactedElements(list: List<T>, adapter: ProtoAdapter<T>): List<T> = list.redactElements(adapter)
+
+/** Returns [map] with each value redacted, or [map] itself if redacting changes nothing. */
+fun <K, V> redactedElements(map: Map<K, V>, adapter: ProtoAdapter<V>): Map<K, V> = map.redactElements(adapter)
+
 /** The enum with constant 0. This is non-null for proto3 enum types. */
 val <E : WireEnum> Class<E>.identityOrNull: E?
   get() = enumConstants.firstOrNull { (it as WireEnum).value == 0 }
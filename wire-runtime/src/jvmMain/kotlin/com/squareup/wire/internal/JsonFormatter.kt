@@ -15,6 +15,9 @@
  */
 package com.squareup.wire.internal
 
+import okio.Buffer
+import okio.BufferedSink
+
 /** Transforms a scalar value to and from JSON. */
 interface JsonFormatter<W : Any> {
   /** The source of [value] may have been a string or numeric literal. */
@@ -23,3 +26,20 @@ interface JsonFormatter<W : Any> {
   /** Returns either a String or a Number. */
   fun toStringOrNumber(value: W): Any
 }
+
+/**
+ * A [JsonFormatter] that also writes and parses its values as UTF-8 bytes. JSON layers that work on
+ * bytes use this to skip creating a string for each value.
+ */
+interface Utf8JsonFormatter<W : Any> : JsonFormatter<W> {
+  /** Writes [value] as a JSON number, or as a JSON string including its quotes. */
+  fun writeUtf8(value: W, sink: BufferedSink)
+
+  /**
+   * Parses the first [byteCount] bytes of [buffer] without consuming them. These are a number
+   * literal, or the contents of a string that has no escapes. Returns null if they're not in the
+   * common form this parses; callers should then decode the value as a string and call
+   * [fromString].
+   */
+  fun parseUtf8(buffer: Buffer, byteCount: Long): W?
+}
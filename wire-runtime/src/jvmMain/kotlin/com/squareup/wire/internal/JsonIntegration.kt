@@ -21,8 +21,8 @@ import com.squareup.wire.Syntax
 import java.lang.reflect.Type
 import java.math.BigDecimal
 import java.math.BigInteger
-import okio.ByteString
-import okio.ByteString.Companion.decodeBase64
+import okio.Buffer
+import okio.BufferedSink
 
 /**
  * Integrates a JSON library like Moshi or Gson into proto. This rigid interface attempts to make it
@@ -54,6 +54,13 @@ abstract class JsonIntegration<F, A> {
   /** Returns an adapter that applies [jsonStringAdapter] to each value. */
   abstract fun formatterAdapter(jsonStringAdapter: JsonFormatter<*>): A
 
+  /**
+   * Returns an adapter for messages of [messageAdapter], which has no generated message class. Its
+   * messages are maps of field names to values, like those of adapters created from a schema.
+   */
+  open fun schemaMessageAdapter(framework: F, messageAdapter: RuntimeMessageAdapter<*, *>): A =
+    throw IllegalArgumentException("unsupported message type: ${messageAdapter.typeUrl}")
+
   /**
    * Returns a list of adapters that support encoding and decoding JSON objects of each specific
    * message type.
@@ -79,24 +86,34 @@ abstract class JsonIntegration<F, A> {
     val jsonStringAdapter = jsonFormatter(syntax, field.singleAdapter)
     val singleAdapter = when {
       jsonStringAdapter != null -> formatterAdapter(jsonStringAdapter)
+      field.singleAdapter.isSchemaMessage -> schemaMessageAdapter(
+        framework = framework,
+        messageAdapter = field.singleAdapter as RuntimeMessageAdapter<*, *>,
+      )
       else -> frameworkAdapter(framework, field.singleAdapter.type?.javaObjectType as Type)
     }
 
     return when {
-      field.label.isRepeated -> listAdapter(
-        elementAdapter = singleAdapter,
-        // We ignore unrecognized constants in repeated fields for enums.
-        skipNull = jsonStringAdapter is EnumJsonFormatter<*>,
-      )
+      // Map fields of schema messages are labeled repeated.
       field.isMap -> mapAdapter(
         framework = framework,
         keyFormatter = mapKeyJsonFormatter(field.keyAdapter),
         valueAdapter = singleAdapter,
       )
+      field.label.isRepeated -> listAdapter(
+        elementAdapter = singleAdapter,
+        // We ignore unrecognized constants in repeated fields for enums.
+        skipNull = jsonStringAdapter is EnumJsonFormatter<*> ||
+          jsonStringAdapter is EnumConstantNamesJsonFormatter,
+      )
       else -> singleAdapter
     }
   }
 
+  /** Adapters created from a schema have no message class; their messages are maps. */
+  private val ProtoAdapter<*>.isSchemaMessage: Boolean
+    get() = this is RuntimeMessageAdapter<*, *> && type == Map::class
+
   private fun jsonFormatter(syntax: Syntax, protoAdapter: ProtoAdapter<*>): JsonFormatter<*>? {
     when (protoAdapter) {
       ProtoAdapter.BYTES,
@@ -106,6 +123,7 @@ abstract class JsonIntegration<F, A> {
       ProtoAdapter.FIELD_MASK -> return FieldMaskJsonFormatter
       ProtoAdapter.INSTANT -> return InstantJsonFormatter
       is EnumAdapter<*> -> return EnumJsonFormatter(protoAdapter)
+      is EnumConstantNames -> return EnumConstantNamesJsonFormatter(protoAdapter)
     }
 
     if (syntax === Syntax.PROTO_2) {
@@ -153,12 +171,14 @@ abstract class JsonIntegration<F, A> {
   }
 
   /** Encodes a unsigned value without quotes, like `123`. */
-  private object UnsignedLongAsNumberJsonFormatter : JsonFormatter<Long> {
+  private object UnsignedLongAsNumberJsonFormatter : Utf8JsonFormatter<Long> {
     // 2^64, used to convert sint64 values >= 2^63 to unsigned decimal form
     private val power64 = BigInteger("18446744073709551616")
     private val maxLong = BigInteger.valueOf(Long.MAX_VALUE)
 
     override fun fromString(value: String): Long {
+      value.toULongOrNull()?.let { return it.toLong() }
+
       val bigInteger = try {
         BigInteger(value)
       } catch (e: Exception) {
@@ -174,27 +194,46 @@ abstract class JsonIntegration<F, A> {
       value < 0L -> power64.add(BigInteger.valueOf(value))
       else -> value
     }
+
+    override fun writeUtf8(value: Long, sink: BufferedSink) {
+      sink.writeUnsignedDecimalLong(value)
+    }
+
+    override fun parseUtf8(buffer: Buffer, byteCount: Long) = buffer.parseDecimalLongOrNull(byteCount)
   }
 
   /** Encodes an unsigned value with quotes, like `"123"`. */
-  private object UnsignedLongAsStringJsonFormatter : JsonFormatter<Long> {
-    override fun toStringOrNumber(value: Long) = UnsignedLongAsNumberJsonFormatter.toStringOrNumber(value).toString()
+  private object UnsignedLongAsStringJsonFormatter : Utf8JsonFormatter<Long> {
+    override fun toStringOrNumber(value: Long): String = java.lang.Long.toUnsignedString(value)
 
     override fun fromString(value: String) = UnsignedLongAsNumberJsonFormatter.fromString(value)
+
+    override fun writeUtf8(value: Long, sink: BufferedSink) {
+      sink.writeByte('"'.code)
+      sink.writeUnsignedDecimalLong(value)
+      sink.writeByte('"'.code)
+    }
+
+    override fun parseUtf8(buffer: Buffer, byteCount: Long) = buffer.parseDecimalLongOrNull(byteCount)
   }
 
   /** Encodes an signed value with quotes, like `"-123"`. */
-  private object LongAsStringJsonFormatter : JsonFormatter<Long> {
+  private object LongAsStringJsonFormatter : Utf8JsonFormatter<Long> {
     override fun toStringOrNumber(value: Long) = value.toString()
-    override fun fromString(value: String): Long = try {
-      value.toLong()
-    } catch (e: Exception) {
-      BigDecimal(value).longValueExact() // Handle extra trailing values like 5.0.
+    override fun fromString(value: String): Long = value.toLongOrNull()
+      ?: BigDecimal(value).longValueExact() // Handle extra trailing values like 5.0.
+
+    override fun writeUtf8(value: Long, sink: BufferedSink) {
+      sink.writeByte('"'.code)
+      sink.writeDecimalLong(value)
+      sink.writeByte('"'.code)
     }
+
+    override fun parseUtf8(buffer: Buffer, byteCount: Long) = buffer.parseDecimalLongOrNull(byteCount)
   }
 
   /** Encodes a unsigned value without quotes, like `123`. */
-  private object UnsignedIntAsNumberJsonFormatter : JsonFormatter<Int> {
+  private object UnsignedIntAsNumberJsonFormatter : Utf8JsonFormatter<Int> {
     // 2^32, used to convert sint32 values >= 2^31 to unsigned decimal form
     @Suppress("ktlint:standard:property-naming")
     private const val power32 = 1L shl 32
@@ -204,16 +243,27 @@ abstract class JsonIntegration<F, A> {
 
     override fun fromString(value: String): Int {
       val longValue = value.toDouble().toLong() // Handle extra trailing values like 5.0.
-      return when {
-        longValue >= maxInt -> (longValue - power32).toInt()
-        else -> longValue.toInt()
-      }
+      return fromLong(longValue)
+    }
+
+    private fun fromLong(longValue: Long): Int = when {
+      longValue >= maxInt -> (longValue - power32).toInt()
+      else -> longValue.toInt()
     }
 
     override fun toStringOrNumber(value: Int): Any = when {
       value < 0 -> value + power32
       else -> value
     }
+
+    override fun writeUtf8(value: Int, sink: BufferedSink) {
+      sink.writeDecimalLong(value.toLong() and 0xffffffffL)
+    }
+
+    override fun parseUtf8(buffer: Buffer, byteCount: Long): Int? {
+      if (byteCount > 11L) return null
+      return buffer.parseDecimalLongOrNull(byteCount)?.let { fromLong(it) }
+    }
   }
 
   /** Encodes an unsigned value with quotes, like `"123"`. */
@@ -236,12 +286,6 @@ abstract class JsonIntegration<F, A> {
     override fun toStringOrNumber(value: Int) = value.toString()
   }
 
-  /** Encodes a byte string as base64. */
-  private object ByteStringJsonFormatter : JsonFormatter<ByteString> {
-    override fun toStringOrNumber(value: ByteString) = value.base64()
-    override fun fromString(value: String) = value.decodeBase64()
-  }
-
   /** Identity encoder for strings. */
   private object StringJsonFormatter : JsonFormatter<String> {
     override fun toStringOrNumber(value: String) = value
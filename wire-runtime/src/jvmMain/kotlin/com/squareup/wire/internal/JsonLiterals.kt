@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import com.squareup.wire.Duration
+import com.squareup.wire.Instant
+import com.squareup.wire.durationOfSeconds
+import com.squareup.wire.ofEpochSecond
+import java.time.format.DateTimeFormatter.ISO_INSTANT
+import okio.Buffer
+import okio.BufferedSink
+import okio.ByteString
+
+// Writers and parsers for the JSON forms of 64-bit integers, durations, timestamps, and bytes.
+// These work on bytes or chars directly so that the common forms don't need String.format(),
+// BigInteger, java.time's formatters, or a string holding a whole base64 value. The parsers read
+// characters through `charAt` so they can be shared by strings and buffers; they return null on
+// any input they don't handle, which callers then pass to the slower general-purpose parser.
+
+/** Writes [value] as an unsigned decimal, like `18446744073709551615` for -1. */
+fun BufferedSink.writeUnsignedDecimalLong(value: Long) {
+  if (value >= 0L) {
+    writeDecimalLong(value)
+    return
+  }
+  val quotient = java.lang.Long.divideUnsigned(value, 10L)
+  writeDecimalLong(quotient)
+  writeByte('0'.code + (value - quotient * 10L).toInt())
+}
+
+/** Writes [value] like `1.5s`, with 0, 3, 6, or 9 fraction digits. */
+fun BufferedSink.writeDuration(value: Duration) {
+  var seconds = value.seconds
+  var nanos = value.nano
+  if (seconds < 0L) {
+    if (seconds == Long.MIN_VALUE) {
+      writeUtf8("-922337203685477580") // Avoid overflow inverting MIN_VALUE.
+      seconds = 8
+    } else {
+      writeByte('-'.code)
+      seconds = -seconds
+    }
+    if (nanos != 0) {
+      seconds -= 1L
+      nanos = 1_000_000_000 - nanos
+    }
+  }
+  writeDecimalLong(seconds)
+  writeNanos(nanos)
+  writeByte('s'.code)
+}
+
+/**
+ * Writes [value] like `1970-01-01T00:00:00.250Z`, with 0, 3, 6, or 9 fraction digits. This is the
+ * same as [ISO_INSTANT].
+ */
+fun BufferedSink.writeInstant(value: Instant) {
+  val epochSecond = value.epochSecond
+  val secondOfDay = Math.floorMod(epochSecond, 86_400L).toInt()
+
+  // Convert days since 1970-01-01 to a date, using 400-year eras that start on March 1st.
+  val shiftedDay = Math.floorDiv(epochSecond, 86_400L) + 719_468L
+  val era = Math.floorDiv(shiftedDay, 146_097L)
+  val dayOfEra = (shiftedDay - era * 146_097L).toInt()
+  val yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365
+  val dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100)
+  val monthIndex = (5 * dayOfYear + 2) / 153
+  val day = dayOfYear - (153 * monthIndex + 2) / 5 + 1
+  val month = if (monthIndex < 10) monthIndex + 3 else monthIndex - 9
+  val year = era * 400L + yearOfEra + (if (month <= 2) 1 else 0)
+
+  if (year !in 0L..9_999L) {
+    writeUtf8(ISO_INSTANT.format(value)) // Signed and 5+ digit years.
+    return
+  }
+
+  writeDigits(year.toInt(), 4)
+  writeByte('-'.code)
+  writeDigits(month, 2)
+  writeByte('-'.code)
+  writeDigits(day, 2)
+  writeByte('T'.code)
+  writeDigits(secondOfDay / 3_600, 2)
+  writeByte(':'.code)
+  writeDigits(secondOfDay / 60 % 60, 2)
+  writeByte(':'.code)
+  writeDigits(secondOfDay % 60, 2)
+  writeNanos(value.nano)
+  writeByte('Z'.code)
+}
+
+/** Writes a `.` and 3, 6, or 9 digits of [nanos], dropping trailing groups of zeros. */
+private fun BufferedSink.writeNanos(nanos: Int) {
+  when {
+    nanos == 0 -> return
+    nanos % 1_000_000 == 0 -> writeByte('.'.code).writeDigits(nanos / 1_000_000, 3)
+    nanos % 1_000 == 0 -> writeByte('.'.code).writeDigits(nanos / 1_000, 6)
+    else -> writeByte('.'.code).writeDigits(nanos, 9)
+  }
+}
+
+/** Writes non-negative [value] as exactly [count] digits, padding with leading zeros. */
+private fun BufferedSink.writeDigits(value: Int, count: Int) {
+  var divisor = 1
+  for (i in 1 until count) divisor *= 10
+  while (divisor > 0) {
+    writeByte('0'.code + value / divisor % 10)
+    divisor /= 10
+  }
+}
+
+/** Returns the value of the first [length] bytes of this buffer, like `-123`. */
+fun Buffer.parseDecimalLongOrNull(length: Long): Long? {
+  if (length > 19L) return null
+  return parseDecimalLongOrNull(length.toInt()) { this[it.toLong()].toInt() }
+}
+
+/** Returns the integer like `-123` in the first [length] chars, or null if it has 19+ digits. */
+inline fun parseDecimalLongOrNull(length: Int, charAt: (Int) -> Int): Long? {
+  val start = if (length > 0 && charAt(0) == '-'.code) 1 else 0
+  if (length - start !in 1..18) return null
+  var result = 0L
+  for (i in start until length) {
+    val digit = charAt(i) - '0'.code
+    if (digit !in 0..9) return null
+    result = result * 10L + digit
+  }
+  return if (start == 1) -result else result
+}
+
+/** Returns the duration like `-1.5s` in the first [length] chars. */
+inline fun parseDurationOrNull(length: Int, charAt: (Int) -> Int): Duration? {
+  if (length < 2 || charAt(length - 1) != 's'.code) return null
+  val negative = charAt(0) == '-'.code
+  val end = length - 1
+  val secondsStart = if (negative) 1 else 0
+  var i = secondsStart
+  var seconds = 0L
+  while (i < end) {
+    val digit = charAt(i) - '0'.code
+    if (digit !in 0..9) break
+    seconds = seconds * 10L + digit
+    i++
+  }
+  if (i - secondsStart !in 1..18) return null
+
+  var nanos = 0L
+  if (i < end) {
+    if (charAt(i) != '.'.code) return null
+    val nanosDigits = end - (i + 1)
+    if (nanosDigits !in 1..9) return null
+    nanos = parseDigits(i + 1, nanosDigits, charAt).toLong()
+    if (nanos == -1L) return null
+    for (k in nanosDigits until 9) nanos *= 10L
+  }
+  return when {
+    negative -> durationOfSeconds(-seconds, -nanos)
+    else -> durationOfSeconds(seconds, nanos)
+  }
+}
+
+/**
+ * Returns the RFC 3339 timestamp like `1970-01-01T00:00:00.250Z` or `1970-01-01T01:00:00+01:00` in
+ * the first [length] chars. This doesn't handle leap seconds, omitted seconds, or offsets with
+ * seconds.
+ */
+inline fun parseInstantOrNull(length: Int, charAt: (Int) -> Int): Instant? {
+  if (length < 20) return null
+  if (charAt(4) != '-'.code ||
+    charAt(7) != '-'.code ||
+    (charAt(10) or 0x20) != 't'.code ||
+    charAt(13) != ':'.code ||
+    charAt(16) != ':'.code
+  ) {
+    return null
+  }
+  val year = parseDigits(0, 4, charAt)
+  val month = parseDigits(5, 2, charAt)
+  val day = parseDigits(8, 2, charAt)
+  val hour = parseDigits(11, 2, charAt)
+  val minute = parseDigits(14, 2, charAt)
+  val second = parseDigits(17, 2, charAt)
+  if (year == -1 ||
+    month !in 1..12 ||
+    day !in 1..daysInMonth(year, month) ||
+    hour !in 0..23 ||
+    minute !in 0..59 ||
+    second !in 0..59
+  ) {
+    return null
+  }
+
+  var i = 19
+  var nanos = 0L
+  if (charAt(i) == '.'.code) {
+    val fractionStart = ++i
+    while (i < length && charAt(i) - '0'.code in 0..9) i++
+    val nanosDigits = i - fractionStart
+    if (nanosDigits !in 1..9) return null
+    nanos = parseDigits(fractionStart, nanosDigits, charAt).toLong()
+    for (k in nanosDigits until 9) nanos *= 10L
+  }
+  if (i >= length) return null
+
+  var offsetSeconds = 0
+  when (charAt(i)) {
+    'Z'.code, 'z'.code -> if (i + 1 != length) return null
+    '+'.code, '-'.code -> {
+      if (i + 6 != length || charAt(i + 3) != ':'.code) return null
+      val offsetHours = parseDigits(i + 1, 2, charAt)
+      val offsetMinutes = parseDigits(i + 4, 2, charAt)
+      if (offsetHours !in 0..17 || offsetMinutes !in 0..59) return null
+      offsetSeconds = offsetHours * 3_600 + offsetMinutes * 60
+      if (charAt(i) == '-'.code) offsetSeconds = -offsetSeconds
+    }
+    else -> return null
+  }
+
+  val secondOfDay = hour * 3_600 + minute * 60 + second
+  return ofEpochSecond(epochDay(year, month, day) * 86_400L + secondOfDay - offsetSeconds, nanos)
+}
+
+/** Returns the value of the [count] digits starting at [offset], or -1 if any isn't a digit. */
+inline fun parseDigits(offset: Int, count: Int, charAt: (Int) -> Int): Int {
+  var result = 0
+  for (i in offset until offset + count) {
+    val digit = charAt(i) - '0'.code
+    if (digit !in 0..9) return -1
+    result = result * 10 + digit
+  }
+  return result
+}
+
+/** Returns the number of days since 1970-01-01 in the proleptic Gregorian calendar. */
+fun epochDay(year: Int, month: Int, day: Int): Long {
+  // Count from March 1st so that leap days are at the end of each year.
+  val marchYear = if (month <= 2) year - 1 else year
+  val era = Math.floorDiv(marchYear, 400)
+  val yearOfEra = marchYear - era * 400
+  val dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1
+  val dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear
+  return era * 146_097L + dayOfEra - 719_468L
+}
+
+fun daysInMonth(year: Int, month: Int): Int = when (month) {
+  2 -> if (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) 29 else 28
+  4, 6, 9, 11 -> 30
+  else -> 31
+}
+
+private val BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".encodeToByteArray()
+
+/**
+ * Writes [value] as standard base64 with padding, like [ByteString.base64]. This encodes in chunks
+ * so a large value is never held as one string.
+ */
+fun BufferedSink.writeBase64(value: ByteString) {
+  val chunk = ByteArray(minOf(4_096, (value.size + 2) / 3 * 4))
+  var length = 0
+  var i = 0
+  while (i + 3 <= value.size) {
+    val word = (value[i].toInt() and 0xff shl 16) or
+      (value[i + 1].toInt() and 0xff shl 8) or
+      (value[i + 2].toInt() and 0xff)
+    chunk[length++] = BASE64[word shr 18 and 0x3f]
+    chunk[length++] = BASE64[word shr 12 and 0x3f]
+    chunk[length++] = BASE64[word shr 6 and 0x3f]
+    chunk[length++] = BASE64[word and 0x3f]
+    if (length == chunk.size) {
+      write(chunk, 0, length)
+      length = 0
+    }
+    i += 3
+  }
+  when (value.size - i) {
+    1 -> {
+      val word = value[i].toInt() and 0xff
+      chunk[length++] = BASE64[word shr 2]
+      chunk[length++] = BASE64[word shl 4 and 0x3f]
+      chunk[length++] = '='.code.toByte()
+      chunk[length++] = '='.code.toByte()
+    }
+    2 -> {
+      val word = (value[i].toInt() and 0xff shl 8) or (value[i + 1].toInt() and 0xff)
+      chunk[length++] = BASE64[word shr 10]
+      chunk[length++] = BASE64[word shr 4 and 0x3f]
+      chunk[length++] = BASE64[word shl 2 and 0x3f]
+      chunk[length++] = '='.code.toByte()
+    }
+  }
+  write(chunk, 0, length)
+}
+
+/**
+ * Decodes base64 one character at a time. This accepts the same inputs as `decodeBase64()`: both
+ * the standard and URL-safe alphabets, whitespace anywhere, and optional trailing padding.
+ */
+class Base64Decoder {
+  private val result = Buffer()
+  private var word = 0
+  private var wordLength = 0
+  private var padded = false
+
+  /** Returns false if [c] makes the input invalid. */
+  fun append(c: Int): Boolean {
+    val bits = when (c) {
+      in 'A'.code..'Z'.code -> c - 'A'.code
+      in 'a'.code..'z'.code -> c - 'a'.code + 26
+      in '0'.code..'9'.code -> c - '0'.code + 52
+      '+'.code, '-'.code -> 62
+      '/'.code, '_'.code -> 63
+      '\n'.code, '\r'.code, ' '.code, '\t'.code -> return true
+      '='.code -> {
+        padded = true
+        return true
+      }
+      else -> return false
+    }
+    if (padded) return false // Only padding and whitespace may follow padding.
+
+    word = word shl 6 or bits
+    if (++wordLength == 4) {
+      result.writeByte(word shr 16)
+      result.writeByte(word shr 8)
+      result.writeByte(word)
+      word = 0
+      wordLength = 0
+    }
+    return true
+  }
+
+  /** Returns the decoded bytes, or null if the input ended mid-byte. */
+  fun finish(): ByteString? {
+    when (wordLength) {
+      1 -> return null
+      2 -> result.writeByte(word shr 4)
+      3 -> {
+        result.writeByte(word shr 10)
+        result.writeByte(word shr 2)
+      }
+    }
+    return result.readByteString()
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import com.squareup.wire.JsonPrewarmListener
+import com.squareup.wire.Message
+import com.squareup.wire.TypeRegistry
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Calls [createAdapter] for each of [types] and for each message type in [typeRegistry], each as
+ * its own task on [pool]. Returns a future that completes when all are done. If any failed, the
+ * future fails with the first exception.
+ */
+fun prewarmJsonAdapters(
+  types: Collection<Class<*>>,
+  typeRegistry: TypeRegistry,
+  pool: ForkJoinPool,
+  listener: JsonPrewarmListener,
+  createAdapter: (Class<*>) -> Unit,
+): CompletableFuture<Void?> {
+  val start = System.nanoTime()
+  val registryTypes = typeRegistry.toMap().values
+    .mapNotNull { it.type?.javaObjectType }
+    .filter { Message::class.java.isAssignableFrom(it) }
+  val allTypes = (types + registryTypes).distinct()
+
+  val futures = allTypes.map { type ->
+    CompletableFuture.runAsync(
+      {
+        val typeStart = System.nanoTime()
+        try {
+          createAdapter(type)
+        } catch (e: Throwable) {
+          listener.adapterFailed(type, e)
+          throw e
+        }
+        listener.adapterCreated(type, System.nanoTime() - typeStart)
+      },
+      pool,
+    )
+  }
+
+  return CompletableFuture.allOf(*futures.toTypedArray()).whenComplete { _, _ ->
+    listener.prewarmFinished(allTypes.size, System.nanoTime() - start)
+  }
+}
@@ -47,6 +47,9 @@ internal class OneOfBinding<M : Message<M, B>, B : Message.Builder<M, B>> intern
   override val declaredName: String
     get() = key.declaredName
 
+  override val oneOfName: String
+    get() = messageField.name
+
   override val isMap: Boolean
     get() = false
 
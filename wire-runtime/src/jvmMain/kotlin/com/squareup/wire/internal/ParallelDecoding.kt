@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import com.squareup.wire.ByteArrayProtoReader32
+import com.squareup.wire.ProtoAdapter
+import java.util.Spliterator
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+import java.util.function.Consumer
+import okio.ByteString
+
+/**
+ * Decodes encoded messages one at a time, resetting the same reader for each. Messages in a
+ * [ByteString] are first copied into a scratch array that is also reused. Not thread safe.
+ */
+internal class ReusingDecoder<E>(
+  private val adapter: ProtoAdapter<E>,
+) {
+  private val reader = ByteArrayProtoReader32(EMPTY_BYTE_ARRAY)
+  private var scratch = EMPTY_BYTE_ARRAY
+
+  fun decode(bytes: ByteArray): E {
+    reader.reset(bytes)
+    return adapter.decode(reader)
+  }
+
+  fun decode(bytes: ByteString): E {
+    val size = bytes.size
+    if (scratch.size < size) {
+      scratch = ByteArray(maxOf(size, scratch.size * 2))
+    }
+    bytes.copyInto(0, scratch, 0, size)
+    reader.reset(scratch, 0, size)
+    return adapter.decode(reader)
+  }
+
+  fun decodeEncoded(encoded: Any): E = when (encoded) {
+    is ByteArray -> decode(encoded)
+    else -> decode(encoded as ByteString)
+  }
+
+  private companion object {
+    val EMPTY_BYTE_ARRAY = ByteArray(0)
+  }
+}
+
+/**
+ * Decodes each element of [encoded], which holds either byte arrays or byte strings, on [pool].
+ * The list is split into a few chunks per worker, and each chunk is decoded sequentially with one
+ * [ReusingDecoder].
+ */
+internal fun <E> ProtoAdapter<E>.decodeAllParallel(encoded: List<*>, pool: ForkJoinPool): List<E> {
+  val results = arrayOfNulls<Any>(encoded.size)
+  val chunkSize = maxOf(1, encoded.size / (pool.parallelism * CHUNKS_PER_WORKER))
+  val task = DecodeTask(this, encoded, results, 0, encoded.size, chunkSize)
+  if (encoded.size <= chunkSize) {
+    task.invoke()
+  } else {
+    pool.invoke(task)
+  }
+  @Suppress("UNCHECKED_CAST")
+  return results.asList() as List<E>
+}
+
+/** Enough chunks that workers which finish early can steal work from slower ones. */
+internal const val CHUNKS_PER_WORKER = 4
+
+private class DecodeTask<E>(
+  private val adapter: ProtoAdapter<E>,
+  private val encoded: List<*>,
+  private val results: Array<Any?>,
+  private val from: Int,
+  private val to: Int,
+  private val chunkSize: Int,
+) : RecursiveAction() {
+  override fun compute() {
+    if (to - from <= chunkSize) {
+      val decoder = ReusingDecoder(adapter)
+      for (i in from until to) {
+        results[i] = decoder.decodeEncoded(encoded[i]!!)
+      }
+      return
+    }
+    val middle = (from + to) ushr 1
+    invokeAll(
+      DecodeTask(adapter, encoded, results, from, middle, chunkSize),
+      DecodeTask(adapter, encoded, results, middle, to, chunkSize),
+    )
+  }
+}
+
+/**
+ * Decodes the elements of [encoded] in `[from, to)` as they are traversed. Splitting hands half of
+ * the remaining range to a new spliterator, which gets its own [ReusingDecoder].
+ */
+internal class DecodingSpliterator<E>(
+  private val adapter: ProtoAdapter<E>,
+  private val encoded: List<*>,
+  private var from: Int,
+  private val to: Int,
+) : Spliterator<E> {
+  private var decoder: ReusingDecoder<E>? = null
+
+  private fun decoder(): ReusingDecoder<E> = decoder ?: ReusingDecoder(adapter).also { decoder = it }
+
+  override fun tryAdvance(action: Consumer<in E>): Boolean {
+    if (from >= to) return false
+    action.accept(decoder().decodeEncoded(encoded[from++]!!))
+    return true
+  }
+
+  override fun forEachRemaining(action: Consumer<in E>) {
+    val decoder = decoder()
+    while (from < to) {
+      action.accept(decoder.decodeEncoded(encoded[from++]!!))
+    }
+  }
+
+  override fun trySplit(): Spliterator<E>? {
+    val middle = (from + to) ushr 1
+    if (middle <= from) return null
+    val prefix = DecodingSpliterator(adapter, encoded, from, middle)
+    from = middle
+    return prefix
+  }
+
+  override fun estimateSize(): Long = (to - from).toLong()
+
+  override fun characteristics(): Int =
+    Spliterator.ORDERED or Spliterator.SIZED or Spliterator.SUBSIZED or Spliterator.NONNULL or
+      Spliterator.IMMUTABLE
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import com.squareup.wire.ProtoAdapter
+import com.squareup.wire.ProtoReader
+import com.squareup.wire.ProtoReader32
+import com.squareup.wire.ProtoWriter
+import com.squareup.wire.RepeatedFieldEncoder
+import com.squareup.wire.ReverseProtoWriter
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+import okio.Buffer
+
+/**
+ * Encodes repeated fields with at least [threshold] elements on [pool]. The field is split into a
+ * few chunks per worker; each chunk is encoded into its own buffer, and the buffers are then moved
+ * into the caller's writer in order.
+ */
+internal class ForkJoinRepeatedFieldEncoder(
+  private val pool: ForkJoinPool,
+  private val threshold: Int,
+) : RepeatedFieldEncoder {
+  override fun <E> encodeWithTag(
+    writer: ReverseProtoWriter,
+    tag: Int,
+    adapter: ProtoAdapter<E>,
+    value: List<E>,
+  ): Boolean {
+    if (value.size < threshold) return false
+    val chunks = arrayOfNulls<Buffer>(minOf(pool.parallelism * CHUNKS_PER_WORKER, value.size))
+    pool.invoke(EncodeTask(adapter, tag, value, chunks, 0, chunks.size))
+    for (i in chunks.size - 1 downTo 0) {
+      writer.writeBuffer(chunks[i]!!)
+    }
+    return true
+  }
+}
+
+/** Encodes the elements of each chunk in `[from, to)` into `chunks`. */
+private class EncodeTask<E>(
+  private val adapter: ProtoAdapter<E>,
+  private val tag: Int,
+  private val value: List<E>,
+  private val chunks: Array<Buffer?>,
+  private val from: Int,
+  private val to: Int,
+) : RecursiveAction() {
+  override fun compute() {
+    if (to - from > 1) {
+      val middle = (from + to) ushr 1
+      invokeAll(
+        EncodeTask(adapter, tag, value, chunks, from, middle),
+        EncodeTask(adapter, tag, value, chunks, middle, to),
+      )
+      return
+    }
+    val start = (value.size.toLong() * from / chunks.size).toInt()
+    val end = (value.size.toLong() * to / chunks.size).toInt()
+    val writer = ReverseProtoWriter()
+    for (i in end - 1 downTo start) {
+      adapter.encodeWithTag(writer, tag, value[i])
+    }
+    val buffer = Buffer()
+    writer.writeTo(buffer)
+    chunks[from] = buffer
+  }
+}
+
+/** Installs [repeatedFieldEncoder] on each writer while [originalAdapter] encodes to it. */
+internal class ParallelEncodingProtoAdapter<E>(
+  private val originalAdapter: ProtoAdapter<E>,
+  private val repeatedFieldEncoder: RepeatedFieldEncoder,
+) : ProtoAdapter<E>(
+  originalAdapter.fieldEncoding,
+  originalAdapter.type,
+  originalAdapter.typeUrl,
+  originalAdapter.syntax,
+  originalAdapter.identity,
+  originalAdapter.sourceFile,
+) {
+  override fun encodedSize(value: E): Int = originalAdapter.encodedSize(value)
+
+  override fun encode(writer: ProtoWriter, value: E) {
+    originalAdapter.encode(writer, value)
+  }
+
+  override fun encode(writer: ReverseProtoWriter, value: E) {
+    val previous = writer.repeatedFieldEncoder
+    writer.repeatedFieldEncoder = repeatedFieldEncoder
+    try {
+      originalAdapter.encode(writer, value)
+    } finally {
+      writer.repeatedFieldEncoder = previous
+    }
+  }
+
+  override fun decode(reader: ProtoReader): E = originalAdapter.decode(reader)
+
+  override fun decode(reader: ProtoReader32): E = originalAdapter.decode(reader)
+
+  override fun redact(value: E): E = originalAdapter.redact(value)
+
+  override fun toString(value: E): String = originalAdapter.toString(value)
+
+  override fun appendTo(value: E, writer: ToStringWriter) {
+    originalAdapter.appendTo(value, writer)
+  }
+}
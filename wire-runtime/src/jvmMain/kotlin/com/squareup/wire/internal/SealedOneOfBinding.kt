@@ -63,6 +63,8 @@ internal class SealedOneOfBinding<M : Message<M, B>, B : Message.Builder<M, B>>(
   /** @see WireOneofField.declaredName */
   override val declaredName: String get() = annotation.declaredName
 
+  override val oneOfName: String get() = messageField.name
+
   override val isMap: Boolean get() = false
   override val isMessage: Boolean
     get() = Message::class.java.isAssignableFrom(singleAdapter.type?.javaObjectType)
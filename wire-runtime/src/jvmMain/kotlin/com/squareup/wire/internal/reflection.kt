@@ -18,12 +18,14 @@ package com.squareup.wire.internal
 import com.squareup.wire.FieldEncoding
 import com.squareup.wire.KotlinConstructorBuilder
 import com.squareup.wire.Message
+import com.squareup.wire.MessageJsonCodec
 import com.squareup.wire.OneOf
 import com.squareup.wire.ProtoAdapter
 import com.squareup.wire.Syntax
 import com.squareup.wire.WireField
 import com.squareup.wire.WireOneofField
 import java.lang.reflect.Field
+import java.lang.reflect.Modifier
 import java.util.Collections
 import kotlin.reflect.KClass
 
@@ -119,6 +121,21 @@ fun <M : Message<M, B>, B : Message.Builder<M, B>> createRuntimeMessageAdapter(
   )
 }
 
+/**
+ * Returns the `JSON_CODEC` that Wire generated for [messageType], or null if it was generated
+ * without one.
+ */
+@Suppress("UNCHECKED_CAST")
+fun <M : Message<M, *>> jsonCodecOrNull(messageType: Class<M>): MessageJsonCodec<M>? {
+  val field = try {
+    messageType.getField("JSON_CODEC")
+  } catch (_: NoSuchFieldException) {
+    return null
+  }
+  if (!Modifier.isStatic(field.modifiers)) return null
+  return field.get(null) as? MessageJsonCodec<M>
+}
+
 @Suppress("UNCHECKED_CAST")
 private fun <M : Message<M, B>, B : Message.Builder<M, B>> getBuilderType(
   messageType: Class<M>,
@@ -15,6 +15,7 @@
  */
 package com.squareup.wire
 
+import com.squareup.wire.internal.ToStringWriter
 import kotlin.reflect.KClass
 import okio.BufferedSink
 import okio.BufferedSource
@@ -89,6 +90,18 @@ actual abstract class ProtoAdapter<E> actual constructor(
   /** Read a non-null value from `reader`. */
   actual open fun decode(reader: ProtoReader32): E = decode(reader.asProtoReader())
 
+  /**
+   * Read a non-null value from `reader` into [existing], reusing its storage where possible.
+   * Adapters for mutable message types reset and refill [existing] in place, reusing its nested
+   * messages and lists, and return it. Other adapters return a newly-decoded value.
+   *
+   * If decoding fails, [existing] may be left partially updated.
+   */
+  actual open fun decodeInto(reader: ProtoReader, existing: E): E = decode(reader)
+
+  /** Read a non-null value from `reader` into [existing], reusing its storage where possible. */
+  actual open fun decodeInto(reader: ProtoReader32, existing: E): E = decodeInto(reader.asProtoReader(), existing)
+
   /** Read an encoded message from `bytes`. */
   actual fun decode(bytes: ByteArray): E = commonDecode(bytes)
 
@@ -105,6 +118,41 @@ actual abstract class ProtoAdapter<E> actual constructor(
   /** Returns a human-readable version of the given `value`. */
   actual open fun toString(value: E): String = commonToString(value)
 
+  /**
+   * Writes a human-readable version of [value] to [appendable] as it is produced, rather than
+   * building the entire string in memory. Deep nesting, long lists and maps, and long strings and
+   * byte strings are elided according to [limits].
+   *
+   * Generated messages can't be inspected field by field on this platform, so they are written
+   * with their own `toString()`.
+   */
+  actual fun toString(value: E, appendable: Appendable, limits: ToStringLimits) {
+    commonToString(value, appendable, limits)
+  }
+
+  internal actual open fun appendTo(value: E, writer: ToStringWriter) {
+    writer.appendValue(value)
+  }
+
+  /**
+   * Returns the fields that differ between the messages [old] and [new]. Fields holding messages
+   * that changed in place are diffed recursively, and values that both messages share are skipped
+   * without being compared. Pass the result to [applyPatch] to get a message equal to [new] from
+   * [old].
+   *
+   * The unknown fields of [old] and [new] are not compared.
+   *
+   * Generated messages can't be accessed field by field on this platform, so this only supports
+   * messages whose adapters are created from a schema.
+   */
+  actual fun diff(old: E, new: E): MessagePatch = commonDiff(old, new)
+
+  /**
+   * Returns a copy of [old] with the changes in [patch], computed by [diff], applied. The unknown
+   * fields of [old] are retained.
+   */
+  actual fun applyPatch(old: E, patch: MessagePatch): E = commonApplyPatch(old, patch)
+
   internal actual fun withLabel(label: WireField.Label): ProtoAdapter<*> = commonWithLabel(label)
 
   /** Returns an adapter for `E` but as a packed, repeated value. */
@@ -128,6 +176,12 @@ actual abstract class ProtoAdapter<E> actual constructor(
     "Can't create a repeated adapter from a repeated or packed adapter.",
   )
 
+  /**
+   * Returns an adapter for `E` that skips unknown fields when decoding, at every level of nesting.
+   * Use this when decoded values are never re-encoded, as their unknown fields would be lost.
+   */
+  actual fun discardingUnknownFields(): ProtoAdapter<E> = UnknownFieldsDiscardingProtoAdapter(this)
+
   actual class EnumConstantNotFoundException actual constructor(
     actual val value: Int,
     type: KClass<*>?,
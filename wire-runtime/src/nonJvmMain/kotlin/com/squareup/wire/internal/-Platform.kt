@@ -15,6 +15,8 @@
  */
 package com.squareup.wire.internal
 
+import com.squareup.wire.Message
+import com.squareup.wire.ProtoAdapter
 import okio.IOException
 
 actual interface Serializable
@@ -40,6 +42,8 @@ actual inline fun <T> MutableList<T>.toUnmodifiableList(): List<T> = this
 @Suppress("NOTHING_TO_INLINE") // Syntactic sugar.
 actual inline fun <K, V> MutableMap<K, V>.toUnmodifiableMap(): Map<K, V> = this
 
+internal actual fun reflectiveAdapterOrNull(message: Message<*, *>): ProtoAdapter<Any>? = null
+
 // TODO: Use code points to process each char.
 actual fun camelCase(string: String, upperCamel: Boolean): String = buildString(string.length) {
   var index = 0
@@ -64,6 +64,7 @@ kotlin {
         implementation(libs.assertk)
         implementation(libs.jimfs)
         implementation(libs.protobuf.java)
+        implementation(projects.wireJson)
       }
     }
     if (System.getProperty("kjs", "true").toBoolean()) {
@@ -16,6 +16,7 @@
 package com.squareup.wire.schema
 
 import com.squareup.wire.ProtoAdapter
+import com.squareup.wire.TypeRegistry
 import kotlin.collections.set
 import okio.Path
 
@@ -115,6 +116,21 @@ class Schema internal constructor(protoFiles: Iterable<ProtoFile>) {
     return SchemaProtoAdapterFactory(this, includeUnknown)[type.type]
   }
 
+  /**
+   * Returns a registry of adapters for every message type in this schema, as returned by
+   * [protoAdapter]. Use it to unpack [AnyMessage][com.squareup.wire.AnyMessage] values whose types
+   * are only known at runtime.
+   */
+  fun typeRegistry(includeUnknown: Boolean): TypeRegistry {
+    val factory = SchemaProtoAdapterFactory(this, includeUnknown)
+    val typeUrlToAdapter = mutableMapOf<String, ProtoAdapter<*>>()
+    for (type in typesIndex.values) {
+      if (type !is MessageType) continue
+      typeUrlToAdapter[type.type.typeUrl!!] = factory[type.type]
+    }
+    return TypeRegistry.of(typeUrlToAdapter)
+  }
+
   fun isExtensionField(protoMember: ProtoMember): Boolean {
     val type = getType(protoMember.type)
     return type is MessageType && type.extensionField(protoMember.member) != null
@@ -24,6 +24,7 @@ import com.squareup.wire.ProtoWriter
 import com.squareup.wire.ReverseProtoWriter
 import com.squareup.wire.Syntax
 import com.squareup.wire.WireField
+import com.squareup.wire.internal.EnumConstantNames
 import com.squareup.wire.internal.FieldOrOneOfBinding
 import com.squareup.wire.internal.MessageBinding
 import com.squareup.wire.internal.RuntimeMessageAdapter
@@ -133,51 +134,43 @@ internal class SchemaProtoAdapterFactory(
 
   private class EnumAdapter(
     private val enumType: EnumType,
-  ) : ProtoAdapter<Any>(VARINT, Any::class, null, enumType.syntax) {
-    override fun encodedSize(value: Any): Int = when (value) {
-      is String -> {
-        INT32.encodedSize(enumType.constant(value)!!.tag)
-      }
-      is Int -> {
-        INT32.encodedSize(value)
-      }
-      else -> {
-        throw IllegalArgumentException("unexpected " + enumType.type + ": " + value)
+  ) : ProtoAdapter<Any>(VARINT, Any::class, null, enumType.syntax),
+    EnumConstantNames {
+    private val nameToTag = mutableMapOf<String, Int>()
+    private val tagToName = mutableMapOf<Int, String>()
+
+    init {
+      for (constant in enumType.constants) {
+        nameToTag[constant.name] = constant.tag
+        // With aliases the first constant with each tag is its name.
+        if (constant.tag !in tagToName) tagToName[constant.tag] = constant.name
       }
     }
 
+    override fun constantName(tag: Int): String? = tagToName[tag]
+
+    override fun constantTag(name: String): Int? = nameToTag[name]
+
+    private fun tag(value: Any): Int = when (value) {
+      is String -> nameToTag[value]
+        ?: throw IllegalArgumentException("unexpected " + enumType.type + ": " + value)
+      is Int -> value
+      else -> throw IllegalArgumentException("unexpected " + enumType.type + ": " + value)
+    }
+
+    override fun encodedSize(value: Any): Int = INT32.encodedSize(tag(value))
+
     override fun encode(writer: ProtoWriter, value: Any) {
-      when (value) {
-        is String -> {
-          writer.writeVarint32(enumType.constant(value)!!.tag)
-        }
-        is Int -> {
-          writer.writeVarint32(value)
-        }
-        else -> {
-          throw IllegalArgumentException("unexpected " + enumType.type + ": " + value)
-        }
-      }
+      writer.writeVarint32(tag(value))
     }
 
     override fun encode(writer: ReverseProtoWriter, value: Any) {
-      when (value) {
-        is String -> {
-          writer.writeVarint32(enumType.constant(value)!!.tag)
-        }
-        is Int -> {
-          writer.writeVarint32(value)
-        }
-        else -> {
-          throw IllegalArgumentException("unexpected " + enumType.type + ": " + value)
-        }
-      }
+      writer.writeVarint32(tag(value))
     }
 
     override fun decode(reader: ProtoReader): Any {
       val value = UINT32.decode(reader)
-      val constant = enumType.constant(value)
-      return constant?.name ?: value
+      return tagToName[value] ?: value
     }
 
     override fun redact(value: Any): Any = throw UnsupportedOperationException()
@@ -245,6 +238,7 @@ internal class SchemaProtoAdapterFactory(
     override val name: String = field.name
     override val declaredName: String = field.name
     override val wireFieldJsonName: String = field.jsonName!!
+    override val oneOfName: String? = oneOf?.name
     override val writeIdentityValues: Boolean = false
 
     override val keyAdapter: ProtoAdapter<*>
@@ -270,7 +264,11 @@ internal class SchemaProtoAdapterFactory(
 
     override fun set(builder: MutableMap<String, Any>, value: Any?) {
       oneOf?.fields?.forEach { builder.remove(it.name) }
-      builder[field.name] = value!!
+      if (value != null) {
+        builder[field.name] = value
+      } else {
+        builder.remove(field.name)
+      }
     }
 
     override fun get(message: Map<String, Any>) = message[field.name]
@@ -22,6 +22,7 @@ import com.squareup.wire.internal.camelCase
 import com.squareup.wire.schema.EnumType
 import com.squareup.wire.schema.Extend
 import com.squareup.wire.schema.Field
+import com.squareup.wire.schema.MessageType
 import com.squareup.wire.schema.Options
 import com.squareup.wire.schema.ProtoFile
 import com.squareup.wire.schema.ProtoType
@@ -198,6 +199,41 @@ fun legacyQualifiedFieldName(field: Field): String {
   //   be the fully-qualified name, not this weird hybrid.
 }
 
+/**
+ * Returns the types whose values may change when they're redacted: message types that declare a
+ * redacted field or hold a value of such a type, directly or transitively. `google.protobuf.Any`
+ * and types missing from [schema] are included because their contents can't be known.
+ */
+fun redactableTypes(schema: Schema): Set<ProtoType> {
+  val result = mutableSetOf(ProtoType.ANY)
+  val referrers = mutableMapOf<ProtoType, MutableList<ProtoType>>()
+  for (protoFile in schema.protoFiles) {
+    for (type in protoFile.typesAndNestedTypes()) {
+      if (type !is MessageType) continue
+      for (field in type.fieldsAndOneOfFields) {
+        if (field.isRedacted) result += type.type
+        val fieldType = field.type!!.let { if (it.isMap) it.valueType!! else it }
+        if (fieldType.isScalar) continue
+        when (schema.getType(fieldType)) {
+          is EnumType -> continue
+          null -> result += fieldType
+          else -> Unit
+        }
+        referrers.getOrPut(fieldType) { mutableListOf() } += type.type
+      }
+    }
+  }
+
+  // Types that hold a redactable type are redactable too.
+  val queue = ArrayDeque(result)
+  while (queue.isNotEmpty()) {
+    for (referrer in referrers[queue.removeFirst()].orEmpty()) {
+      if (result.add(referrer)) queue += referrer
+    }
+  }
+  return result
+}
+
 fun <T> annotationName(
   protoFile: ProtoFile,
   extension: Field,
@@ -18,6 +18,8 @@ package com.squareup.wire.schema
 import assertk.assertThat
 import assertk.assertions.hasMessage
 import assertk.assertions.isEqualTo
+import assertk.assertions.isNotSameInstanceAs
+import com.squareup.wire.AnyMessage
 import com.squareup.wire.buildSchema
 import kotlin.test.Test
 import kotlin.test.fail
@@ -321,4 +323,15 @@ class SchemaProtoAdapterTest {
     assertThat(adapter.decode(Buffer().write(dansCoffeeEncoded)))
       .isEqualTo(dansCoffeeWithoutUnknowns)
   }
+
+  @Test
+  fun unpackAnyMessageWithTypeRegistry() {
+    val registry = coffeeSchema.typeRegistry(includeUnknown = false)
+    val any = AnyMessage("type.googleapis.com/CafeDrink", dansCoffeeEncoded)
+
+    val unpacked = any.unpack(registry)
+    assertThat(unpacked).isEqualTo(dansCoffee)
+    // Decoded maps can be changed by callers, so each unpack decodes its own.
+    assertThat(any.unpack(registry)).isNotSameInstanceAs(unpacked)
+  }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.schema
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import com.squareup.wire.ProtoJson
+import com.squareup.wire.buildSchema
+import com.squareup.wire.durationOfSeconds
+import kotlin.test.Test
+import okio.ByteString.Companion.encodeUtf8
+import okio.Path.Companion.toPath
+
+class SchemaProtoJsonTest {
+  private val schema = buildSchema {
+    add(
+      "order.proto".toPath(),
+      """
+     |syntax = "proto3";
+     |package squareup.registry;
+     |import "google/protobuf/duration.proto";
+     |
+     |message Order {
+     |  string order_id = 1;
+     |  int64 total_cents = 2 [json_name = "total"];
+     |  Status status = 3;
+     |  repeated LineItem line_items = 4;
+     |  map<string, int32> counts = 5;
+     |  google.protobuf.Duration prep_time = 6;
+     |  bytes token = 7;
+     |  Order parent = 8;
+     |}
+     |
+     |message LineItem {
+     |  string sku = 1;
+     |  int32 quantity = 2;
+     |}
+     |
+     |enum Status {
+     |  STATUS_UNKNOWN = 0;
+     |  PLACED = 1;
+     |  SHIPPED = 2;
+     |}
+     |
+      """.trimMargin(),
+    )
+  }
+
+  private val adapter = schema.protoAdapter("squareup.registry.Order", includeUnknown = false)
+
+  private val order = mapOf(
+    "order_id" to "A-1",
+    "total_cents" to 1250L,
+    "status" to "SHIPPED",
+    "line_items" to listOf(mapOf("sku" to "pie", "quantity" to 2)),
+    "counts" to mapOf("pie" to 2),
+    "prep_time" to durationOfSeconds(90L, 0L),
+    "token" to "abc".encodeUtf8(),
+    "parent" to mapOf("order_id" to "A-0"),
+  )
+
+  private val orderJson = """
+    |{"orderId":"A-1","total":"1250","status":"SHIPPED","lineItems":[{"sku":"pie","quantity":2}],
+    |"counts":{"pie":2},"prepTime":"90s","token":"YWJj","parent":{"orderId":"A-0"}}
+  """.trimMargin().replace("\n", "")
+
+  @Test
+  fun encodeAndDecode() {
+    val jsonAdapter = ProtoJson().adapter(adapter)
+    assertThat(jsonAdapter.encode(order)).isEqualTo(orderJson)
+    assertThat(jsonAdapter.decode(orderJson)).isEqualTo(order)
+  }
+
+  @Test
+  fun protoFieldNames() {
+    val jsonAdapter = ProtoJson(preservingProtoFieldNames = true).adapter(adapter)
+    val json = jsonAdapter.encode(mapOf("total_cents" to 5L, "line_items" to listOf(mapOf("sku" to "pie"))))
+    assertThat(json).isEqualTo("""{"total_cents":"5","line_items":[{"sku":"pie"}]}""")
+  }
+
+  @Test
+  fun alternateNamesAndEnumTags() {
+    val jsonAdapter = ProtoJson().adapter(adapter)
+    assertThat(jsonAdapter.decode("""{"order_id":"A-2","total_cents":7,"status":1}"""))
+      .isEqualTo(mapOf("order_id" to "A-2", "total_cents" to 7L, "status" to "PLACED"))
+    assertThat(jsonAdapter.decode("""{"status":9}""")).isEqualTo(mapOf("status" to 9))
+    assertThat(jsonAdapter.encode(mapOf("status" to 9))).isEqualTo("""{"status":9}""")
+  }
+
+  @Test
+  fun transcode() {
+    val transcoder = ProtoJson().transcoder(adapter)
+    val bytes = adapter.encodeByteString(order)
+    assertThat(transcoder.toJson(bytes)).isEqualTo(orderJson)
+    assertThat(adapter.decode(transcoder.toBinary(orderJson))).isEqualTo(order)
+  }
+}
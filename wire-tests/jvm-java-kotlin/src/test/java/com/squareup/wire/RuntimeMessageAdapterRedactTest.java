@@ -74,6 +74,43 @@ public class RuntimeMessageAdapterRedactTest {
     assertThat(RedactedChild.ADAPTER.redact(message)).isEqualTo(expected);
   }
 
+  @Test
+  public void nestedRedactionsShareUnredactedSubtrees() {
+    RedactedChild message =
+        new RedactedChild.Builder()
+            .a("a")
+            .b(new RedactedFields.Builder().a("a").b("b").c("c").build())
+            .c(new NotRedacted.Builder().a("a").b("b").build())
+            .build();
+    RedactedChild redacted = RedactedChild.ADAPTER.redact(message);
+    assertThat(redacted.b).isEqualTo(message.b.newBuilder().a(null).build());
+    assertThat(redacted.c).isSameInstanceAs(message.c);
+
+    RedactedChild unredacted = message.newBuilder().b(null).build();
+    assertThat(RedactedChild.ADAPTER.redact(unredacted)).isSameInstanceAs(unredacted);
+  }
+
+  @Test
+  public void runtimeAdapterSharesUnredactedSubtrees() {
+    ProtoAdapter<RedactedChild> adapter = ProtoAdapter.newMessageAdapter(RedactedChild.class);
+    RedactedChild message =
+        new RedactedChild.Builder()
+            .a("a")
+            .b(new RedactedFields.Builder().a("a").b("b").c("c").build())
+            .c(new NotRedacted.Builder().a("a").b("b").build())
+            .build();
+    RedactedChild redacted = adapter.redact(message);
+    assertThat(redacted.b).isEqualTo(message.b.newBuilder().a(null).build());
+    assertThat(redacted.c).isSameInstanceAs(message.c);
+
+    RedactedChild unredacted = message.newBuilder().b(null).build();
+    assertThat(adapter.redact(unredacted)).isSameInstanceAs(unredacted);
+
+    ProtoAdapter<NotRedacted> notRedactedAdapter =
+        ProtoAdapter.newMessageAdapter(NotRedacted.class);
+    assertThat(notRedactedAdapter.redact(message.c)).isSameInstanceAs(message.c);
+  }
+
   @Test
   public void redactedExtensions() {
     RedactedFields message =
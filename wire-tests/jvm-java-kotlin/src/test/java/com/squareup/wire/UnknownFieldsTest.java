@@ -240,4 +240,14 @@ public class UnknownFieldsTest {
     // 04 = PUSS_IN_BOOTS(4)
     assertThat(v1.unknownFields()).isEqualTo(ByteString.decodeHex("4004"));
   }
+
+  @Test
+  public void unknownEnumFieldsDiscarded() throws IOException {
+    VersionTwo v2 = new VersionTwo.Builder().en(EnumVersionTwo.PUSS_IN_BOOTS_V2).i(100).build();
+    byte[] v2Serialized = VersionTwo.ADAPTER.encode(v2);
+    VersionOne v1 = VersionOne.ADAPTER.discardingUnknownFields().decode(v2Serialized);
+    assertThat(v1.i).isEqualTo(100);
+    assertThat(v1.en).isNull();
+    assertThat(v1.unknownFields()).isEqualTo(ByteString.EMPTY);
+  }
 }
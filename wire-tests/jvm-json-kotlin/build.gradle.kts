@@ -13,6 +13,7 @@ dependencies {
   implementation(libs.kotlin.test.junit)
   implementation(libs.truth)
   implementation(projects.wireGsonSupport)
+  implementation(projects.wireJson)
   implementation(projects.wireMoshiAdapter)
   implementation(projects.wireTestUtils)
 }
@@ -18,9 +18,16 @@ wire {
     srcDir("../fixtures/proto/kotlin")
     include(
       "all_types.proto",
+      "mutable_types.proto",
     )
   }
 
+  kotlin {
+    includes = listOf("squareup.protos.kotlin.mutable.*")
+    emitProtoReader32 = true
+    mutableTypes = true
+  }
+
   kotlin {
     emitProtoReader32 = true
   }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.isEqualTo
+import assertk.assertions.isFalse
+import assertk.assertions.isTrue
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes.NestedMessage
+import kotlin.test.Test
+import okio.Buffer
+import okio.ByteString
+import okio.ByteString.Companion.encodeUtf8
+
+class MessagePatchTest {
+  private val allTypes = AllTypes(
+    req_int32 = 111,
+    req_uint32 = 112,
+    req_sint32 = 113,
+    req_fixed32 = 114,
+    req_sfixed32 = 115,
+    req_int64 = 116L,
+    req_uint64 = 117L,
+    req_sint64 = 118L,
+    req_fixed64 = 119L,
+    req_sfixed64 = 120L,
+    req_bool = true,
+    req_float = 122.0f,
+    req_double = 123.0,
+    req_string = "124",
+    req_bytes = ByteString.EMPTY,
+    req_nested_enum = AllTypes.NestedEnum.A,
+    req_nested_message = NestedMessage(a = 999),
+    opt_string = "optional",
+    rep_int32 = listOf(1, 2, 3),
+  )
+
+  @Test
+  fun identicalMessagesHaveAnEmptyPatch() {
+    val patch = AllTypes.ADAPTER.diff(allTypes, allTypes.copy())
+    assertThat(patch.isEmpty).isTrue()
+    assertThat(patch.values).isEqualTo(ByteString.EMPTY)
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, patch)).isEqualTo(allTypes)
+  }
+
+  @Test
+  fun scalarField() {
+    val new = allTypes.copy(req_int32 = 222)
+    val patch = AllTypes.ADAPTER.diff(allTypes, new)
+    assertThat(patch.fieldMask.paths).containsExactly("req_int32")
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, patch)).isEqualTo(new)
+  }
+
+  @Test
+  fun nestedMessageIsDiffedRecursively() {
+    val new = allTypes.copy(req_nested_message = NestedMessage(a = 1000))
+    val patch = AllTypes.ADAPTER.diff(allTypes, new)
+    assertThat(patch.fieldMask.paths).containsExactly("req_nested_message.a")
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, patch)).isEqualTo(new)
+  }
+
+  @Test
+  fun repeatedFieldIsReplacedWhole() {
+    val new = allTypes.copy(rep_int32 = listOf(1, 2, 3, 4))
+    val patch = AllTypes.ADAPTER.diff(allTypes, new)
+    assertThat(patch.fieldMask.paths).containsExactly("rep_int32")
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, patch)).isEqualTo(new)
+  }
+
+  @Test
+  fun clearedFields() {
+    val new = allTypes.copy(opt_string = null, rep_int32 = listOf())
+    val patch = AllTypes.ADAPTER.diff(allTypes, new)
+    assertThat(patch.fieldMask.paths).containsExactly("opt_string", "rep_int32")
+    assertThat(patch.values).isEqualTo(ByteString.EMPTY)
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, patch)).isEqualTo(new)
+  }
+
+  @Test
+  fun nestedMessageAddedIsWrittenWhole() {
+    val new = allTypes.copy(opt_nested_message = NestedMessage(a = 5))
+    val patch = AllTypes.ADAPTER.diff(allTypes, new)
+    assertThat(patch.fieldMask.paths).containsExactly("opt_nested_message")
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, patch)).isEqualTo(new)
+  }
+
+  @Test
+  fun unknownFieldsOfOldAreRetained() {
+    val old = allTypes.copy(unknownFields = unknownField("unknown".encodeUtf8()))
+    val new = old.copy(req_string = "changed", unknownFields = ByteString.EMPTY)
+    val patched = AllTypes.ADAPTER.applyPatch(old, AllTypes.ADAPTER.diff(old, new))
+    assertThat(patched.req_string).isEqualTo("changed")
+    assertThat(patched.unknownFields).isEqualTo(old.unknownFields)
+  }
+
+  @Test
+  fun patchRoundTripsThroughItsAdapters() {
+    val new = allTypes.copy(req_int32 = 222, req_nested_message = NestedMessage(a = 1000))
+    val patch = AllTypes.ADAPTER.diff(allTypes, new)
+    val decoded = MessagePatch(
+      ProtoAdapter.FIELD_MASK.decode(ProtoAdapter.FIELD_MASK.encode(patch.fieldMask)),
+      ProtoAdapter.BYTES.decode(ProtoAdapter.BYTES.encode(patch.values)),
+    )
+    assertThat(decoded).isEqualTo(patch)
+    assertThat(decoded.isEmpty).isFalse()
+    assertThat(AllTypes.ADAPTER.applyPatch(allTypes, decoded)).isEqualTo(new)
+  }
+
+  private fun unknownField(value: ByteString): ByteString {
+    val buffer = Buffer()
+    ProtoAdapter.BYTES.encodeWithTag(ProtoWriter(buffer), 9_999, value)
+    return buffer.readByteString()
+  }
+}
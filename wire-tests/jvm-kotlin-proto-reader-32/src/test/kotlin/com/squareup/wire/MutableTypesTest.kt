@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNotSameInstanceAs
+import assertk.assertions.isNull
+import assertk.assertions.isSameInstanceAs
+import com.squareup.wire.protos.kotlin.mutable.MutableHeader
+import com.squareup.wire.protos.kotlin.mutable.MutablePacket
+import com.squareup.wire.protos.kotlin.mutable.MutablePayload
+import kotlin.test.Test
+import okio.Buffer
+import okio.ByteString
+import okio.ByteString.Companion.decodeHex
+import okio.ByteString.Companion.encodeUtf8
+
+class MutableTypesTest {
+  private val packetA = MutablePacket(
+    header_ = MutableHeader(id = 1L),
+    payload = listOf(
+      MutablePayload(preamble = "a", footers = listOf("x", "y")),
+      MutablePayload(preamble = "b", type = MutablePayload.Type.TYPE_TEXT_HTML),
+      MutablePayload(preamble = "c"),
+    ),
+    unknownFields = "5001".decodeHex(), // 10: varint = 1
+  ).encodeByteString()
+
+  /** Fewer payloads than [packetA], no header, and other unknown fields. */
+  private val packetB = MutablePacket(
+    payload = listOf(
+      MutablePayload(content = "hello".encodeUtf8(), footers = listOf("z")),
+    ),
+    unknownFields = "5a026869".decodeHex(), // 11: bytes = "hi"
+  ).encodeByteString()
+
+  /** Fewer payloads than [packetA] and a different header. */
+  private val packetC = MutablePacket(
+    header_ = MutableHeader(id = 3L),
+    payload = listOf(
+      MutablePayload(preamble = "d"),
+      MutablePayload(preamble = "e"),
+    ),
+  ).encodeByteString()
+
+  @Test fun decodeIntoWithProtoReader() = checkDecodeInto { bytes, existing ->
+    MutablePacket.ADAPTER.decodeInto(ProtoReader(Buffer().write(bytes)), existing)
+  }
+
+  @Test fun decodeIntoWithProtoReader32() = checkDecodeInto { bytes, existing ->
+    MutablePacket.ADAPTER.decodeInto(ProtoReader32(bytes), existing)
+  }
+
+  @Test fun unpackReturnsANewInstanceEachTime() {
+    val any = AnyMessage.pack(MutablePacket(header_ = MutableHeader(id = 1L)))
+    val registry = TypeRegistry.of(MutablePacket.ADAPTER)
+
+    val first = any.unpack(registry) as MutablePacket
+    first.header_!!.id = 2L
+
+    // Mutable messages aren't retained, so changing one doesn't change the next.
+    val second = any.unpack(registry) as MutablePacket
+    assertThat(second).isNotSameInstanceAs(first)
+    assertThat(second.header_!!.id).isEqualTo(1L)
+    assertThat(any.unpack(MutablePacket.ADAPTER).header_!!.id).isEqualTo(1L)
+  }
+
+  private fun checkDecodeInto(decodeInto: (ByteString, MutablePacket) -> MutablePacket) {
+    val packet = MutablePacket.ADAPTER.decode(packetA)
+    val payloads = packet.payload.toList()
+
+    val b = decodeInto(packetB, packet)
+    assertThat(b).isSameInstanceAs(packet)
+    assertThat(b).isEqualTo(MutablePacket.ADAPTER.decode(packetB))
+    assertThat(b.header_).isNull()
+    assertThat(b.payload.single()).isSameInstanceAs(payloads[0])
+    assertThat(b.unknownFields).isEqualTo("5a026869".decodeHex())
+
+    val other = MutablePacket.ADAPTER.decode(packetA)
+    val header = other.header_
+    val otherPayloads = other.payload.toList()
+
+    val c = decodeInto(packetC, other)
+    assertThat(c).isSameInstanceAs(other)
+    assertThat(c).isEqualTo(MutablePacket.ADAPTER.decode(packetC))
+    assertThat(c.header_).isSameInstanceAs(header)
+    assertThat(c.payload[0]).isSameInstanceAs(otherPayloads[0])
+    assertThat(c.payload[1]).isSameInstanceAs(otherPayloads[1])
+    assertThat(c.unknownFields).isEqualTo(ByteString.EMPTY)
+  }
+}
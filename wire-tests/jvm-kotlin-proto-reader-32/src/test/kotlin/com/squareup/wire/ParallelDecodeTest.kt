@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes.NestedMessage
+import java.util.concurrent.ForkJoinPool
+import java.util.stream.Collectors
+import java.util.stream.StreamSupport
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+import okio.ByteString
+import okio.ByteString.Companion.decodeHex
+import okio.IOException
+
+class ParallelDecodeTest {
+  /** Every third message has an unknown field, so readers must reset between messages. */
+  private val messages = List(10_000) { i ->
+    NestedMessage(
+      a = i,
+      unknownFields = if (i % 3 == 0) "1001".decodeHex() else ByteString.EMPTY,
+    )
+  }
+
+  @Test
+  fun decodeAllByteArrays() {
+    val encoded = messages.map { it.encode() }
+    assertThat(NestedMessage.ADAPTER.decodeAll(encoded)).isEqualTo(messages)
+  }
+
+  @Test
+  fun decodeAllByteStrings() {
+    val encoded = messages.map { it.encodeByteString() }
+    val pool = ForkJoinPool(2)
+    try {
+      assertThat(NestedMessage.ADAPTER.decodeAll(encoded, pool)).isEqualTo(messages)
+    } finally {
+      pool.shutdown()
+    }
+  }
+
+  @Test
+  fun decodeAllPropagatesFailures() {
+    val encoded = messages.map { it.encode() } + byteArrayOf(0x08)
+    assertFailsWith<IOException> {
+      NestedMessage.ADAPTER.decodeAll(encoded)
+    }
+  }
+
+  @Test
+  fun decodeSpliteratorWithParallelStream() {
+    val encoded = messages.map { it.encode() }
+    val decoded = StreamSupport.stream(NestedMessage.ADAPTER.decodeSpliterator(encoded), true)
+      .collect(Collectors.toList())
+    assertThat(decoded).isEqualTo(messages)
+  }
+}
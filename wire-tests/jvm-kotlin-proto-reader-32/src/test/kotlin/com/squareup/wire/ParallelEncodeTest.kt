@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes.NestedMessage
+import java.util.concurrent.ForkJoinPool
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import okio.Buffer
+import okio.ByteString
+
+class ParallelEncodeTest {
+  private val pool = ForkJoinPool(3)
+
+  private val allTypes = AllTypes(
+    req_int32 = 111,
+    req_uint32 = 112,
+    req_sint32 = 113,
+    req_fixed32 = 114,
+    req_sfixed32 = 115,
+    req_int64 = 116L,
+    req_uint64 = 117L,
+    req_sint64 = 118L,
+    req_fixed64 = 119L,
+    req_sfixed64 = 120L,
+    req_bool = true,
+    req_float = 122.0f,
+    req_double = 123.0,
+    req_string = "124",
+    req_bytes = ByteString.EMPTY,
+    req_nested_enum = AllTypes.NestedEnum.A,
+    req_nested_message = NestedMessage(a = 999),
+    rep_nested_message = List(1_001) { NestedMessage(a = it) },
+    rep_string = List(1_001) { "string $it" },
+  )
+
+  @AfterTest
+  fun tearDown() {
+    pool.shutdown()
+  }
+
+  @Test
+  fun encodedBytesMatchSequentialEncoding() {
+    val adapter = AllTypes.ADAPTER.parallelEncoding(pool, threshold = 100)
+    assertThat(adapter.encodeByteString(allTypes)).isEqualTo(AllTypes.ADAPTER.encodeByteString(allTypes))
+    assertThat(adapter.decode(adapter.encode(allTypes))).isEqualTo(allTypes)
+  }
+
+  @Test
+  fun encodeToSink() {
+    val adapter = AllTypes.ADAPTER.parallelEncoding(pool, threshold = 100)
+    val buffer = Buffer()
+    adapter.encode(buffer, allTypes)
+    assertThat(buffer.readByteString()).isEqualTo(AllTypes.ADAPTER.encodeByteString(allTypes))
+  }
+
+  @Test
+  fun fieldsBelowThresholdAreEncodedSequentially() {
+    val adapter = AllTypes.ADAPTER.parallelEncoding(pool, threshold = 10_000)
+    assertThat(adapter.encodeByteString(allTypes)).isEqualTo(AllTypes.ADAPTER.encodeByteString(allTypes))
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.contains
+import assertk.assertions.doesNotContain
+import assertk.assertions.isEqualTo
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes
+import com.squareup.wire.protos.kotlin.alltypes.AllTypes.NestedMessage
+import kotlin.test.Test
+import okio.ByteString.Companion.encodeUtf8
+
+class ToStringLimitsTest {
+  private val allTypes = AllTypes(
+    req_int32 = 111,
+    req_uint32 = 112,
+    req_sint32 = 113,
+    req_fixed32 = 114,
+    req_sfixed32 = 115,
+    req_int64 = 116L,
+    req_uint64 = 117L,
+    req_sint64 = 118L,
+    req_fixed64 = 119L,
+    req_sfixed64 = 120L,
+    req_bool = true,
+    req_float = 122.0f,
+    req_double = 123.0,
+    req_string = "x".repeat(10_000),
+    req_bytes = "0123456789".encodeUtf8(),
+    req_nested_enum = AllTypes.NestedEnum.A,
+    req_nested_message = NestedMessage(a = 999),
+    rep_nested_message = List(1_000) { NestedMessage(a = it) },
+  )
+
+  @Test
+  fun collectionsStringsAndBytesAreTruncated() {
+    val limits = ToStringLimits(maxCollectionSize = 2, maxBytesSize = 4, maxStringLength = 3)
+    val result = StringBuilder()
+    AllTypes.ADAPTER.toString(allTypes, result, limits)
+
+    assertThat(result.toString()).contains("req_string=xxx…(9997 more)")
+    assertThat(result.toString()).contains("req_bytes=[size=10 hex=30313233…]")
+    assertThat(result.toString())
+      .contains("rep_nested_message=[NestedMessage{a=0}, NestedMessage{a=1}, …(998 more)]")
+    assertThat(result.toString()).doesNotContain("a=2}")
+  }
+
+  @Test
+  fun nestedMessagesBeyondMaxDepthAreElided() {
+    val result = StringBuilder()
+    AllTypes.ADAPTER.toString(allTypes, result, ToStringLimits(maxDepth = 1))
+
+    assertThat(result.toString()).contains("req_nested_message=NestedMessage{…}")
+  }
+
+  @Test
+  fun valuesWithinLimitsAreWrittenInFull() {
+    val message = NestedMessage(a = 5)
+    val result = StringBuilder()
+    NestedMessage.ADAPTER.toString(message, result, ToStringLimits.DEFAULT)
+
+    assertThat(result.toString()).isEqualTo("NestedMessage{a=5}")
+  }
+}
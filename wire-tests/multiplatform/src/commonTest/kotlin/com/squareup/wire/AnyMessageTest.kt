@@ -24,6 +24,7 @@ import assertk.assertions.isEqualTo
 import assertk.assertions.isInstanceOf
 import assertk.assertions.isNotNull
 import assertk.assertions.isNull
+import assertk.assertions.isSameInstanceAs
 import assertk.assertions.message
 import assertk.assertions.startsWith
 import com.squareup.wire.protos.kotlin.edgecases.NoFields
@@ -59,6 +60,22 @@ class AnyMessageTest {
     assertThat(usesAny.just_one.unpackOrNull(ProtoAdapter.BOOL)).isEqualTo(null)
   }
 
+  @Test fun unpackWithTypeRegistry() {
+    val three = OneField(opt_int32 = 3)
+    val any = AnyMessage.pack(three)
+    val registry = TypeRegistry.of(OneField.ADAPTER, ProtoAdapter.FIELD_MASK)
+
+    val unpacked = any.unpack(registry)
+    assertThat(unpacked).isEqualTo(three)
+    assertThat(any.unpack(registry)).isSameInstanceAs(unpacked)
+    assertThat(any.unpack(OneField.ADAPTER)).isSameInstanceAs(unpacked)
+
+    assertThat(AnyMessage.pack(NoFields()).unpackOrNull(registry)).isNull()
+    assertFailure {
+      AnyMessage.pack(NoFields()).unpack(registry)
+    }.isInstanceOf<IllegalStateException>()
+  }
+
   @Test fun packAndUnpackRuntimeValue() {
     val fieldMask = FieldMask(listOf("user.display_name", "photo"))
     val any = AnyMessage.pack(ProtoAdapter.FIELD_MASK, fieldMask)
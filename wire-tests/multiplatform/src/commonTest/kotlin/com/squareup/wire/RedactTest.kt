@@ -18,6 +18,7 @@ package com.squareup.wire
 import assertk.assertThat
 import assertk.assertions.hasMessage
 import assertk.assertions.isEqualTo
+import assertk.assertions.isSameInstanceAs
 import com.squareup.wire.protos.kotlin.redacted.NotRedacted
 import com.squareup.wire.protos.kotlin.redacted.RedactedChild
 import com.squareup.wire.protos.kotlin.redacted.RedactedCycleA
@@ -36,6 +37,8 @@ import com.squareup.wire.protos.kotlin.redacted.buildersonly.RedactedRepeated as
 import com.squareup.wire.protos.kotlin.redacted.buildersonly.RedactedRequired as RedactedRequiredBuildersOnly
 import kotlin.test.Test
 import kotlin.test.fail
+import okio.ByteString
+import okio.ByteString.Companion.encodeUtf8
 
 class RedactTest {
   @Test fun string() {
@@ -72,6 +75,37 @@ class RedactTest {
     assertThat(RedactedChild.ADAPTER.redact(message)).isEqualTo(expected)
   }
 
+  @Test fun messageWithNoRedactionsIsShared() {
+    val message = NotRedacted(a = "a", b = "b")
+    assertThat(NotRedacted.ADAPTER.redact(message)).isSameInstanceAs(message)
+  }
+
+  @Test fun messageWithNoRedactionsIsSharedWithItsUnknownFields() {
+    val message = NotRedacted(a = "a", b = "b", unknownFields = "secret".encodeUtf8())
+    assertThat(NotRedacted.ADAPTER.redact(message)).isSameInstanceAs(message)
+  }
+
+  @Test fun unknownFieldsAreDroppedFromMessagesWithRedactions() {
+    val message = RedactedFields(b = "b", unknownFields = "secret".encodeUtf8())
+    assertThat(RedactedFields.ADAPTER.redact(message).unknownFields).isEqualTo(ByteString.EMPTY)
+  }
+
+  @Test fun nestedRedactionsShareUnredactedSubtrees() {
+    val message = RedactedChild(
+      a = "a",
+      b = RedactedFields(a = "a", b = "b", c = "c"),
+      c = NotRedacted(a = "a", b = "b"),
+    )
+    val redacted = RedactedChild.ADAPTER.redact(message)
+    assertThat(redacted.b).isEqualTo(message.b!!.copy(a = null))
+    assertThat(redacted.c).isSameInstanceAs(message.c)
+  }
+
+  @Test fun parentOfUnredactedSubtreesIsShared() {
+    val message = RedactedChild(a = "a", c = NotRedacted(a = "a", b = "b"))
+    assertThat(RedactedChild.ADAPTER.redact(message)).isSameInstanceAs(message)
+  }
+
   @Test fun redactedExtensions() {
     val message = RedactedFields(extension = RedactedExtension(d = "d", e = "e"))
     val expected = RedactedFields(extension = RedactedExtension(e = "e"))
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.containsExactlyInAnyOrder
+import assertk.assertions.isEqualTo
+import assertk.assertions.isInstanceOf
+import com.google.gson.GsonBuilder
+import com.squareup.moshi.Moshi
+import java.util.Collections
+import java.util.concurrent.ExecutionException
+import kotlin.test.assertFailsWith
+import org.junit.Test
+import squareup.proto3.BuyOneGetOnePromotion
+import squareup.proto3.PizzaDelivery
+
+class JsonPrewarmTest {
+  private val listener = RecordingListener()
+  private val typeRegistry = TypeRegistry.of(BuyOneGetOnePromotion.ADAPTER)
+
+  @Test
+  fun protoJson() {
+    ProtoJson(typeRegistry).prewarm(listOf(PizzaDelivery::class.java), listener = listener).get()
+    assertPrewarmed()
+  }
+
+  @Test
+  fun moshi() {
+    val factory = WireJsonAdapterFactory(typeRegistry)
+    val moshi = Moshi.Builder().add(factory).build()
+    factory.prewarm(moshi, listOf(PizzaDelivery::class.java), listener = listener).get()
+    assertPrewarmed()
+  }
+
+  @Test
+  fun gson() {
+    val factory = WireTypeAdapterFactory(typeRegistry)
+    val gson = GsonBuilder().registerTypeAdapterFactory(factory).create()
+    factory.prewarm(gson, listOf(PizzaDelivery::class.java), listener = listener).get()
+    assertPrewarmed()
+  }
+
+  @Test
+  fun failureIsReported() {
+    val future = ProtoJson().prewarm(listOf(Thread::class.java), listener = listener)
+    val exception = assertFailsWith<ExecutionException> { future.get() }
+    assertThat(exception.cause).isInstanceOf<IllegalArgumentException>()
+    assertThat(listener.events).containsExactly("failed Thread", "finished 1")
+  }
+
+  private fun assertPrewarmed() {
+    assertThat(listener.events.dropLast(1)).containsExactlyInAnyOrder(
+      "created PizzaDelivery",
+      "created BuyOneGetOnePromotion",
+    )
+    assertThat(listener.events.last()).isEqualTo("finished 2")
+  }
+
+  private class RecordingListener : JsonPrewarmListener() {
+    val events: MutableList<String> = Collections.synchronizedList(mutableListOf())
+
+    override fun adapterCreated(type: Class<*>, elapsedNanos: Long) {
+      events += "created ${type.simpleName}"
+    }
+
+    override fun adapterFailed(type: Class<*>, exception: Throwable) {
+      events += "failed ${type.simpleName}"
+    }
+
+    override fun prewarmFinished(typeCount: Int, elapsedNanos: Long) {
+      events += "finished $typeCount"
+    }
+  }
+}
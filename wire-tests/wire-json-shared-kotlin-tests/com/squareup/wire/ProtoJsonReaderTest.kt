@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import kotlin.test.assertFailsWith
+import okio.Buffer
+import okio.ByteString
+import org.junit.Test
+import squareup.proto3.All64
+import squareup.proto3.Pizza
+import squareup.proto3.PizzaDelivery
+
+/** Exercises the ProtoJSON reader on empty and nested containers. */
+class ProtoJsonReaderTest {
+  private val protoJson = ProtoJson()
+  private val pizzaAdapter = protoJson.adapter(Pizza::class.java)
+  private val deliveryAdapter = protoJson.adapter(PizzaDelivery::class.java)
+
+  @Test
+  fun emptyObject() {
+    assertThat(pizzaAdapter.decode("{}")).isEqualTo(Pizza.Builder().build())
+    assertThat(pizzaAdapter.decode(" { } ")).isEqualTo(Pizza.Builder().build())
+  }
+
+  @Test
+  fun emptyArray() {
+    assertThat(pizzaAdapter.decode("""{"toppings":[]}""")).isEqualTo(Pizza.Builder().build())
+    assertThat(pizzaAdapter.decode("""{"toppings": [ ] }""")).isEqualTo(Pizza.Builder().build())
+    assertThat(deliveryAdapter.decode("""{"pizzas":[],"address":"1 Main St"}"""))
+      .isEqualTo(PizzaDelivery.Builder().address("1 Main St").build())
+  }
+
+  @Test
+  fun nestedEmptyContainers() {
+    val delivery = deliveryAdapter.decode("""{"loyalty":{"a":[],"b":{},"c":[[],{},[[]]]}}""")
+    assertThat(delivery).isEqualTo(
+      PizzaDelivery.Builder()
+        .loyalty(
+          mapOf(
+            "a" to listOf<Any?>(),
+            "b" to mapOf<String, Any?>(),
+            "c" to listOf(listOf<Any?>(), mapOf<String, Any?>(), listOf(listOf<Any?>())),
+          ),
+        )
+        .build(),
+    )
+  }
+
+  @Test
+  fun skipEmptyArraysAndObjects() {
+    val pizza = pizzaAdapter.decode("""{"unknown":[],"toppings":["cheese"],"other":[[],{}],"last":{}}""")
+    assertThat(pizza).isEqualTo(Pizza.Builder().toppings(listOf("cheese")).build())
+  }
+
+  @Test
+  fun transcodeEmptyArray() {
+    val transcoder = protoJson.transcoder(Pizza::class.java)
+    assertThat(transcoder.toBinary("""{"toppings":[]}""")).isEqualTo(ByteString.EMPTY)
+  }
+
+  @Test
+  fun transcodeLastOneofMember() {
+    val buffer = Buffer()
+    val writer = ProtoWriter(buffer)
+    ProtoAdapter.INT64.encodeWithTag(writer, 401, 5L)
+    ProtoAdapter.SFIXED64.encodeWithTag(writer, 402, 7L)
+    val bytes = buffer.readByteString()
+
+    val all64 = All64.ADAPTER.decode(bytes)
+    assertThat(all64).isEqualTo(All64.Builder().oneof_sfixed64(7L).build())
+    assertThat(protoJson.transcoder(All64::class.java).toJson(bytes))
+      .isEqualTo(protoJson.adapter(All64::class.java).encode(all64))
+  }
+
+  @Test
+  fun trailingCommaInArrayIsRejected() {
+    assertFailsWith<ProtoJsonException> {
+      pizzaAdapter.decode("""{"toppings":["cheese",]}""")
+    }
+  }
+
+  @Test
+  fun closingBracketWithoutArrayIsRejected() {
+    assertFailsWith<ProtoJsonException> {
+      pizzaAdapter.decode("""{"toppings":]}""")
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire
+
+import assertk.assertThat
+import assertk.assertions.containsExactly
+import assertk.assertions.hasMessage
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNull
+import java.util.concurrent.ForkJoinPool
+import kotlin.test.assertFailsWith
+import okio.Buffer
+import org.junit.Test
+import squareup.proto3.Pizza
+import squareup.proto3.PizzaDelivery
+
+class ProtoJsonStreamingTest {
+  private val protoJson = ProtoJson()
+  private val pizzaAdapter = protoJson.adapter(Pizza::class.java)
+  private val deliveryAdapter = protoJson.adapter(PizzaDelivery::class.java)
+
+  @Test
+  fun ndjsonRoundTrip() {
+    val pizzas = List(3) { Pizza.Builder().toppings(listOf("topping $it")).build() }
+    val buffer = Buffer()
+    NdjsonMessageSink(buffer, pizzaAdapter).use { sink ->
+      for (pizza in pizzas) sink.write(pizza)
+    }
+    assertThat(buffer.snapshot().utf8()).isEqualTo(
+      """
+      |{"toppings":["topping 0"]}
+      |{"toppings":["topping 1"]}
+      |{"toppings":["topping 2"]}
+      |
+      """.trimMargin(),
+    )
+
+    NdjsonMessageSource(buffer, pizzaAdapter).use { source ->
+      assertThat(source.read()).isEqualTo(pizzas[0])
+      assertThat(source.read()).isEqualTo(pizzas[1])
+      assertThat(source.read()).isEqualTo(pizzas[2])
+      assertThat(source.read()).isNull()
+    }
+  }
+
+  @Test
+  fun ndjsonSourceSkipsBlankLines() {
+    val buffer = Buffer().writeUtf8("\n{\"toppings\":[\"a\"]}  \r\n\n{}")
+    NdjsonMessageSource(buffer, pizzaAdapter).use { source ->
+      assertThat(source.read()).isEqualTo(Pizza.Builder().toppings(listOf("a")).build())
+      assertThat(source.read()).isEqualTo(Pizza.Builder().build())
+      assertThat(source.read()).isNull()
+    }
+  }
+
+  @Test
+  fun ndjsonSourceRejectsTwoMessagesOnOneLine() {
+    val buffer = Buffer().writeUtf8("{}\n{} {}\n")
+    NdjsonMessageSource(buffer, pizzaAdapter).use { source ->
+      source.read()
+      val exception = assertFailsWith<ProtoJsonException> { source.read() }
+      assertThat(exception).hasMessage("Expected a line break after the message on line 2")
+    }
+  }
+
+  @Test
+  fun decodeNdjsonInParallel() {
+    val pizzas = List(10_000) { Pizza.Builder().toppings(listOf("topping $it")).build() }
+    val buffer = Buffer()
+    NdjsonMessageSink(buffer, pizzaAdapter, flushInterval = 1_000).use { sink ->
+      for (pizza in pizzas) sink.write(pizza)
+    }
+    val decoded = pizzaAdapter.decodeNdjson(buffer.readByteString(), ForkJoinPool(4))
+    assertThat(decoded).isEqualTo(pizzas)
+  }
+
+  @Test
+  fun encodeStreamingRepeatedField() {
+    val delivery = PizzaDelivery.Builder().address("507 Cross Street").build()
+    val pizzas = sequence {
+      for (i in 0 until 3) yield(Pizza.Builder().toppings(listOf("topping $i")).build())
+    }
+    val buffer = Buffer()
+    deliveryAdapter.encodeStreaming(delivery, "pizzas", pizzas.iterator(), buffer)
+    assertThat(buffer.readUtf8()).isEqualTo(
+      """{"address":"507 Cross Street","pizzas":[{"toppings":["topping 0"]},""" +
+        """{"toppings":["topping 1"]},{"toppings":["topping 2"]}]}""",
+    )
+  }
+
+  @Test
+  fun decodeStreamingRepeatedField() {
+    val json = """{"pizzas":[{"toppings":["a"]},{"toppings":["b"]}],"phoneNumber":"555"}"""
+    val pizzas = mutableListOf<Pizza>()
+    val delivery = deliveryAdapter.decodeStreaming<Pizza>(Buffer().writeUtf8(json), "pizzas") {
+      pizzas += it
+    }
+    assertThat(delivery).isEqualTo(PizzaDelivery.Builder().phone_number("555").build())
+    assertThat(pizzas).containsExactly(
+      Pizza.Builder().toppings(listOf("a")).build(),
+      Pizza.Builder().toppings(listOf("b")).build(),
+    )
+  }
+
+  @Test
+  fun streamingRequiresRepeatedField() {
+    val exception = assertFailsWith<IllegalArgumentException> {
+      deliveryAdapter.decodeStreaming<Any>(Buffer().writeUtf8("{}"), "address") {}
+    }
+    assertThat(exception).hasMessage("squareup.proto3.PizzaDelivery has no repeated field address")
+  }
+}
@@ -378,6 +378,12 @@ class WireJsonTest {
           "Cannot resolve type: " +
             "type.googleapis.com/squareup.proto3.FreeGarlicBreadPromotion in \$.promotion",
         )
+    } catch (expected: ProtoJsonException) {
+      // ProtoJson.
+      assertThat(expected).hasMessage(
+        "Cannot resolve type: " +
+          "type.googleapis.com/squareup.proto3.FreeGarlicBreadPromotion in \$.promotion",
+      )
     }
   }
 
@@ -411,6 +417,13 @@ class WireJsonTest {
           "Cannot find type for url: " +
             "type.googleapis.com/squareup.proto3.FreeGarlicBreadPromotion",
         )
+    } catch (expected: ProtoJsonException) {
+      // ProtoJson.
+      assertThat(expected)
+        .hasMessage(
+          "Cannot find type for url: " +
+            "type.googleapis.com/squareup.proto3.FreeGarlicBreadPromotion",
+        )
     }
   }
 
@@ -424,6 +437,9 @@ class WireJsonTest {
     } catch (expected: JsonSyntaxException) {
       // Gson.
       assertThat(expected).messageContains("expected @type in \$.promotion")
+    } catch (expected: ProtoJsonException) {
+      // ProtoJson.
+      assertThat(expected).hasMessage("expected @type in \$.promotion")
     }
   }
 
@@ -534,6 +550,9 @@ class WireJsonTest {
     } catch (e: JsonSyntaxException) {
       // Gson.
       assertThat(e).hasMessage("decode failed: 9223372036854775808 at path \$.mySint64")
+    } catch (e: ProtoJsonException) {
+      // ProtoJson.
+      assertThat(e).hasMessage("decode failed: 9223372036854775808 at path \$.mySint64")
     }
   }
 
@@ -1415,6 +1434,138 @@ class WireJsonTest {
       }
     }
 
+    private val protoJson = object : JsonLibrary {
+      override fun toString() = "ProtoJson"
+
+      override val writeIdentityValues = false
+      override val preservingProtoFieldNames = false
+
+      private val protoJson = ProtoJson(
+        TypeRegistry.of(BuyOneGetOnePromotion.ADAPTER),
+        writeIdentityValues = writeIdentityValues,
+        preservingProtoFieldNames = preservingProtoFieldNames,
+      )
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> fromJson(json: String, type: Class<T>): T {
+        return protoJson.adapter(type as Class<Any>).decode(json) as T
+      }
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> toJson(value: T, type: Class<T>): String {
+        return protoJson.adapter(type as Class<Any>).encode(value as Any)
+      }
+    }
+
+    private val writeIdentitiesProtoJson = object : JsonLibrary {
+      override fun toString() = "WriteIdentitiesProtoJson"
+
+      override val writeIdentityValues = true
+      override val preservingProtoFieldNames = false
+
+      private val protoJson = ProtoJson(
+        TypeRegistry.of(BuyOneGetOnePromotion.ADAPTER),
+        writeIdentityValues = writeIdentityValues,
+        preservingProtoFieldNames = preservingProtoFieldNames,
+      )
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> fromJson(json: String, type: Class<T>): T {
+        return protoJson.adapter(type as Class<Any>).decode(json) as T
+      }
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> toJson(value: T, type: Class<T>): String {
+        return protoJson.adapter(type as Class<Any>).encode(value as Any)
+      }
+    }
+
+    private val preservingProtoFieldNamesProtoJson = object : JsonLibrary {
+      override fun toString() = "PreservingProtoFieldNamesProtoJson"
+
+      override val writeIdentityValues = false
+      override val preservingProtoFieldNames = true
+
+      private val protoJson = ProtoJson(
+        TypeRegistry.of(BuyOneGetOnePromotion.ADAPTER),
+        writeIdentityValues = writeIdentityValues,
+        preservingProtoFieldNames = preservingProtoFieldNames,
+      )
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> fromJson(json: String, type: Class<T>): T {
+        return protoJson.adapter(type as Class<Any>).decode(json) as T
+      }
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> toJson(value: T, type: Class<T>): String {
+        return protoJson.adapter(type as Class<Any>).encode(value as Any)
+      }
+    }
+
+    /** Encodes and decodes messages as binary, transcoding between binary and JSON. */
+    private val transcodingProtoJson = object : JsonLibrary {
+      override fun toString() = "TranscodingProtoJson"
+
+      override val writeIdentityValues = false
+      override val preservingProtoFieldNames = false
+
+      private val protoJson = ProtoJson(
+        TypeRegistry.of(BuyOneGetOnePromotion.ADAPTER),
+        writeIdentityValues = writeIdentityValues,
+        preservingProtoFieldNames = preservingProtoFieldNames,
+      )
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> fromJson(json: String, type: Class<T>): T {
+        if (!Message::class.java.isAssignableFrom(type)) {
+          return protoJson.adapter(type as Class<Any>).decode(json) as T
+        }
+        val bytes = protoJson.transcoder(type).toBinary(json)
+        return ProtoAdapter.get(type).decode(bytes)
+      }
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> toJson(value: T, type: Class<T>): String {
+        if (!Message::class.java.isAssignableFrom(type)) {
+          return protoJson.adapter(type as Class<Any>).encode(value as Any)
+        }
+        val bytes = ProtoAdapter.get(type).encodeByteString(value)
+        return protoJson.transcoder(type).toJson(bytes)
+      }
+    }
+
+    /** Encodes and decodes messages as binary, transcoding between binary and JSON. */
+    private val writeIdentitiesTranscodingProtoJson = object : JsonLibrary {
+      override fun toString() = "WriteIdentitiesTranscodingProtoJson"
+
+      override val writeIdentityValues = true
+      override val preservingProtoFieldNames = false
+
+      private val protoJson = ProtoJson(
+        TypeRegistry.of(BuyOneGetOnePromotion.ADAPTER),
+        writeIdentityValues = writeIdentityValues,
+        preservingProtoFieldNames = preservingProtoFieldNames,
+      )
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> fromJson(json: String, type: Class<T>): T {
+        if (!Message::class.java.isAssignableFrom(type)) {
+          return protoJson.adapter(type as Class<Any>).decode(json) as T
+        }
+        val bytes = protoJson.transcoder(type).toBinary(json)
+        return ProtoAdapter.get(type).decode(bytes)
+      }
+
+      @Suppress("UNCHECKED_CAST")
+      override fun <T> toJson(value: T, type: Class<T>): String {
+        if (!Message::class.java.isAssignableFrom(type)) {
+          return protoJson.adapter(type as Class<Any>).encode(value as Any)
+        }
+        val bytes = ProtoAdapter.get(type).encodeByteString(value)
+        return protoJson.transcoder(type).toJson(bytes)
+      }
+    }
 
     @Parameters(name = "{0}")
     @JvmStatic
@@ -1425,6 +1576,11 @@ class WireJsonTest {
       arrayOf(writeIdentitiesGson),
       arrayOf(preservingProtoFieldNamesMoshi),
       arrayOf(preservingProtoFieldNamesGson),
+      arrayOf(protoJson),
+      arrayOf(writeIdentitiesProtoJson),
+      arrayOf(preservingProtoFieldNamesProtoJson),
+      arrayOf(transcodingProtoJson),
+      arrayOf(writeIdentitiesTranscodingProtoJson),
     )
   }
 }
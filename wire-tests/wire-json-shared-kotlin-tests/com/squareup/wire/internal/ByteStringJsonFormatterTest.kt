@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2020 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.internal
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNull
+import com.squareup.wire.internal.ByteStringJsonFormatter.parseUtf8
+import com.squareup.wire.internal.ByteStringJsonFormatter.readJsonString
+import com.squareup.wire.internal.ByteStringJsonFormatter.writeUtf8
+import kotlin.random.Random
+import okio.Buffer
+import okio.ByteString.Companion.toByteString
+import org.junit.Test
+
+class ByteStringJsonFormatterTest {
+  @Test fun `write matches base64`() {
+    val random = Random(0)
+    for (size in listOf(0, 1, 2, 3, 4, 5, 3_071, 3_072, 3_073, 100_000)) {
+      val bytes = random.nextBytes(size).toByteString()
+      val buffer = Buffer()
+      writeUtf8(bytes, buffer)
+      assertThat(buffer.readUtf8()).isEqualTo("\"${bytes.base64()}\"")
+    }
+  }
+
+  @Test fun `parse spans segments`() {
+    val bytes = Random(0).nextBytes(100_000).toByteString()
+    val buffer = Buffer().writeUtf8(bytes.base64()).writeUtf8("\",")
+    assertThat(parseUtf8(buffer, buffer.size - 2L)).isEqualTo(bytes)
+    assertThat(buffer.size).isEqualTo(bytes.base64().length + 2L)
+  }
+
+  @Test fun `parse accepts what decodeBase64 accepts`() {
+    for (base64 in listOf("", "AA", "AA==", "AAE", "AAE=", "AAEC", "AA EC\n", "-_8=", "AAEC==")) {
+      val buffer = Buffer().writeUtf8(base64)
+      assertThat(parseUtf8(buffer, buffer.size)).isEqualTo(ByteStringJsonFormatter.fromString(base64))
+    }
+    for (base64 in listOf("A", "AA=A", "AA*A", "AAAAA")) {
+      val buffer = Buffer().writeUtf8(base64)
+      assertThat(parseUtf8(buffer, buffer.size)).isNull()
+      assertThat(ByteStringJsonFormatter.fromString(base64)).isNull()
+    }
+  }
+
+  @Test fun `read json string`() {
+    assertThat(readJsonString(Buffer().writeUtf8("\"AAEC\""))).isEqualTo(ByteStringJsonFormatter.fromString("AAEC"))
+    assertThat(readJsonString(Buffer().writeUtf8("\"\\/w\\u003d\\u003D\""))).isEqualTo(ByteStringJsonFormatter.fromString("/w=="))
+    assertThat(readJsonString(Buffer().writeUtf8("\"AA\\bEC\""))).isNull()
+    assertThat(readJsonString(Buffer().writeUtf8("\"A\""))).isNull()
+  }
+}
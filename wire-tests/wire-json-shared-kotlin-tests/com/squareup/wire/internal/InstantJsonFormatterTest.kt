@@ -17,9 +17,15 @@ package com.squareup.wire.internal
 
 import assertk.assertThat
 import assertk.assertions.isEqualTo
+import assertk.assertions.isNull
 import com.squareup.wire.internal.InstantJsonFormatter.fromString
 import com.squareup.wire.internal.InstantJsonFormatter.toStringOrNumber
 import com.squareup.wire.ofEpochSecond
+import java.time.format.DateTimeFormatter.ISO_INSTANT
+import java.time.format.DateTimeParseException
+import kotlin.random.Random
+import kotlin.test.assertFailsWith
+import okio.Buffer
 import org.junit.Test
 
 class InstantJsonFormatterTest {
@@ -52,4 +58,38 @@ class InstantJsonFormatterTest {
     assertThat(fromString("1970-01-01T01:00:00-02:00"))
       .isEqualTo(ofEpochSecond(10_800L, 0L))
   }
+
+  @Test fun `instant to string matches ISO_INSTANT`() {
+    val random = Random(0)
+    for (i in 0 until 10_000) {
+      val instant = ofEpochSecond(
+        random.nextLong(-62_167_219_200L, 253_402_300_800L),
+        listOf(0L, 1_000_000L, 1_000L, 1L).random(random) * random.nextLong(1_000L),
+      )
+      assertThat(toStringOrNumber(instant)).isEqualTo(ISO_INSTANT.format(instant))
+    }
+    assertThat(toStringOrNumber(ofEpochSecond(951_782_400L, 0L))).isEqualTo("2000-02-29T00:00:00Z")
+    assertThat(toStringOrNumber(ofEpochSecond(253_402_300_800L, 0L))).isEqualTo("+10000-01-01T00:00:00Z")
+    assertThat(toStringOrNumber(ofEpochSecond(-62_167_219_201L, 0L))).isEqualTo("-0001-12-31T23:59:59Z")
+  }
+
+  @Test fun `string to instant falls back to java time`() {
+    assertThat(fromString("1970-01-01t00:00:00.5z")).isEqualTo(ofEpochSecond(0L, 500_000_000L))
+    assertThat(fromString("2000-02-29T00:00:00Z")).isEqualTo(ofEpochSecond(951_782_400L, 0L))
+    assertThat(fromString("1970-01-01T00:00Z")).isEqualTo(ofEpochSecond(0L, 0L))
+    assertThat(fromString("1970-01-01T00:00:00+00:00:30")).isEqualTo(ofEpochSecond(-30L, 0L))
+    assertFailsWith<DateTimeParseException> { fromString("1999-02-29T00:00:00Z") }
+    assertFailsWith<DateTimeParseException> { fromString("1970-01-01T24:00:00Z") }
+  }
+
+  @Test fun `utf8 round trip`() {
+    val buffer = Buffer()
+    InstantJsonFormatter.writeUtf8(ofEpochSecond(1L, 250_000_000L), buffer)
+    assertThat(buffer.readUtf8()).isEqualTo("\"1970-01-01T00:00:01.250Z\"")
+
+    buffer.writeUtf8("1970-01-01T00:00:01.250Z\",")
+    assertThat(InstantJsonFormatter.parseUtf8(buffer, 24L)).isEqualTo(ofEpochSecond(1L, 250_000_000L))
+    assertThat(buffer.size).isEqualTo(26L)
+    assertThat(InstantJsonFormatter.parseUtf8(buffer, 23L)).isNull()
+  }
 }